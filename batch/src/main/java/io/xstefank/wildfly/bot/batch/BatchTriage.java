@@ -0,0 +1,179 @@
+package io.xstefank.wildfly.bot.batch;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.xstefank.wildfly.bot.batch.model.PullRequestSnapshot;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile.WildFlyRule;
+import io.xstefank.wildlfy.bot.config.rules.RuleEngine;
+import io.xstefank.wildlfy.bot.fetch.PrefetchedPullRequestData;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
+import io.xstefank.wildlfy.bot.format.Check;
+import io.xstefank.wildlfy.bot.format.CommitMessagesCheck;
+import io.xstefank.wildlfy.bot.format.CommitsQuantityCheck;
+import io.xstefank.wildlfy.bot.format.DescriptionCheck;
+import io.xstefank.wildlfy.bot.format.TitleCheck;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs a {@code wildfly-bot.yml} against a corpus of stored pull requests, without GitHub, and prints how often each
+ * rule matches and each format check fails together with what evaluating them costs. Rules are evaluated by
+ * {@link RuleEngine} and checks by the {@link Check} implementations used by the bot, so the numbers reflect what the
+ * bot would do on the same history. A predicate shared by several rules is evaluated once per pull request and its cost
+ * is counted for the first rule needing it. The snapshots carry no labels, so {@code label} expressions never match.
+ *
+ * <pre>
+ * java -jar batch-triage.jar --config=.github/wildfly-bot.yml --snapshots=corpus/ [--parallelism=8]
+ * </pre>
+ */
+public class BatchTriage {
+
+    private final List<WildFlyRule> rules = new ArrayList<>();
+    private final List<String> ignoredRules = new ArrayList<>();
+    private final List<Check> checks = new ArrayList<>();
+    private final RuleEngine ruleEngine;
+    private final TriageStatistics statistics = new TriageStatistics();
+
+    BatchTriage(WildFlyConfigFile config) {
+        if (config.wildfly.rules != null) {
+            for (WildFlyRule rule : config.wildfly.rules) {
+                if (rule.id == null) {
+                    ignoredRules.add(rule.toString());
+                } else {
+                    rules.add(rule);
+                    statistics.rule(rule.id);
+                }
+            }
+        }
+        ruleEngine = RuleEngine.compile(rules);
+        if (config.wildfly.format != null) {
+            if (config.wildfly.format.titleCheck != null) {
+                checks.add(new TitleCheck(config.wildfly.format.titleCheck));
+            }
+            if (config.wildfly.format.description != null) {
+                checks.add(new DescriptionCheck(config.wildfly.format.description));
+            }
+            if (config.wildfly.format.commitsQuantity != null) {
+                checks.add(new CommitsQuantityCheck(config.wildfly.format.commitsQuantity));
+            }
+            if (config.wildfly.format.commitsMessage != null) {
+                checks.add(new CommitMessagesCheck(config.wildfly.format.commitsMessage));
+            }
+        }
+        checks.forEach(check -> statistics.check(check.getName()));
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        Path configPath = null;
+        Path snapshotsPath = null;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        for (String arg : args) {
+            if (arg.startsWith("--config=")) {
+                configPath = Path.of(arg.substring("--config=".length()));
+            } else if (arg.startsWith("--snapshots=")) {
+                snapshotsPath = Path.of(arg.substring("--snapshots=".length()));
+            } else if (arg.startsWith("--parallelism=")) {
+                parallelism = Integer.parseInt(arg.substring("--parallelism=".length()));
+            } else {
+                usage("Unrecognized argument: " + arg);
+            }
+        }
+        if (configPath == null || snapshotsPath == null) {
+            usage("Both --config and --snapshots are required");
+        }
+
+        ObjectMapper yaml = new ObjectMapper(new YAMLFactory())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        WildFlyConfigFile config = yaml.readValue(configPath.toFile(), WildFlyConfigFile.class);
+        if (config == null || config.wildfly == null) {
+            usage("No wildfly section in " + configPath);
+        }
+
+        List<PullRequestSnapshot> snapshots = new SnapshotReader().read(snapshotsPath);
+        new BatchTriage(config).run(snapshots, parallelism);
+    }
+
+    void run(List<PullRequestSnapshot> snapshots, int parallelism) throws InterruptedException, ExecutionException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        try {
+            pool.submit(() -> snapshots.parallelStream().forEach(this::evaluate)).get();
+        } finally {
+            pool.shutdown();
+        }
+        statistics.print(System.out, System.nanoTime() - start, parallelism, ignoredRules);
+    }
+
+    /**
+     * Mirrors {@code TriagePullRequestProcessor} for the rules and {@code PullRequestFormatProcessor} for the checks,
+     * except that every check is evaluated, so each one gets its own failure rate.
+     */
+    private void evaluate(PullRequestSnapshot snapshot) {
+        PullRequestData pullRequest = data(snapshot);
+        RuleEngine.Evaluation evaluation = ruleEngine.evaluate(new RuleEngine.RuleInput(pullRequest, snapshot.author, Set.of()));
+        boolean mentioned = false;
+        for (WildFlyRule rule : rules) {
+            long start = System.nanoTime();
+            boolean matches;
+            try {
+                matches = evaluation.matches(rule);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Rule " + rule.id + " failed for " + snapshot, e);
+            }
+            statistics.rules.get(rule.id).record(matches, System.nanoTime() - start);
+            if (matches && rule.notify.stream().anyMatch(nick -> !nick.equals(snapshot.author))) {
+                mentioned = true;
+            }
+        }
+
+        boolean failed = false;
+        for (Check check : checks) {
+            long start = System.nanoTime();
+            String result;
+            try {
+                result = check.check(pullRequest);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Check " + check.getName() + " failed for " + snapshot, e);
+            }
+            statistics.checks.get(check.getName()).record(result != null, System.nanoTime() - start);
+            failed |= result != null;
+        }
+
+        statistics.pullRequests.increment();
+        if (mentioned) {
+            statistics.mentioned.increment();
+        }
+        if (failed) {
+            statistics.errorStatus.increment();
+        }
+    }
+
+    /**
+     * Serves the stored pull request the same way the bot serves one loaded from GitHub.
+     */
+    static PullRequestData data(PullRequestSnapshot snapshot) {
+        List<PullRequestData.CommitData> commits = snapshot.commits.stream()
+            .map(commit -> new PullRequestData.CommitData(commit.sha, commit.message == null ? "" : commit.message))
+            .toList();
+        List<String> files = snapshot.files.stream()
+            .map(file -> file.filename)
+            .toList();
+        return new PrefetchedPullRequestData(null, snapshot.number, snapshot.title, snapshot.body, null, commits.size(),
+            commits, files);
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: java -jar batch-triage.jar --config=<wildfly-bot.yml> --snapshots=<file or directory> [--parallelism=<threads>]");
+        System.exit(1);
+    }
+}
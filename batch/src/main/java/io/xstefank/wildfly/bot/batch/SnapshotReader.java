@@ -0,0 +1,65 @@
+package io.xstefank.wildfly.bot.batch;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.xstefank.wildfly.bot.batch.model.PullRequestSnapshot;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reads a corpus of {@link PullRequestSnapshot}s. The corpus is either a JSON Lines file with one snapshot per line,
+ * a JSON file with a single snapshot or an array of them, or a directory scanned recursively for such files.
+ */
+final class SnapshotReader {
+
+    private final ObjectMapper mapper = new ObjectMapper()
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    List<PullRequestSnapshot> read(Path corpus) throws IOException {
+        List<PullRequestSnapshot> snapshots = new ArrayList<>();
+        if (Files.isDirectory(corpus)) {
+            try (Stream<Path> files = Files.walk(corpus)) {
+                for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                    if (file.toString().endsWith(".json") || file.toString().endsWith(".jsonl")) {
+                        readFile(file, snapshots);
+                    }
+                }
+            }
+        } else {
+            readFile(corpus, snapshots);
+        }
+        return snapshots;
+    }
+
+    private void readFile(Path file, List<PullRequestSnapshot> snapshots) throws IOException {
+        if (file.toString().endsWith(".jsonl")) {
+            try (BufferedReader reader = Files.newBufferedReader(file)) {
+                reader.lines()
+                    .filter(line -> !line.isBlank())
+                    .forEach(line -> snapshots.add(parse(line)));
+            }
+        } else {
+            String content = Files.readString(file);
+            if (content.stripLeading().startsWith("[")) {
+                snapshots.addAll(List.of(mapper.readValue(content, PullRequestSnapshot[].class)));
+            } else {
+                snapshots.add(mapper.readValue(content, PullRequestSnapshot.class));
+            }
+        }
+    }
+
+    private PullRequestSnapshot parse(String line) {
+        try {
+            return mapper.readValue(line, PullRequestSnapshot.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.xstefank.wildfly.bot.batch;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters collected while replaying a corpus. All of them are {@link LongAdder}s, as they are updated from every
+ * worker of the fork-join pool. Rules and checks are registered up front, the maps are only read afterwards.
+ */
+final class TriageStatistics {
+
+    final LongAdder pullRequests = new LongAdder();
+    final LongAdder mentioned = new LongAdder();
+    final LongAdder errorStatus = new LongAdder();
+    final Map<String, Counter> rules = new LinkedHashMap<>();
+    final Map<String, Counter> checks = new LinkedHashMap<>();
+
+    Counter rule(String id) {
+        return rules.computeIfAbsent(id, k -> new Counter());
+    }
+
+    Counter check(String name) {
+        return checks.computeIfAbsent(name, k -> new Counter());
+    }
+
+    void print(PrintStream out, long wallNanos, int parallelism, Collection<String> ignoredRules) {
+        long total = pullRequests.sum();
+        out.printf("Pull requests:            %d in %.2f s on %d threads%n", total, wallNanos / 1e9, parallelism);
+        out.printf("With /cc mentions:        %d (%s)%n", mentioned.sum(), percent(mentioned.sum(), total));
+        out.printf("With failing Format:      %d (%s)%n", errorStatus.sum(), percent(errorStatus.sum(), total));
+        if (!ignoredRules.isEmpty()) {
+            out.printf("Rules ignored (no id):    %s%n", String.join(", ", ignoredRules));
+        }
+
+        out.println();
+        out.printf("%-40s %10s %9s %12s %12s%n", "Rule", "Matches", "Hit rate", "Total ms", "Mean us/PR");
+        for (Map.Entry<String, Counter> rule : sortedByCost(rules)) {
+            Counter counter = rule.getValue();
+            out.printf("%-40s %10d %9s %12.1f %12.2f%n", rule.getKey(), counter.hits.sum(), percent(counter.hits.sum(), total),
+                counter.nanos.sum() / 1e6, mean(counter));
+        }
+
+        if (!checks.isEmpty()) {
+            out.println();
+            out.printf("%-40s %10s %9s %12s %12s%n", "Check", "Failures", "Fail rate", "Total ms", "Mean us/PR");
+            for (Map.Entry<String, Counter> check : sortedByCost(checks)) {
+                Counter counter = check.getValue();
+                out.printf("%-40s %10d %9s %12.1f %12.2f%n", check.getKey(), counter.hits.sum(), percent(counter.hits.sum(), total),
+                    counter.nanos.sum() / 1e6, mean(counter));
+            }
+        }
+    }
+
+    private static List<Map.Entry<String, Counter>> sortedByCost(Map<String, Counter> counters) {
+        List<Map.Entry<String, Counter>> entries = new ArrayList<>(counters.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().nanos.sum(), a.getValue().nanos.sum()));
+        return entries;
+    }
+
+    private static double mean(Counter counter) {
+        long evaluations = counter.evaluations.sum();
+        return evaluations == 0 ? 0 : counter.nanos.sum() / 1e3 / evaluations;
+    }
+
+    private static String percent(long part, long total) {
+        return total == 0 ? "-" : String.format("%.1f%%", 100.0 * part / total);
+    }
+
+    static final class Counter {
+        final LongAdder evaluations = new LongAdder();
+        final LongAdder hits = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+
+        void record(boolean hit, long elapsedNanos) {
+            evaluations.increment();
+            nanos.add(elapsedNanos);
+            if (hit) {
+                hits.increment();
+            }
+        }
+    }
+}
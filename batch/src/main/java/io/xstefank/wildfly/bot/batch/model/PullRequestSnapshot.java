@@ -0,0 +1,56 @@
+package io.xstefank.wildfly.bot.batch.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stored state of a pull request. {@code files} accepts plain file names as well as objects with a {@code filename},
+ * so both hand-written corpora and exports of the REST API can be used.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PullRequestSnapshot {
+
+    public String repository;
+
+    public int number;
+
+    public String title;
+
+    public String body;
+
+    public String author;
+
+    public List<FileSnapshot> files = new ArrayList<>();
+
+    public List<CommitSnapshot> commits = new ArrayList<>();
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class FileSnapshot {
+
+        public String filename;
+
+        public String status;
+
+        public FileSnapshot() {
+        }
+
+        public FileSnapshot(String filename) {
+            this.filename = filename;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class CommitSnapshot {
+
+        public String sha;
+
+        public String message;
+    }
+
+    @Override
+    public String toString() {
+        return (repository == null ? "" : repository) + "#" + number;
+    }
+}
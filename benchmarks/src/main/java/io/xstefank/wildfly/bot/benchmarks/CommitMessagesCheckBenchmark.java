@@ -0,0 +1,50 @@
+package io.xstefank.wildfly.bot.benchmarks;
+
+import io.xstefank.wildfly.bot.benchmarks.model.MockedGHPullRequest;
+import io.xstefank.wildlfy.bot.config.RegexDefinition;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
+import io.xstefank.wildlfy.bot.format.CommitMessagesCheck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommitMessagesCheckBenchmark {
+
+    @Param({"1", "10", "100"})
+    int commits;
+
+    private CommitMessagesCheck check;
+    private PullRequestData pullRequest;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData();
+        RegexDefinition definition = new RegexDefinition();
+        definition.pattern = Pattern.compile("(?s)\\[WFLY-\\d+\\]\\s+.*");
+        check = new CommitMessagesCheck(definition);
+        pullRequest = PullRequestData.of(new MockedGHPullRequest(data.title(), data.body(1024), data.files(1), data.commits(commits)));
+    }
+
+    @Benchmark
+    public String check() throws IOException {
+        return check.check(pullRequest);
+    }
+}
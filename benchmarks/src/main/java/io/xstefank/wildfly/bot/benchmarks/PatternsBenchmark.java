@@ -0,0 +1,49 @@
+package io.xstefank.wildfly.bot.benchmarks;
+
+import io.xstefank.wildlfy.bot.config.util.Patterns;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Patterns#find(String, String)} on pull request bodies between 100 B and 64 KB, once for a keyword near the
+ * end of the body and once for a keyword that is not present at all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatternsBenchmark {
+
+    @Param({"100", "4096", "65536"})
+    int bodySize;
+
+    private String body;
+
+    @Setup
+    public void setUp() {
+        body = new SyntheticData().body(bodySize);
+    }
+
+    @Benchmark
+    public boolean findPresent() {
+        return Patterns.find("issues\\.redhat\\.com/browse/WFLY-\\d+", body);
+    }
+
+    @Benchmark
+    public boolean findAbsent() {
+        return Patterns.find("hibernate", body);
+    }
+}
@@ -0,0 +1,65 @@
+package io.xstefank.wildfly.bot.benchmarks;
+
+import io.xstefank.wildfly.bot.benchmarks.model.MockedGHPullRequest;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile.WildFlyRule;
+import io.xstefank.wildlfy.bot.config.rules.RuleEngine;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates a whole rule set against one pull request, the same way {@code TriagePullRequestProcessor} does. The rules
+ * are compiled once, like a cached configuration, and evaluated from a fresh {@link RuleEngine.Evaluation} per event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleEngineBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int rules;
+
+    @Param({"1", "100", "5000"})
+    int files;
+
+    private List<WildFlyRule> ruleSet;
+    private RuleEngine ruleEngine;
+    private PullRequestData pullRequest;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData();
+        ruleSet = data.rules(rules);
+        ruleEngine = RuleEngine.compile(ruleSet);
+        pullRequest = PullRequestData.of(new MockedGHPullRequest(data.title(), data.body(1024), data.files(files), data.commits(1)));
+    }
+
+    @Benchmark
+    public int matchAllRules() throws IOException {
+        RuleEngine.Evaluation evaluation = ruleEngine.evaluate(new RuleEngine.RuleInput(pullRequest, "xstefank", Set.of()));
+        int matched = 0;
+        for (WildFlyRule rule : ruleSet) {
+            if (evaluation.matches(rule)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
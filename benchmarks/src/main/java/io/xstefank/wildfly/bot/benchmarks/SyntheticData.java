@@ -0,0 +1,141 @@
+package io.xstefank.wildfly.bot.benchmarks;
+
+import io.xstefank.wildfly.bot.benchmarks.model.MockedGHPullRequestCommitDetail;
+import io.xstefank.wildfly.bot.benchmarks.model.MockedGHPullRequestFileDetail;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile.WildFlyRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates rules and pull request content shaped like the WildFly repository. A fixed seed keeps the inputs
+ * identical between runs, so results stay comparable.
+ */
+final class SyntheticData {
+
+    static final long SEED = 0x5EEDL;
+
+    static final String[] MODULES = {
+        "appclient", "batch-jberet", "bean-validation", "clustering/common", "clustering/ejb/infinispan",
+        "clustering/web/undertow", "connector", "ee", "ee-feature-pack/galleon-shared", "ejb3", "elytron-oidc-client",
+        "jaxrs", "jpa/hibernate6", "jsf/subsystem", "mail", "messaging-activemq/subsystem",
+        "microprofile/health-smallrye", "microprofile/openapi-smallrye", "naming", "pojo", "sar", "security",
+        "testsuite/integration/basic", "testsuite/integration/smoke", "testsuite/integration/microprofile",
+        "transactions", "undertow", "weld/subsystem", "webservices/server-integration", "xts"
+    };
+
+    static final String[] KEYWORDS = {
+        "resteasy", "hibernate", "undertow", "activemq", "ejb", "clustering", "elytron", "weld", "jaxrs",
+        "microprofile", "galleon", "transactions", "infinispan", "jberet", "openapi", "smallrye"
+    };
+
+    static final String[] WORDS = {
+        "the", "subsystem", "fails", "when", "deployment", "is", "redeployed", "with", "a", "missing", "dependency",
+        "upgrade", "to", "latest", "final", "release", "this", "change", "adds", "support", "for", "configuring",
+        "and", "fixes", "regression", "introduced", "in", "previous", "integration", "tests", "cover", "scenario"
+    };
+
+    static final String JIRA_LINK = "https://issues.redhat.com/browse/WFLY-";
+
+    private final Random random = new Random(SEED);
+
+    List<WildFlyRule> rules(int count) {
+        List<WildFlyRule> rules = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            WildFlyRule rule = new WildFlyRule();
+            rule.id = "rule-" + i;
+            int kind = random.nextInt(100);
+            if (kind < 30) {
+                rule.title = keyword();
+            } else if (kind < 45) {
+                rule.body = keyword();
+            } else if (kind < 60) {
+                rule.titleBody = keyword();
+            } else {
+                int directories = 1 + random.nextInt(3);
+                for (int d = 0; d < directories; d++) {
+                    rule.directories.add(directory());
+                }
+            }
+            rule.notify.add("user" + random.nextInt(50));
+            rules.add(rule);
+        }
+        return rules;
+    }
+
+    MockedGHPullRequestFileDetail[] files(int count) {
+        MockedGHPullRequestFileDetail[] files = new MockedGHPullRequestFileDetail[count];
+        for (int i = 0; i < count; i++) {
+            String filename = MODULES[random.nextInt(MODULES.length)] + "/src/main/java/org/jboss/as/"
+                + WORDS[random.nextInt(WORDS.length)] + "/" + capitalize(WORDS[random.nextInt(WORDS.length)]) + i + ".java";
+            files[i] = new MockedGHPullRequestFileDetail(sha(), filename, "modified", "@@ -1,3 +1,4 @@\n+" + sentence(8));
+        }
+        return files;
+    }
+
+    MockedGHPullRequestCommitDetail[] commits(int count) {
+        MockedGHPullRequestCommitDetail[] commits = new MockedGHPullRequestCommitDetail[count];
+        for (int i = 0; i < count; i++) {
+            commits[i] = new MockedGHPullRequestCommitDetail(sha(), "[WFLY-" + jira() + "] " + capitalize(sentence(6))
+                + "\n\n" + capitalize(sentence(20)));
+        }
+        return commits;
+    }
+
+    String title() {
+        return "[WFLY-" + jira() + "] " + capitalize(sentence(4)) + " " + keyword() + " " + sentence(2);
+    }
+
+    /**
+     * @return markdown body of approximately {@code size} bytes ending with a JIRA link
+     */
+    String body(int size) {
+        String link = "\n\nJIRA: " + JIRA_LINK + jira();
+        StringBuilder body = new StringBuilder(size + link.length());
+        while (body.length() + link.length() < size) {
+            body.append(capitalize(sentence(12))).append(". ");
+            if (random.nextInt(8) == 0) {
+                body.append("\n\n");
+            }
+        }
+        body.setLength(Math.max(0, size - link.length()));
+        return body.append(link).toString();
+    }
+
+    private String directory() {
+        String module = MODULES[random.nextInt(MODULES.length)];
+        return switch (random.nextInt(4)) {
+            case 0 -> module + "/*/*.java";
+            case 1 -> "*" + module.substring(module.lastIndexOf('/') + 1) + "*";
+            default -> module;
+        };
+    }
+
+    private String keyword() {
+        return KEYWORDS[random.nextInt(KEYWORDS.length)];
+    }
+
+    private String sentence(int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+
+    private int jira() {
+        return 10000 + random.nextInt(9000);
+    }
+
+    private String sha() {
+        return Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong()) + Integer.toHexString(random.nextInt());
+    }
+
+    private static String capitalize(String value) {
+        return value.isEmpty() ? value : Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
@@ -0,0 +1,61 @@
+package io.xstefank.wildfly.bot.benchmarks.model;
+
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHPullRequestCommitDetail;
+import org.kohsuke.github.GHPullRequestFileDetail;
+import org.kohsuke.github.InMemoryPagedIterable;
+import org.kohsuke.github.PagedIterable;
+
+/**
+ * In-memory stand-in for {@link GHPullRequest}. Everything the matcher and the format checks read is served from
+ * fields, so benchmarks measure our code and not the GitHub API.
+ */
+public class MockedGHPullRequest extends GHPullRequest {
+
+    String title;
+    String body;
+    GHPullRequestFileDetail[] files;
+    GHPullRequestCommitDetail[] commits;
+    PagedIterable<GHPullRequestFileDetail> filesIterable;
+    PagedIterable<GHPullRequestCommitDetail> commitsIterable;
+
+    public MockedGHPullRequest(String title, String body, GHPullRequestFileDetail[] files,
+                               GHPullRequestCommitDetail[] commits) {
+        this.title = title;
+        this.body = body;
+        this.files = files;
+        this.commits = commits;
+        this.filesIterable = new InMemoryPagedIterable<>(files);
+        this.commitsIterable = new InMemoryPagedIterable<>(commits);
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+
+    @Override
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public int getCommits() {
+        return commits.length;
+    }
+
+    @Override
+    public int getChangedFiles() {
+        return files.length;
+    }
+
+    @Override
+    public PagedIterable<GHPullRequestFileDetail> listFiles() {
+        return filesIterable;
+    }
+
+    @Override
+    public PagedIterable<GHPullRequestCommitDetail> listCommits() {
+        return commitsIterable;
+    }
+}
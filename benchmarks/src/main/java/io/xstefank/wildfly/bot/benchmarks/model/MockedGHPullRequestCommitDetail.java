@@ -0,0 +1,42 @@
+package io.xstefank.wildfly.bot.benchmarks.model;
+
+import org.kohsuke.github.GHPullRequestCommitDetail;
+
+/**
+ * {@link GHPullRequestCommitDetail} and its nested {@link GHPullRequestCommitDetail.Commit} have package-private
+ * fields with no setters, so we override the getters used by {@code CommitMessagesCheck}.
+ */
+public class MockedGHPullRequestCommitDetail extends GHPullRequestCommitDetail {
+
+    String sha;
+    MockedCommit commit;
+
+    public MockedGHPullRequestCommitDetail(String sha, String message) {
+        this.sha = sha;
+        this.commit = new MockedCommit(message);
+    }
+
+    @Override
+    public String getSha() {
+        return sha;
+    }
+
+    @Override
+    public Commit getCommit() {
+        return commit;
+    }
+
+    public static class MockedCommit extends GHPullRequestCommitDetail.Commit {
+
+        String message;
+
+        public MockedCommit(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
+    }
+}
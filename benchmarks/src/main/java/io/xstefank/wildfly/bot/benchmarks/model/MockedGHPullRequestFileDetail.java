@@ -0,0 +1,42 @@
+package io.xstefank.wildfly.bot.benchmarks.model;
+
+import org.kohsuke.github.GHPullRequestFileDetail;
+
+/**
+ * Unfortunately, since {@link GHPullRequestFileDetail} has package-private fields with no setters, we need to create
+ * this mock to set these fields. Only the fields our code reads are kept.
+ */
+public class MockedGHPullRequestFileDetail extends GHPullRequestFileDetail {
+
+    String sha;
+    String filename;
+    String status;
+    String patch;
+
+    public MockedGHPullRequestFileDetail(String sha, String filename, String status, String patch) {
+        this.sha = sha;
+        this.filename = filename;
+        this.status = status;
+        this.patch = patch;
+    }
+
+    @Override
+    public String getSha() {
+        return sha;
+    }
+
+    @Override
+    public String getFilename() {
+        return filename;
+    }
+
+    @Override
+    public String getStatus() {
+        return status;
+    }
+
+    @Override
+    public String getPatch() {
+        return patch;
+    }
+}
@@ -0,0 +1,40 @@
+package org.kohsuke.github;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link PagedIterator} can only be constructed from within the {@code org.kohsuke.github} package, so this class
+ * lives here to let benchmarks hand pre-built, in-memory pages to the code under test without any network or
+ * Mockito overhead.
+ */
+public class InMemoryPagedIterable<T> extends PagedIterable<T> {
+
+    /**
+     * Page size GitHub uses when no {@code per_page} parameter is sent.
+     */
+    static final int DEFAULT_PAGE_SIZE = 30;
+
+    private final T[] items;
+    private final List<T[]> defaultPages;
+
+    public InMemoryPagedIterable(T[] items) {
+        this.items = items;
+        this.defaultPages = split(items, DEFAULT_PAGE_SIZE);
+    }
+
+    @Override
+    public PagedIterator<T> _iterator(int pageSize) {
+        List<T[]> pages = pageSize <= 0 || pageSize == DEFAULT_PAGE_SIZE ? defaultPages : split(items, pageSize);
+        return new PagedIterator<>(pages.iterator(), null);
+    }
+
+    private static <T> List<T[]> split(T[] items, int pageSize) {
+        List<T[]> pages = new ArrayList<>();
+        for (int from = 0; from < items.length; from += pageSize) {
+            pages.add(Arrays.copyOfRange(items, from, Math.min(items.length, from + pageSize)));
+        }
+        return pages;
+    }
+}
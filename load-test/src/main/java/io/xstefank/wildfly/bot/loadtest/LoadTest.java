@@ -0,0 +1,207 @@
+package io.xstefank.wildfly.bot.loadtest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays {@code pull_request} deliveries against a running bot at a fixed rate while serving its GitHub API calls
+ * from {@link MockGitHubApi}. The latency of a delivery is measured from sending the webhook until the bot writes the
+ * {@code Format} commit status for its head SHA, which is the last thing the bot does for a pull request event.
+ */
+public class LoadTest {
+
+    private final LoadTestOptions options;
+    /** Send time of every delivery still waiting for its commit status, by head SHA. */
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private final List<Long> latencies = new ArrayList<>();
+    private final LongAdder webhookFailures = new LongAdder();
+    private final AtomicLong sent = new AtomicLong();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    LoadTest(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            if (!e.getMessage().equals("help")) {
+                System.err.println(e.getMessage());
+            }
+            System.err.println(LoadTestOptions.usage());
+            System.exit(1);
+            return;
+        }
+        new LoadTest(options).run();
+    }
+
+    void run() throws Exception {
+        MockGitHubApi api = new MockGitHubApi(options, config(), this::onStatus);
+        api.start();
+        System.out.println("Mocked GitHub API listening on " + api.baseUrl());
+        System.out.println("Start the bot with -Dquarkus.profile=loadtest -Dquarkus.github-app.rest-api-endpoint=" + api.baseUrl()
+            + " -Dquarkus.github-app.graphql-api-endpoint=" + api.baseUrl() + "/graphql");
+
+        if (options.mockOnly) {
+            new CountDownLatch(1).await();
+            return;
+        }
+
+        PayloadGenerator generator = new PayloadGenerator(options.payloads);
+        awaitApp();
+        api.resetCounters();
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate);
+        long start = System.nanoTime();
+        scheduler.scheduleAtFixedRate(() -> send(api, generator), 0, periodNanos, TimeUnit.NANOSECONDS);
+        Thread.sleep(options.duration.toMillis());
+        scheduler.shutdownNow();
+        long sendingNanos = System.nanoTime() - start;
+
+        long drainDeadline = System.nanoTime() + options.drainTimeout.toNanos();
+        while (!pending.isEmpty() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(100);
+        }
+        long totalNanos = System.nanoTime() - start;
+
+        report(api, sendingNanos, totalNanos);
+        api.stop();
+    }
+
+    private void send(MockGitHubApi api, PayloadGenerator generator) {
+        try {
+            PayloadGenerator.Delivery delivery = generator.next(sent.getAndIncrement());
+            api.register(delivery.pullRequest());
+            pending.put(delivery.sha(), System.nanoTime());
+            HttpRequest request = HttpRequest.newBuilder(URI.create(options.appUrl))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("X-GitHub-Event", "pull_request")
+                .header("X-GitHub-Delivery", UUID.randomUUID().toString())
+                .header("X-Hub-Signature-256", "sha256=" + sign(delivery.body()))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(delivery.body()))
+                .build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                if (failure != null || response.statusCode() != 200) {
+                    webhookFailures.increment();
+                    pending.remove(delivery.sha());
+                }
+            });
+        } catch (IOException | GeneralSecurityException e) {
+            webhookFailures.increment();
+        }
+    }
+
+    private void onStatus(String sha) {
+        Long sentAt = pending.remove(sha);
+        if (sentAt != null) {
+            synchronized (latencies) {
+                latencies.add(System.nanoTime() - sentAt);
+            }
+        }
+    }
+
+    private void report(MockGitHubApi api, long sendingNanos, long totalNanos) {
+        List<Long> sorted;
+        synchronized (latencies) {
+            sorted = new ArrayList<>(latencies);
+        }
+        sorted.sort(null);
+        long completed = sorted.size();
+        long apiCalls = api.calls().values().stream().mapToLong(Long::longValue).sum();
+
+        System.out.println();
+        System.out.printf("Deliveries sent:        %d in %.1f s (target %.1f/s)%n", sent.get(), seconds(sendingNanos), options.rate);
+        System.out.printf("Deliveries completed:   %d%n", completed);
+        System.out.printf("Deliveries incomplete:  %d%n", pending.size());
+        System.out.printf("Webhook failures:       %d%n", webhookFailures.sum());
+        System.out.printf("Throughput:             %.2f events/s%n", completed / seconds(totalNanos));
+        System.out.printf("Latency p50:            %.1f ms%n", millis(percentile(sorted, 0.50)));
+        System.out.printf("Latency p99:            %.1f ms%n", millis(percentile(sorted, 0.99)));
+        System.out.printf("Latency max:            %.1f ms%n", millis(sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1)));
+        System.out.printf("API calls:              %d (%.2f per event)%n", apiCalls, completed == 0 ? 0.0 : (double) apiCalls / completed);
+        System.out.printf("Injected API errors:    %d%n", api.injectedErrors());
+        System.out.printf("Rate limited API calls: %d%n", api.rateLimited());
+        System.out.println();
+        System.out.println("API calls per endpoint:");
+        api.calls().forEach((endpoint, count) -> System.out.printf("  %8d  %s%n", count, endpoint));
+    }
+
+    private void awaitApp() throws InterruptedException {
+        long deadline = System.nanoTime() + options.startupTimeout.toNanos();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(options.appUrl)).timeout(Duration.ofSeconds(5)).GET().build();
+        while (true) {
+            try {
+                client.send(probe, HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (ConnectException e) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("The bot did not come up at " + options.appUrl);
+                }
+                Thread.sleep(1000);
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private String config() throws IOException {
+        if (options.config != null) {
+            return Files.readString(options.config);
+        }
+        try (InputStream in = LoadTest.class.getResourceAsStream("/wildfly-bot.yml")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private String sign(byte[] body) throws GeneralSecurityException {
+        if (options.webhookSecret.isEmpty()) {
+            return "0".repeat(64);
+        }
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(options.webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(body));
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,129 @@
+package io.xstefank.wildfly.bot.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Command line options of the load test. Every option has the form {@code --name=value}.
+ */
+final class LoadTestOptions {
+
+    /** URL the bot receives webhooks on. */
+    String appUrl = "http://localhost:8080/";
+    /** Port of the local GitHub REST API stand-in. */
+    int mockPort = 9099;
+    /** Webhook deliveries per second. */
+    double rate = 10;
+    /** How long deliveries are sent for. */
+    Duration duration = Duration.ofSeconds(60);
+    /** How long to wait for outstanding commit statuses after the last delivery. */
+    Duration drainTimeout = Duration.ofSeconds(30);
+    /** How long to wait for the bot to come up. */
+    Duration startupTimeout = Duration.ofMinutes(5);
+    /** Directory with the payload templates, the bot test resources by default. */
+    Path payloads = Path.of("src", "test", "resources");
+    /** Config file served as {@code .github/wildfly-bot.yml}, a bundled sample when not set. */
+    Path config;
+    /** Webhook secret the bot was started with, deliveries are signed with it. */
+    String webhookSecret = "";
+    /** Changed files served for every pull request. */
+    int files = 20;
+    /** Commits served for every pull request. */
+    int commits = 3;
+    /** Fixed latency added to every mocked API response. */
+    Duration latency = Duration.ofMillis(50);
+    /** Random latency of up to this value added on top of {@link #latency}. */
+    Duration jitter = Duration.ofMillis(20);
+    /** Share of mocked API responses that fail with {@code 502 Bad Gateway}, from 0 to 1. */
+    double errorRate = 0;
+    /** Requests allowed per rate limit window before the mock answers {@code 403}. */
+    int rateLimit = 5000;
+    /** Length of the rate limit window. */
+    Duration rateLimitWindow = Duration.ofHours(1);
+    /** Only start the mocked GitHub API, useful to run the bot in dev mode against it. */
+    boolean mockOnly;
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                throw new IllegalArgumentException("help");
+            }
+            if (arg.equals("--mock-only")) {
+                options.mockOnly = true;
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Unrecognized argument: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "app-url" -> options.appUrl = value;
+                case "mock-port" -> options.mockPort = Integer.parseInt(value);
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "duration" -> options.duration = duration(value);
+                case "drain-timeout" -> options.drainTimeout = duration(value);
+                case "startup-timeout" -> options.startupTimeout = duration(value);
+                case "payloads" -> options.payloads = Path.of(value);
+                case "config" -> options.config = Path.of(value);
+                case "webhook-secret" -> options.webhookSecret = value;
+                case "files" -> options.files = Integer.parseInt(value);
+                case "commits" -> options.commits = Integer.parseInt(value);
+                case "latency" -> options.latency = duration(value);
+                case "jitter" -> options.jitter = duration(value);
+                case "error-rate" -> options.errorRate = Double.parseDouble(value);
+                case "rate-limit" -> options.rateLimit = Integer.parseInt(value);
+                case "rate-limit-window" -> options.rateLimitWindow = duration(value);
+                default -> throw new IllegalArgumentException("Unrecognized option: --" + name);
+            }
+        }
+        if (options.rate <= 0) {
+            throw new IllegalArgumentException("--rate has to be positive");
+        }
+        if (options.errorRate < 0 || options.errorRate > 1) {
+            throw new IllegalArgumentException("--error-rate has to be between 0 and 1");
+        }
+        return options;
+    }
+
+    static String usage() {
+        return """
+            Usage: java -jar load-test.jar [options]
+
+              --app-url=<url>             webhook URL of the running bot (http://localhost:8080/)
+              --mock-port=<port>          port of the mocked GitHub REST API (9099)
+              --mock-only                 only start the mocked GitHub REST API
+              --rate=<events/s>           webhook deliveries per second (10)
+              --duration=<duration>       how long to send deliveries (60s)
+              --drain-timeout=<duration>  how long to wait for outstanding statuses (30s)
+              --startup-timeout=<dur.>    how long to wait for the bot to come up (5m)
+              --payloads=<dir>            directory with payload templates (src/test/resources)
+              --config=<file>             wildfly-bot.yml served to the bot (bundled sample)
+              --webhook-secret=<secret>   secret used to sign deliveries
+              --files=<n>                 changed files per pull request (20)
+              --commits=<n>               commits per pull request (3)
+              --latency=<duration>        latency of every mocked API response (50ms)
+              --jitter=<duration>         random extra latency of up to this value (20ms)
+              --error-rate=<0..1>         share of API responses failing with 502 (0)
+              --rate-limit=<n>            API requests per rate limit window (5000)
+              --rate-limit-window=<dur.>  length of the rate limit window (1h)
+
+            Durations accept ms, s, m and h suffixes, e.g. 250ms or 2m.
+            """;
+    }
+
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        } else if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        } else if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        } else if (value.endsWith("h")) {
+            return Duration.ofHours(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofMillis(Long.parseLong(value));
+    }
+}
@@ -0,0 +1,510 @@
+package io.xstefank.wildfly.bot.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the parts of the GitHub REST and GraphQL API the bot uses. It serves the app and installation
+ * endpoints, the config file, pull requests with their files and commits, the pull request query of the bot, and
+ * accepts commit statuses, comments and labels. Every response can be delayed, failed and carries rate limit headers,
+ * as configured in {@link LoadTestOptions}.
+ */
+final class MockGitHubApi {
+
+    private static final Pattern CONTENTS = Pattern.compile("/repos/([^/]+)/([^/]+)/contents/(.+)");
+    private static final Pattern PULL_FILES = Pattern.compile("/repos/([^/]+)/([^/]+)/pulls/(\\d+)/files");
+    private static final Pattern PULL = Pattern.compile("/repos/([^/]+)/([^/]+)/pulls/(\\d+)");
+    private static final Pattern PULL_COMMITS = Pattern.compile("/repos/([^/]+)/([^/]+)/pulls/(\\d+)/commits");
+    private static final Pattern STATUSES = Pattern.compile("/repos/([^/]+)/([^/]+)/statuses/([0-9a-f]+)");
+    private static final Pattern ISSUE_COMMENTS = Pattern.compile("/repos/([^/]+)/([^/]+)/issues/(\\d+)/comments");
+    private static final Pattern COMMENT = Pattern.compile("/repos/([^/]+)/([^/]+)/issues/comments/(\\d+)");
+    private static final Pattern ISSUE_LABELS = Pattern.compile("/repos/([^/]+)/([^/]+)/issues/(\\d+)/labels");
+    private static final Pattern INSTALLATION = Pattern.compile("/app/installations/(\\d+)");
+    private static final Pattern ACCESS_TOKENS = Pattern.compile("/app/installations/(\\d+)/access_tokens");
+    private static final Pattern REPOSITORY = Pattern.compile("/repos/([^/]+)/([^/]+)");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern SHA = Pattern.compile("[0-9a-f]{40}");
+
+    private static final String[] MODULES = {
+        "appclient", "clustering/ejb/infinispan", "connector", "ee", "ejb3", "jpa/hibernate6", "messaging-activemq",
+        "microprofile/health-smallrye", "naming", "testsuite/integration/basic", "transactions", "undertow", "weld"
+    };
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LoadTestOptions options;
+    private final String config;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final AtomicLong remaining = new AtomicLong();
+    private final AtomicLong resetAt = new AtomicLong();
+    private final AtomicLong ids = new AtomicLong(1000);
+    private final Map<String, List<ObjectNode>> comments = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> labels = new ConcurrentHashMap<>();
+    private final Map<String, JsonNode> pullRequests = new ConcurrentHashMap<>();
+    private final Consumer<String> statusListener;
+
+    private HttpServer server;
+    private String baseUrl;
+
+    MockGitHubApi(LoadTestOptions options, String config, Consumer<String> statusListener) {
+        this.options = options;
+        this.config = config;
+        this.statusListener = statusListener;
+    }
+
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", options.mockPort), 512);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+        resetWindow(Instant.now().getEpochSecond());
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * @return number of API calls per endpoint since the last {@link #resetCounters()}
+     */
+    Map<String, Long> calls() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        calls.forEach((endpoint, count) -> snapshot.put(endpoint, count.sum()));
+        return snapshot;
+    }
+
+    long injectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    long rateLimited() {
+        return rateLimited.sum();
+    }
+
+    /**
+     * Registers a delivered pull request, so its title, body and head are served when the bot loads it again.
+     */
+    void register(JsonNode pullRequest) {
+        String repository = pullRequest.path("base").path("repo").path("full_name").asText();
+        pullRequests.put(repository + "#" + pullRequest.path("number").asInt(), pullRequest);
+    }
+
+    void resetCounters() {
+        calls.clear();
+        injectedErrors.reset();
+        rateLimited.reset();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            URI uri = exchange.getRequestURI();
+            String path = uri.getPath();
+            calls.computeIfAbsent(method + " " + template(path), k -> new LongAdder()).increment();
+
+            delay();
+            long now = Instant.now().getEpochSecond();
+            if (now >= resetAt.get()) {
+                resetWindow(now);
+            }
+            long left = remaining.decrementAndGet();
+            exchange.getResponseHeaders().add("X-RateLimit-Limit", String.valueOf(options.rateLimit));
+            exchange.getResponseHeaders().add("X-RateLimit-Remaining", String.valueOf(Math.max(0, left)));
+            exchange.getResponseHeaders().add("X-RateLimit-Reset", String.valueOf(resetAt.get()));
+            exchange.getResponseHeaders().add("X-RateLimit-Used", String.valueOf(options.rateLimit - Math.max(0, left)));
+            exchange.getResponseHeaders().add("X-RateLimit-Resource", "core");
+
+            if (left < 0 && !path.startsWith("/app")) {
+                rateLimited.increment();
+                respond(exchange, 403, message("API rate limit exceeded for installation."));
+                return;
+            }
+            if (options.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < options.errorRate) {
+                injectedErrors.increment();
+                respond(exchange, 502, message("Server Error"));
+                return;
+            }
+
+            route(exchange, method, path, query(uri));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | IOException e) {
+            try {
+                respond(exchange, 500, message(e.toString()));
+            } catch (IOException | RuntimeException ignored) {
+                // response has already been started, the client sees a broken response
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange, String method, String path, Map<String, String> query) throws IOException {
+        Matcher matcher;
+        if (path.equals("/app")) {
+            respond(exchange, 200, app());
+        } else if (path.equals("/app/installations")) {
+            respond(exchange, 200, mapper.createArrayNode().add(installation(22950279L)));
+        } else if ((matcher = ACCESS_TOKENS.matcher(path)).matches()) {
+            ObjectNode token = mapper.createObjectNode()
+                .put("token", "ghs_loadtest" + matcher.group(1))
+                .put("expires_at", Instant.now().plusSeconds(3600).toString())
+                .put("repository_selection", "all");
+            token.putObject("permissions");
+            respond(exchange, 201, token);
+        } else if ((matcher = INSTALLATION.matcher(path)).matches()) {
+            respond(exchange, 200, installation(Long.parseLong(matcher.group(1))));
+        } else if (path.equals("/rate_limit")) {
+            respond(exchange, 200, rateLimit());
+        } else if (path.equals("/installation/repositories")) {
+            ObjectNode repositories = mapper.createObjectNode().put("total_count", 1);
+            repositories.putArray("repositories").add(repository("xstefank", "wildfly"));
+            respond(exchange, 200, repositories);
+        } else if ((matcher = CONTENTS.matcher(path)).matches()) {
+            if (!matcher.group(3).endsWith("wildfly-bot.yml")) {
+                respond(exchange, 404, message("Not Found"));
+                return;
+            }
+            respond(exchange, 200, content(matcher.group(1), matcher.group(2), matcher.group(3)));
+        } else if (path.equals("/graphql") && method.equals("POST")) {
+            respond(exchange, 200, graphql(body(exchange).path("variables")));
+        } else if ((matcher = PULL.matcher(path)).matches()) {
+            JsonNode pullRequest = pullRequests.get(matcher.group(1) + "/" + matcher.group(2) + "#" + matcher.group(3));
+            if (pullRequest == null) {
+                respond(exchange, 404, message("Not Found"));
+                return;
+            }
+            respond(exchange, 200, pullRequest);
+        } else if ((matcher = PULL_FILES.matcher(path)).matches()) {
+            page(exchange, path, query, files(Integer.parseInt(matcher.group(3))));
+        } else if ((matcher = PULL_COMMITS.matcher(path)).matches()) {
+            page(exchange, path, query, commits(Integer.parseInt(matcher.group(3))));
+        } else if ((matcher = STATUSES.matcher(path)).matches() && method.equals("POST")) {
+            JsonNode request = body(exchange);
+            statusListener.accept(matcher.group(3));
+            ObjectNode status = mapper.createObjectNode()
+                .put("id", ids.incrementAndGet())
+                .put("state", request.path("state").asText())
+                .put("description", request.path("description").asText())
+                .put("context", request.path("context").asText())
+                .put("url", baseUrl + path)
+                .put("created_at", Instant.now().toString())
+                .put("updated_at", Instant.now().toString());
+            respond(exchange, 201, status);
+        } else if ((matcher = ISSUE_COMMENTS.matcher(path)).matches()) {
+            String key = matcher.group(1) + "/" + matcher.group(2) + "#" + matcher.group(3);
+            List<ObjectNode> prComments = comments.computeIfAbsent(key, k -> new ArrayList<>());
+            if (method.equals("POST")) {
+                ObjectNode comment = comment(path, body(exchange).path("body").asText());
+                synchronized (prComments) {
+                    prComments.add(comment);
+                }
+                respond(exchange, 201, comment);
+            } else {
+                ArrayNode list = mapper.createArrayNode();
+                synchronized (prComments) {
+                    list.addAll(prComments);
+                }
+                page(exchange, path, query, list);
+            }
+        } else if ((matcher = COMMENT.matcher(path)).matches()) {
+            respond(exchange, 200, comment(path, body(exchange).path("body").asText()).put("id", Long.parseLong(matcher.group(3))));
+        } else if ((matcher = ISSUE_LABELS.matcher(path)).matches()) {
+            String key = matcher.group(1) + "/" + matcher.group(2) + "#" + matcher.group(3);
+            Set<String> prLabels = labels.computeIfAbsent(key, k -> new TreeSet<>());
+            ArrayNode response = mapper.createArrayNode();
+            synchronized (prLabels) {
+                if (method.equals("POST")) {
+                    body(exchange).path("labels").forEach(label -> prLabels.add(label.asText()));
+                }
+                prLabels.forEach(label -> response.addObject().put("name", label).put("color", "ededed"));
+            }
+            respond(exchange, 200, response);
+        } else if ((matcher = REPOSITORY.matcher(path)).matches()) {
+            respond(exchange, 200, repository(matcher.group(1), matcher.group(2)));
+        } else {
+            respond(exchange, 404, message("Not Found"));
+        }
+    }
+
+    private void page(HttpExchange exchange, String path, Map<String, String> query, ArrayNode items) throws IOException {
+        int perPage = Integer.parseInt(query.getOrDefault("per_page", "30"));
+        int page = Integer.parseInt(query.getOrDefault("page", "1"));
+        int from = Math.min(items.size(), (page - 1) * perPage);
+        int to = Math.min(items.size(), from + perPage);
+        ArrayNode slice = mapper.createArrayNode();
+        for (int i = from; i < to; i++) {
+            slice.add(items.get(i));
+        }
+        if (to < items.size()) {
+            int last = (items.size() + perPage - 1) / perPage;
+            exchange.getResponseHeaders().add("Link",
+                "<" + baseUrl + path + "?per_page=" + perPage + "&page=" + (page + 1) + ">; rel=\"next\", "
+                    + "<" + baseUrl + path + "?per_page=" + perPage + "&page=" + last + ">; rel=\"last\"");
+        }
+        respond(exchange, 200, slice);
+    }
+
+    /**
+     * Answers the pull request query of the bot, a page of commits and of changed files per query. The cursors are the
+     * offsets of the next page.
+     */
+    private ObjectNode graphql(JsonNode variables) {
+        String owner = variables.path("owner").asText();
+        String name = variables.path("name").asText();
+        int number = variables.path("number").asInt();
+        int pageSize = variables.path("pageSize").asInt(100);
+        JsonNode registered = pullRequests.get(owner + "/" + name + "#" + number);
+
+        ObjectNode response = mapper.createObjectNode();
+        ObjectNode pullRequest = response.putObject("data").putObject("repository").putObject("pullRequest");
+        if (registered == null) {
+            pullRequest.put("title", "Load test " + number).putNull("body");
+            pullRequest.put("headRefOid", sha(number));
+        } else {
+            pullRequest.put("title", registered.path("title").asText());
+            pullRequest.set("body", registered.path("body"));
+            pullRequest.put("headRefOid", registered.path("head").path("sha").asText());
+        }
+        if (variables.path("withCommits").asBoolean()) {
+            ArrayNode commits = commits(number);
+            pullRequest.set("commits", connection(commits, variables.path("commitsAfter"), pageSize, commit -> {
+                ObjectNode node = mapper.createObjectNode();
+                node.putObject("commit").put("oid", commit.path("sha").asText())
+                    .put("message", commit.path("commit").path("message").asText());
+                return node;
+            }).put("totalCount", commits.size()));
+        }
+        if (variables.path("withFiles").asBoolean()) {
+            pullRequest.set("files", connection(files(number), variables.path("filesAfter"), pageSize,
+                file -> mapper.createObjectNode().put("path", file.path("filename").asText())));
+        }
+        return response;
+    }
+
+    private ObjectNode connection(ArrayNode items, JsonNode after, int pageSize, Function<JsonNode, JsonNode> node) {
+        int from = after.isTextual() ? Math.min(items.size(), Integer.parseInt(after.asText())) : 0;
+        int to = Math.min(items.size(), from + pageSize);
+        ObjectNode connection = mapper.createObjectNode();
+        connection.putObject("pageInfo").put("hasNextPage", to < items.size()).put("endCursor", String.valueOf(to));
+        ArrayNode nodes = connection.putArray("nodes");
+        for (int i = from; i < to; i++) {
+            nodes.add(node.apply(items.get(i)));
+        }
+        return connection;
+    }
+
+    private ArrayNode files(int number) {
+        ArrayNode files = mapper.createArrayNode();
+        for (int i = 0; i < options.files; i++) {
+            String filename = MODULES[(number + i) % MODULES.length] + (i % 5 == 0 ? "/pom.xml" : "/src/main/java/File" + i + ".java");
+            files.addObject()
+                .put("sha", sha(number * 31L + i))
+                .put("filename", filename)
+                .put("status", "modified")
+                .put("additions", 3)
+                .put("deletions", 1)
+                .put("changes", 4)
+                .put("blob_url", baseUrl + "/blob/" + filename)
+                .put("raw_url", baseUrl + "/raw/" + filename)
+                .put("contents_url", baseUrl + "/contents/" + filename)
+                .put("patch", "@@ -1,3 +1,5 @@\n+// change " + i + "\n+// load test\n-// removed");
+        }
+        return files;
+    }
+
+    private ArrayNode commits(int number) {
+        ArrayNode commits = mapper.createArrayNode();
+        for (int i = 0; i < options.commits; i++) {
+            ObjectNode commit = commits.addObject().put("sha", sha(number * 17L + i))
+                .put("url", baseUrl + "/commits/" + i)
+                .put("html_url", baseUrl + "/commits/" + i)
+                .put("comments_url", baseUrl + "/commits/" + i + "/comments");
+            ObjectNode detail = commit.putObject("commit")
+                .put("message", (number % 4 == 0 ? "Fix " : "[WFLY-" + number + "] Fix ") + "issue number " + i)
+                .put("url", baseUrl + "/git/commits/" + i)
+                .put("comment_count", 0);
+            detail.putObject("author").put("name", "Load Test").put("email", "load@test").put("date", Instant.now().toString());
+            detail.putObject("committer").put("name", "Load Test").put("email", "load@test").put("date", Instant.now().toString());
+            detail.putObject("tree").put("sha", sha(i)).put("url", baseUrl + "/git/trees/" + i);
+            commit.putArray("parents");
+        }
+        return commits;
+    }
+
+    private ObjectNode content(String owner, String repo, String path) {
+        byte[] bytes = config.getBytes(StandardCharsets.UTF_8);
+        return mapper.createObjectNode()
+            .put("type", "file")
+            .put("encoding", "base64")
+            .put("size", bytes.length)
+            .put("name", path.substring(path.lastIndexOf('/') + 1))
+            .put("path", path)
+            .put("content", Base64.getMimeEncoder().encodeToString(bytes))
+            .put("sha", sha(config.hashCode()))
+            .put("url", baseUrl + "/repos/" + owner + "/" + repo + "/contents/" + path)
+            .put("git_url", baseUrl + "/repos/" + owner + "/" + repo + "/git/blobs/" + sha(config.hashCode()))
+            .put("html_url", baseUrl + "/" + owner + "/" + repo + "/blob/main/" + path)
+            .put("download_url", baseUrl + "/raw/" + owner + "/" + repo + "/main/" + path);
+    }
+
+    private ObjectNode comment(String path, String body) {
+        ObjectNode comment = mapper.createObjectNode()
+            .put("id", ids.incrementAndGet())
+            .put("body", body)
+            .put("url", baseUrl + path)
+            .put("html_url", baseUrl + path)
+            .put("created_at", Instant.now().toString())
+            .put("updated_at", Instant.now().toString());
+        comment.putObject("user").put("login", "wildfly-bot[bot]").put("id", 2).put("type", "Bot");
+        return comment;
+    }
+
+    private ObjectNode app() {
+        ObjectNode app = mapper.createObjectNode().put("id", 0).put("slug", "wildfly-bot").put("name", "wildfly-bot");
+        app.putObject("owner").put("login", "xstefank").put("id", 1).put("type", "User");
+        app.putObject("permissions");
+        app.putArray("events");
+        return app;
+    }
+
+    private ObjectNode installation(long id) {
+        ObjectNode installation = mapper.createObjectNode()
+            .put("id", id)
+            .put("app_id", 0)
+            .put("target_type", "User")
+            .put("repository_selection", "selected")
+            .put("access_tokens_url", baseUrl + "/app/installations/" + id + "/access_tokens")
+            .put("repositories_url", baseUrl + "/installation/repositories");
+        installation.putObject("account").put("login", "xstefank").put("id", 1).put("type", "User");
+        installation.putObject("permissions");
+        installation.putArray("events");
+        return installation;
+    }
+
+    private ObjectNode repository(String owner, String name) {
+        ObjectNode repository = mapper.createObjectNode()
+            .put("id", Math.abs((owner + "/" + name).hashCode()))
+            .put("name", name)
+            .put("full_name", owner + "/" + name)
+            .put("private", false)
+            .put("fork", false)
+            .put("default_branch", "main")
+            .put("url", baseUrl + "/repos/" + owner + "/" + name)
+            .put("html_url", baseUrl + "/" + owner + "/" + name);
+        repository.putObject("owner").put("login", owner).put("id", 1).put("type", "User");
+        return repository;
+    }
+
+    private ObjectNode rateLimit() {
+        ObjectNode rateLimit = mapper.createObjectNode();
+        ObjectNode core = mapper.createObjectNode()
+            .put("limit", options.rateLimit)
+            .put("remaining", Math.max(0, remaining.get()))
+            .put("reset", resetAt.get())
+            .put("used", options.rateLimit - Math.max(0, remaining.get()));
+        ObjectNode resources = rateLimit.putObject("resources");
+        for (String resource : new String[] {"core", "search", "graphql", "integration_manifest"}) {
+            resources.set(resource, core.deepCopy());
+        }
+        rateLimit.set("rate", core);
+        return rateLimit;
+    }
+
+    private ObjectNode message(String message) {
+        return mapper.createObjectNode().put("message", message)
+            .put("documentation_url", "https://docs.github.com/rest");
+    }
+
+    private synchronized void resetWindow(long now) {
+        if (now >= resetAt.get()) {
+            remaining.set(options.rateLimit);
+            resetAt.set(now + options.rateLimitWindow.toSeconds());
+        }
+    }
+
+    private void delay() throws InterruptedException {
+        long millis = options.latency.toMillis();
+        if (options.jitter.toMillis() > 0) {
+            millis += ThreadLocalRandom.current().nextLong(options.jitter.toMillis() + 1);
+        }
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private JsonNode body(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readAllBytes();
+            return bytes.length == 0 ? mapper.createObjectNode() : mapper.readTree(bytes);
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> query = new TreeMap<>();
+        if (uri.getRawQuery() != null) {
+            for (String parameter : uri.getRawQuery().split("&")) {
+                int separator = parameter.indexOf('=');
+                if (separator > 0) {
+                    query.put(parameter.substring(0, separator), parameter.substring(separator + 1));
+                }
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Replaces numbers and SHAs in the path, so calls are counted per endpoint and not per pull request.
+     */
+    private static String template(String path) {
+        return NUMBER.matcher(SHA.matcher(path).replaceAll("{sha}")).replaceAll("{n}");
+    }
+
+    private static String sha(long seed) {
+        return String.format("%040x", Math.abs(seed) + 1);
+    }
+}
@@ -0,0 +1,72 @@
+package io.xstefank.wildfly.bot.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Produces {@code pull_request} deliveries from the payload templates. The first round replays the templates
+ * unchanged, later ones are variants with their own pull request number and head SHA, so each delivery can be
+ * tracked until its commit status is written. Titles and bodies alternate between passing and failing the format
+ * checks.
+ */
+final class PayloadGenerator {
+
+    static final String[] TEMPLATES = {"pr-opened.json", "pr-fail-checks.json", "pr-success-checks.json"};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<ObjectNode> templates = new ArrayList<>();
+
+    PayloadGenerator(Path directory) throws IOException {
+        for (String template : TEMPLATES) {
+            Path file = directory.resolve(template);
+            if (Files.exists(file)) {
+                templates.add((ObjectNode) mapper.readTree(file.toFile()));
+            }
+        }
+        if (templates.isEmpty()) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".json")).sorted().toList()) {
+                    templates.add((ObjectNode) mapper.readTree(file.toFile()));
+                }
+            }
+        }
+        if (templates.isEmpty()) {
+            throw new IllegalArgumentException("No payload templates found in " + directory.toAbsolutePath());
+        }
+    }
+
+    Delivery next(long sequence) throws IOException {
+        ObjectNode payload = templates.get((int) (sequence % templates.size())).deepCopy();
+        ObjectNode pullRequest = (ObjectNode) payload.get("pull_request");
+        if (sequence >= templates.size()) {
+            int number = 100_000 + (int) sequence;
+            payload.put("number", number);
+            pullRequest.put("number", number);
+            pullRequest.put("id", 2_000_000_000L + sequence);
+            String prefix = pullRequest.path("url").asText();
+            prefix = prefix.substring(0, prefix.lastIndexOf('/') + 1);
+            pullRequest.put("url", prefix + number);
+            pullRequest.put("issue_url", prefix.replace("/pulls/", "/issues/") + number);
+            ((ObjectNode) pullRequest.get("head")).put("sha", String.format("%040x", sequence));
+            if (sequence % 3 == 0) {
+                pullRequest.put("title", "[WFLY-" + sequence + "] Upgrade hibernate and clustering bits");
+                pullRequest.put("body", "Load test variant " + sequence
+                    + "\n\nJIRA: https://issues.redhat.com/browse/WFLY-" + sequence);
+            } else if (sequence % 3 == 1) {
+                pullRequest.put("title", "Load test variant " + sequence);
+            }
+        }
+        String sha = pullRequest.path("head").path("sha").asText();
+        return new Delivery(sha, payload.path("action").asText(), pullRequest, mapper.writeValueAsBytes(payload));
+    }
+
+    record Delivery(String sha, String action, ObjectNode pullRequest, byte[] body) {
+    }
+}
@@ -1,4 +1,48 @@
 package io.xstefank.wildlfy.bot;
 
+import io.quarkiverse.githubapp.event.Push;
+import io.xstefank.wildlfy.bot.config.RuntimeConstants;
+import jakarta.inject.Inject;
+import org.kohsuke.github.GHEventPayload;
+import org.kohsuke.github.GHRepository;
+
+/**
+ * Reconciles open pull requests in the background when {@code wildfly-bot.yml} changes on the default branch. A change
+ * of the organization configuration reconciles all repositories of the installation, starting from the first one.
+ */
 public class ConfigFileChangeProcessor {
+
+    static final String CONFIG_FILE_PATH = ".github/" + RuntimeConstants.CONFIG_FILE_NAME;
+
+    @Inject
+    ConfigRegistry configRegistry;
+
+    @Inject
+    PullRequestReconciler reconciler;
+
+    void onPush(@Push GHEventPayload.Push pushPayload) {
+        GHRepository repository = pushPayload.getRepository();
+        if (!pushPayload.getRef().equals("refs/heads/" + repository.getDefaultBranch()) || !changesConfigFile(pushPayload)) {
+            return;
+        }
+
+        configRegistry.invalidate(repository.getFullName());
+        long installationId = pushPayload.getInstallation().getId();
+        if (repository.getName().equals(ConfigRegistry.ORGANIZATION_CONFIG_REPOSITORY)) {
+            // every repository may be affected, including those a paused sweep already finished
+            reconciler.requestSweep(installationId, true);
+        } else {
+            reconciler.requestReconcile(repository, installationId);
+        }
+    }
+
+    private static boolean changesConfigFile(GHEventPayload.Push pushPayload) {
+        for (GHEventPayload.Push.PushCommit commit : pushPayload.getCommits()) {
+            if (commit.getAdded().contains(CONFIG_FILE_PATH) || commit.getModified().contains(CONFIG_FILE_PATH)
+                    || commit.getRemoved().contains(CONFIG_FILE_PATH)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
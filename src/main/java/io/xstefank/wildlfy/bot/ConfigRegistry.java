@@ -0,0 +1,291 @@
+package io.xstefank.wildlfy.bot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import io.quarkiverse.githubapp.ConfigFile;
+import io.quarkiverse.githubapp.GitHubConfigFileProvider;
+import io.xstefank.wildlfy.bot.config.CompiledConfig;
+import io.xstefank.wildlfy.bot.config.EventInterest;
+import io.xstefank.wildlfy.bot.config.RuntimeConstants;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile;
+import io.xstefank.wildlfy.bot.config.util.CacheStatistics;
+import io.xstefank.wildlfy.bot.config.util.ConfigMerger;
+import io.xstefank.wildlfy.bot.config.util.SingleFlightLoader;
+import io.xstefank.wildlfy.bot.resilience.GitHubGuard;
+import io.xstefank.wildlfy.bot.resilience.GitHubUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the effective configuration of a repository by merging its {@code wildfly-bot.yml} into the organization
+ * wide one from the {@code .github} repository of the owner, see {@link ConfigMerger}.
+ * <p>
+ * Compiled configurations are interned by a hash of their canonical content, so all repositories with the same
+ * effective configuration share one {@link CompiledConfig} and the number of compiled instances follows the number of
+ * distinct configurations instead of the number of repositories. The configuration last resolved for a repository is
+ * reused as long as the same configuration files are cached, so most events neither merge nor serialize them.
+ * <p>
+ * The {@link EventInterest} of the last configuration resolved for a repository is remembered for
+ * {@code wildfly-bot.filter.interest-ttl}, so irrelevant events can be dropped before the configuration is fetched
+ * again. Pushes changing the configuration refresh it right away, see {@link ConfigFileChangeProcessor}.
+ * <p>
+ * Configuration files fetched here are loaded once for all concurrent events of the same repository, see
+ * {@link SingleFlightLoader}. A fetched file is kept for {@code wildfly-bot.config.ttl}, a missing file or a failed
+ * fetch for {@code wildfly-bot.config.failure-ttl}, so a burst of events does not fetch it again and again. A push
+ * changing the file forgets it right away.
+ * <p>
+ * The caches count their hits, misses and evictions, see {@link CacheStatistics}, and can be flushed per repository
+ * through the admin API.
+ */
+@ApplicationScoped
+public class ConfigRegistry {
+
+    private static final Logger LOG = Logger.getLogger(ConfigRegistry.class);
+
+    static final String ORGANIZATION_CONFIG_REPOSITORY = ".github";
+    static final int MAX_COMPILED_CONFIGS = 1000;
+    static final int MAX_REPOSITORY_INTERESTS = 10_000;
+    static final String DEFAULT_REF = "HEAD";
+
+    @Inject
+    GitHubConfigFileProvider fileProvider;
+
+    @Inject
+    GitHubGuard gitHubGuard;
+
+    @ConfigProperty(name = "wildfly-bot.filter.interest-ttl", defaultValue = "10m")
+    Duration interestTtl;
+
+    @ConfigProperty(name = "wildfly-bot.config.ttl", defaultValue = "10m")
+    Duration configTtl;
+
+    @ConfigProperty(name = "wildfly-bot.config.failure-ttl", defaultValue = "30s")
+    Duration failureTtl;
+
+    private final ObjectMapper canonicalMapper = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .addModule(new SimpleModule().addSerializer(Pattern.class, ToStringSerializer.instance))
+            .build();
+
+    private final CacheStatistics compiledConfigStatistics = new CacheStatistics();
+    private final CacheStatistics interestStatistics = new CacheStatistics();
+
+    private final Map<String, CompiledConfig> compiledConfigs = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompiledConfig> eldest) {
+                    if (size() > MAX_COMPILED_CONFIGS) {
+                        compiledConfigStatistics.recordEviction();
+                        return true;
+                    }
+                    return false;
+                }
+            });
+
+    private final Map<String, Resolution> resolutions = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Resolution> eldest) {
+                    if (size() > MAX_REPOSITORY_INTERESTS) {
+                        interestStatistics.recordEviction();
+                        return true;
+                    }
+                    return false;
+                }
+            });
+
+    private SingleFlightLoader<ConfigSource, WildFlyConfigFile> configLoader;
+
+    @PostConstruct
+    void init() {
+        configLoader = new SingleFlightLoader<>(configTtl, failureTtl);
+    }
+
+    /**
+     * @return the effective configuration of the repository on its default branch or {@code null} if neither the
+     * repository nor its organization has one
+     */
+    public CompiledConfig resolve(GHRepository repository, GitHub gitHub) throws IOException {
+        return resolve(repository, gitHub, fetchRepositoryConfig(repository));
+    }
+
+    /**
+     * @return the effective configuration or {@code null} if neither the repository nor its organization has one
+     * @throws GitHubUnavailableException if the organization configuration could not be fetched because of GitHub
+     */
+    public CompiledConfig resolve(GHRepository repository, GitHub gitHub, WildFlyConfigFile repositoryConfig) throws GitHubUnavailableException {
+        boolean inherit = repositoryConfig == null || repositoryConfig.wildfly == null || repositoryConfig.wildfly.inherit;
+        WildFlyConfigFile organizationConfig = inherit ? fetchOrganizationConfig(repository, gitHub) : null;
+
+        // the loader hands out the same instances until a file expires or changes
+        Resolution previous = resolutions.get(repository.getFullName());
+        if (previous != null && previous.repositoryConfig == repositoryConfig && previous.organizationConfig == organizationConfig) {
+            compiledConfigStatistics.recordHit();
+            resolutions.put(repository.getFullName(), previous.renewed());
+            return previous.config;
+        }
+
+        WildFlyConfigFile effective = ConfigMerger.merge(organizationConfig, repositoryConfig);
+        CompiledConfig config = effective == null ? null : intern(repository, effective);
+        resolutions.put(repository.getFullName(), new Resolution(repositoryConfig, organizationConfig, config, System.currentTimeMillis()));
+        return config;
+    }
+
+    /**
+     * @return interest of the configuration last resolved for the repository, empty if it was not resolved recently
+     */
+    public Optional<EventInterest> getInterest(String repository) {
+        Resolution resolution = resolutions.get(repository);
+        if (resolution == null || System.currentTimeMillis() - resolution.resolvedAt >= interestTtl.toMillis()) {
+            interestStatistics.recordMiss();
+            return Optional.empty();
+        }
+        interestStatistics.recordHit();
+        return Optional.of(resolution.config == null ? new EventInterest(false, false) : resolution.config.getInterest());
+    }
+
+    /**
+     * @return the {@code wildfly-bot.yml} of the repository on its default branch, {@code null} if it has none
+     */
+    public WildFlyConfigFile fetchRepositoryConfig(GHRepository repository) throws IOException {
+        return configLoader.load(new ConfigSource(repository.getFullName(), DEFAULT_REF), () -> gitHubGuard.call(repository, "config-file",
+                () -> fileProvider.fetchConfigFile(repository, RuntimeConstants.CONFIG_FILE_NAME, ConfigFile.Source.DEFAULT,
+                        WildFlyConfigFile.class).orElse(null)));
+    }
+
+    /**
+     * Forgets the configuration file of the repository, to be fetched again by the next event.
+     */
+    public void invalidate(String repository) {
+        configLoader.invalidate(new ConfigSource(repository, DEFAULT_REF));
+    }
+
+    /**
+     * Forgets everything cached for the repository, so the next event fetches and resolves its configuration again.
+     * Compiled configurations are shared by content and stay until they are evicted.
+     */
+    public void flush(String repository) {
+        invalidate(repository);
+        resolutions.remove(repository);
+    }
+
+    public int getCompiledConfigCount() {
+        return compiledConfigs.size();
+    }
+
+    /**
+     * @return number of rule expression nodes of all compiled configurations, see
+     * {@link io.xstefank.wildlfy.bot.config.rules.RuleEngine#getNodeCount()}
+     */
+    public int getCompiledConfigWeight() {
+        synchronized (compiledConfigs) {
+            return compiledConfigs.values().stream().mapToInt(config -> config.getRuleEngine().getNodeCount()).sum();
+        }
+    }
+
+    public CacheStatistics getCompiledConfigStatistics() {
+        return compiledConfigStatistics;
+    }
+
+    public int getInterestCount() {
+        return resolutions.size();
+    }
+
+    public CacheStatistics getInterestStatistics() {
+        return interestStatistics;
+    }
+
+    /**
+     * @return the loader of the configuration files, whose fetched and missing files and failures are cached
+     */
+    public SingleFlightLoader<?, WildFlyConfigFile> getConfigLoader() {
+        return configLoader;
+    }
+
+    private CompiledConfig intern(GHRepository repository, WildFlyConfigFile effective) {
+        String canonical;
+        try {
+            canonical = canonicalMapper.writeValueAsString(effective);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize configuration of " + repository.getFullName(), e);
+        }
+        String hash = hash(canonical);
+        CompiledConfig config = compiledConfigs.get(hash);
+        if (config != null) {
+            compiledConfigStatistics.recordHit();
+            return config;
+        }
+        compiledConfigStatistics.recordMiss();
+        return compiledConfigs.computeIfAbsent(hash, key -> {
+            LOG.debugf("Compiling new configuration for %s.", repository.getFullName());
+            return new CompiledConfig(effective, key, gitHubGuard);
+        });
+    }
+
+    private static String hash(String canonical) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private WildFlyConfigFile fetchOrganizationConfig(GHRepository repository, GitHub gitHub) throws GitHubUnavailableException {
+        String organizationRepository = repository.getOwnerName() + "/" + ORGANIZATION_CONFIG_REPOSITORY;
+        if (organizationRepository.equals(repository.getFullName())) {
+            return null;
+        }
+
+        try {
+            return configLoader.load(new ConfigSource(organizationRepository, DEFAULT_REF), () -> gitHubGuard.call(repository, "config-file",
+                    () -> fileProvider.fetchConfigFile(gitHub.getRepository(organizationRepository), RuntimeConstants.CONFIG_FILE_NAME,
+                            ConfigFile.Source.CURRENT_REPOSITORY, WildFlyConfigFile.class).orElse(null)));
+        } catch (GHFileNotFoundException e) {
+            return null;
+        } catch (GitHubUnavailableException e) {
+            throw e;
+        } catch (IOException e) {
+            LOG.warnf(e, "Unable to fetch the organization configuration from %s.", organizationRepository);
+            return null;
+        }
+    }
+
+    private record ConfigSource(String repository, String ref) {
+    }
+
+    /**
+     * The configuration files a configuration was last resolved from, compared by identity.
+     */
+    private record Resolution(WildFlyConfigFile repositoryConfig, WildFlyConfigFile organizationConfig, CompiledConfig config,
+                              long resolvedAt) {
+
+        Resolution renewed() {
+            return new Resolution(repositoryConfig, organizationConfig, config, System.currentTimeMillis());
+        }
+    }
+}
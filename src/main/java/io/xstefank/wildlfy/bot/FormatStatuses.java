@@ -0,0 +1,95 @@
+package io.xstefank.wildlfy.bot;
+
+import io.xstefank.wildlfy.bot.config.CompiledConfig;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
+import io.xstefank.wildlfy.bot.format.CheckPipeline;
+import io.xstefank.wildlfy.bot.resilience.ApiBudget;
+import io.xstefank.wildlfy.bot.resilience.GitHubGuard;
+import io.xstefank.wildlfy.bot.state.BotStateStore;
+import io.xstefank.wildlfy.bot.write.WriteBehindQueue;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.kohsuke.github.GHCommitState;
+import org.kohsuke.github.GHPullRequest;
+
+import java.io.IOException;
+
+/**
+ * Reports the result of the format checks as the {@code Format} commit status of a pull request.
+ * <p>
+ * The last reported status is kept in the {@link BotStateStore} together with the head it was evaluated for and the
+ * hash of the configuration, so the {@link PullRequestReconciler} can tell which pull requests are out of date. The
+ * status is sent through the {@link WriteBehindQueue} and stored once it is sent. A status equal to the stored one for
+ * the same head and configuration is not sent again, so redeliveries and restarts do not repeat it.
+ * <p>
+ * Checks degraded by the {@link ApiBudget} of the delivery are reported as pending unless another check fails.
+ */
+@ApplicationScoped
+public class FormatStatuses {
+
+    static final String STATE_KEY = "format";
+
+    @Inject
+    BotStateStore stateStore;
+
+    @Inject
+    GitHubGuard gitHubGuard;
+
+    @Inject
+    WriteBehindQueue writeBehindQueue;
+
+    /**
+     * Reports the status for the head the data was fetched for.
+     *
+     * @return whether all checks were evaluated completely within the budget bound to the calling thread
+     */
+    public boolean update(GHPullRequest pullRequest, PullRequestData data, CompiledConfig config) throws IOException {
+        ApiBudget budget = ApiBudget.current();
+        CheckPipeline.Failure failure = config.getFormatChecks().evaluate(data);
+        if (failure != null) {
+            updateFormatCommitStatus(pullRequest, data.getHeadSha(), config, GHCommitState.ERROR, "\u274C " + failure.check().getName() + ": " + failure.message());
+            return !budget.isDegraded();
+        }
+
+        if (budget.isDegraded()) {
+            updateFormatCommitStatus(pullRequest, data.getHeadSha(), config, GHCommitState.PENDING,
+                    "\u23F3 Incomplete, " + String.join(", ", budget.getDegradations()));
+            return false;
+        }
+
+        updateFormatCommitStatus(pullRequest, data.getHeadSha(), config, GHCommitState.SUCCESS, "\u2705 Correct");
+        return true;
+    }
+
+    /**
+     * @return whether the last reported status was evaluated for the current head with the same configuration
+     */
+    public boolean isUpToDate(GHPullRequest pullRequest, CompiledConfig config) {
+        String prefix = pullRequest.getHead().getSha() + "\n" + config.getHash() + "\n";
+        return stateStore.get(stateKey(pullRequest)).map(verdict -> verdict.startsWith(prefix)).orElse(false);
+    }
+
+    private void updateFormatCommitStatus(GHPullRequest pullRequest, String sha, CompiledConfig config, GHCommitState commitState,
+                                          String description) throws IOException {
+        String stateKey = stateKey(pullRequest);
+        String verdict = sha + "\n" + config.getHash() + "\n" + commitState + "\n" + description;
+
+        writeBehindQueue.submit(pullRequestKey(pullRequest), "status " + sha + " Format", () -> {
+            // compared when the write is sent, after the writes queued before it were stored
+            if (stateStore.get(stateKey).map(verdict::equals).orElse(false)) {
+                return;
+            }
+            gitHubGuard.call(pullRequest.getRepository(), "create-commit-status",
+                    () -> pullRequest.getRepository().createCommitStatus(sha, commitState, "", description, "Format"));
+            stateStore.put(stateKey, verdict);
+        });
+    }
+
+    private static String stateKey(GHPullRequest pullRequest) {
+        return pullRequestKey(pullRequest) + STATE_KEY;
+    }
+
+    private static String pullRequestKey(GHPullRequest pullRequest) {
+        return BotStateStore.pullRequestKey(pullRequest.getRepository().getFullName(), pullRequest.getNumber());
+    }
+}
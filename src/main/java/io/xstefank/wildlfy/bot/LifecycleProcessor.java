@@ -4,6 +4,7 @@ import io.quarkiverse.githubapp.ConfigFile;
 import io.quarkiverse.githubapp.GitHubClientProvider;
 import io.quarkiverse.githubapp.GitHubConfigFileProvider;
 import io.quarkus.runtime.StartupEvent;
+import io.xstefank.wildlfy.bot.auth.InstallationClientPool;
 import io.xstefank.wildlfy.bot.config.RuntimeConstants;
 import io.xstefank.wildlfy.bot.config.WildFlyConfigFile;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -26,13 +27,16 @@ public class LifecycleProcessor {
     @Inject
     GitHubClientProvider clientProvider;
 
+    @Inject
+    InstallationClientPool clientPool;
+
     @Inject
     GitHubConfigFileProvider fileProvider;
 
     void onStart(@Observes StartupEvent event) {
         try {
             for (GHAppInstallation installation : clientProvider.getApplicationClient().getApp().listInstallations()) {
-                GitHub app = clientProvider.getInstallationClient(installation.getId());
+                GitHub app = clientPool.getClient(installation.getId());
                 for (GHRepository repository : app.getInstallation().listRepositories()) {
                     List<String> invalidRules = new ArrayList<>();
                     WildFlyConfigFile wildflyBotConfigFile = fileProvider.fetchConfigFile(repository, RuntimeConstants.CONFIG_FILE_NAME, ConfigFile.Source.DEFAULT, WildFlyConfigFile.class).get();
@@ -1,83 +1,103 @@
 package io.xstefank.wildlfy.bot;
 
-import io.quarkiverse.githubapp.ConfigFile;
 import io.quarkiverse.githubapp.event.PullRequest;
-import io.xstefank.wildlfy.bot.config.RuntimeConstants;
-import io.xstefank.wildlfy.bot.config.WildFlyConfigFile;
-import io.xstefank.wildlfy.bot.format.DescriptionCheck;
-import io.xstefank.wildlfy.bot.format.TitleCheck;
-import io.xstefank.wildlfy.bot.format.CommitMessagesCheck;
-import io.xstefank.wildlfy.bot.format.CommitsQuantityCheck;
-import io.xstefank.wildlfy.bot.format.Check;
+import io.xstefank.wildlfy.bot.auth.InstallationClientPool;
+import io.xstefank.wildlfy.bot.config.CompiledConfig;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
+import io.xstefank.wildlfy.bot.fetch.PullRequestFetcher;
+import io.xstefank.wildlfy.bot.ordering.StripedExecutor;
+import io.xstefank.wildlfy.bot.resilience.ApiBudget;
+import io.xstefank.wildlfy.bot.resilience.ApiBudgets;
+import io.xstefank.wildlfy.bot.resilience.GitHubUnavailableException;
+import io.xstefank.wildlfy.bot.resilience.RetryQueue;
+import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
-import org.kohsuke.github.GHCommitState;
 import org.kohsuke.github.GHEventPayload;
 import org.kohsuke.github.GHPullRequest;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 @ApplicationScoped
 public class PullRequestFormatProcessor {
 
     private static final Logger LOG = Logger.getLogger(PullRequestFormatProcessor.class);
 
-    private boolean initialized = false;
-    private final List<Check> checks = new ArrayList<>();
+    @Inject
+    ConfigRegistry configRegistry;
 
-    void onPullRequestEdited(@PullRequest.Edited  @PullRequest.Opened GHEventPayload.PullRequest pullRequestPayload,
-                             @ConfigFile(RuntimeConstants.CONFIG_FILE_NAME) WildFlyConfigFile wildflyConfigFile) throws IOException {
+    @Inject
+    FormatStatuses formatStatuses;
 
-        if (wildflyConfigFile == null) {
-            LOG.error("No configuration file available. ");
-            return;
-        } else if (!initialized) {
-            initialize(wildflyConfigFile);
-        }
+    @Inject
+    PullRequestFetcher pullRequestFetcher;
 
-        GHPullRequest pullRequest = pullRequestPayload.getPullRequest();
+    @Inject
+    RetryQueue retryQueue;
 
-        for (Check check : checks) {
-            String result = check.check(pullRequest);
-            if (result != null) {
-                updateFormatCommitStatus(pullRequest, GHCommitState.ERROR, "\u274C " + check.getName() + ": " + result);
-                return;
-            }
-        }
+    @Inject
+    StripedExecutor stripedExecutor;
 
-        updateFormatCommitStatus(pullRequest, GHCommitState.SUCCESS, "\u2705 Correct");
-    }
+    @Inject
+    ApiBudgets apiBudgets;
 
-    private void initialize(WildFlyConfigFile wildflyConfigFile) {
-        if (wildflyConfigFile.wildfly.format == null) {
-            return;
-        }
+    @Inject
+    InstallationClientPool clientPool;
 
-        if (wildflyConfigFile.wildfly.format.titleCheck != null) {
-            checks.add(new TitleCheck(wildflyConfigFile.wildfly.format.titleCheck));
-        }
+    void onPullRequestEdited(@PullRequest.Edited  @PullRequest.Opened @PullRequest.ReadyForReview GHEventPayload.PullRequest pullRequestPayload)
+            throws IOException {
 
-        if (wildflyConfigFile.wildfly.format.description != null) {
-            checks.add(new DescriptionCheck(wildflyConfigFile.wildfly.format.description));
-        }
-
-
-        if (wildflyConfigFile.wildfly.format.commitsQuantity != null) {
-            checks.add(new CommitsQuantityCheck(wildflyConfigFile.wildfly.format.commitsQuantity));
+        GHPullRequest pullRequest = pullRequestPayload.getPullRequest();
+        long installationId = pullRequestPayload.getInstallation().getId();
+        String key = pullRequest.getRepository().getFullName() + "#" + pullRequest.getNumber();
+        try {
+            updateFormatStatusInOrder(key, pullRequest, false, installationId, apiBudgets.open("format " + key));
+        } catch (GitHubUnavailableException e) {
+            LOG.warnf("Format check of %s deferred: %s", key, e.getMessage());
+            retryQueue.defer("format " + key, () -> updateFormatStatusInOrder(key, pullRequest, true, installationId,
+                    apiBudgets.open("format " + key)));
         }
+    }
 
-        if (wildflyConfigFile.wildfly.format.commitsMessage != null) {
-            checks.add(new CommitMessagesCheck(wildflyConfigFile.wildfly.format.commitsMessage));
+    /**
+     * Events of the same pull request are evaluated in the order they arrived, so an older one never overwrites the
+     * status set by a newer one. A complete evaluation cancels the retry deferred by an older event, and a retry
+     * evaluates the pull request as it is when it runs. An evaluation degraded by the budget is completed later without
+     * one.
+     *
+     * @param reload whether to read the pull request again instead of using the one of the event
+     */
+    private void updateFormatStatusInOrder(String key, GHPullRequest pullRequest, boolean reload, long installationId, ApiBudget budget)
+            throws IOException {
+        boolean complete = stripedExecutor.call(key, () -> {
+            try (ApiBudget.Scope scope = budget.bind()) {
+                boolean evaluated = updateFormatStatus(reload ? pullRequestFetcher.reload(pullRequest) : pullRequest, installationId);
+                if (evaluated) {
+                    retryQueue.cancel("format " + key);
+                }
+                return evaluated;
+            }
+        });
+        if (!complete) {
+            LOG.infof("Format check of %s degraded by %s, completing later: %s", key, budget, String.join(", ", budget.getDegradations()));
+            retryQueue.defer("format " + key, () -> updateFormatStatusInOrder(key, pullRequest, true, installationId, ApiBudget.unlimited()));
         }
-
-        initialized = true;
     }
 
-    private void updateFormatCommitStatus(GHPullRequest pullRequest, GHCommitState commitState, String description) throws IOException {
-        String sha = pullRequest.getHead().getSha();
+    /**
+     * @return whether the checks were evaluated completely
+     */
+    private boolean updateFormatStatus(GHPullRequest pullRequest, long installationId) throws IOException {
+        CompiledConfig config = configRegistry.resolve(pullRequest.getRepository(), clientPool.getClient(installationId));
+        if (config == null) {
+            LOG.error("No configuration file available. ");
+            return true;
+        }
 
-        pullRequest.getRepository().createCommitStatus(sha, commitState, "", description, "Format");
+        // without checks only the head is needed, which the payload already has
+        PullRequestData data = config.getFormatChecks().getChecks().isEmpty()
+                ? PullRequestData.of(pullRequest)
+                : pullRequestFetcher.fetch(pullRequest, installationId);
+        return formatStatuses.update(pullRequest, data, config);
     }
 }
@@ -0,0 +1,324 @@
+package io.xstefank.wildlfy.bot;
+
+import io.quarkiverse.githubapp.GitHubClientProvider;
+import io.quarkus.scheduler.Scheduled;
+import io.xstefank.wildlfy.bot.auth.InstallationClientPool;
+import io.xstefank.wildlfy.bot.cluster.ClusterRouter;
+import io.xstefank.wildlfy.bot.config.CompiledConfig;
+import io.xstefank.wildlfy.bot.fetch.PullRequestFetcher;
+import io.xstefank.wildlfy.bot.ordering.StripedExecutor;
+import io.xstefank.wildlfy.bot.resilience.ApiBudget;
+import io.xstefank.wildlfy.bot.resilience.ApiBudgets;
+import io.xstefank.wildlfy.bot.resilience.GitHubUnavailableException;
+import io.xstefank.wildlfy.bot.resilience.RetryQueue;
+import io.xstefank.wildlfy.bot.state.BotStateStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.kohsuke.github.GHAppInstallation;
+import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRateLimit;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.PagedIterator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Brings the {@code Format} status of open pull requests up to date after the bot was down or the configuration
+ * changed, see {@link ConfigFileChangeProcessor}.
+ * <p>
+ * Open pull requests are listed in batches of {@code wildfly-bot.reconcile.batch-size} and only those whose stored
+ * status was not evaluated for their current head with the current configuration are evaluated again, at most
+ * {@code wildfly-bot.reconcile.parallelism} at once. A sweep pauses before the remaining rate limit drops below
+ * {@code wildfly-bot.reconcile.rate-limit-reserve} and the next one continues after the last finished repository.
+ * <p>
+ * Sweeps and reconciliations run in the background one at a time, so the event or the scheduler requesting them
+ * returns right away.
+ * <p>
+ * Statuses are written in order with the events of the same pull request, see {@link StripedExecutor}. In the cluster
+ * mode every node reconciles only the repositories it owns, see {@link ClusterRouter}.
+ */
+@ApplicationScoped
+public class PullRequestReconciler {
+
+    private static final Logger LOG = Logger.getLogger(PullRequestReconciler.class);
+
+    static final String CURSOR_KEY_PREFIX = "reconcile/";
+
+    @Inject
+    GitHubClientProvider clientProvider;
+
+    @Inject
+    InstallationClientPool clientPool;
+
+    @Inject
+    ConfigRegistry configRegistry;
+
+    @Inject
+    FormatStatuses formatStatuses;
+
+    @Inject
+    PullRequestFetcher pullRequestFetcher;
+
+    @Inject
+    BotStateStore stateStore;
+
+    @Inject
+    StripedExecutor stripedExecutor;
+
+    @Inject
+    ApiBudgets apiBudgets;
+
+    @Inject
+    RetryQueue retryQueue;
+
+    @Inject
+    ClusterRouter clusterRouter;
+
+    @ConfigProperty(name = "wildfly-bot.reconcile.batch-size", defaultValue = "50")
+    int batchSize;
+
+    @ConfigProperty(name = "wildfly-bot.reconcile.parallelism", defaultValue = "4")
+    int parallelism;
+
+    @ConfigProperty(name = "wildfly-bot.reconcile.rate-limit-reserve", defaultValue = "500")
+    int rateLimitReserve;
+
+    // installation -> whether the requested sweep starts from the first repository
+    private final Map<Long, Boolean> requestedSweeps = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private ExecutorService background;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "wildfly-bot-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        background = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wildfly-bot-reconciler-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        background.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Scheduled(every = "${wildfly-bot.reconcile.interval:1h}", delayed = "${wildfly-bot.reconcile.delay:1m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void sweep() {
+        try {
+            for (GHAppInstallation installation : clientProvider.getApplicationClient().getApp().listInstallations()) {
+                requestSweep(installation.getId(), false);
+            }
+        } catch (IOException e) {
+            LOG.error("Unable to list installations for the reconciliation sweep.", e);
+        }
+    }
+
+    /**
+     * Reconciles all repositories of the installation in the background. A sweep requested while one is running runs
+     * once more after it, requests made in the meantime are merged into that one.
+     *
+     * @param fromStart whether to start from the first repository, instead of after the last repository finished by a
+     * previous sweep
+     */
+    public void requestSweep(long installationId, boolean fromStart) {
+        requestedSweeps.merge(installationId, fromStart, Boolean::logicalOr);
+        background.execute(() -> {
+            Boolean restart = requestedSweeps.remove(installationId);
+            if (restart == null) {
+                // merged into a sweep which already ran
+                return;
+            }
+            try {
+                sweep(installationId, restart);
+            } catch (IOException | RuntimeException e) {
+                LOG.errorf(e, "Reconciliation sweep of installation %d failed.", installationId);
+            }
+        });
+    }
+
+    /**
+     * Reconciles the repository in the background, after the sweeps and reconciliations requested before.
+     */
+    public void requestReconcile(GHRepository repository, long installationId) {
+        background.execute(() -> {
+            try {
+                if (!reconcile(repository, clientPool.getClient(installationId), installationId)) {
+                    LOG.infof("Reconciliation of %s paused to keep the rate limit reserve.", repository.getFullName());
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.errorf(e, "Reconciliation of %s failed.", repository.getFullName());
+            }
+        });
+    }
+
+    private void sweep(long installationId, boolean fromStart) throws IOException {
+        GitHub gitHub = clientPool.getClient(installationId);
+        String cursorKey = CURSOR_KEY_PREFIX + installationId;
+        String cursor = fromStart ? null : stateStore.get(cursorKey).orElse(null);
+
+        List<GHRepository> repositories = new ArrayList<>(gitHub.getInstallation().listRepositories().toList());
+        repositories.sort(Comparator.comparing(GHRepository::getFullName));
+        for (GHRepository repository : repositories) {
+            if (cursor != null && repository.getFullName().compareTo(cursor) <= 0) {
+                continue;
+            }
+            if (!reconcile(repository, gitHub, installationId)) {
+                LOG.infof("Reconciliation of installation %d paused at %s to keep the rate limit reserve.", installationId,
+                        repository.getFullName());
+                return;
+            }
+            stateStore.put(cursorKey, repository.getFullName());
+        }
+        stateStore.remove(cursorKey);
+    }
+
+    /**
+     * Evaluates again the open pull requests of the repository whose status is not up to date. Repositories owned by
+     * another cluster node are skipped.
+     *
+     * @return {@code false} if the repository was not finished because of the rate limit
+     */
+    public boolean reconcile(GHRepository repository, GitHub gitHub, long installationId) throws IOException {
+        if (!clusterRouter.isOwner(repository.getFullName())) {
+            // reconciled by its owner
+            return true;
+        }
+
+        CompiledConfig config = configRegistry.resolve(repository, gitHub);
+        if (config == null) {
+            return true;
+        }
+
+        PagedIterator<GHPullRequest> pullRequests = repository.queryPullRequests()
+                .state(GHIssueState.OPEN)
+                .list()
+                .withPageSize(batchSize)
+                .iterator();
+        int listed = 0;
+        int evaluated = 0;
+        while (pullRequests.hasNext()) {
+            if (!hasRateLimitReserve(gitHub)) {
+                return false;
+            }
+
+            List<GHPullRequest> stale = new ArrayList<>();
+            for (int i = 0; i < batchSize && pullRequests.hasNext(); i++) {
+                GHPullRequest pullRequest = pullRequests.next();
+                listed++;
+                if (!formatStatuses.isUpToDate(pullRequest, config)) {
+                    stale.add(pullRequest);
+                }
+            }
+            evaluate(stale, config, installationId);
+            evaluated += stale.size();
+        }
+        LOG.debugf("Reconciled %s, evaluated %d of %d open pull requests.", repository.getFullName(), evaluated, listed);
+        return true;
+    }
+
+    /**
+     * Evaluates the pull request again, even if its status is up to date. The evaluation is charged to its own
+     * {@link ApiBudget} like the one of an event: it is deferred while GitHub is unavailable, and completed later
+     * without a budget if the budget degraded it. Deferred evaluations read the pull request again when they run.
+     *
+     * @return {@code false} if the repository has no configuration
+     */
+    public boolean reevaluate(String repositoryName, int number, long installationId) throws IOException {
+        GitHub gitHub = clientPool.getClient(installationId);
+        GHRepository repository = gitHub.getRepository(repositoryName);
+        CompiledConfig config = configRegistry.resolve(repository, gitHub);
+        if (config == null) {
+            return false;
+        }
+
+        GHPullRequest pullRequest = repository.getPullRequest(number);
+        String key = repositoryName + "#" + number;
+        try {
+            update(key, pullRequest, false, config, installationId, apiBudgets.open("format " + key));
+        } catch (GitHubUnavailableException e) {
+            LOG.warnf("Format check of %s deferred: %s", key, e.getMessage());
+            retryQueue.defer("format " + key, () -> update(key, pullRequest, true, config, installationId,
+                    apiBudgets.open("format " + key)));
+        }
+        return true;
+    }
+
+    private void evaluate(List<GHPullRequest> pullRequests, CompiledConfig config, long installationId) {
+        List<Future<?>> evaluations = new ArrayList<>();
+        for (GHPullRequest pullRequest : pullRequests) {
+            evaluations.add(executor.submit(() -> {
+                update(pullRequest, config, installationId);
+                return null;
+            }));
+        }
+
+        for (int i = 0; i < evaluations.size(); i++) {
+            try {
+                evaluations.get(i).get();
+            } catch (ExecutionException e) {
+                LOG.warnf(e.getCause(), "Unable to reconcile pull request #%d.", pullRequests.get(i).getNumber());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void update(GHPullRequest pullRequest, CompiledConfig config, long installationId) throws IOException {
+        String key = pullRequest.getRepository().getFullName() + "#" + pullRequest.getNumber();
+        stripedExecutor.call(key, () -> {
+            if (formatStatuses.update(pullRequest, pullRequestFetcher.fetch(pullRequest, installationId), config)) {
+                retryQueue.cancel("format " + key);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * @param reload whether to read the pull request again, see {@link PullRequestFormatProcessor}
+     */
+    private void update(String key, GHPullRequest pullRequest, boolean reload, CompiledConfig config, long installationId,
+            ApiBudget budget) throws IOException {
+        boolean complete = stripedExecutor.call(key, () -> {
+            try (ApiBudget.Scope scope = budget.bind()) {
+                GHPullRequest current = reload ? pullRequestFetcher.reload(pullRequest) : pullRequest;
+                boolean evaluated = formatStatuses.update(current, pullRequestFetcher.fetch(current, installationId), config);
+                if (evaluated) {
+                    retryQueue.cancel("format " + key);
+                }
+                return evaluated;
+            }
+        });
+        if (!complete) {
+            LOG.infof("Format check of %s degraded by %s, completing later: %s", key, budget, String.join(", ", budget.getDegradations()));
+            retryQueue.defer("format " + key, () -> update(key, pullRequest, true, config, installationId, ApiBudget.unlimited()));
+        }
+    }
+
+    private boolean hasRateLimitReserve(GitHub gitHub) {
+        GHRateLimit rateLimit = gitHub.lastRateLimit();
+        return rateLimit == null || rateLimit.getCore().getRemaining() >= rateLimitReserve;
+    }
+}
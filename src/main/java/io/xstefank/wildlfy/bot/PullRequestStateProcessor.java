@@ -0,0 +1,37 @@
+package io.xstefank.wildlfy.bot;
+
+import io.quarkiverse.githubapp.event.PullRequest;
+import io.xstefank.wildlfy.bot.state.BotStateStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kohsuke.github.GHEventPayload;
+import org.kohsuke.github.GHPullRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Expires the stored state of closed pull requests and keeps it again when they are reopened.
+ */
+@ApplicationScoped
+public class PullRequestStateProcessor {
+
+    @Inject
+    BotStateStore stateStore;
+
+    @ConfigProperty(name = "wildfly-bot.state.closed-ttl", defaultValue = "7d")
+    Duration closedTtl;
+
+    void onPullRequestClosed(@PullRequest.Closed GHEventPayload.PullRequest pullRequestPayload) {
+        stateStore.setExpiry(keyOf(pullRequestPayload.getPullRequest()), Instant.now().plus(closedTtl));
+    }
+
+    void onPullRequestReopened(@PullRequest.Reopened GHEventPayload.PullRequest pullRequestPayload) {
+        stateStore.setExpiry(keyOf(pullRequestPayload.getPullRequest()), null);
+    }
+
+    private static String keyOf(GHPullRequest pullRequest) {
+        return BotStateStore.pullRequestKey(pullRequest.getRepository().getFullName(), pullRequest.getNumber());
+    }
+}
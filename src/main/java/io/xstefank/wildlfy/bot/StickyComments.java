@@ -0,0 +1,116 @@
+package io.xstefank.wildlfy.bot;
+
+import io.quarkiverse.githubapp.GitHubClientProvider;
+import io.xstefank.wildlfy.bot.resilience.GitHubGuard;
+import io.xstefank.wildlfy.bot.state.BotStateStore;
+import io.xstefank.wildlfy.bot.write.WriteBehindQueue;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.kohsuke.github.GHApp;
+import org.kohsuke.github.GHIssueComment;
+import org.kohsuke.github.GHPullRequest;
+
+import java.io.IOException;
+
+/**
+ * Keeps a single bot comment per pull request and edits it in place instead of posting a new one.
+ * <p>
+ * The comment is recognized by a hidden marker in a comment written by the bot user of the app, a user quoting the
+ * marker does not make their comment ours. Its id and last written body are kept in the {@link BotStateStore}, so
+ * redeliveries and re-triage with an unchanged body do not call the GitHub API at all, even after a restart.
+ */
+@ApplicationScoped
+public class StickyComments {
+
+    private static final Logger LOG = Logger.getLogger(StickyComments.class);
+
+    static final String MARKER = "<!-- wildfly-bot:mentions -->";
+    static final String STATE_KEY = "comment";
+
+    @Inject
+    GitHubClientProvider clientProvider;
+
+    @Inject
+    BotStateStore stateStore;
+
+    @Inject
+    GitHubGuard gitHubGuard;
+
+    @Inject
+    WriteBehindQueue writeBehindQueue;
+
+    private volatile String botLogin;
+
+    /**
+     * Queues the update in the {@link WriteBehindQueue}, a newer content replaces one not written yet.
+     */
+    public void update(GHPullRequest pullRequest, String content) throws IOException {
+        String pullRequestKey = BotStateStore.pullRequestKey(pullRequest.getRepository().getFullName(), pullRequest.getNumber());
+        writeBehindQueue.submit(pullRequestKey, STATE_KEY, () -> write(pullRequest, pullRequestKey + STATE_KEY, content + "\n\n" + MARKER));
+    }
+
+    private void write(GHPullRequest pullRequest, String key, String body) throws IOException {
+
+        CachedComment cached = stateStore.get(key).map(CachedComment::parse).orElse(null);
+        if (cached != null && cached.body.equals(body)) {
+            LOG.debugf("Comment on %s is up to date.", key);
+            return;
+        }
+
+        // a pull request without comments cannot contain our comment, no need to list them
+        GHIssueComment existing = cached != null || pullRequest.getCommentsCount() > 0
+                ? gitHubGuard.call(pullRequest.getRepository(), "list-comments", () -> find(pullRequest, cached))
+                : null;
+
+        if (existing == null) {
+            GHIssueComment comment = gitHubGuard.call(pullRequest.getRepository(), "comment", () -> pullRequest.comment(body));
+            if (comment != null) {
+                stateStore.put(key, new CachedComment(comment.getId(), body).format());
+            }
+        } else {
+            if (!body.equals(existing.getBody())) {
+                LOG.debugf("Updating comment %d on %s.", existing.getId(), key);
+                gitHubGuard.call(pullRequest.getRepository(), "update-comment", () -> {
+                    existing.update(body);
+                    return null;
+                });
+            }
+            stateStore.put(key, new CachedComment(existing.getId(), body).format());
+        }
+    }
+
+    private GHIssueComment find(GHPullRequest pullRequest, CachedComment cached) throws IOException {
+        for (GHIssueComment comment : pullRequest.listComments()) {
+            if (cached != null ? comment.getId() == cached.id : comment.getBody().contains(MARKER) && isBot(comment)) {
+                return comment;
+            }
+        }
+        return null;
+    }
+
+    private boolean isBot(GHIssueComment comment) throws IOException {
+        return comment.getUser() != null && botLogin().equals(comment.getUser().getLogin());
+    }
+
+    private String botLogin() throws IOException {
+        if (botLogin == null) {
+            GHApp app = clientProvider.getApplicationClient().getApp();
+            // the login of the bot user is derived from the slug of the app, e.g. wildfly-bot[bot]
+            botLogin = app.getSlug() + "[bot]";
+        }
+        return botLogin;
+    }
+
+    private record CachedComment(long id, String body) {
+
+        static CachedComment parse(String value) {
+            int separator = value.indexOf('\n');
+            return new CachedComment(Long.parseLong(value.substring(0, separator)), value.substring(separator + 1));
+        }
+
+        String format() {
+            return id + "\n" + body;
+        }
+    }
+}
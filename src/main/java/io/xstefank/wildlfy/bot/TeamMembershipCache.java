@@ -0,0 +1,161 @@
+package io.xstefank.wildlfy.bot;
+
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.xstefank.wildlfy.bot.auth.InstallationClientPool;
+import io.xstefank.wildlfy.bot.cluster.ClusterRouter;
+import io.xstefank.wildlfy.bot.config.util.CacheStatistics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.kohsuke.github.GHOrganization;
+import org.kohsuke.github.GHTeam;
+import org.kohsuke.github.GHUser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches members of the {@code org/team} entries used in {@code notify} per installation.
+ * <p>
+ * Lookups never call GitHub. A team seen for the first time is fetched in the background and the caller falls back to
+ * mentioning the team itself until the members are known. Known teams are refreshed periodically, memberships older
+ * than {@code wildfly-bot.teams.ttl} are not served and teams not looked up within the same time are dropped.
+ * <p>
+ * In the cluster mode a node refreshes only the teams looked up for repositories it owns. Teams looked up while the
+ * owner of their repositories was unreachable are left to expire, see {@link ClusterRouter}.
+ */
+@ApplicationScoped
+public class TeamMembershipCache {
+
+    private static final Logger LOG = Logger.getLogger(TeamMembershipCache.class);
+
+    @Inject
+    InstallationClientPool clientPool;
+
+    @Inject
+    ClusterRouter clusterRouter;
+
+    @ConfigProperty(name = "wildfly-bot.teams.ttl", defaultValue = "1h")
+    Duration ttl;
+
+    private final Map<TeamKey, Membership> teams = new ConcurrentHashMap<>();
+    private final CacheStatistics statistics = new CacheStatistics();
+
+    public static boolean isTeam(String notify) {
+        return notify.indexOf('/') > 0;
+    }
+
+    /**
+     * @return name of the team in the {@code org/team} format, without the optional leading {@code @}
+     */
+    public static String teamName(String notify) {
+        return notify.startsWith("@") ? notify.substring(1) : notify;
+    }
+
+    /**
+     * @param repository full name of the repository the team is notified for
+     * @return logins of the team members or an empty optional if they are not known yet
+     */
+    public Optional<Set<String>> getMembers(long installationId, String repository, String team) {
+        TeamKey key = new TeamKey(installationId, teamName(team).toLowerCase(Locale.ROOT));
+        long now = System.currentTimeMillis();
+
+        Membership membership = teams.get(key);
+        if (membership == null) {
+            Membership added = new Membership(null, 0, now, ConcurrentHashMap.newKeySet());
+            added.repositories.add(repository);
+            membership = teams.putIfAbsent(key, added);
+            if (membership == null) {
+                Infrastructure.getDefaultWorkerPool().execute(() -> refresh(key));
+                statistics.recordMiss();
+                return Optional.empty();
+            }
+        }
+
+        membership.lastUsed = now;
+        membership.repositories.add(repository);
+        if (membership.members == null || now - membership.fetchedAt > ttl.toMillis()) {
+            statistics.recordMiss();
+            return Optional.empty();
+        }
+        statistics.recordHit();
+        return Optional.of(membership.members);
+    }
+
+    @Scheduled(every = "${wildfly-bot.teams.refresh-interval:5m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        teams.entrySet().removeIf(team -> {
+            if (now - team.getValue().lastUsed > ttl.toMillis()) {
+                statistics.recordEviction();
+                return true;
+            }
+            return false;
+        });
+        teams.forEach((key, membership) -> {
+            if (membership.repositories.stream().anyMatch(clusterRouter::isOwner)) {
+                refresh(key);
+            }
+        });
+    }
+
+    public int getTeamCount() {
+        return teams.size();
+    }
+
+    /**
+     * @return number of members of all cached teams
+     */
+    public int getMemberCount() {
+        return teams.values().stream().mapToInt(membership -> membership.members == null ? 0 : membership.members.size()).sum();
+    }
+
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    private void refresh(TeamKey key) {
+        String[] parts = key.team.split("/", 2);
+        try {
+            GHOrganization organization = clientPool.getClient(key.installationId).getOrganization(parts[0]);
+            GHTeam team = organization.getTeamBySlug(parts[1]);
+            Set<String> members = new TreeSet<>();
+            for (GHUser user : team.listMembers()) {
+                members.add(user.getLogin());
+            }
+            teams.computeIfPresent(key, (k, membership) -> new Membership(Set.copyOf(members), System.currentTimeMillis(), membership.lastUsed,
+                    membership.repositories));
+            LOG.debugf("Team %s has %d members.", key.team, members.size());
+        } catch (IOException | RuntimeException e) {
+            // the previous members stay until they expire, the team is mentioned directly afterwards
+            LOG.warnf(e, "Unable to fetch members of team %s.", key.team);
+        }
+    }
+
+    private record TeamKey(long installationId, String team) {
+    }
+
+    private static final class Membership {
+
+        private final Set<String> members;
+        private final long fetchedAt;
+        private volatile long lastUsed;
+        // repositories the team was looked up for
+        private final Set<String> repositories;
+
+        private Membership(Set<String> members, long fetchedAt, long lastUsed, Set<String> repositories) {
+            this.members = members;
+            this.fetchedAt = fetchedAt;
+            this.lastUsed = lastUsed;
+            this.repositories = repositories;
+        }
+    }
+}
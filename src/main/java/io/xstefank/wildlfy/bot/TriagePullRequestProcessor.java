@@ -1,39 +1,157 @@
 package io.xstefank.wildlfy.bot;
 
-import io.quarkiverse.githubapp.ConfigFile;
 import io.quarkiverse.githubapp.event.PullRequest;
-import io.xstefank.wildlfy.bot.config.RuntimeConstants;
-import io.xstefank.wildlfy.bot.config.WildFlyConfigFile;
+import io.xstefank.wildlfy.bot.auth.InstallationClientPool;
+import io.xstefank.wildlfy.bot.config.CompiledConfig;
 import io.xstefank.wildlfy.bot.config.WildFlyConfigFile.WildFlyRule;
-import io.xstefank.wildlfy.bot.config.util.Matcher;
+import io.xstefank.wildlfy.bot.config.rules.RuleEngine;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
+import io.xstefank.wildlfy.bot.fetch.PullRequestFetcher;
+import io.xstefank.wildlfy.bot.notification.DigestEntry;
+import io.xstefank.wildlfy.bot.notification.DigestQueue;
+import io.xstefank.wildlfy.bot.resilience.ApiBudget;
+import io.xstefank.wildlfy.bot.resilience.ApiBudgets;
+import io.xstefank.wildlfy.bot.resilience.BudgetExhaustedException;
+import io.xstefank.wildlfy.bot.resilience.GitHubGuard;
+import io.xstefank.wildlfy.bot.resilience.GitHubUnavailableException;
+import io.xstefank.wildlfy.bot.resilience.RetryQueue;
+import io.xstefank.wildlfy.bot.state.BotStateStore;
+import io.xstefank.wildlfy.bot.write.WriteBehindQueue;
+import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
 import org.kohsuke.github.GHEventPayload;
+import org.kohsuke.github.GHLabel;
 import org.kohsuke.github.GHPullRequest;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 
 public class TriagePullRequestProcessor {
     private static final Logger LOG = Logger.getLogger(TriagePullRequestProcessor.class);
 
-    void onPullRequestOpened(@PullRequest.Opened GHEventPayload.PullRequest pullRequestPayload,
-                             @ConfigFile(RuntimeConstants.CONFIG_FILE_NAME) WildFlyConfigFile wildflyBotConfigFile) throws IOException {
+    @Inject
+    ConfigRegistry configRegistry;
 
-        if (wildflyBotConfigFile == null) {
-            LOG.error("No configuration file available. ");
-            return;
-        }
+    @Inject
+    StickyComments stickyComments;
+
+    @Inject
+    DigestQueue digestQueue;
+
+    @Inject
+    TeamMembershipCache teamMembershipCache;
+
+    @Inject
+    GitHubGuard gitHubGuard;
+
+    @Inject
+    PullRequestFetcher pullRequestFetcher;
+
+    @Inject
+    RetryQueue retryQueue;
 
+    @Inject
+    WriteBehindQueue writeBehindQueue;
+
+    @Inject
+    ApiBudgets apiBudgets;
+
+    @Inject
+    InstallationClientPool clientPool;
+
+    void onPullRequestOpened(@PullRequest.Opened @PullRequest.ReadyForReview GHEventPayload.PullRequest pullRequestPayload)
+            throws IOException {
         GHPullRequest pullRequest = pullRequestPayload.getPullRequest();
+        long installationId = pullRequestPayload.getInstallation().getId();
+        String key = pullRequest.getRepository().getFullName() + "#" + pullRequest.getNumber();
+        try {
+            triage(key, pullRequest, false, installationId, apiBudgets.open("triage " + key));
+        } catch (GitHubUnavailableException e) {
+            LOG.warnf("Triage of %s deferred: %s", key, e.getMessage());
+            retryQueue.defer("triage " + key, () -> triage(key, pullRequest, true, installationId, apiBudgets.open("triage " + key)));
+        }
+    }
+
+    /**
+     * A complete triage cancels the retry deferred by an older event, and a retry triages the pull request as it is
+     * when it runs.
+     *
+     * @param reload whether to read the pull request again instead of using the one of the event
+     */
+    private void triage(String key, GHPullRequest pullRequest, boolean reload, long installationId, ApiBudget budget)
+            throws IOException {
+        List<String> skippedRules;
+        try (ApiBudget.Scope scope = budget.bind()) {
+            skippedRules = triage(reload ? pullRequestFetcher.reload(pullRequest) : pullRequest, installationId);
+        }
+        if (!skippedRules.isEmpty()) {
+            LOG.infof("Triage of %s degraded by %s, completing later: skipped rules %s", key, budget, skippedRules);
+            retryQueue.defer("triage " + key, () -> triage(key, pullRequest, true, installationId, ApiBudget.unlimited()));
+        } else {
+            retryQueue.cancel("triage " + key);
+        }
+    }
+
+    /**
+     * Rules which need the changed files are skipped once the budget does not allow listing them. The rules matched so
+     * far are applied, except for the digest, which is left to the complete triage.
+     *
+     * @return ids of the skipped rules
+     */
+    private List<String> triage(GHPullRequest pullRequest, long installationId) throws IOException {
+        CompiledConfig config = configRegistry.resolve(pullRequest.getRepository(), clientPool.getClient(installationId));
+        if (config == null) {
+            LOG.error("No configuration file available. ");
+            return List.of();
+        }
+        // the title, the body, the author and the labels are in the payload, only rules on files need more
+        RuleEngine ruleEngine = config.getRuleEngine();
+        PullRequestData data = ruleEngine.needsChangedFiles()
+                ? pullRequestFetcher.fetch(pullRequest, installationId)
+                : PullRequestData.of(pullRequest);
+        Set<String> currentLabels = new TreeSet<>();
+        for (GHLabel label : pullRequest.getLabels()) {
+            currentLabels.add(label.getName());
+        }
+        RuleEngine.Evaluation evaluation = ruleEngine.evaluate(
+                new RuleEngine.RuleInput(data, pullRequest.getUser().getLogin(), currentLabels));
         Set<String> mentions = new TreeSet<>();
+        Set<String> labels = new TreeSet<>();
+        List<String> matchedRules = new ArrayList<>();
+        List<String> skippedRules = new ArrayList<>();
 
-        for (WildFlyRule rule : wildflyBotConfigFile.wildfly.rules) {
+        for (WildFlyRule rule : config.getRules()) {
             if (rule.id != null) {
-                if (Matcher.matches(pullRequest, rule)) {
+                boolean matches;
+                try {
+                    // the pages of the changed files are requested through the guard as the rule reads them
+                    matches = evaluation.matches(rule);
+                } catch (BudgetExhaustedException e) {
+                    skippedRules.add(rule.id);
+                    continue;
+                }
+                if (matches) {
                     LOG.debugf("Matched rule with id: %s.", rule.id);
+                    matchedRules.add(rule.id);
+                    labels.addAll(rule.labels);
                     for (String nick : rule.notify) {
-                        if (!nick.equals(pullRequest.getUser().getLogin())) {
+                        if (TeamMembershipCache.isTeam(nick)) {
+                            Optional<Set<String>> members = teamMembershipCache.getMembers(installationId,
+                                    pullRequest.getRepository().getFullName(), nick);
+                            if (members.isEmpty()) {
+                                mentions.add(TeamMembershipCache.teamName(nick));
+                                continue;
+                            }
+                            for (String member : members.get()) {
+                                if (!member.equals(pullRequest.getUser().getLogin())) {
+                                    mentions.add(member);
+                                }
+                            }
+                        } else if (!nick.equals(pullRequest.getUser().getLogin())) {
                             mentions.add(nick);
                         }
                     }
@@ -42,9 +160,25 @@ public class TriagePullRequestProcessor {
         }
 
         if (!mentions.isEmpty()) {
-            pullRequest.comment("/cc @" + String.join(", @", mentions));
+            stickyComments.update(pullRequest, "/cc @" + String.join(", @", mentions));
+        }
+
+        // the payload already carries the current labels, so only the missing ones are added in a single call
+        labels.removeAll(currentLabels);
+        if (!labels.isEmpty()) {
+            String[] missingLabels = labels.toArray(String[]::new);
+            writeBehindQueue.submit(BotStateStore.pullRequestKey(pullRequest.getRepository().getFullName(), pullRequest.getNumber()),
+                    "labels " + String.join(",", missingLabels), () -> gitHubGuard.call(pullRequest.getRepository(), "add-labels", () -> {
+                        pullRequest.addLabels(missingLabels);
+                        return null;
+                    }));
+        }
+
+        if (!matchedRules.isEmpty() && !config.getEmails().isEmpty() && skippedRules.isEmpty()) {
+            digestQueue.enqueue(config.getEmails(), DigestEntry.of(pullRequest, matchedRules));
         }
 
+        return skippedRules;
     }
 }
 
@@ -0,0 +1,300 @@
+package io.xstefank.wildlfy.bot.admin;
+
+import io.quarkiverse.githubapp.GitHubClientProvider;
+import io.quarkus.vertx.http.ManagementInterface;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.xstefank.wildlfy.bot.ConfigRegistry;
+import io.xstefank.wildlfy.bot.PullRequestReconciler;
+import io.xstefank.wildlfy.bot.TeamMembershipCache;
+import io.xstefank.wildlfy.bot.auth.InstallationClientPool;
+import io.xstefank.wildlfy.bot.config.CompiledConfig;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile;
+import io.xstefank.wildlfy.bot.config.util.CacheStatistics;
+import io.xstefank.wildlfy.bot.config.util.SingleFlightLoader;
+import io.xstefank.wildlfy.bot.http.Http2GitHubConnector;
+import io.xstefank.wildlfy.bot.notification.DigestQueue;
+import io.xstefank.wildlfy.bot.ordering.StripedExecutor;
+import io.xstefank.wildlfy.bot.resilience.ApiBudgets;
+import io.xstefank.wildlfy.bot.resilience.CircuitBreaker;
+import io.xstefank.wildlfy.bot.resilience.GitHubGuard;
+import io.xstefank.wildlfy.bot.resilience.RetryQueue;
+import io.xstefank.wildlfy.bot.write.WriteBehindQueue;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.GHRateLimit;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.connector.GitHubConnector;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lets operators inspect and control the caches and queues of the bot on the management interface, without a restart.
+ * <p>
+ * The routes are only registered if {@code wildfly-bot.admin.token} is set, and every request has to send it as a
+ * bearer token:
+ * <ul>
+ *     <li>{@code GET /admin/caches} sizes, hit rates and evictions of the caches, and the weights of those which have
+ *     one</li>
+ *     <li>{@code GET /admin/queues} depths of the queues, per account and installation with its circuit breaker and
+ *     rate limit</li>
+ *     <li>{@code POST /admin/repositories/{owner}/{repository}/flush} forgets everything cached for the repository</li>
+ *     <li>{@code POST /admin/repositories/{owner}/{repository}/warm-up} issues the installation token, resolves the
+ *     configuration and fetches the teams it notifies</li>
+ *     <li>{@code POST /admin/repositories/{owner}/{repository}/pulls/{number}/evaluate} reports the format status of
+ *     the pull request again within a budget, see {@link PullRequestReconciler#reevaluate(String, int, long)}</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class AdminRoutes {
+
+    private static final Logger LOG = Logger.getLogger(AdminRoutes.class);
+
+    static final String PATH = "/admin";
+    static final String REPOSITORY_PATH = PATH + "/repositories/:owner/:repository";
+
+    // owner of the pull request in the keys of the queues, e.g. "format owner/repository#23"
+    private static final Pattern PULL_REQUEST_KEY = Pattern.compile("([^\\s/#]+)/[^\\s/#]+#\\d+");
+
+    @Inject
+    GitHubClientProvider clientProvider;
+
+    @Inject
+    InstallationClientPool clientPool;
+
+    @Inject
+    ConfigRegistry configRegistry;
+
+    @Inject
+    TeamMembershipCache teamMembershipCache;
+
+    @Inject
+    PullRequestReconciler reconciler;
+
+    @Inject
+    GitHubGuard gitHubGuard;
+
+    @Inject
+    ApiBudgets apiBudgets;
+
+    @Inject
+    RetryQueue retryQueue;
+
+    @Inject
+    WriteBehindQueue writeBehindQueue;
+
+    @Inject
+    StripedExecutor stripedExecutor;
+
+    @Inject
+    DigestQueue digestQueue;
+
+    @Inject
+    GitHubConnector connector;
+
+    @ConfigProperty(name = "wildfly-bot.admin.token")
+    Optional<String> token;
+
+    void init(@Observes ManagementInterface managementInterface) {
+        if (token.isEmpty() || token.get().isBlank()) {
+            LOG.debug("Admin API disabled, wildfly-bot.admin.token is not set.");
+            return;
+        }
+
+        Router router = managementInterface.router();
+        router.route(PATH + "/*").handler(this::authenticate);
+        router.get(PATH + "/caches").handler(context -> respond(context, 200, caches()));
+        router.get(PATH + "/queues").handler(context -> respond(context, 200, queues()));
+        router.post(REPOSITORY_PATH + "/flush").handler(this::flush);
+        router.post(REPOSITORY_PATH + "/warm-up").blockingHandler(this::warmUp, false);
+        router.post(REPOSITORY_PATH + "/pulls/:number/evaluate").blockingHandler(this::evaluate, false);
+    }
+
+    private void authenticate(RoutingContext context) {
+        String authorization = context.request().getHeader("Authorization");
+        byte[] expected = ("Bearer " + token.get()).getBytes(StandardCharsets.UTF_8);
+        if (authorization != null && MessageDigest.isEqual(expected, authorization.getBytes(StandardCharsets.UTF_8))) {
+            context.next();
+        } else {
+            context.response().putHeader("WWW-Authenticate", "Bearer");
+            respond(context, 401, new JsonObject().put("error", "missing or wrong token"));
+        }
+    }
+
+    private JsonObject caches() {
+        SingleFlightLoader<?, ?> configLoader = configRegistry.getConfigLoader();
+        return new JsonObject()
+                .put("compiled-configs", cache(configRegistry.getCompiledConfigCount(), configRegistry.getCompiledConfigWeight(),
+                        configRegistry.getCompiledConfigStatistics()))
+                // entries of these caches hold no more than references, so they have no weight of their own
+                .put("repository-interests", cache(configRegistry.getInterestCount(), configRegistry.getInterestStatistics()))
+                .put("config-files", cache(configLoader.getResultCount(), configLoader.getStatistics())
+                        .put("loads-in-flight", configLoader.getInFlightCount()))
+                .put("team-memberships", cache(teamMembershipCache.getTeamCount(), teamMembershipCache.getMemberCount(),
+                        teamMembershipCache.getStatistics()));
+    }
+
+    private JsonObject queues() {
+        Map<String, JsonObject> accounts = new TreeMap<>();
+        gitHubGuard.getCircuitBreakers().forEach((account, circuitBreaker) -> account(accounts, account)
+                .put("circuit-breaker", circuitBreaker.getState().name()));
+        writeBehindQueue.getPendingCounts().forEach((pullRequest, count) -> increment(accounts, pullRequest, "pending-writes", count));
+        retryQueue.getPendingKeys().forEach(key -> increment(accounts, key, "pending-retries", 1));
+
+        JsonObject installations = new JsonObject();
+        for (long installationId : clientPool.getInstallationIds()) {
+            JsonObject installation = new JsonObject().put("token-expires-at", String.valueOf(clientPool.getExpiresAt(installationId)));
+            GHRateLimit rateLimit = clientPool.getLastRateLimit(installationId);
+            if (rateLimit != null) {
+                installation.put("rate-limit", new JsonObject()
+                        .put("limit", rateLimit.getCore().getLimit())
+                        .put("remaining", rateLimit.getCore().getRemaining())
+                        .put("reset-at", rateLimit.getCore().getResetDate().toInstant().toString()));
+            }
+            installations.put(String.valueOf(installationId), installation);
+        }
+
+        JsonObject queues = new JsonObject()
+                .put("pending-writes", writeBehindQueue.getPendingCount())
+                .put("pending-retries", retryQueue.getPendingCount())
+                .put("ordered-tasks-waiting", stripedExecutor.getQueuedCount())
+                .put("digest-entries", digestQueue.getQueuedCount())
+                .put("github-calls-in-flight", gitHubGuard.getInFlightCount());
+        if (connector instanceof Http2GitHubConnector http2Connector) {
+            queues.put("http-requests-in-flight", http2Connector.getInFlightCount());
+        }
+        return queues
+                .put("budget", new JsonObject()
+                        .put("enabled", apiBudgets.isEnabled())
+                        .put("max-calls", apiBudgets.getMaxCalls())
+                        .put("max-bytes", apiBudgets.getMaxBytes()))
+                .put("accounts", new JsonObject(new TreeMap<>(accounts)))
+                .put("installations", installations);
+    }
+
+    private void flush(RoutingContext context) {
+        String repository = repository(context);
+        configRegistry.flush(repository);
+        LOG.infof("Flushed the caches of %s.", repository);
+        respond(context, 200, new JsonObject().put("repository", repository).put("flushed", true));
+    }
+
+    private void warmUp(RoutingContext context) {
+        String repositoryName = repository(context);
+        try {
+            long installationId = installationId(context);
+            clientPool.warmUp(installationId);
+            GitHub gitHub = clientPool.getClient(installationId);
+            GHRepository repository = gitHub.getRepository(repositoryName);
+            CompiledConfig config = configRegistry.resolve(repository, gitHub);
+            int teams = 0;
+            if (config != null) {
+                for (WildFlyConfigFile.WildFlyRule rule : config.getRules()) {
+                    for (String notify : rule.notify) {
+                        if (TeamMembershipCache.isTeam(notify)) {
+                            teamMembershipCache.getMembers(installationId, repositoryName, notify);
+                            teams++;
+                        }
+                    }
+                }
+            }
+            LOG.infof("Warmed up the caches of %s.", repositoryName);
+            respond(context, 200, new JsonObject()
+                    .put("repository", repositoryName)
+                    .put("installation", installationId)
+                    .put("configured", config != null)
+                    .put("teams", teams));
+        } catch (IOException e) {
+            failed(context, "warm up " + repositoryName, e);
+        }
+    }
+
+    private void evaluate(RoutingContext context) {
+        String repositoryName = repository(context);
+        int number;
+        try {
+            number = Integer.parseInt(context.pathParam("number"));
+        } catch (NumberFormatException e) {
+            respond(context, 400, new JsonObject().put("error", "not a pull request number: " + context.pathParam("number")));
+            return;
+        }
+
+        try {
+            boolean configured = reconciler.reevaluate(repositoryName, number, installationId(context));
+            LOG.infof("Evaluated %s#%d again.", repositoryName, number);
+            respond(context, 200, new JsonObject()
+                    .put("repository", repositoryName)
+                    .put("number", number)
+                    .put("configured", configured));
+        } catch (IOException e) {
+            failed(context, "evaluate " + repositoryName + "#" + number, e);
+        }
+    }
+
+    private long installationId(RoutingContext context) throws IOException {
+        return clientProvider.getApplicationClient().getApp()
+                .getInstallationByRepository(context.pathParam("owner"), context.pathParam("repository"))
+                .getId();
+    }
+
+    private static String repository(RoutingContext context) {
+        return context.pathParam("owner") + "/" + context.pathParam("repository");
+    }
+
+    private static JsonObject cache(int size, int weight, CacheStatistics statistics) {
+        return cache(size, statistics).put("weight", weight);
+    }
+
+    private static JsonObject cache(int size, CacheStatistics statistics) {
+        return new JsonObject()
+                .put("size", size)
+                .put("hits", statistics.getHitCount())
+                .put("misses", statistics.getMissCount())
+                .put("hit-rate", statistics.getHitRate())
+                .put("evictions", statistics.getEvictionCount());
+    }
+
+    private static JsonObject account(Map<String, JsonObject> accounts, String account) {
+        return accounts.computeIfAbsent(account, key -> new JsonObject()
+                .put("circuit-breaker", CircuitBreaker.State.CLOSED.name())
+                .put("pending-writes", 0)
+                .put("pending-retries", 0));
+    }
+
+    private static void increment(Map<String, JsonObject> accounts, String key, String field, int count) {
+        Matcher matcher = PULL_REQUEST_KEY.matcher(key);
+        if (matcher.find()) {
+            JsonObject account = account(accounts, matcher.group(1));
+            account.put(field, account.getInteger(field) + count);
+        }
+    }
+
+    private static void failed(RoutingContext context, String action, IOException e) {
+        if (e instanceof GHFileNotFoundException) {
+            respond(context, 404, new JsonObject().put("error", "unable to " + action + ": not found"));
+            return;
+        }
+        LOG.warnf(e, "Admin request unable to %s.", action);
+        respond(context, 502, new JsonObject().put("error", "unable to " + action + ": " + e.getMessage()));
+    }
+
+    private static void respond(RoutingContext context, int status, JsonObject body) {
+        context.response()
+                .setStatusCode(status)
+                .putHeader("Content-Type", "application/json")
+                .end(body.encode());
+    }
+}
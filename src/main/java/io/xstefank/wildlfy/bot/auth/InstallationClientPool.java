@@ -0,0 +1,361 @@
+package io.xstefank.wildlfy.bot.auth;
+
+import io.quarkiverse.githubapp.GitHubClientProvider;
+import io.smallrye.graphql.client.dynamic.api.DynamicGraphQLClient;
+import io.smallrye.graphql.client.dynamic.api.DynamicGraphQLClientBuilder;
+import org.jboss.logging.Logger;
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.GHRateLimit;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.HttpException;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps one configured REST and GraphQL client per installation and refreshes their installation tokens in the
+ * background, {@code refreshBefore} the tokens expire, so callers do not wait for the JWT signing and the token
+ * exchange.
+ * <p>
+ * The REST client reads the current token on every request and is never replaced. The GraphQL client sends a fixed
+ * header, so it is rebuilt with each new token and the replaced one is closed a little later, once the queries it
+ * runs are done. A failed refresh is tried again after {@link #RETRY_DELAY} while the current token is still valid.
+ * Installations whose clients were not used since the last refresh are dropped instead of refreshed.
+ * <p>
+ * Only the first client of an installation waits for its token, {@link #warmUp(long)} issues it ahead. Concurrent first
+ * callers of the same installation wait for one token, other installations are not held up by it.
+ */
+public class InstallationClientPool implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(InstallationClientPool.class);
+
+    static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+    static final Duration CLOSE_DELAY = Duration.ofMinutes(1);
+
+    @FunctionalInterface
+    public interface TokenIssuer {
+
+        IssuedToken issue(long installationId) throws IOException;
+    }
+
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+
+    private final TokenIssuer issuer;
+    private final GitHubConnector connector;
+    private final String restApiEndpoint;
+    private final String graphqlApiEndpoint;
+    private final long refreshBeforeMillis;
+    private final GitHubClientProvider direct;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Long, Installation> installations = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Installation>> issuing = new ConcurrentHashMap<>();
+
+    public InstallationClientPool(TokenIssuer issuer, GitHubConnector connector, String restApiEndpoint, String graphqlApiEndpoint,
+            Duration refreshBefore) {
+        this.issuer = issuer;
+        this.connector = connector;
+        this.restApiEndpoint = restApiEndpoint;
+        this.graphqlApiEndpoint = graphqlApiEndpoint;
+        this.refreshBeforeMillis = refreshBefore.toMillis();
+        this.direct = null;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wildfly-bot-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private InstallationClientPool(GitHubClientProvider direct) {
+        this.issuer = null;
+        this.connector = null;
+        this.restApiEndpoint = null;
+        this.graphqlApiEndpoint = null;
+        this.refreshBeforeMillis = 0;
+        this.direct = direct;
+        this.scheduler = null;
+    }
+
+    /**
+     * @return pool asking the provider for a new client on every call
+     */
+    public static InstallationClientPool direct(GitHubClientProvider clientProvider) {
+        return new InstallationClientPool(clientProvider);
+    }
+
+    public GitHub getClient(long installationId) throws IOException {
+        if (direct != null) {
+            return direct.getInstallationClient(installationId);
+        }
+        return installation(installationId).used().gitHub;
+    }
+
+    public DynamicGraphQLClient getGraphQLClient(long installationId) throws IOException {
+        if (direct != null) {
+            return direct.getInstallationGraphQLClient(installationId);
+        }
+        return installation(installationId).used().graphQLClient;
+    }
+
+    /**
+     * @return whether the pool keeps its own clients, {@code false} if it asks the provider for every client
+     */
+    public boolean isPooled() {
+        return direct == null;
+    }
+
+    /**
+     * Sends a GET request with the connector and the token of the pooled REST client of the installation, for
+     * responses read as they stream in instead of being bound by the client.
+     *
+     * @param url absolute URL, or path of the REST API starting with {@code /}
+     * @return successful response, to be closed by the caller
+     * @throws GHFileNotFoundException if GitHub answers 404
+     * @throws HttpException if GitHub answers any other error
+     * @throws IllegalStateException if the pool is not {@link #isPooled() pooled}
+     */
+    public GitHubConnectorResponse get(long installationId, String url) throws IOException {
+        if (direct != null) {
+            throw new IllegalStateException("Clients of installation " + installationId + " are not pooled");
+        }
+        Installation installation = installation(installationId).used();
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.put("Accept", List.of("application/vnd.github+json"));
+        headers.put("Authorization", List.of("token " + installation.token.token()));
+        URL target = URI.create(url.startsWith("/") ? restApiEndpoint + url : url).toURL();
+
+        GitHubConnectorResponse response = connector.send(new GetRequest(target, headers));
+        if (response.statusCode() >= 400) {
+            try (response) {
+                if (response.statusCode() == 404) {
+                    throw new GHFileNotFoundException(target + " not found");
+                }
+                throw new HttpException(response);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Issues the token of the installation unless it is already pooled.
+     */
+    public void warmUp(long installationId) throws IOException {
+        if (direct == null) {
+            installation(installationId);
+        }
+    }
+
+    public int getInstallationCount() {
+        return installations.size();
+    }
+
+    /**
+     * @return when the token of the installation expires, {@code null} if the installation is not pooled
+     */
+    public Instant getExpiresAt(long installationId) {
+        Installation installation = installations.get(installationId);
+        return installation == null ? null : installation.token.expiresAt();
+    }
+
+    /**
+     * @return ids of the pooled installations
+     */
+    public Set<Long> getInstallationIds() {
+        return Set.copyOf(installations.keySet());
+    }
+
+    /**
+     * @return rate limit of the installation as of its last response, {@code null} if it is not pooled or did not call
+     * GitHub yet. Does not count as a use of the installation.
+     */
+    public GHRateLimit getLastRateLimit(long installationId) {
+        Installation installation = installations.get(installationId);
+        return installation == null ? null : installation.gitHub.lastRateLimit();
+    }
+
+    @Override
+    public void close() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        installations.values().forEach(installation -> closeQuietly(installation.graphQLClient));
+        installations.clear();
+    }
+
+    private Installation installation(long installationId) throws IOException {
+        Installation installation = installations.get(installationId);
+        if (installation != null) {
+            return installation;
+        }
+
+        CompletableFuture<Installation> flight = new CompletableFuture<>();
+        CompletableFuture<Installation> running = issuing.putIfAbsent(installationId, flight);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // issued by a flight which finished after the lookup above
+            installation = installations.get(installationId);
+            if (installation == null) {
+                installation = new Installation(installationId, issuer.issue(installationId));
+                installations.put(installationId, installation);
+                scheduleRefresh(installation);
+            }
+            flight.complete(installation);
+            return installation;
+        } catch (IOException | RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            issuing.remove(installationId, flight);
+        }
+    }
+
+    private static Installation await(CompletableFuture<Installation> flight) throws IOException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an installation token");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void scheduleRefresh(Installation installation) {
+        long delay = Math.max(0, installation.token.expiresAt().toEpochMilli() - refreshBeforeMillis - System.currentTimeMillis());
+        scheduler.schedule(() -> refresh(installation), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh(Installation installation) {
+        if (!installation.used) {
+            LOG.debugf("Dropping clients of unused installation %d.", installation.id);
+            drop(installation);
+            return;
+        }
+
+        try {
+            installation.update(issuer.issue(installation.id));
+            scheduleRefresh(installation);
+        } catch (IOException | RuntimeException e) {
+            if (installation.token.expiresAt().isBefore(Instant.now().plus(RETRY_DELAY))) {
+                LOG.warnf("Unable to refresh the token of installation %d before it expires, dropping its clients: %s",
+                        installation.id, e.getMessage());
+                drop(installation);
+                return;
+            }
+            LOG.warnf("Unable to refresh the token of installation %d, trying again in %s: %s", installation.id, RETRY_DELAY,
+                    e.getMessage());
+            scheduler.schedule(() -> refresh(installation), RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drop(Installation installation) {
+        installations.remove(installation.id, installation);
+        // queries may still run with the dropped client
+        scheduler.schedule(() -> closeQuietly(installation.graphQLClient), CLOSE_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private DynamicGraphQLClient graphQLClient(IssuedToken token) {
+        return DynamicGraphQLClientBuilder.newBuilder()
+                .url(graphqlApiEndpoint)
+                .header("Authorization", "Bearer " + token.token())
+                .build();
+    }
+
+    private static void closeQuietly(DynamicGraphQLClient client) {
+        try {
+            client.close();
+        } catch (Exception e) {
+            LOG.debugf("Unable to close GraphQL client: %s", e.getMessage());
+        }
+    }
+
+    private record GetRequest(URL url, Map<String, List<String>> allHeaders) implements GitHubConnectorRequest {
+
+        @Override
+        public String method() {
+            return "GET";
+        }
+
+        @Override
+        public String header(String name) {
+            List<String> values = allHeaders.get(name);
+            return values == null ? null : String.join(",", values);
+        }
+
+        @Override
+        public String contentType() {
+            return null;
+        }
+
+        @Override
+        public InputStream body() {
+            return null;
+        }
+
+        @Override
+        public boolean hasBody() {
+            return false;
+        }
+    }
+
+    private final class Installation {
+
+        private final long id;
+        private final GitHub gitHub;
+        private volatile IssuedToken token;
+        private volatile DynamicGraphQLClient graphQLClient;
+        private volatile boolean used;
+
+        private Installation(long id, IssuedToken token) throws IOException {
+            this.id = id;
+            this.token = token;
+            this.gitHub = new GitHubBuilder()
+                    .withEndpoint(restApiEndpoint)
+                    .withConnector(connector)
+                    .withAuthorizationProvider(() -> "token " + this.token.token())
+                    .build();
+            this.graphQLClient = graphQLClient(token);
+        }
+
+        private Installation used() {
+            used = true;
+            return this;
+        }
+
+        private void update(IssuedToken refreshed) {
+            DynamicGraphQLClient replaced = graphQLClient;
+            token = refreshed;
+            graphQLClient = graphQLClient(refreshed);
+            used = false;
+            scheduler.schedule(() -> closeQuietly(replaced), CLOSE_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.xstefank.wildlfy.bot.auth;
+
+import io.quarkiverse.githubapp.GitHubClientProvider;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kohsuke.github.GHAppInstallationToken;
+import org.kohsuke.github.connector.GitHubConnector;
+
+import java.time.Duration;
+
+@ApplicationScoped
+public class InstallationClientPoolProducer {
+
+    @Inject
+    GitHubClientProvider clientProvider;
+
+    @Inject
+    GitHubConnector connector;
+
+    @ConfigProperty(name = "wildfly-bot.tokens.pooled", defaultValue = "true")
+    boolean pooled;
+
+    @ConfigProperty(name = "wildfly-bot.tokens.refresh-before", defaultValue = "10m")
+    Duration refreshBefore;
+
+    @ConfigProperty(name = "quarkus.github-app.rest-api-endpoint", defaultValue = "https://api.github.com")
+    String restApiEndpoint;
+
+    @ConfigProperty(name = "quarkus.github-app.graphql-api-endpoint", defaultValue = "https://api.github.com/graphql")
+    String graphqlApiEndpoint;
+
+    @Produces
+    @Singleton
+    InstallationClientPool installationClientPool() {
+        if (!pooled) {
+            return InstallationClientPool.direct(clientProvider);
+        }
+        return new InstallationClientPool(installationId -> {
+            GHAppInstallationToken token = clientProvider.getApplicationClient().getApp()
+                    .getInstallationById(installationId).createToken().create();
+            return new InstallationClientPool.IssuedToken(token.getToken(), token.getExpiresAt().toInstant());
+        }, connector, restApiEndpoint, graphqlApiEndpoint, refreshBefore);
+    }
+
+    void close(@Disposes InstallationClientPool installationClientPool) {
+        installationClientPool.close();
+    }
+}
@@ -0,0 +1,26 @@
+package io.xstefank.wildlfy.bot.cluster;
+
+/**
+ * A node of the cluster.
+ *
+ * @param id unique and stable name of the node, used to place the node on the {@link HashRing}
+ * @param address base URL under which the node receives webhooks, e.g. {@code http://bot-1:8080}
+ */
+public record ClusterMember(String id, String address) implements Comparable<ClusterMember> {
+
+    /**
+     * Parses a member in the {@code id=address} format.
+     */
+    public static ClusterMember parse(String member) {
+        int separator = member.indexOf('=');
+        if (separator <= 0 || separator == member.length() - 1) {
+            throw new IllegalArgumentException("Cluster member must be in the id=address format: " + member);
+        }
+        return new ClusterMember(member.substring(0, separator).trim(), member.substring(separator + 1).trim());
+    }
+
+    @Override
+    public int compareTo(ClusterMember other) {
+        return id.compareTo(other.id);
+    }
+}
@@ -0,0 +1,106 @@
+package io.xstefank.wildlfy.bot.cluster;
+
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A node of the cluster deciding which node owns a repository. Every repository is owned by exactly one live node,
+ * so in-memory state kept per repository or pull request stays on a single node.
+ * <p>
+ * The ownership is rebuilt from the live members on every membership change reported by the {@link ClusterTransport}.
+ */
+public class ClusterNode {
+
+    private static final Logger LOG = Logger.getLogger(ClusterNode.class);
+
+    /**
+     * Header marking a forwarded request. Forwarded requests are always handled locally, so a request is forwarded at
+     * most once even if the nodes disagree on the membership for a while.
+     */
+    public static final String FORWARDED_HEADER = "X-WildFly-Bot-Forwarded-By";
+
+    private final ClusterMember self;
+    private final ClusterTransport transport;
+    private final int virtualNodes;
+    private final List<Consumer<Set<ClusterMember>>> membershipListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Set<ClusterMember> members;
+    private volatile HashRing ring;
+
+    public ClusterNode(ClusterMember self, ClusterTransport transport, int virtualNodes) {
+        this.self = self;
+        this.transport = transport;
+        this.virtualNodes = virtualNodes;
+        this.members = Set.of(self);
+        this.ring = new HashRing(members, virtualNodes);
+    }
+
+    /**
+     * @param receiver handles requests forwarded to this node, see {@link ClusterTransport#join}
+     */
+    public void start(Function<ForwardedRequest, CompletionStage<Integer>> receiver) {
+        transport.join(self, this::onMembershipChange, receiver);
+    }
+
+    public void stop() {
+        transport.leave();
+    }
+
+    public void addMembershipListener(Consumer<Set<ClusterMember>> listener) {
+        membershipListeners.add(listener);
+    }
+
+    public ClusterMember getSelf() {
+        return self;
+    }
+
+    public Set<ClusterMember> getMembers() {
+        return members;
+    }
+
+    public ClusterMember ownerOf(String repository) {
+        ClusterMember owner = ring.owner(repository);
+        return owner != null ? owner : self;
+    }
+
+    public boolean isOwner(String repository) {
+        return self.equals(ownerOf(repository));
+    }
+
+    /**
+     * Passes the request to the owner of its repository.
+     *
+     * @return the HTTP status with which the owner accepted the request
+     */
+    public CompletionStage<Integer> forward(ForwardedRequest request) {
+        ClusterMember owner = ownerOf(request.repository());
+        if (self.equals(owner)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Repository " + request.repository() + " is owned by this node"));
+        }
+        LOG.debugf("Forwarding event for %s to %s.", request.repository(), owner.id());
+        return transport.forward(owner, request);
+    }
+
+    private void onMembershipChange(Set<ClusterMember> liveMembers) {
+        Set<ClusterMember> newMembers = new TreeSet<>(liveMembers);
+        newMembers.add(self);
+        if (newMembers.equals(members)) {
+            return;
+        }
+
+        LOG.infof("Cluster membership changed to %s, rebalancing repositories.", newMembers.stream().map(ClusterMember::id).toList());
+        ring = new HashRing(newMembers, virtualNodes);
+        members = Set.copyOf(newMembers);
+        for (Consumer<Set<ClusterMember>> listener : membershipListeners) {
+            listener.accept(members);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.xstefank.wildlfy.bot.cluster;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.vertx.core.Context;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.BodyHandler;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Routes webhook deliveries to the node owning their repository when {@code wildfly-bot.cluster.enabled} is set.
+ * <p>
+ * Deliveries for repositories owned by this node, deliveries already forwarded by another node and deliveries without
+ * a repository continue to the regular webhook route. Other deliveries are forwarded to their owner and its response
+ * status is returned to GitHub. If the owner cannot be reached, the delivery is handled locally.
+ */
+@ApplicationScoped
+public class ClusterRouter {
+
+    private static final Logger LOG = Logger.getLogger(ClusterRouter.class);
+
+    // before the webhook route of the GitHub App extension
+    static final int ROUTE_ORDER = -100;
+
+    @ConfigProperty(name = "wildfly-bot.cluster.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "wildfly-bot.cluster.node-id", defaultValue = "${HOSTNAME:localhost}")
+    String nodeId;
+
+    @ConfigProperty(name = "wildfly-bot.cluster.members")
+    Optional<List<String>> members;
+
+    @ConfigProperty(name = "wildfly-bot.cluster.virtual-nodes", defaultValue = "128")
+    int virtualNodes;
+
+    @ConfigProperty(name = "wildfly-bot.cluster.heartbeat-interval", defaultValue = "5s")
+    Duration heartbeatInterval;
+
+    @ConfigProperty(name = "wildfly-bot.cluster.timeout", defaultValue = "2s")
+    Duration timeout;
+
+    private ClusterNode node;
+
+    void init(@Observes Router router) {
+        if (!enabled) {
+            return;
+        }
+
+        List<ClusterMember> configuredMembers = members.orElse(List.of()).stream().map(ClusterMember::parse).toList();
+        ClusterMember self = configuredMembers.stream()
+                .filter(member -> member.id().equals(nodeId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Node " + nodeId + " is not listed in wildfly-bot.cluster.members"));
+
+        node = new ClusterNode(self, new HttpClusterTransport(configuredMembers, heartbeatInterval, timeout), virtualNodes);
+
+        router.get(HttpClusterTransport.PING_PATH).handler(context -> context.response().end(self.id()));
+        router.post("/").order(ROUTE_ORDER).handler(BodyHandler.create()).handler(this::route);
+
+        node.start(request -> CompletableFuture.failedFuture(new UnsupportedOperationException("Forwarded requests are received by the webhook route")));
+        LOG.infof("Cluster mode enabled, this node is %s.", self.id());
+    }
+
+    void stop(@Observes ShutdownEvent event) {
+        if (node != null) {
+            node.stop();
+        }
+    }
+
+    public Optional<ClusterNode> getNode() {
+        return Optional.ofNullable(node);
+    }
+
+    /**
+     * @return whether this node handles the repository, always {@code true} outside the cluster mode
+     */
+    public boolean isOwner(String repository) {
+        return getNode().map(clusterNode -> clusterNode.isOwner(repository)).orElse(true);
+    }
+
+    private void route(RoutingContext routingContext) {
+        if (routingContext.request().getHeader(ClusterNode.FORWARDED_HEADER) != null) {
+            routingContext.next();
+            return;
+        }
+
+        String repository = repositoryOf(routingContext);
+        if (repository == null || node.isOwner(repository)) {
+            routingContext.next();
+            return;
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        routingContext.request().headers().forEach(header -> {
+            String name = header.getKey().toLowerCase(Locale.ROOT);
+            if (name.startsWith("x-github-") || name.startsWith("x-hub-") || name.startsWith("x-quarkiverse-")
+                    || name.equals("x-request-id") || name.equals("content-type")) {
+                headers.put(header.getKey(), header.getValue());
+            }
+        });
+
+        Context context = routingContext.vertx().getOrCreateContext();
+        node.forward(new ForwardedRequest(repository, headers, routingContext.body().buffer().getBytes()))
+                .whenComplete((status, failure) -> context.runOnContext(ignored -> {
+                    if (failure != null) {
+                        LOG.warnf("Unable to forward event for %s, handling it locally: %s", repository, failure.getMessage());
+                        routingContext.next();
+                    } else {
+                        routingContext.response().setStatusCode(status).end();
+                    }
+                }));
+    }
+
+    private static String repositoryOf(RoutingContext routingContext) {
+        try {
+            JsonObject body = routingContext.body().asJsonObject();
+            JsonObject repository = body == null ? null : body.getJsonObject("repository");
+            return repository == null ? null : repository.getString("full_name");
+        } catch (DecodeException | ClassCastException e) {
+            return null;
+        }
+    }
+}
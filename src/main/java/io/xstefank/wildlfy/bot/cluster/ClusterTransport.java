@@ -0,0 +1,30 @@
+package io.xstefank.wildlfy.bot.cluster;
+
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Membership and forwarding between the nodes of a cluster.
+ */
+public interface ClusterTransport {
+
+    /**
+     * Joins the cluster.
+     *
+     * @param self the joining node
+     * @param membershipListener called with all live members, including {@code self}, whenever the membership changes
+     * @param receiver handles requests forwarded to this node by the transport, transports which deliver forwarded
+     *                 requests through the webhook endpoint itself do not use it
+     */
+    void join(ClusterMember self, Consumer<Set<ClusterMember>> membershipListener,
+              Function<ForwardedRequest, CompletionStage<Integer>> receiver);
+
+    void leave();
+
+    /**
+     * @return the HTTP status with which the target node accepted the request
+     */
+    CompletionStage<Integer> forward(ClusterMember target, ForwardedRequest request);
+}
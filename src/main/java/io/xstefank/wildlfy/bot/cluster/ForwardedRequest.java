@@ -0,0 +1,9 @@
+package io.xstefank.wildlfy.bot.cluster;
+
+import java.util.Map;
+
+/**
+ * A webhook delivery passed from the node which received it to the node owning its repository.
+ */
+public record ForwardedRequest(String repository, Map<String, String> headers, byte[] body) {
+}
@@ -0,0 +1,58 @@
+package io.xstefank.wildlfy.bot.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring assigning keys to cluster members. Each member is placed on the ring several times, so keys
+ * spread evenly and a membership change only moves the keys of the joining or leaving member.
+ * <p>
+ * The ring only depends on the member ids, so all nodes seeing the same membership agree on the owners.
+ */
+public final class HashRing {
+
+    private final TreeMap<Long, ClusterMember> ring = new TreeMap<>();
+
+    public HashRing(Collection<ClusterMember> members, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Number of virtual nodes must be positive");
+        }
+        for (ClusterMember member : members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(member.id() + "#" + i), member);
+            }
+        }
+    }
+
+    /**
+     * @return the member owning the key or {@code null} if the ring is empty
+     */
+    public ClusterMember owner(String key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, ClusterMember> owner = ring.ceilingEntry(hash(key));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    public boolean isEmpty() {
+        return ring.isEmpty();
+    }
+
+    // FNV-1a with the MurmurHash3 finalizer, stable across JVMs unlike String.hashCode() based mixing
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,107 @@
+package io.xstefank.wildlfy.bot.cluster;
+
+import org.jboss.logging.Logger;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Transport for nodes reachable over HTTP, e.g. replicas behind a headless service or several instances on localhost.
+ * <p>
+ * The possible members are configured statically. A member is live while it answers the heartbeat sent to
+ * {@link #PING_PATH} with its own id. Requests are forwarded to the webhook endpoint of the owner with the
+ * {@link ClusterNode#FORWARDED_HEADER} set, so the owner handles them as regular deliveries.
+ */
+public class HttpClusterTransport implements ClusterTransport {
+
+    private static final Logger LOG = Logger.getLogger(HttpClusterTransport.class);
+
+    public static final String PING_PATH = "/cluster/ping";
+
+    private final List<ClusterMember> configuredMembers;
+    private final Duration heartbeatInterval;
+    private final Duration timeout;
+    private final HttpClient client;
+
+    private ClusterMember self;
+    private ScheduledExecutorService heartbeat;
+
+    public HttpClusterTransport(List<ClusterMember> configuredMembers, Duration heartbeatInterval, Duration timeout) {
+        this.configuredMembers = List.copyOf(configuredMembers);
+        this.heartbeatInterval = heartbeatInterval;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void join(ClusterMember self, Consumer<Set<ClusterMember>> membershipListener,
+                     Function<ForwardedRequest, CompletionStage<Integer>> receiver) {
+        this.self = self;
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wildfly-bot-cluster-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleWithFixedDelay(() -> membershipListener.accept(liveMembers()),
+                0, heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void leave() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+        }
+    }
+
+    @Override
+    public CompletionStage<Integer> forward(ClusterMember target, ForwardedRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target.address() + "/"))
+                .timeout(timeout)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(request.body()));
+        for (Map.Entry<String, String> header : request.headers().entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        builder.header(ClusterNode.FORWARDED_HEADER, self.id());
+
+        return client.sendAsync(builder.build(), HttpResponse.BodyHandlers.discarding())
+                .thenApply(HttpResponse::statusCode);
+    }
+
+    private Set<ClusterMember> liveMembers() {
+        Set<ClusterMember> live = new TreeSet<>();
+        live.add(self);
+
+        List<CompletableFuture<Void>> pings = configuredMembers.stream()
+                .filter(member -> !member.equals(self))
+                .map(member -> client.sendAsync(HttpRequest.newBuilder(URI.create(member.address() + PING_PATH)).timeout(timeout).build(),
+                                HttpResponse.BodyHandlers.ofString())
+                        .thenAccept(response -> {
+                            if (response.statusCode() == 200 && member.id().equals(response.body())) {
+                                synchronized (live) {
+                                    live.add(member);
+                                }
+                            }
+                        })
+                        .exceptionally(failure -> {
+                            LOG.debugf("Cluster member %s did not answer the heartbeat: %s", member.id(), failure.getMessage());
+                            return null;
+                        }))
+                .toList();
+        CompletableFuture.allOf(pings.toArray(CompletableFuture[]::new)).join();
+        return live;
+    }
+}
@@ -0,0 +1,81 @@
+package io.xstefank.wildlfy.bot.cluster;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Transport connecting nodes running in the same JVM, mainly for tests. Nodes created with the same
+ * {@link Network} see each other as soon as they join.
+ */
+public class InMemoryClusterTransport implements ClusterTransport {
+
+    private final Network network;
+    private ClusterMember self;
+
+    public InMemoryClusterTransport(Network network) {
+        this.network = network;
+    }
+
+    @Override
+    public void join(ClusterMember self, Consumer<Set<ClusterMember>> membershipListener,
+                     Function<ForwardedRequest, CompletionStage<Integer>> receiver) {
+        this.self = self;
+        network.join(self, new Endpoint(membershipListener, receiver));
+    }
+
+    @Override
+    public void leave() {
+        network.leave(self);
+    }
+
+    @Override
+    public CompletionStage<Integer> forward(ClusterMember target, ForwardedRequest request) {
+        return network.deliver(target, request);
+    }
+
+    /**
+     * Shared membership of the in-memory nodes.
+     */
+    public static class Network {
+
+        private final Map<ClusterMember, Endpoint> endpoints = new LinkedHashMap<>();
+
+        synchronized void join(ClusterMember member, Endpoint endpoint) {
+            endpoints.put(member, endpoint);
+            publish();
+        }
+
+        synchronized void leave(ClusterMember member) {
+            endpoints.remove(member);
+            publish();
+        }
+
+        CompletionStage<Integer> deliver(ClusterMember target, ForwardedRequest request) {
+            Endpoint endpoint;
+            synchronized (this) {
+                endpoint = endpoints.get(target);
+            }
+            if (endpoint == null) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Node " + target.id() + " is not reachable"));
+            }
+            return endpoint.receiver.apply(request);
+        }
+
+        private void publish() {
+            Set<ClusterMember> members = new TreeSet<>(endpoints.keySet());
+            for (Endpoint endpoint : endpoints.values()) {
+                endpoint.membershipListener.accept(members);
+            }
+        }
+    }
+
+    private record Endpoint(Consumer<Set<ClusterMember>> membershipListener,
+                            Function<ForwardedRequest, CompletionStage<Integer>> receiver) {
+    }
+}
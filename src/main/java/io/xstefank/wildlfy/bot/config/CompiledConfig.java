@@ -0,0 +1,86 @@
+package io.xstefank.wildlfy.bot.config;
+
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile.WildFlyRule;
+import io.xstefank.wildlfy.bot.config.rules.RuleEngine;
+import io.xstefank.wildlfy.bot.format.Check;
+import io.xstefank.wildlfy.bot.format.CheckPipeline;
+import io.xstefank.wildlfy.bot.format.CommitMessagesCheck;
+import io.xstefank.wildlfy.bot.format.CommitsQuantityCheck;
+import io.xstefank.wildlfy.bot.format.DescriptionCheck;
+import io.xstefank.wildlfy.bot.format.TitleCheck;
+import io.xstefank.wildlfy.bot.resilience.GitHubGuard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Effective configuration of a repository together with everything built from it. Repositories with the same effective
+ * configuration share a single instance.
+ */
+public final class CompiledConfig {
+
+    private final WildFlyConfigFile config;
+    private final String hash;
+    private final CheckPipeline formatChecks;
+    private final RuleEngine ruleEngine;
+    private final EventInterest interest;
+
+    public CompiledConfig(WildFlyConfigFile config, String hash, GitHubGuard gitHubGuard) {
+        this.config = config;
+        this.hash = hash;
+
+        List<Check> checks = new ArrayList<>();
+        Format format = config.wildfly.format;
+        if (format != null) {
+            if (format.titleCheck != null) {
+                checks.add(new TitleCheck(format.titleCheck));
+            }
+
+            if (format.description != null) {
+                checks.add(new DescriptionCheck(format.description));
+            }
+
+            if (format.commitsQuantity != null) {
+                checks.add(new CommitsQuantityCheck(format.commitsQuantity));
+            }
+
+            if (format.commitsMessage != null) {
+                checks.add(new CommitMessagesCheck(format.commitsMessage));
+            }
+        }
+        this.formatChecks = new CheckPipeline(checks, gitHubGuard);
+        this.ruleEngine = RuleEngine.compile(config.wildfly.rules == null ? List.of() : config.wildfly.rules);
+        this.interest = EventInterest.of(this);
+    }
+
+    public WildFlyConfigFile getConfig() {
+        return config;
+    }
+
+    /**
+     * @return hash of the canonical content, equal for all repositories with the same effective configuration
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    public List<WildFlyRule> getRules() {
+        return config.wildfly.rules;
+    }
+
+    public List<String> getEmails() {
+        return config.wildfly.emails;
+    }
+
+    public CheckPipeline getFormatChecks() {
+        return formatChecks;
+    }
+
+    public RuleEngine getRuleEngine() {
+        return ruleEngine;
+    }
+
+    public EventInterest getInterest() {
+        return interest;
+    }
+}
@@ -0,0 +1,15 @@
+package io.xstefank.wildlfy.bot.config;
+
+/**
+ * Which pull request events of a repository can lead to any work, derived from its effective configuration.
+ *
+ * @param triage whether there is a rule to match opened pull requests against
+ * @param format whether there is a format check to evaluate
+ */
+public record EventInterest(boolean triage, boolean format) {
+
+    static EventInterest of(CompiledConfig config) {
+        boolean triage = config.getRules() != null && config.getRules().stream().anyMatch(rule -> rule.id != null);
+        return new EventInterest(triage, !config.getFormatChecks().getChecks().isEmpty());
+    }
+}
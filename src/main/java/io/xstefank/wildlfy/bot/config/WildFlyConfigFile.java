@@ -15,6 +15,13 @@ public class WildFlyConfigFile {
         public List<WildFlyRule> rules;
 
         public Format format;
+
+        public List<String> emails = List.of();
+
+        /**
+         * Whether the organization wide configuration from the {@code .github} repository is used as a base.
+         */
+        public boolean inherit = true;
     }
 
     public static final class WildFlyRule {
@@ -33,6 +40,14 @@ public class WildFlyConfigFile {
         @JsonDeserialize(as = TreeSet.class)
         public Set<String> notify = new TreeSet<>();
 
+        @JsonDeserialize(as = TreeSet.class)
+        public Set<String> labels = new TreeSet<>();
+
+        /**
+         * Expression the pull request has to match, together with any of the fields above if some of them are set.
+         */
+        public RuleExpression when;
+
         @Override
         public String toString() {
             return "id=" + stringify(id) + " title=" + stringify(title) + " body=" + stringify(body) + " titleBody=" + stringify(titleBody);
@@ -42,4 +57,57 @@ public class WildFlyConfigFile {
             return value == null ? "null" : value;
         }
     }
+
+    /**
+     * A node of a rule expression, exactly one of its fields is set. {@code all}, {@code any} and {@code not} combine
+     * other expressions, the remaining fields match a single property of the pull request.
+     */
+    public static final class RuleExpression {
+
+        public List<RuleExpression> all;
+
+        public List<RuleExpression> any;
+
+        public RuleExpression not;
+
+        /**
+         * Regular expression found in the title.
+         */
+        public String title;
+
+        /**
+         * Regular expression found in the body.
+         */
+        public String body;
+
+        /**
+         * Regular expression found in the title or the body.
+         */
+        public String titleBody;
+
+        /**
+         * Directory prefix or glob pattern matched by any changed file.
+         */
+        public String files;
+
+        /**
+         * Directory prefix or glob pattern matched by every changed file.
+         */
+        public String onlyFiles;
+
+        /**
+         * Login of the author.
+         */
+        public String author;
+
+        /**
+         * Name of a label the pull request has.
+         */
+        public String label;
+
+        /**
+         * Number of changed files, exact like {@code 1}, a range like {@code 2-10} or a lower bound like {@code 50+}.
+         */
+        public String fileCount;
+    }
 }
@@ -0,0 +1,274 @@
+package io.xstefank.wildlfy.bot.config.rules;
+
+import com.hrakaroo.glob.MatchingEngine;
+import io.xstefank.wildlfy.bot.config.util.Strings;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A node of the compiled rule expressions. Nodes are shared between all expressions containing them and evaluated at
+ * most once per {@link RuleEngine.Evaluation}.
+ */
+abstract class Predicate {
+
+    // estimated costs of evaluating a node, what is in the payload is cheap, what needs the changed files is not
+    static final int COST_PROPERTY = 1;
+    static final int COST_TEXT = 2;
+    static final int COST_FILE_COUNT = 10;
+    static final int COST_FILES = 20;
+
+    final int index;
+
+    Predicate(int index) {
+        this.index = index;
+    }
+
+    abstract int cost();
+
+    abstract boolean needsChangedFiles();
+
+    abstract boolean evaluate(RuleEngine.Evaluation evaluation) throws IOException;
+
+    static final class Constant extends Predicate {
+
+        private final boolean value;
+
+        Constant(int index, boolean value) {
+            super(index);
+            this.value = value;
+        }
+
+        @Override
+        int cost() {
+            return 0;
+        }
+
+        @Override
+        boolean needsChangedFiles() {
+            return false;
+        }
+
+        @Override
+        boolean evaluate(RuleEngine.Evaluation evaluation) {
+            return value;
+        }
+    }
+
+    static final class Text extends Predicate {
+
+        enum Field {
+            TITLE, BODY
+        }
+
+        private final Field field;
+        private final Pattern pattern;
+
+        Text(int index, Field field, Pattern pattern) {
+            super(index);
+            this.field = field;
+            this.pattern = pattern;
+        }
+
+        @Override
+        int cost() {
+            return field == Field.TITLE ? COST_PROPERTY : COST_TEXT;
+        }
+
+        @Override
+        boolean needsChangedFiles() {
+            return false;
+        }
+
+        @Override
+        boolean evaluate(RuleEngine.Evaluation evaluation) {
+            String text = field == Field.TITLE ? evaluation.input().data().getTitle() : evaluation.input().data().getBody();
+            // blank as for Patterns#find, control characters are trimmed, Unicode whitespace is not
+            return !Strings.isBlank(text) && pattern.matcher(text).find();
+        }
+    }
+
+    static final class Author extends Predicate {
+
+        private final String login;
+
+        Author(int index, String login) {
+            super(index);
+            this.login = login;
+        }
+
+        @Override
+        int cost() {
+            return COST_PROPERTY;
+        }
+
+        @Override
+        boolean needsChangedFiles() {
+            return false;
+        }
+
+        @Override
+        boolean evaluate(RuleEngine.Evaluation evaluation) {
+            return login.equalsIgnoreCase(evaluation.input().author());
+        }
+    }
+
+    static final class Label extends Predicate {
+
+        private final String name;
+
+        Label(int index, String name) {
+            super(index);
+            this.name = name;
+        }
+
+        @Override
+        int cost() {
+            return COST_PROPERTY;
+        }
+
+        @Override
+        boolean needsChangedFiles() {
+            return false;
+        }
+
+        @Override
+        boolean evaluate(RuleEngine.Evaluation evaluation) {
+            return evaluation.input().labels().stream().anyMatch(name::equalsIgnoreCase);
+        }
+    }
+
+    static final class Files extends Predicate {
+
+        private final String directory;
+        private final MatchingEngine glob;
+        private final boolean every;
+
+        /**
+         * @param glob compiled {@code directory} if it is a glob pattern, {@code null} if it is a prefix
+         * @param every whether every changed file has to match instead of any
+         */
+        Files(int index, String directory, MatchingEngine glob, boolean every) {
+            super(index);
+            this.directory = directory;
+            this.glob = glob;
+            this.every = every;
+        }
+
+        @Override
+        int cost() {
+            return COST_FILES;
+        }
+
+        @Override
+        boolean needsChangedFiles() {
+            return true;
+        }
+
+        @Override
+        boolean evaluate(RuleEngine.Evaluation evaluation) throws IOException {
+            List<String> changedFiles = evaluation.input().data().getChangedFiles();
+            if (every && changedFiles.isEmpty()) {
+                return false;
+            }
+            for (String changedFile : changedFiles) {
+                boolean matches = glob == null ? changedFile.startsWith(directory) : glob.matches(changedFile);
+                if (matches != every) {
+                    return matches;
+                }
+            }
+            return every;
+        }
+    }
+
+    static final class FileCount extends Predicate {
+
+        private final int min;
+        private final int max;
+
+        FileCount(int index, int min, int max) {
+            super(index);
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        int cost() {
+            return COST_FILE_COUNT;
+        }
+
+        @Override
+        boolean needsChangedFiles() {
+            return true;
+        }
+
+        @Override
+        boolean evaluate(RuleEngine.Evaluation evaluation) throws IOException {
+            int count = evaluation.input().data().getChangedFiles().size();
+            return count >= min && count <= max;
+        }
+    }
+
+    static final class Not extends Predicate {
+
+        private final Predicate operand;
+
+        Not(int index, Predicate operand) {
+            super(index);
+            this.operand = operand;
+        }
+
+        @Override
+        int cost() {
+            return operand.cost();
+        }
+
+        @Override
+        boolean needsChangedFiles() {
+            return operand.needsChangedFiles();
+        }
+
+        @Override
+        boolean evaluate(RuleEngine.Evaluation evaluation) throws IOException {
+            return !evaluation.test(operand);
+        }
+    }
+
+    /**
+     * {@code all} or {@code any} of the operands, evaluated cheapest first until the result is known.
+     */
+    static final class Junction extends Predicate {
+
+        private final boolean all;
+        private final List<Predicate> operands;
+        private final int cost;
+
+        Junction(int index, boolean all, List<Predicate> operands) {
+            super(index);
+            this.all = all;
+            this.operands = operands;
+            this.cost = operands.stream().mapToInt(Predicate::cost).sum();
+        }
+
+        @Override
+        int cost() {
+            return cost;
+        }
+
+        @Override
+        boolean needsChangedFiles() {
+            return operands.stream().anyMatch(Predicate::needsChangedFiles);
+        }
+
+        @Override
+        boolean evaluate(RuleEngine.Evaluation evaluation) throws IOException {
+            for (Predicate operand : operands) {
+                if (evaluation.test(operand) != all) {
+                    return !all;
+                }
+            }
+            return all;
+        }
+    }
+}
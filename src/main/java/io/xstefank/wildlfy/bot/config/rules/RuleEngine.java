@@ -0,0 +1,297 @@
+package io.xstefank.wildlfy.bot.config.rules;
+
+import com.hrakaroo.glob.GlobPattern;
+import com.hrakaroo.glob.MatchingEngine;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile.RuleExpression;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile.WildFlyRule;
+import io.xstefank.wildlfy.bot.config.util.Strings;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Matches pull requests against the rules of a configuration.
+ * <p>
+ * The fields of a rule match when any of them does, and together with its {@code when} expression when both are set.
+ * All rules are compiled into one graph of {@link Predicate} nodes in which equal expressions, like the same directory
+ * or title pattern in several rules, are a single node. An {@link Evaluation} remembers the result of each node, so a
+ * node is evaluated at most once per pull request however many rules contain it. {@code all} and {@code any} evaluate
+ * their operands cheapest first and stop once the result is known, the changed files are only listed when no cheaper
+ * operand decided it.
+ * <p>
+ * An invalid expression is logged and never matches.
+ */
+public final class RuleEngine {
+
+    private static final Logger LOG = Logger.getLogger(RuleEngine.class);
+
+    private static final Pattern FILE_COUNT = Pattern.compile("(\\d+)(?:-(\\d+)|(\\+))?");
+
+    private final Map<String, Predicate> interned = new HashMap<>();
+    private final List<Predicate> nodes = new ArrayList<>();
+    private final Map<WildFlyRule, Predicate> roots = new IdentityHashMap<>();
+    private final Predicate never;
+
+    private RuleEngine(List<WildFlyRule> rules) {
+        never = intern("false", index -> new Predicate.Constant(index, false));
+        for (WildFlyRule rule : rules) {
+            if (rule.id != null) {
+                roots.put(rule, compile(rule));
+            }
+        }
+    }
+
+    /**
+     * Compiles the rules with an id, the others are never matched.
+     */
+    public static RuleEngine compile(List<WildFlyRule> rules) {
+        return new RuleEngine(rules);
+    }
+
+    /**
+     * @return whether matching any of the rules may need the changed files of the pull request
+     */
+    public boolean needsChangedFiles() {
+        return roots.values().stream().anyMatch(Predicate::needsChangedFiles);
+    }
+
+    /**
+     * @return whether matching the rule may need the changed files of the pull request
+     */
+    public boolean needsChangedFiles(WildFlyRule rule) {
+        return root(rule).needsChangedFiles();
+    }
+
+    /**
+     * @return number of distinct nodes of all compiled rules
+     */
+    public int getNodeCount() {
+        return nodes.size();
+    }
+
+    public Evaluation evaluate(RuleInput input) {
+        return new Evaluation(input);
+    }
+
+    private Predicate root(WildFlyRule rule) {
+        Predicate root = roots.get(rule);
+        if (root == null) {
+            throw new IllegalArgumentException("Rule " + rule.id + " was not compiled by this engine");
+        }
+        return root;
+    }
+
+    private Predicate compile(WildFlyRule rule) {
+        List<Predicate> fields = new ArrayList<>();
+        if (Strings.isNotBlank(rule.title)) {
+            fields.add(text(Predicate.Text.Field.TITLE, rule.title));
+        }
+        if (Strings.isNotBlank(rule.body)) {
+            fields.add(text(Predicate.Text.Field.BODY, rule.body));
+        }
+        if (Strings.isNotBlank(rule.titleBody)) {
+            fields.add(junction(false, List.of(text(Predicate.Text.Field.TITLE, rule.titleBody),
+                    text(Predicate.Text.Field.BODY, rule.titleBody))));
+        }
+        for (String directory : rule.directories) {
+            fields.add(files(directory, false));
+        }
+
+        Predicate any = fields.isEmpty() ? null : junction(false, fields);
+        if (rule.when == null) {
+            return any == null ? never : any;
+        }
+
+        Predicate when;
+        try {
+            when = compile(rule.when);
+        } catch (IllegalArgumentException e) {
+            LOG.errorf("Rule %s will never match, its expression is invalid: %s", rule.id, e.getMessage());
+            return never;
+        }
+        return any == null ? when : junction(true, List.of(any, when));
+    }
+
+    private Predicate compile(RuleExpression expression) {
+        List<Predicate> compiled = new ArrayList<>();
+        if (expression.all != null) {
+            compiled.add(junction(true, expression.all.stream().map(this::compile).toList()));
+        }
+        if (expression.any != null) {
+            compiled.add(junction(false, expression.any.stream().map(this::compile).toList()));
+        }
+        if (expression.not != null) {
+            Predicate operand = compile(expression.not);
+            compiled.add(intern("not(" + operand.index + ")", index -> new Predicate.Not(index, operand)));
+        }
+        if (expression.title != null) {
+            compiled.add(text(Predicate.Text.Field.TITLE, expression.title));
+        }
+        if (expression.body != null) {
+            compiled.add(text(Predicate.Text.Field.BODY, expression.body));
+        }
+        if (expression.titleBody != null) {
+            compiled.add(junction(false, List.of(text(Predicate.Text.Field.TITLE, expression.titleBody),
+                    text(Predicate.Text.Field.BODY, expression.titleBody))));
+        }
+        if (expression.files != null) {
+            compiled.add(files(expression.files, false));
+        }
+        if (expression.onlyFiles != null) {
+            compiled.add(files(expression.onlyFiles, true));
+        }
+        if (expression.author != null) {
+            compiled.add(intern("author:" + expression.author.toLowerCase(), index -> new Predicate.Author(index, expression.author)));
+        }
+        if (expression.label != null) {
+            compiled.add(intern("label:" + expression.label.toLowerCase(), index -> new Predicate.Label(index, expression.label)));
+        }
+        if (expression.fileCount != null) {
+            compiled.add(fileCount(expression.fileCount));
+        }
+
+        if (compiled.size() != 1) {
+            throw new IllegalArgumentException("an expression needs exactly one of all, any, not, title, body, titleBody, files, "
+                    + "onlyFiles, author, label or fileCount, found " + compiled.size());
+        }
+        return compiled.get(0);
+    }
+
+    private Predicate text(Predicate.Text.Field field, String pattern) {
+        if (Strings.isBlank(pattern)) {
+            return never;
+        }
+        return intern(field + ":" + pattern, index -> {
+            try {
+                return new Predicate.Text(index, field, Pattern.compile(pattern, Pattern.DOTALL | Pattern.CASE_INSENSITIVE));
+            } catch (PatternSyntaxException e) {
+                LOG.error("Error compiling pattern: " + pattern, e);
+                return new Predicate.Constant(index, false);
+            }
+        });
+    }
+
+    private Predicate files(String directory, boolean every) {
+        return intern((every ? "only-files:" : "files:") + directory, index -> {
+            MatchingEngine glob = null;
+            if (directory.contains("*")) {
+                try {
+                    glob = GlobPattern.compile(directory);
+                } catch (RuntimeException e) {
+                    LOG.error("Error evaluating glob expression: " + directory, e);
+                    return new Predicate.Constant(index, false);
+                }
+            }
+            return new Predicate.Files(index, directory, glob, every);
+        });
+    }
+
+    private Predicate fileCount(String fileCount) {
+        Matcher matcher = FILE_COUNT.matcher(fileCount.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("file count " + fileCount + " is not a number, a range or a lower bound");
+        }
+        int min = Integer.parseInt(matcher.group(1));
+        int max = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : matcher.group(3) != null ? Integer.MAX_VALUE : min;
+        return intern("file-count:" + min + "-" + max, index -> new Predicate.FileCount(index, min, max));
+    }
+
+    /**
+     * Operands are deduplicated and ordered cheapest first, which also makes the junction equal to any other junction of
+     * the same operands.
+     */
+    private Predicate junction(boolean all, List<Predicate> operands) {
+        Map<Integer, Predicate> distinct = new TreeMap<>();
+        for (Predicate operand : operands) {
+            distinct.put(operand.index, operand);
+        }
+        List<Predicate> ordered = distinct.values().stream()
+                .sorted(Comparator.comparingInt(Predicate::cost).thenComparingInt(predicate -> predicate.index))
+                .toList();
+        if (ordered.size() == 1) {
+            return ordered.get(0);
+        }
+
+        StringBuilder key = new StringBuilder(all ? "all(" : "any(");
+        for (Predicate operand : ordered) {
+            key.append(operand.index).append(',');
+        }
+        return intern(key.append(')').toString(), index -> new Predicate.Junction(index, all, ordered));
+    }
+
+    private Predicate intern(String key, IntFunction<Predicate> factory) {
+        Predicate predicate = interned.get(key);
+        if (predicate == null) {
+            predicate = factory.apply(nodes.size());
+            interned.put(key, predicate);
+            nodes.add(predicate);
+        }
+        return predicate;
+    }
+
+    /**
+     * What the rules are matched against.
+     *
+     * @param author login of the author of the pull request
+     * @param labels names of the labels the pull request has
+     */
+    public record RuleInput(PullRequestData data, String author, Set<String> labels) {
+    }
+
+    /**
+     * Matches rules against a single pull request, remembering the result of every node evaluated so far. Not thread
+     * safe, each pull request gets its own.
+     */
+    public final class Evaluation {
+
+        private static final byte UNKNOWN = 0;
+        private static final byte TRUE = 1;
+        private static final byte FALSE = 2;
+
+        private final RuleInput input;
+        private final byte[] results = new byte[nodes.size()];
+        private int evaluated;
+
+        private Evaluation(RuleInput input) {
+            this.input = input;
+        }
+
+        public boolean matches(WildFlyRule rule) throws IOException {
+            return test(root(rule));
+        }
+
+        /**
+         * @return number of nodes evaluated so far
+         */
+        public int getEvaluatedCount() {
+            return evaluated;
+        }
+
+        RuleInput input() {
+            return input;
+        }
+
+        boolean test(Predicate predicate) throws IOException {
+            byte result = results[predicate.index];
+            if (result == UNKNOWN) {
+                result = predicate.evaluate(this) ? TRUE : FALSE;
+                results[predicate.index] = result;
+                evaluated++;
+            }
+            return result == TRUE;
+        }
+    }
+}
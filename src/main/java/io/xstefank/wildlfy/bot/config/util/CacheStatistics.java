@@ -0,0 +1,49 @@
+package io.xstefank.wildlfy.bot.config.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the hits, misses and evictions of a cache since the start of the bot.
+ */
+public class CacheStatistics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of entries dropped because the cache was full or they expired, not those flushed on purpose
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return share of the lookups which were hits, {@code 0} if there were none
+     */
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long lookups = hitCount + getMissCount();
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+}
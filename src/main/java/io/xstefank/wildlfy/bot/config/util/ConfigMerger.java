@@ -0,0 +1,100 @@
+package io.xstefank.wildlfy.bot.config.util;
+
+import io.xstefank.wildlfy.bot.config.Format;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile.WildFlyConfig;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile.WildFlyRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merges a repository configuration into the organization wide base configuration.
+ * <ul>
+ *     <li>A repository rule with the same id as a base rule replaces it, other rules are appended.</li>
+ *     <li>Each format check defined by the repository replaces the base one.</li>
+ *     <li>Non-empty {@code emails} of the repository replace the base ones.</li>
+ *     <li>A repository configuration with {@code inherit: false} ignores the base configuration.</li>
+ * </ul>
+ */
+public class ConfigMerger {
+
+    /**
+     * @return the effective configuration or {@code null} if neither configuration is available
+     */
+    public static WildFlyConfigFile merge(WildFlyConfigFile base, WildFlyConfigFile repository) {
+        WildFlyConfig baseConfig = base == null ? null : orEmpty(base.wildfly);
+        WildFlyConfig repositoryConfig = repository == null ? null : orEmpty(repository.wildfly);
+
+        if (repositoryConfig != null && (baseConfig == null || !repositoryConfig.inherit)) {
+            return wrap(repositoryConfig.rules, repositoryConfig.format, repositoryConfig.emails);
+        }
+        if (repositoryConfig == null) {
+            return baseConfig == null ? null : wrap(baseConfig.rules, baseConfig.format, baseConfig.emails);
+        }
+
+        List<WildFlyRule> rules = new ArrayList<>(baseConfig.rules);
+        for (WildFlyRule rule : repositoryConfig.rules) {
+            int overridden = indexOf(rules, rule.id);
+            if (overridden >= 0) {
+                rules.set(overridden, rule);
+            } else {
+                rules.add(rule);
+            }
+        }
+
+        return wrap(rules, merge(baseConfig.format, repositoryConfig.format),
+                repositoryConfig.emails.isEmpty() ? baseConfig.emails : repositoryConfig.emails);
+    }
+
+    private static Format merge(Format base, Format repository) {
+        if (base == null || repository == null) {
+            return repository == null ? base : repository;
+        }
+
+        Format format = new Format();
+        format.titleCheck = repository.titleCheck != null ? repository.titleCheck : base.titleCheck;
+        format.description = repository.description != null ? repository.description : base.description;
+        format.commitsMessage = repository.commitsMessage != null ? repository.commitsMessage : base.commitsMessage;
+        format.commitsQuantity = repository.commitsQuantity != null ? repository.commitsQuantity : base.commitsQuantity;
+        return format;
+    }
+
+    private static int indexOf(List<WildFlyRule> rules, String id) {
+        if (id == null) {
+            return -1;
+        }
+        for (int i = 0; i < rules.size(); i++) {
+            if (id.equals(rules.get(i).id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return a copy without missing lists, the parsed configuration may be cached and is never changed
+     */
+    private static WildFlyConfig orEmpty(WildFlyConfig config) {
+        WildFlyConfig result = new WildFlyConfig();
+        if (config != null) {
+            result.format = config.format;
+            result.inherit = config.inherit;
+        }
+        result.rules = config == null || config.rules == null ? List.of() : config.rules;
+        result.emails = config == null || config.emails == null ? List.of() : config.emails;
+        return result;
+    }
+
+    private static WildFlyConfigFile wrap(List<WildFlyRule> rules, Format format, List<String> emails) {
+        WildFlyConfigFile file = new WildFlyConfigFile();
+        file.wildfly = new WildFlyConfig();
+        file.wildfly.rules = List.copyOf(rules);
+        file.wildfly.format = format;
+        file.wildfly.emails = List.copyOf(emails);
+        return file;
+    }
+
+    private ConfigMerger() {
+    }
+}
@@ -0,0 +1,170 @@
+package io.xstefank.wildlfy.bot.config.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Loads values so that concurrent callers of the same key wait for one load in flight instead of each loading it.
+ * <p>
+ * A loaded value is kept for {@code valueTtl}, a missing value ({@code null}) and a failure for {@code failureTtl}, and
+ * returned, or thrown, to the callers in the meantime without loading again. {@link #invalidate(Object)} forgets the
+ * result of a key right away, e.g. when the loaded file changed. A load finishing after an invalidation is returned to
+ * its callers but not kept, as it may have read the old value. Loads of other keys are not affected by it.
+ */
+public class SingleFlightLoader<K, V> {
+
+    static final int MAX_RESULTS = 10_000;
+
+    @FunctionalInterface
+    public interface Loader<V> {
+
+        V load() throws IOException;
+    }
+
+    private final long valueTtlNanos;
+    private final long failureTtlNanos;
+    private final CacheStatistics statistics = new CacheStatistics();
+
+    private final Map<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<K, Result<V>> results = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Result<V>> eldest) {
+                    if (size() > MAX_RESULTS) {
+                        statistics.recordEviction();
+                        return true;
+                    }
+                    return false;
+                }
+            });
+
+    public SingleFlightLoader(Duration valueTtl, Duration failureTtl) {
+        this.valueTtlNanos = valueTtl.toNanos();
+        this.failureTtlNanos = failureTtl.toNanos();
+    }
+
+    /**
+     * @return the loaded value, {@code null} if there is none
+     * @throws IOException thrown by the load this call waited for, or by a recent one which failed
+     */
+    public V load(K key, Loader<V> loader) throws IOException {
+        Result<V> result = results.get(key);
+        if (result != null) {
+            if (System.nanoTime() - result.loadedAt < ttlNanos(result)) {
+                statistics.recordHit();
+                return result.replay();
+            }
+            if (results.remove(key, result)) {
+                statistics.recordEviction();
+            }
+        }
+        statistics.recordMiss();
+
+        Flight<V> flight = new Flight<>();
+        Flight<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            return await(running.future);
+        }
+
+        try {
+            V value = loader.load();
+            remember(key, new Result<>(value, null, System.nanoTime()), flight);
+            flight.future.complete(value);
+            return value;
+        } catch (IOException | RuntimeException e) {
+            remember(key, new Result<>(null, e, System.nanoTime()), flight);
+            flight.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            // an error leaves the waiting callers with a cancellation instead of waiting forever
+            flight.future.cancel(false);
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Forgets the remembered value, missing value or failure of the key, so the next call loads it again.
+     */
+    public void invalidate(K key) {
+        synchronized (results) {
+            Flight<V> flight = inFlight.get(key);
+            if (flight != null) {
+                flight.invalidated = true;
+            }
+            results.remove(key);
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * @return number of remembered values, missing values and failures, including expired ones not looked up since
+     */
+    public int getResultCount() {
+        return results.size();
+    }
+
+    /**
+     * @return statistics of the remembered results, a hit is a call answered by one of them
+     */
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    private void remember(K key, Result<V> result, Flight<V> flight) {
+        // under the lock of the results, so an invalidation does not slip in between the check and the put
+        synchronized (results) {
+            if (ttlNanos(result) > 0 && !flight.invalidated) {
+                results.put(key, result);
+            }
+        }
+    }
+
+    private long ttlNanos(Result<V> result) {
+        return result.value == null ? failureTtlNanos : valueTtlNanos;
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) throws IOException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a load in flight");
+        } catch (ExecutionException e) {
+            return rethrow(e.getCause());
+        }
+    }
+
+    private static <V> V rethrow(Throwable cause) throws IOException {
+        if (cause instanceof IOException ioException) {
+            throw ioException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        throw new IOException(cause);
+    }
+
+    private static final class Flight<V> {
+
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private volatile boolean invalidated;
+    }
+
+    private record Result<V>(V value, Exception exception, long loadedAt) {
+
+        V replay() throws IOException {
+            return exception == null ? value : rethrow(exception);
+        }
+    }
+}
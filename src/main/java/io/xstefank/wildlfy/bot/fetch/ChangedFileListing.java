@@ -0,0 +1,143 @@
+package io.xstefank.wildlfy.bot.fetch;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.xstefank.wildlfy.bot.auth.InstallationClientPool;
+import io.xstefank.wildlfy.bot.resilience.ApiBudget;
+import io.xstefank.wildlfy.bot.resilience.GitHubGuard;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHPullRequestFileDetail;
+import org.kohsuke.github.PagedIterator;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lists the changed files of a pull request with the maximal page size, so a large pull request takes as few requests
+ * as possible.
+ * <p>
+ * With pooled clients the pages are requested through the connector of the installation client and read with a
+ * streaming parser, which keeps the filename and the status of each file and skips everything else, including the
+ * patch, without binding it. Without pooled clients, e.g. for mocked pull requests, the files are listed by
+ * {@link GHPullRequest#listFiles()}, which binds whole file details.
+ * <p>
+ * Each page request is made through the {@link GitHubGuard}, so a slow page times out on its own instead of the whole
+ * listing sharing one timeout, and is charged to the {@link ApiBudget} of the delivery before it is requested. The
+ * streamed listing follows the {@code next} link of the pages, the other one requests the next page when the previous
+ * one was read completely, so a listing ending with a full page is charged one page more than it requested.
+ */
+public final class ChangedFileListing {
+
+    /**
+     * Largest {@code per_page} GitHub accepts for the files of a pull request.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    static final String ENDPOINT = "list-files";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>;\\s*rel=\"next\"");
+
+    private ChangedFileListing() {
+    }
+
+    /**
+     * Streams the files through the pooled client of the installation, or lists them by {@link GHPullRequest#listFiles()}
+     * if the clients are not pooled.
+     *
+     * @return the number of listed files
+     */
+    public static int list(GHPullRequest pullRequest, InstallationClientPool clientPool, long installationId,
+            GitHubGuard gitHubGuard, ChangedFileConsumer consumer) throws IOException {
+        if (!clientPool.isPooled()) {
+            return list(pullRequest, gitHubGuard, consumer);
+        }
+
+        String url = "/repos/" + pullRequest.getRepository().getFullName() + "/pulls/" + pullRequest.getNumber()
+                + "/files?per_page=" + MAX_PAGE_SIZE;
+        int listed = 0;
+        while (url != null) {
+            String pageUrl = url;
+            Page page = gitHubGuard.call(pullRequest.getRepository(), ENDPOINT, () -> readPage(clientPool, installationId, pageUrl));
+            for (ChangedFile file : page.files()) {
+                consumer.accept(file.filename(), file.status());
+            }
+            listed += page.files().size();
+            url = page.next();
+        }
+        return listed;
+    }
+
+    /**
+     * @return the number of listed files
+     */
+    public static int list(GHPullRequest pullRequest, GitHubGuard gitHubGuard, ChangedFileConsumer consumer) throws IOException {
+        PagedIterator<GHPullRequestFileDetail> files = pullRequest.listFiles().withPageSize(MAX_PAGE_SIZE).iterator();
+        int listed = 0;
+        while (true) {
+            boolean hasNext;
+            if (listed % MAX_PAGE_SIZE == 0) {
+                // the next page is requested by hasNext()
+                hasNext = gitHubGuard.call(pullRequest.getRepository(), ENDPOINT, files::hasNext);
+            } else {
+                hasNext = files.hasNext();
+            }
+            if (!hasNext) {
+                return listed;
+            }
+            GHPullRequestFileDetail file = files.next();
+            consumer.accept(file.getFilename(), file.getStatus());
+            listed++;
+        }
+    }
+
+    private static Page readPage(InstallationClientPool clientPool, long installationId, String url) throws IOException {
+        List<ChangedFile> files = new ArrayList<>(MAX_PAGE_SIZE);
+        try (GitHubConnectorResponse response = clientPool.get(installationId, url);
+             JsonParser parser = JSON_FACTORY.createParser(response.bodyStream())) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Files of " + url + " are not a JSON array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String filename = null;
+                String status = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "filename" -> filename = parser.getValueAsString();
+                        case "status" -> status = parser.getValueAsString();
+                        default -> parser.skipChildren();
+                    }
+                }
+                files.add(new ChangedFile(filename, status));
+            }
+            return new Page(files, nextLink(response.header("Link")));
+        }
+    }
+
+    private static String nextLink(String link) {
+        if (link == null) {
+            return null;
+        }
+        Matcher matcher = NEXT_LINK.matcher(link);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private record ChangedFile(String filename, String status) {
+    }
+
+    private record Page(List<ChangedFile> files, String next) {
+    }
+
+    @FunctionalInterface
+    public interface ChangedFileConsumer {
+
+        void accept(String filename, String status) throws IOException;
+    }
+}
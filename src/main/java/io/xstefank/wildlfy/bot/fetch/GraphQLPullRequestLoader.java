@@ -0,0 +1,196 @@
+package io.xstefank.wildlfy.bot.fetch;
+
+import io.smallrye.graphql.client.GraphQLError;
+import io.smallrye.graphql.client.InvalidResponseException;
+import io.smallrye.graphql.client.Response;
+import io.smallrye.graphql.client.dynamic.api.DynamicGraphQLClient;
+import io.xstefank.wildlfy.bot.resilience.ApiBudget;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import org.kohsuke.github.GHRepository;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Loads {@link PullRequestData} through the GitHub GraphQL API.
+ * <p>
+ * The first query reads the title, body, head, the number of commits and the first page of commits and of changed
+ * files at once. Pull requests with more commits or files than fit a page are completed by further queries asking only
+ * for the connections which have more pages. Each query is charged to the {@link ApiBudget} of the delivery before it
+ * is sent, together with the size of its answer as announced by the {@code Content-Length} header. An answer sent
+ * without one, like a chunked one, is counted with the size of its serialized data.
+ * <p>
+ * Failures to reach the endpoint are thrown as {@link IOException}, so they count against the
+ * {@link io.xstefank.wildlfy.bot.resilience.GitHubGuard}. Answers which cannot be used, like errors reported by the
+ * query, throw {@link GraphQLQueryException} instead.
+ */
+public class GraphQLPullRequestLoader {
+
+    static final int PAGE_SIZE = 100;
+
+    static final String QUERY = """
+            query($owner: String!, $name: String!, $number: Int!, $pageSize: Int!,
+                  $withCommits: Boolean!, $commitsAfter: String, $withFiles: Boolean!, $filesAfter: String) {
+              repository(owner: $owner, name: $name) {
+                pullRequest(number: $number) {
+                  title
+                  body
+                  headRefOid
+                  commits(first: $pageSize, after: $commitsAfter) @include(if: $withCommits) {
+                    totalCount
+                    pageInfo { hasNextPage endCursor }
+                    nodes { commit { oid message } }
+                  }
+                  files(first: $pageSize, after: $filesAfter) @include(if: $withFiles) {
+                    pageInfo { hasNextPage endCursor }
+                    nodes { path }
+                  }
+                }
+              }
+            }
+            """;
+
+    private final int pageSize;
+
+    public GraphQLPullRequestLoader() {
+        this(PAGE_SIZE);
+    }
+
+    public GraphQLPullRequestLoader(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public PullRequestData load(DynamicGraphQLClient client, GHRepository repository, int number) throws IOException {
+        String owner = repository.getOwnerName();
+        String name = repository.getName();
+
+        JsonObject pullRequest = query(client, owner, name, number, true, null, true, null);
+        String title = pullRequest.getString("title");
+        String body = pullRequest.isNull("body") ? null : pullRequest.getString("body");
+        String headSha = pullRequest.getString("headRefOid");
+
+        JsonObject commitsPage = pullRequest.getJsonObject("commits");
+        JsonObject filesPage = pullRequest.getJsonObject("files");
+        int commitCount = commitsPage.getInt("totalCount");
+        List<PullRequestData.CommitData> commits = new ArrayList<>(commitCount);
+        List<String> changedFiles = new ArrayList<>();
+        readCommits(commitsPage, commits);
+        readFiles(filesPage, changedFiles);
+
+        String commitsAfter = nextCursor(commitsPage);
+        String filesAfter = nextCursor(filesPage);
+        while (commitsAfter != null || filesAfter != null) {
+            JsonObject page = query(client, owner, name, number, commitsAfter != null, commitsAfter, filesAfter != null, filesAfter);
+            if (commitsAfter != null) {
+                commitsPage = page.getJsonObject("commits");
+                readCommits(commitsPage, commits);
+                commitsAfter = nextCursor(commitsPage);
+            }
+            if (filesAfter != null) {
+                filesPage = page.getJsonObject("files");
+                readFiles(filesPage, changedFiles);
+                filesAfter = nextCursor(filesPage);
+            }
+        }
+
+        return new PrefetchedPullRequestData(repository, number, title, body, headSha, commitCount, commits, changedFiles);
+    }
+
+    private JsonObject query(DynamicGraphQLClient client, String owner, String name, int number, boolean withCommits,
+                             String commitsAfter, boolean withFiles, String filesAfter) throws IOException {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("owner", owner);
+        variables.put("name", name);
+        variables.put("number", number);
+        variables.put("pageSize", pageSize);
+        variables.put("withCommits", withCommits);
+        variables.put("commitsAfter", commitsAfter);
+        variables.put("withFiles", withFiles);
+        variables.put("filesAfter", filesAfter);
+
+        ApiBudget budget = ApiBudget.current();
+        budget.charge(PullRequestFetcher.ENDPOINT);
+        Response response;
+        try {
+            response = client.executeSync(QUERY, variables);
+        } catch (ExecutionException e) {
+            throw new IOException("GraphQL query for " + owner + "/" + name + "#" + number + " failed", e.getCause());
+        } catch (InvalidResponseException e) {
+            // the endpoint did not answer with GraphQL at all, like a 502 from the proxy
+            throw new IOException("GraphQL query for " + owner + "/" + name + "#" + number + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("GraphQL query for " + owner + "/" + name + "#" + number + " was interrupted");
+        }
+
+        if (response.hasError()) {
+            throw new GraphQLQueryException(response.getErrors().stream()
+                    .map(GraphQLError::getMessage)
+                    .collect(Collectors.joining("; ")));
+        }
+        JsonObject data = response.getData();
+        long length = contentLength(response);
+        if (length <= 0 && data != null) {
+            length = data.toString().getBytes(StandardCharsets.UTF_8).length;
+        }
+        budget.recordBytes(Math.max(length, 0));
+        JsonObject repository = data == null || data.isNull("repository") ? null : data.getJsonObject("repository");
+        if (repository == null || repository.isNull("pullRequest")) {
+            throw new GraphQLQueryException("Pull request " + owner + "/" + name + "#" + number + " not found");
+        }
+        return repository.getJsonObject("pullRequest");
+    }
+
+    private static long contentLength(Response response) {
+        Map<String, List<String>> headers = response.getTransportMeta();
+        if (headers == null) {
+            return -1;
+        }
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if ("Content-Length".equalsIgnoreCase(header.getKey()) && header.getValue() != null && !header.getValue().isEmpty()) {
+                try {
+                    return Long.parseLong(header.getValue().get(0).trim());
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static void readCommits(JsonObject page, List<PullRequestData.CommitData> commits) {
+        for (JsonValue node : page.getJsonArray("nodes")) {
+            JsonObject commit = node.asJsonObject().getJsonObject("commit");
+            commits.add(new PullRequestData.CommitData(commit.getString("oid"), commit.getString("message")));
+        }
+    }
+
+    private static void readFiles(JsonObject page, List<String> changedFiles) {
+        for (JsonValue node : page.getJsonArray("nodes")) {
+            changedFiles.add(node.asJsonObject().getString("path"));
+        }
+    }
+
+    private static String nextCursor(JsonObject page) {
+        JsonObject pageInfo = page.getJsonObject("pageInfo");
+        return pageInfo.getBoolean("hasNextPage") ? pageInfo.getString("endCursor") : null;
+    }
+
+    /**
+     * The GraphQL endpoint answered, but not with the pull request.
+     */
+    public static class GraphQLQueryException extends RuntimeException {
+
+        public GraphQLQueryException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.xstefank.wildlfy.bot.fetch;
+
+import org.kohsuke.github.GHRepository;
+
+import java.util.List;
+
+/**
+ * {@link PullRequestData} loaded completely upfront, reading it does not call GitHub.
+ */
+public class PrefetchedPullRequestData implements PullRequestData {
+
+    private final GHRepository repository;
+    private final int number;
+    private final String title;
+    private final String body;
+    private final String headSha;
+    private final int commitCount;
+    private final List<CommitData> commits;
+    private final List<String> changedFiles;
+
+    public PrefetchedPullRequestData(GHRepository repository, int number, String title, String body, String headSha,
+                                     int commitCount, List<CommitData> commits, List<String> changedFiles) {
+        this.repository = repository;
+        this.number = number;
+        this.title = title;
+        this.body = body;
+        this.headSha = headSha;
+        this.commitCount = commitCount;
+        this.commits = List.copyOf(commits);
+        this.changedFiles = List.copyOf(changedFiles);
+    }
+
+    @Override
+    public GHRepository getRepository() {
+        return repository;
+    }
+
+    @Override
+    public int getNumber() {
+        return number;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+
+    @Override
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public String getHeadSha() {
+        return headSha;
+    }
+
+    @Override
+    public int getCommitCount() {
+        return commitCount;
+    }
+
+    @Override
+    public List<CommitData> getCommits() {
+        return commits;
+    }
+
+    @Override
+    public List<String> getChangedFiles() {
+        return changedFiles;
+    }
+}
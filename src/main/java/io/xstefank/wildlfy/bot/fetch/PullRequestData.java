@@ -0,0 +1,73 @@
+package io.xstefank.wildlfy.bot.fetch;
+
+import io.xstefank.wildlfy.bot.auth.InstallationClientPool;
+import io.xstefank.wildlfy.bot.resilience.GitHubGuard;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRepository;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Snapshot of everything the {@link io.xstefank.wildlfy.bot.config.rules.RuleEngine} and the format checks read from
+ * a pull request, either loaded upfront by {@link GraphQLPullRequestLoader} or read lazily through the REST API.
+ */
+public interface PullRequestData {
+
+    /**
+     * @return the repository of the pull request, or {@code null} if the data does not come from GitHub
+     */
+    GHRepository getRepository();
+
+    int getNumber();
+
+    String getTitle();
+
+    String getBody();
+
+    String getHeadSha();
+
+    int getCommitCount() throws IOException;
+
+    List<CommitData> getCommits() throws IOException;
+
+    /**
+     * @return the commits, or only the newest {@link io.xstefank.wildlfy.bot.resilience.ApiBudget#getDegradedCommits()}
+     * of them if listing all would exceed the budget of the delivery, which then records the degradation
+     */
+    default List<CommitData> getCommitsWithinBudget() throws IOException {
+        return getCommits();
+    }
+
+    /**
+     * @return paths of the changed files
+     */
+    List<String> getChangedFiles() throws IOException;
+
+    /**
+     * @return data read through the REST API as it is needed, each list is fetched at most once
+     */
+    static PullRequestData of(GHPullRequest pullRequest) {
+        return of(pullRequest, GitHubGuard.direct());
+    }
+
+    /**
+     * @return data read through the REST API as it is needed, the pages of the changed files are requested through the
+     * guard
+     */
+    static PullRequestData of(GHPullRequest pullRequest, GitHubGuard gitHubGuard) {
+        return new RestPullRequestData(pullRequest, gitHubGuard, null, 0);
+    }
+
+    /**
+     * @return data read through the REST API as it is needed, the changed files are streamed through the pooled client
+     * of the installation and their pages requested through the guard
+     */
+    static PullRequestData of(GHPullRequest pullRequest, GitHubGuard gitHubGuard, InstallationClientPool clientPool,
+            long installationId) {
+        return new RestPullRequestData(pullRequest, gitHubGuard, clientPool, installationId);
+    }
+
+    record CommitData(String sha, String message) {
+    }
+}
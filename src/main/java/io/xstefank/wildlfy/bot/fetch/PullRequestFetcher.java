@@ -0,0 +1,75 @@
+package io.xstefank.wildlfy.bot.fetch;
+
+import io.xstefank.wildlfy.bot.auth.InstallationClientPool;
+import io.xstefank.wildlfy.bot.resilience.ApiBudget;
+import io.xstefank.wildlfy.bot.resilience.BudgetExhaustedException;
+import io.xstefank.wildlfy.bot.resilience.GitHubGuard;
+import io.xstefank.wildlfy.bot.resilience.GitHubUnavailableException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRepository;
+
+import java.io.IOException;
+
+/**
+ * Provides the {@link PullRequestData} a pull request is evaluated with.
+ * <p>
+ * With {@code wildfly-bot.fetch.graphql} set, the data is loaded by a single GraphQL query, or a few for large pull
+ * requests, instead of separate REST calls for the commits, the changed files and the refreshed pull request. If
+ * GitHub is unavailable the failure is passed on, any other failure of the query falls back to the REST API. So does
+ * a load exceeding the {@link ApiBudget} of the delivery, the REST API reads only what is needed as it is needed.
+ */
+@ApplicationScoped
+public class PullRequestFetcher {
+
+    private static final Logger LOG = Logger.getLogger(PullRequestFetcher.class);
+
+    static final String ENDPOINT = "graphql-pull-request";
+    static final String RELOAD_ENDPOINT = "get-pull-request";
+
+    @Inject
+    InstallationClientPool clientPool;
+
+    @Inject
+    GitHubGuard gitHubGuard;
+
+    @ConfigProperty(name = "wildfly-bot.fetch.graphql", defaultValue = "true")
+    boolean graphql;
+
+    private final GraphQLPullRequestLoader loader = new GraphQLPullRequestLoader();
+
+    public PullRequestData fetch(GHPullRequest pullRequest, long installationId) throws IOException {
+        if (!graphql) {
+            return PullRequestData.of(pullRequest, gitHubGuard, clientPool, installationId);
+        }
+
+        try {
+            // every query is charged by the loader
+            return gitHubGuard.call(pullRequest.getRepository(), ENDPOINT, 0,
+                    () -> loader.load(clientPool.getGraphQLClient(installationId), pullRequest.getRepository(),
+                            pullRequest.getNumber()));
+        } catch (GitHubUnavailableException e) {
+            throw e;
+        } catch (BudgetExhaustedException e) {
+            LOG.debugf("Loading pull request #%d through GraphQL exceeds the budget, reading it through REST: %s",
+                    pullRequest.getNumber(), e.getMessage());
+            return PullRequestData.of(pullRequest, gitHubGuard, clientPool, installationId);
+        } catch (IOException | RuntimeException e) {
+            LOG.warnf("Unable to load pull request #%d through GraphQL, falling back to REST: %s", pullRequest.getNumber(),
+                    e.getMessage());
+            return PullRequestData.of(pullRequest, gitHubGuard, clientPool, installationId);
+        }
+    }
+
+    /**
+     * @return the pull request as it is now, for deferred work which must not evaluate the state carried by the event
+     * that deferred it
+     */
+    public GHPullRequest reload(GHPullRequest pullRequest) throws IOException {
+        GHRepository repository = pullRequest.getRepository();
+        return gitHubGuard.call(repository, RELOAD_ENDPOINT, () -> repository.getPullRequest(pullRequest.getNumber()));
+    }
+}
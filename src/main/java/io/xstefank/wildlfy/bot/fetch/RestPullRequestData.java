@@ -0,0 +1,131 @@
+package io.xstefank.wildlfy.bot.fetch;
+
+import io.xstefank.wildlfy.bot.auth.InstallationClientPool;
+import io.xstefank.wildlfy.bot.resilience.ApiBudget;
+import io.xstefank.wildlfy.bot.resilience.GitHubGuard;
+import org.kohsuke.github.GHCommit;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHPullRequestCommitDetail;
+import org.kohsuke.github.GHRepository;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link PullRequestData} read through the REST API. The commits and the changed files are listed on the first access
+ * only, so the rules and checks reading them share the same pages. The changed files are listed by
+ * {@link ChangedFileListing}. The pages are charged to the {@link ApiBudget} of the delivery before they are requested.
+ */
+class RestPullRequestData implements PullRequestData {
+
+    /**
+     * Largest {@code per_page} GitHub accepts for the commits of a pull request.
+     */
+    static final int COMMITS_PAGE_SIZE = 100;
+
+    private final GHPullRequest pullRequest;
+    private final GitHubGuard gitHubGuard;
+    private final InstallationClientPool clientPool;
+    private final long installationId;
+
+    private List<CommitData> commits;
+    private List<String> changedFiles;
+
+    RestPullRequestData(GHPullRequest pullRequest, GitHubGuard gitHubGuard, InstallationClientPool clientPool,
+            long installationId) {
+        this.pullRequest = pullRequest;
+        this.gitHubGuard = gitHubGuard;
+        this.clientPool = clientPool;
+        this.installationId = installationId;
+    }
+
+    @Override
+    public GHRepository getRepository() {
+        return pullRequest.getRepository();
+    }
+
+    @Override
+    public int getNumber() {
+        return pullRequest.getNumber();
+    }
+
+    @Override
+    public String getTitle() {
+        return pullRequest.getTitle();
+    }
+
+    @Override
+    public String getBody() {
+        return pullRequest.getBody();
+    }
+
+    @Override
+    public String getHeadSha() {
+        return pullRequest.getHead().getSha();
+    }
+
+    @Override
+    public int getCommitCount() throws IOException {
+        return pullRequest.getCommits();
+    }
+
+    @Override
+    public synchronized List<CommitData> getCommits() throws IOException {
+        if (commits == null) {
+            ApiBudget.current().charge("list-commits", pages(getCommitCount()));
+            List<CommitData> listed = new ArrayList<>();
+            for (GHPullRequestCommitDetail commit : pullRequest.listCommits().withPageSize(COMMITS_PAGE_SIZE)) {
+                listed.add(new CommitData(commit.getSha(), commit.getCommit().getMessage()));
+            }
+            commits = Collections.unmodifiableList(listed);
+        }
+        return commits;
+    }
+
+    @Override
+    public synchronized List<CommitData> getCommitsWithinBudget() throws IOException {
+        ApiBudget budget = ApiBudget.current();
+        int commitCount = getCommitCount();
+        if (commits != null || budget.allows(pages(commitCount))) {
+            return getCommits();
+        }
+
+        int newest = Math.min(commitCount, budget.getDegradedCommits());
+        budget.charge("list-newest-commits");
+        List<CommitData> listed = new ArrayList<>(newest);
+        // the history of the head lists the commits of the pull request first, newest first
+        if (newest > 0) {
+            for (GHCommit commit : pullRequest.getRepository().queryCommits().from(getHeadSha()).pageSize(newest).list()
+                    .iterator().nextPage()) {
+                if (listed.size() == newest) {
+                    break;
+                }
+                listed.add(new CommitData(commit.getSHA1(), commit.getCommitShortInfo().getMessage()));
+            }
+        }
+        Collections.reverse(listed);
+        budget.degrade("only the newest " + listed.size() + " of " + commitCount + " commits read");
+        return Collections.unmodifiableList(listed);
+    }
+
+    @Override
+    public synchronized List<String> getChangedFiles() throws IOException {
+        if (changedFiles == null) {
+            List<String> listed = new ArrayList<>();
+            ChangedFileListing.ChangedFileConsumer consumer = (filename, status) -> listed.add(filename);
+            if (clientPool == null) {
+                ChangedFileListing.list(pullRequest, gitHubGuard, consumer);
+            } else {
+                ChangedFileListing.list(pullRequest, clientPool, installationId, gitHubGuard, consumer);
+            }
+            changedFiles = Collections.unmodifiableList(listed);
+        }
+        return changedFiles;
+    }
+
+    private static int pages(int commitCount) {
+        return Math.max(1, (commitCount + COMMITS_PAGE_SIZE - 1) / COMMITS_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,118 @@
+package io.xstefank.wildlfy.bot.filter;
+
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.BodyHandler;
+import io.xstefank.wildlfy.bot.ConfigRegistry;
+import io.xstefank.wildlfy.bot.config.EventInterest;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Drops {@code pull_request} deliveries that cannot lead to any work before the payload is bound and the
+ * configuration is fetched.
+ * <p>
+ * Only a few fields are read from the raw payload, see {@link PullRequestEventSummary}. A delivery is dropped if no
+ * processor handles its action, if it was sent by one of {@code wildfly-bot.filter.ignored-senders}, if the pull
+ * request is a draft and {@code wildfly-bot.filter.skip-drafts} is set, if it targets another than the default
+ * branch and {@code wildfly-bot.filter.default-branch-only} is set, or if the last configuration resolved for the
+ * repository has nothing to do for it. Anything the filter cannot read is passed on.
+ */
+@ApplicationScoped
+public class EventFilter {
+
+    private static final Logger LOG = Logger.getLogger(EventFilter.class);
+
+    // before the cluster route, so dropped deliveries are not forwarded either
+    static final int ROUTE_ORDER = -200;
+
+    static final String EVENT_HEADER = "X-GitHub-Event";
+
+    /**
+     * Actions of the {@code pull_request} event observed by the processors.
+     */
+    static final Set<String> HANDLED_ACTIONS = Set.of("opened", "edited", "ready_for_review", "closed", "reopened");
+
+    @Inject
+    ConfigRegistry configRegistry;
+
+    @ConfigProperty(name = "wildfly-bot.filter.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "wildfly-bot.filter.ignored-senders")
+    Optional<List<String>> ignoredSenders;
+
+    @ConfigProperty(name = "wildfly-bot.filter.skip-drafts", defaultValue = "false")
+    boolean skipDrafts;
+
+    @ConfigProperty(name = "wildfly-bot.filter.default-branch-only", defaultValue = "false")
+    boolean defaultBranchOnly;
+
+    void init(@Observes Router router) {
+        if (enabled) {
+            router.post("/").order(ROUTE_ORDER).handler(BodyHandler.create()).handler(this::filter);
+        }
+    }
+
+    private void filter(RoutingContext routingContext) {
+        if (!"pull_request".equals(routingContext.request().getHeader(EVENT_HEADER))) {
+            routingContext.next();
+            return;
+        }
+
+        PullRequestEventSummary event;
+        try {
+            event = PullRequestEventSummary.parse(routingContext.body().buffer().getBytes());
+        } catch (IOException e) {
+            routingContext.next();
+            return;
+        }
+
+        String reason = dropReason(event);
+        if (reason == null) {
+            routingContext.next();
+        } else {
+            LOG.debugf("Dropping %s event of %s: %s.", event.action(), event.repository(), reason);
+            routingContext.response().setStatusCode(200).end();
+        }
+    }
+
+    /**
+     * @return why the event is dropped or {@code null} if it is handled
+     */
+    String dropReason(PullRequestEventSummary event) {
+        if (event.action() == null || event.repository() == null) {
+            return null;
+        }
+        if (!HANDLED_ACTIONS.contains(event.action())) {
+            return "action not handled";
+        }
+        if (event.sender() != null && ignoredSenders.orElse(List.of()).contains(event.sender())) {
+            return "ignored sender";
+        }
+        if (event.action().equals("closed") || event.action().equals("reopened")) {
+            return null;
+        }
+        if (skipDrafts && event.draft()) {
+            return "draft";
+        }
+        if (defaultBranchOnly && event.baseBranch() != null && !event.baseBranch().equals(event.defaultBranch())) {
+            return "not the default branch";
+        }
+
+        EventInterest interest = configRegistry.getInterest(event.repository()).orElse(null);
+        if (interest == null) {
+            return null;
+        }
+        boolean interested = event.action().equals("edited") ? interest.format() : interest.triage() || interest.format();
+        return interested ? null : "nothing configured";
+    }
+}
@@ -0,0 +1,105 @@
+package io.xstefank.wildlfy.bot.filter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * The few fields of a {@code pull_request} delivery needed to decide whether it is worth handling.
+ */
+public record PullRequestEventSummary(String action, String repository, String defaultBranch, String sender,
+                                      boolean draft, String baseBranch) {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Reads the summary from the raw payload with a streaming parser, skipping everything else without binding it.
+     *
+     * @throws IOException if the payload is not a JSON object
+     */
+    public static PullRequestEventSummary parse(byte[] payload) throws IOException {
+        String action = null;
+        String repository = null;
+        String defaultBranch = null;
+        String sender = null;
+        boolean draft = false;
+        String baseBranch = null;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Payload is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "action" -> action = parser.getValueAsString();
+                    case "repository" -> {
+                        while (nextField(parser, value)) {
+                            switch (parser.currentName()) {
+                                case "full_name" -> repository = valueAsString(parser);
+                                case "default_branch" -> defaultBranch = valueAsString(parser);
+                                default -> skipValue(parser);
+                            }
+                        }
+                    }
+                    case "sender" -> {
+                        while (nextField(parser, value)) {
+                            if (parser.currentName().equals("login")) {
+                                sender = valueAsString(parser);
+                            } else {
+                                skipValue(parser);
+                            }
+                        }
+                    }
+                    case "pull_request" -> {
+                        while (nextField(parser, value)) {
+                            switch (parser.currentName()) {
+                                case "draft" -> {
+                                    parser.nextToken();
+                                    draft = parser.getValueAsBoolean();
+                                }
+                                case "base" -> {
+                                    JsonToken base = parser.nextToken();
+                                    while (nextField(parser, base)) {
+                                        if (parser.currentName().equals("ref")) {
+                                            baseBranch = valueAsString(parser);
+                                        } else {
+                                            skipValue(parser);
+                                        }
+                                    }
+                                }
+                                default -> skipValue(parser);
+                            }
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return new PullRequestEventSummary(action, repository, defaultBranch, sender, draft, baseBranch);
+    }
+
+    /**
+     * Moves to the next field of an object value, values of other types are skipped.
+     */
+    private static boolean nextField(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return false;
+        }
+        return parser.nextToken() == JsonToken.FIELD_NAME;
+    }
+
+    private static String valueAsString(JsonParser parser) throws IOException {
+        parser.nextToken();
+        return parser.getValueAsString();
+    }
+
+    private static void skipValue(JsonParser parser) throws IOException {
+        parser.nextToken();
+        parser.skipChildren();
+    }
+}
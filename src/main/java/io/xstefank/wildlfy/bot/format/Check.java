@@ -1,6 +1,6 @@
 package io.xstefank.wildlfy.bot.format;
 
-import org.kohsuke.github.GHPullRequest;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
 
 import java.io.IOException;
 
@@ -14,12 +14,17 @@ public interface Check {
      * Performs any custom validation of the pull request. This method
      * is invoked when the PR is updated (GitHub PR events)
      *
-     * @param payload pull request JSON as received from GitHub
+     * @param pullRequest data of the pull request, see {@link io.xstefank.wildlfy.bot.fetch.PullRequestFetcher}
      * @return null if check passed, error message otherwise (error message
      * is limited by GitHub status to 140 characters)
      */
-    String check(GHPullRequest pullRequest) throws IOException;
+    String check(PullRequestData pullRequest) throws IOException;
 
 
     String getName();
+
+    /**
+     * @return how expensive this check is to evaluate, used to order the checks in {@link CheckPipeline}
+     */
+    CostClass getCostClass();
 }
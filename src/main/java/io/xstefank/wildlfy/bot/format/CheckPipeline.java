@@ -0,0 +1,132 @@
+package io.xstefank.wildlfy.bot.format;
+
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
+import io.xstefank.wildlfy.bot.resilience.ApiBudget;
+import io.xstefank.wildlfy.bot.resilience.BudgetExhaustedException;
+import io.xstefank.wildlfy.bot.resilience.GitHubGuard;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Evaluates format checks in the cheapest order while keeping the reported failure deterministic.
+ * <p>
+ * The reported failure is always the first failing check by {@link CostClass} and then by configured position, so it
+ * only depends on the pull request and the configuration. Checks are executed by cost class first, so an expensive
+ * check never runs when a cheaper one already failed. Within a cost class the checks are executed by their observed
+ * latency per failure, so the check most likely to reject the pull request quickly runs first. Once a check fails,
+ * only the checks which could still be reported instead of it are executed.
+ * <p>
+ * Checks which are not {@link CostClass#FREE} call GitHub and run through the {@link GitHubGuard}, with the name of the
+ * check as the endpoint. A check exceeding the {@link ApiBudget} of the delivery is skipped, which is recorded as a
+ * degradation of the budget.
+ */
+public class CheckPipeline {
+
+    private static final Logger LOG = Logger.getLogger(CheckPipeline.class);
+
+    private final List<Entry> entries;
+    private final GitHubGuard gitHubGuard;
+
+    public CheckPipeline(List<Check> checks) {
+        this(checks, GitHubGuard.direct());
+    }
+
+    public CheckPipeline(List<Check> checks, GitHubGuard gitHubGuard) {
+        this.gitHubGuard = gitHubGuard;
+        List<Entry> entries = new ArrayList<>(checks.size());
+        for (int i = 0; i < checks.size(); i++) {
+            entries.add(new Entry(checks.get(i), i));
+        }
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * @return the first failing check in the reporting order or {@code null} if all checks pass
+     */
+    public Failure evaluate(PullRequestData pullRequest) throws IOException {
+        List<Entry> executionOrder = new ArrayList<>(entries);
+        executionOrder.sort(Comparator.comparing((Entry entry) -> entry.check.getCostClass())
+                .thenComparingDouble(entry -> entry.statistics.expectedCostPerFailure())
+                .thenComparingInt(entry -> entry.position));
+
+        Entry failed = null;
+        String message = null;
+        for (Entry entry : executionOrder) {
+            if (failed != null && !entry.reportedBefore(failed)) {
+                continue;
+            }
+
+            long start = System.nanoTime();
+            String result;
+            try {
+                result = entry.check.getCostClass() == CostClass.FREE
+                        ? entry.check.check(pullRequest)
+                        : gitHubGuard.call(pullRequest.getRepository(), entry.check.getName(), () -> entry.check.check(pullRequest));
+            } catch (BudgetExhaustedException e) {
+                LOG.debugf("Check %s skipped for pull request #%d: %s", entry.check.getName(), pullRequest.getNumber(), e.getMessage());
+                ApiBudget.current().degrade(entry.check.getName() + " skipped");
+                continue;
+            }
+            entry.statistics.record(System.nanoTime() - start, result != null);
+
+            if (result != null) {
+                failed = entry;
+                message = result;
+            }
+        }
+
+        if (failed == null) {
+            return null;
+        }
+
+        LOG.debugf("Check %s failed for pull request #%d", failed.check.getName(), pullRequest.getNumber());
+        return new Failure(failed.check, message);
+    }
+
+    /**
+     * @return the checks in the order in which their failures are reported
+     */
+    public List<Check> getChecks() {
+        return entries.stream()
+                .sorted(Entry::compareReportingOrder)
+                .map(entry -> entry.check)
+                .toList();
+    }
+
+    public CheckStatistics getStatistics(Check check) {
+        return entries.stream()
+                .filter(entry -> entry.check == check)
+                .map(entry -> entry.statistics)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Check " + check.getName() + " is not part of this pipeline"));
+    }
+
+    public record Failure(Check check, String message) {
+    }
+
+    private static final class Entry {
+
+        private final Check check;
+        private final int position;
+        private final CheckStatistics statistics = new CheckStatistics();
+
+        private Entry(Check check, int position) {
+            this.check = check;
+            this.position = position;
+        }
+
+        private boolean reportedBefore(Entry other) {
+            return compareReportingOrder(other) < 0;
+        }
+
+        private int compareReportingOrder(Entry other) {
+            int result = check.getCostClass().compareTo(other.check.getCostClass());
+            return result != 0 ? result : Integer.compare(position, other.position);
+        }
+    }
+}
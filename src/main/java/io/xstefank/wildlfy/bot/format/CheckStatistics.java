@@ -0,0 +1,58 @@
+package io.xstefank.wildlfy.bot.format;
+
+/**
+ * Observed latency and failure rate of a single {@link Check}. Both are exponentially weighted moving averages, so the
+ * statistics follow changes in the incoming pull requests instead of being dominated by the early history.
+ */
+public class CheckStatistics {
+
+    static final double SMOOTHING = 0.1;
+
+    // a check which has never failed still gets a chance to be executed early if it is very fast
+    private static final double MIN_FAILURE_RATE = 0.01;
+
+    private long evaluations;
+    private long failures;
+    private double averageNanos;
+    private double failureRate;
+
+    synchronized void record(long nanos, boolean failed) {
+        if (evaluations == 0) {
+            averageNanos = nanos;
+            failureRate = failed ? 1 : 0;
+        } else {
+            averageNanos += SMOOTHING * (nanos - averageNanos);
+            failureRate += SMOOTHING * ((failed ? 1 : 0) - failureRate);
+        }
+        evaluations++;
+        if (failed) {
+            failures++;
+        }
+    }
+
+    /**
+     * @return the average time spent in the check per pull request it rejects, lower is better to run first
+     */
+    synchronized double expectedCostPerFailure() {
+        if (evaluations == 0) {
+            return 0;
+        }
+        return averageNanos / Math.max(failureRate, MIN_FAILURE_RATE);
+    }
+
+    public synchronized long getEvaluations() {
+        return evaluations;
+    }
+
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    public synchronized double getAverageNanos() {
+        return averageNanos;
+    }
+
+    public synchronized double getFailureRate() {
+        return failureRate;
+    }
+}
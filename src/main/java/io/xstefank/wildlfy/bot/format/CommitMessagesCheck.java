@@ -1,9 +1,8 @@
 package io.xstefank.wildlfy.bot.format;
 
 import io.xstefank.wildlfy.bot.config.RegexDefinition;
-import org.kohsuke.github.GHPullRequest;
-import org.kohsuke.github.GHPullRequestCommitDetail;
-import org.kohsuke.github.PagedIterable;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData.CommitData;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 import java.io.IOException;
@@ -24,13 +23,12 @@ public class CommitMessagesCheck implements Check {
     }
 
     @Override
-    public String check(GHPullRequest pullRequest) throws IOException {
-        PagedIterable<GHPullRequestCommitDetail> commits = pullRequest.listCommits();
-        for (GHPullRequestCommitDetail commit : commits) {
+    public String check(PullRequestData pullRequest) throws IOException {
+        for (CommitData commit : pullRequest.getCommitsWithinBudget()) {
 
-            String commitMessage =  commit.getCommit().getMessage();
+            String commitMessage =  commit.message();
             if (commitMessage.isEmpty()) {
-                return commit.getSha() + ": Commit message is Empty";
+                return commit.sha() + ": Commit message is Empty";
             }
 
             Matcher matcher = pattern.matcher(commitMessage);
@@ -46,4 +44,9 @@ public class CommitMessagesCheck implements Check {
     public String getName() {
         return "commits-message";
     }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.NETWORK;
+    }
 }
@@ -1,7 +1,7 @@
 package io.xstefank.wildlfy.bot.format;
 
 import io.xstefank.wildlfy.bot.config.CommitsQuantity;
-import org.kohsuke.github.GHPullRequest;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
 
 import java.io.IOException;
 import java.util.regex.Matcher;
@@ -42,8 +42,8 @@ public class CommitsQuantityCheck implements Check {
     }
 
     @Override
-    public String check(GHPullRequest pullRequest) throws IOException {
-        int numberOfCommits = pullRequest.getCommits();
+    public String check(PullRequestData pullRequest) throws IOException {
+        int numberOfCommits = pullRequest.getCommitCount();
 
         if (parsedRangeUpperBoundary == null) {
             return (numberOfCommits == parsedRangeBottomBoundary) ? null : message;
@@ -57,4 +57,9 @@ public class CommitsQuantityCheck implements Check {
     public String getName() {
         return "commits-quantity";
     }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
 }
@@ -0,0 +1,23 @@
+package io.xstefank.wildlfy.bot.format;
+
+/**
+ * How expensive it is to evaluate a {@link Check}. Checks of a cheaper class are always evaluated before checks of a
+ * more expensive one, so a pull request failing a cheap check is rejected without touching the network.
+ */
+public enum CostClass {
+
+    /**
+     * Only reads fields already present in the event payload.
+     */
+    FREE,
+
+    /**
+     * Reads pull request fields which may need a single refresh of the pull request.
+     */
+    CHEAP,
+
+    /**
+     * Lists data through the GitHub API, possibly over several pages.
+     */
+    NETWORK
+}
@@ -1,7 +1,7 @@
 package io.xstefank.wildlfy.bot.format;
 
 import io.xstefank.wildlfy.bot.config.RegexDefinition;
-import org.kohsuke.github.GHPullRequest;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -21,7 +21,7 @@ public class DescriptionCheck implements Check {
     }
 
     @Override
-    public String check(GHPullRequest pullRequest) {
+    public String check(PullRequestData pullRequest) {
         try {
             Matcher matcher = pattern.matcher(pullRequest.getBody());
 
@@ -39,4 +39,9 @@ public class DescriptionCheck implements Check {
     public String getName() {
         return "description";
     }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.FREE;
+    }
 }
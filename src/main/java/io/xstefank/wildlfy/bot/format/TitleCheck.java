@@ -1,7 +1,7 @@
 package io.xstefank.wildlfy.bot.format;
 
 import io.xstefank.wildlfy.bot.config.RegexDefinition;
-import org.kohsuke.github.GHPullRequest;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -22,7 +22,7 @@ public class TitleCheck implements Check {
     }
 
     @Override
-    public String check(GHPullRequest pullRequest) {
+    public String check(PullRequestData pullRequest) {
         Matcher matcher = pattern.matcher(pullRequest.getTitle());
         if (!matcher.matches()) {
             return message;
@@ -35,4 +35,9 @@ public class TitleCheck implements Check {
     public String getName() {
         return "title-check";
     }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.FREE;
+    }
 }
@@ -0,0 +1,31 @@
+package io.xstefank.wildlfy.bot.http;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kohsuke.github.connector.GitHubConnector;
+
+import java.time.Duration;
+
+@ApplicationScoped
+public class GitHubConnectorProducer {
+
+    @ConfigProperty(name = "wildfly-bot.http.http2", defaultValue = "true")
+    boolean http2;
+
+    @ConfigProperty(name = "wildfly-bot.http.connect-timeout", defaultValue = "10s")
+    Duration connectTimeout;
+
+    @ConfigProperty(name = "wildfly-bot.http.request-timeout", defaultValue = "30s")
+    Duration requestTimeout;
+
+    @ConfigProperty(name = "wildfly-bot.http.max-concurrent-requests", defaultValue = "64")
+    int maxConcurrentRequests;
+
+    @Produces
+    @Singleton
+    GitHubConnector gitHubConnector() {
+        return http2 ? new Http2GitHubConnector(connectTimeout, requestTimeout, maxConcurrentRequests) : GitHubConnector.DEFAULT;
+    }
+}
@@ -0,0 +1,194 @@
+package io.xstefank.wildlfy.bot.http;
+
+import io.xstefank.wildlfy.bot.resilience.ApiBudget;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the requests of GitHub clients through one shared {@link HttpClient}, which keeps its connections alive and
+ * multiplexes concurrent requests to the same host over a single HTTP/2 connection when the server supports it.
+ * <p>
+ * At most {@code maxConcurrentRequests} requests wait for their response at once, the others wait for a free slot. A
+ * request whose response does not start within {@code requestTimeout} fails, so a stalled stream does not hold its slot.
+ * Responses are requested gzipped, including the pages of list endpoints, and decompressed while they are read. The
+ * bytes read from a response are recorded in the {@link ApiBudget} bound to the thread which sent the request.
+ */
+public class Http2GitHubConnector implements GitHubConnector {
+
+    // set by the JDK client itself
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final Semaphore permits;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong http2Responses = new AtomicLong();
+
+    public Http2GitHubConnector(Duration connectTimeout, Duration requestTimeout, int maxConcurrentRequests) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.requestTimeout = requestTimeout;
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+    }
+
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest connectorRequest) throws IOException {
+        ApiBudget budget = ApiBudget.current();
+        HttpRequest request = toHttpRequest(connectorRequest);
+        try {
+            if (!permits.tryAcquire()) {
+                queued.incrementAndGet();
+                permits.acquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a free connection slot");
+        }
+
+        inFlight.incrementAndGet();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            requests.incrementAndGet();
+            if (response.version() == HttpClient.Version.HTTP_2) {
+                http2Responses.incrementAndGet();
+            }
+            return new Response(connectorRequest, response, budget);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + connectorRequest.url());
+        } finally {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * @return number of requests waiting for their response
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @return number of requests which waited for a free slot
+     */
+    public long getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * @return number of responses received over an HTTP/2 connection
+     */
+    public long getHttp2ResponseCount() {
+        return http2Responses.get();
+    }
+
+    private HttpRequest toHttpRequest(GitHubConnectorRequest connectorRequest) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(requestTimeout);
+        try {
+            builder.uri(connectorRequest.url().toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid URL " + connectorRequest.url(), e);
+        }
+
+        for (Map.Entry<String, List<String>> header : connectorRequest.allHeaders().entrySet()) {
+            if (header.getKey() != null && header.getValue() != null
+                    && !RESTRICTED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                builder.header(header.getKey(), String.join(",", header.getValue()));
+            }
+        }
+        if (connectorRequest.header("Accept-Encoding") == null) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+
+        HttpRequest.BodyPublisher body = connectorRequest.hasBody()
+                ? HttpRequest.BodyPublishers.ofByteArray(connectorRequest.body().readAllBytes())
+                : HttpRequest.BodyPublishers.noBody();
+        return builder.method(connectorRequest.method(), body).build();
+    }
+
+    private static class Response extends GitHubConnectorResponse {
+
+        private final HttpResponse<InputStream> response;
+        private final ApiBudget budget;
+        private InputStream body;
+
+        Response(GitHubConnectorRequest request, HttpResponse<InputStream> response, ApiBudget budget) {
+            super(request, response.statusCode(), response.headers().map());
+            this.response = response;
+            this.budget = budget;
+        }
+
+        @Override
+        public synchronized InputStream bodyStream() throws IOException {
+            if (body == null) {
+                body = new MeteredInputStream(wrapStream(response.body()), budget);
+            }
+            return body;
+        }
+
+        @Override
+        public void close() throws IOException {
+            response.body().close();
+        }
+    }
+
+    /**
+     * Records the decompressed bytes as they are read.
+     */
+    private static class MeteredInputStream extends FilterInputStream {
+
+        private final ApiBudget budget;
+
+        MeteredInputStream(InputStream in, ApiBudget budget) {
+            super(in);
+            this.budget = budget;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read >= 0) {
+                budget.recordBytes(1);
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                budget.recordBytes(read);
+            }
+            return read;
+        }
+    }
+}
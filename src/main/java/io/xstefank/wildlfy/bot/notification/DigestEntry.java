@@ -0,0 +1,24 @@
+package io.xstefank.wildlfy.bot.notification;
+
+import org.kohsuke.github.GHPullRequest;
+
+import java.util.List;
+
+/**
+ * A single pull request waiting in a notification digest.
+ */
+public record DigestEntry(String repository, int number, String title, String url, List<String> rules, long queuedAt) {
+
+    public static DigestEntry of(GHPullRequest pullRequest, List<String> rules) {
+        return new DigestEntry(pullRequest.getRepository().getFullName(), pullRequest.getNumber(), pullRequest.getTitle(),
+                pullRequest.getHtmlUrl().toString(), List.copyOf(rules), System.currentTimeMillis());
+    }
+
+    boolean isSamePullRequest(DigestEntry other) {
+        return repository.equals(other.repository) && number == other.number;
+    }
+
+    String format() {
+        return "- " + repository + "#" + number + " " + title + "\n  " + url + "\n  matched rules: " + String.join(", ", rules);
+    }
+}
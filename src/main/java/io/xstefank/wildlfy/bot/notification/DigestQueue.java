@@ -0,0 +1,202 @@
+package io.xstefank.wildlfy.bot.notification;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.mailer.Mail;
+import io.quarkus.mailer.reactive.ReactiveMailer;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Queues matched pull requests per email recipient and sends them as a single digest once the recipient has
+ * {@code wildfly-bot.digest.max-size} pull requests queued or the oldest one waits longer than
+ * {@code wildfly-bot.digest.max-age}.
+ * <p>
+ * The queue is written to {@code wildfly-bot.digest.queue-file} every {@code wildfly-bot.digest.persist-interval} if it
+ * changed, and on shutdown, so pending digests survive a restart without rewriting the file on every event. Mails are
+ * sent through the Quarkus {@link ReactiveMailer} without waiting for the SMTP server, a failed digest is queued again.
+ * The mailer is mocked in dev and test mode and can point to any SMTP server through the {@code quarkus.mailer.*}
+ * properties.
+ */
+@ApplicationScoped
+public class DigestQueue {
+
+    private static final Logger LOG = Logger.getLogger(DigestQueue.class);
+
+    private static final TypeReference<Map<String, List<DigestEntry>>> QUEUE_TYPE = new TypeReference<>() {
+    };
+
+    @Inject
+    ReactiveMailer mailer;
+
+    @ConfigProperty(name = "wildfly-bot.digest.max-size", defaultValue = "20")
+    int maxSize;
+
+    @ConfigProperty(name = "wildfly-bot.digest.max-age", defaultValue = "1h")
+    Duration maxAge;
+
+    @ConfigProperty(name = "wildfly-bot.digest.queue-file", defaultValue = "digest-queue.json")
+    Path queueFile;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, List<DigestEntry>> queue = new TreeMap<>();
+    private final Object persistLock = new Object();
+    private boolean changed;
+
+    @PostConstruct
+    void load() {
+        if (!Files.exists(queueFile)) {
+            return;
+        }
+        try {
+            queue.putAll(objectMapper.readValue(queueFile.toFile(), QUEUE_TYPE));
+            LOG.infof("Loaded %d pending digests from %s.", queue.size(), queueFile);
+        } catch (IOException e) {
+            LOG.errorf(e, "Unable to load pending digests from %s, starting with an empty queue.", queueFile);
+        }
+    }
+
+    /**
+     * Queues the pull request for all recipients. A pull request already queued for a recipient replaces the previous
+     * entry, so redelivered events do not show up twice in a digest.
+     */
+    public void enqueue(Collection<String> recipients, DigestEntry entry) {
+        Map<String, List<DigestEntry>> full = new TreeMap<>();
+        synchronized (this) {
+            for (String recipient : recipients) {
+                List<DigestEntry> entries = queue.computeIfAbsent(recipient, r -> new ArrayList<>());
+                entries.removeIf(entry::isSamePullRequest);
+                entries.add(entry);
+                if (entries.size() >= maxSize) {
+                    full.put(recipient, queue.remove(recipient));
+                }
+            }
+            changed = true;
+        }
+        send(full);
+    }
+
+    @Scheduled(every = "${wildfly-bot.digest.check-interval:1m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void flushExpired() {
+        flush(Instant.now());
+    }
+
+    /**
+     * Sends the digests of all recipients whose oldest queued pull request is older than the maximal age at the given
+     * time.
+     */
+    public void flush(Instant now) {
+        long deadline = now.minus(maxAge).toEpochMilli();
+        Map<String, List<DigestEntry>> expired = new TreeMap<>();
+        synchronized (this) {
+            queue.entrySet().removeIf(recipient -> {
+                if (recipient.getValue().get(0).queuedAt() <= deadline) {
+                    expired.put(recipient.getKey(), recipient.getValue());
+                    return true;
+                }
+                return false;
+            });
+            if (!expired.isEmpty()) {
+                changed = true;
+            }
+        }
+        send(expired);
+    }
+
+    /**
+     * Writes the queue to the queue file if it changed since the last write.
+     */
+    @Scheduled(every = "${wildfly-bot.digest.persist-interval:10s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    public void persist() {
+        synchronized (persistLock) {
+            Map<String, List<DigestEntry>> snapshot = new TreeMap<>();
+            synchronized (this) {
+                if (!changed) {
+                    return;
+                }
+                changed = false;
+                queue.forEach((recipient, entries) -> snapshot.put(recipient, List.copyOf(entries)));
+            }
+            if (!write(snapshot)) {
+                synchronized (this) {
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        persist();
+    }
+
+    public synchronized List<DigestEntry> getPending(String recipient) {
+        return List.copyOf(queue.getOrDefault(recipient, List.of()));
+    }
+
+    /**
+     * @return number of pull requests queued for all recipients
+     */
+    public synchronized int getQueuedCount() {
+        return queue.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void send(Map<String, List<DigestEntry>> digests) {
+        for (Map.Entry<String, List<DigestEntry>> digest : digests.entrySet()) {
+            List<DigestEntry> entries = digest.getValue();
+            String subject = "[wildfly-bot] " + entries.size() + " pull request" + (entries.size() == 1 ? "" : "s") + " matched your rules";
+            String text = entries.stream().map(DigestEntry::format).collect(Collectors.joining("\n\n"));
+            String recipient = digest.getKey();
+            mailer.send(Mail.withText(recipient, subject, text)).subscribe().with(
+                    sent -> LOG.debugf("Sent digest with %d pull requests to %s.", entries.size(), recipient),
+                    failure -> {
+                        LOG.errorf(failure, "Unable to send digest to %s, it will be retried.", recipient);
+                        requeue(recipient, entries);
+                    });
+        }
+    }
+
+    private synchronized void requeue(String recipient, List<DigestEntry> entries) {
+        List<DigestEntry> queued = queue.computeIfAbsent(recipient, r -> new ArrayList<>());
+        for (DigestEntry entry : entries) {
+            if (queued.stream().noneMatch(entry::isSamePullRequest)) {
+                queued.add(entry);
+            }
+        }
+        queued.sort((first, second) -> Long.compare(first.queuedAt(), second.queuedAt()));
+        changed = true;
+    }
+
+    private boolean write(Map<String, List<DigestEntry>> snapshot) {
+        try {
+            Path parent = queueFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, queueFile.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(temporary.toFile(), snapshot);
+            Files.move(temporary, queueFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            LOG.errorf(e, "Unable to persist pending digests to %s.", queueFile);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package io.xstefank.wildlfy.bot.ordering;
+
+import io.xstefank.wildlfy.bot.resilience.GitHubUnavailableException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks with the same key one after another in the order they were submitted, and tasks with different keys in
+ * parallel.
+ * <p>
+ * Keys are spread by their hash over a fixed number of stripes. Each stripe is a lock-free queue drained by at most one
+ * thread at a time, so two keys sharing a stripe are ordered too, but no lock is held while a task runs. With enough
+ * stripes for the expected parallelism this rarely delays an unrelated task.
+ * <p>
+ * A caller waits at most {@code timeout} for its task, including the tasks queued before it. A task whose caller gave
+ * up before it started is skipped.
+ */
+public class StripedExecutor implements AutoCloseable {
+
+    private static final StripedExecutor DIRECT = new StripedExecutor();
+
+    private final Stripe[] stripes;
+    private final ExecutorService executor;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Duration timeout;
+
+    public StripedExecutor(int stripes, Duration timeout) {
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.executor = Executors.newFixedThreadPool(stripes, runnable -> {
+            Thread thread = new Thread(runnable, "wildfly-bot-ordered");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timeout = timeout;
+    }
+
+    private StripedExecutor() {
+        this.stripes = null;
+        this.executor = null;
+        this.timeout = null;
+    }
+
+    /**
+     * @return executor running the tasks directly on the calling thread, without ordering them
+     */
+    public static StripedExecutor direct() {
+        return DIRECT;
+    }
+
+    /**
+     * Runs the task after all tasks submitted earlier with the same key and waits for it.
+     *
+     * @return the result of the task
+     * @throws GitHubUnavailableException if the task did not finish within the timeout, it is skipped if it did not start
+     * @throws IOException thrown by the task
+     */
+    public <T> T call(String key, Task<T> task) throws IOException {
+        if (executor == null) {
+            return task.call();
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        stripe(key).submit(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+
+        try {
+            return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(false);
+            throw new GitHubUnavailableException("Timed out after " + timeout.toMillis() + " ms waiting for the task of " + key);
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the task of " + key);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * @return number of tasks waiting for an earlier task of their stripe
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Stripe stripe(String key) {
+        int hash = key.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    @FunctionalInterface
+    public interface Task<T> {
+
+        T call() throws IOException;
+    }
+
+    private final class Stripe {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private void submit(Runnable task) {
+            queued.incrementAndGet();
+            tasks.offer(task);
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    queued.decrementAndGet();
+                    task.run();
+                }
+                draining.set(false);
+                // a task offered after the last poll, but before the flag was cleared, is drained here
+                if (tasks.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+    }
+}
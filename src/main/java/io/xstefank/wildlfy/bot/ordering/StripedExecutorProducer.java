@@ -0,0 +1,32 @@
+package io.xstefank.wildlfy.bot.ordering;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+@ApplicationScoped
+public class StripedExecutorProducer {
+
+    @ConfigProperty(name = "wildfly-bot.ordering.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "wildfly-bot.ordering.stripes", defaultValue = "64")
+    int stripes;
+
+    @ConfigProperty(name = "wildfly-bot.ordering.timeout", defaultValue = "2m")
+    Duration timeout;
+
+    @Produces
+    @Singleton
+    StripedExecutor stripedExecutor() {
+        return enabled ? new StripedExecutor(stripes, timeout) : StripedExecutor.direct();
+    }
+
+    void close(@Disposes StripedExecutor stripedExecutor) {
+        stripedExecutor.close();
+    }
+}
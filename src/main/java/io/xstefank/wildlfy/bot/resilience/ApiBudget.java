@@ -0,0 +1,155 @@
+package io.xstefank.wildlfy.bot.resilience;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds the GitHub calls and the bytes read while handling a single delivery, so one huge pull request cannot spend
+ * the rate limit shared by all repositories of an installation.
+ * <p>
+ * The budget is bound to the thread handling the delivery and carried over to the calls made through the
+ * {@link GitHubGuard}. Readers of paged data charge it before each page they request, see {@link #charge(String, int)},
+ * and throw {@link BudgetExhaustedException} instead of the call once it is spent. What was left out or read only in
+ * part is recorded with {@link #degrade(String)}, so the result can say so and be completed later. Threads without a
+ * bound budget are not limited.
+ */
+public class ApiBudget {
+
+    private static final ApiBudget UNLIMITED = new ApiBudget("unlimited", Integer.MAX_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE);
+
+    private static final ThreadLocal<ApiBudget> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final int maxCalls;
+    private final long maxBytes;
+    private final int degradedCommits;
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    private final List<String> degradations = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param degradedCommits number of the newest commits read instead of all of them when the budget does not allow
+     *                        listing all
+     */
+    public ApiBudget(String name, int maxCalls, long maxBytes, int degradedCommits) {
+        this.name = name;
+        this.maxCalls = maxCalls;
+        this.maxBytes = maxBytes;
+        this.degradedCommits = degradedCommits;
+    }
+
+    /**
+     * @return budget which never runs out
+     */
+    public static ApiBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * @return budget bound to the calling thread, unlimited if there is none
+     */
+    public static ApiBudget current() {
+        ApiBudget budget = CURRENT.get();
+        return budget == null ? UNLIMITED : budget;
+    }
+
+    /**
+     * Binds the budget to the calling thread until the returned scope is closed.
+     */
+    public Scope bind() {
+        ApiBudget previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Takes the given number of calls from the budget.
+     *
+     * @throws BudgetExhaustedException if the calls would exceed the budget, nothing is taken then
+     */
+    public void charge(String endpoint, int count) throws BudgetExhaustedException {
+        if (this == UNLIMITED) {
+            return;
+        }
+        if (bytes.get() >= maxBytes) {
+            throw new BudgetExhaustedException(endpoint + " not called, " + name + " read " + bytes.get() + " of "
+                    + maxBytes + " bytes");
+        }
+        while (true) {
+            int current = calls.get();
+            if ((long) current + count > maxCalls) {
+                throw new BudgetExhaustedException(endpoint + " not called, " + name + " made " + current + " of "
+                        + maxCalls + " calls");
+            }
+            if (calls.compareAndSet(current, current + count)) {
+                return;
+            }
+        }
+    }
+
+    public void charge(String endpoint) throws BudgetExhaustedException {
+        charge(endpoint, 1);
+    }
+
+    /**
+     * @return whether the given number of calls would still fit the budget
+     */
+    public boolean allows(int count) {
+        return this == UNLIMITED || (bytes.get() < maxBytes && (long) calls.get() + count <= maxCalls);
+    }
+
+    public void recordBytes(long count) {
+        if (this != UNLIMITED) {
+            bytes.addAndGet(count);
+        }
+    }
+
+    /**
+     * Records that a part of the work was left out or done only in part.
+     */
+    public void degrade(String description) {
+        if (this != UNLIMITED) {
+            degradations.add(description);
+        }
+    }
+
+    public boolean isDegraded() {
+        return !degradations.isEmpty();
+    }
+
+    public List<String> getDegradations() {
+        return List.copyOf(degradations);
+    }
+
+    public int getDegradedCommits() {
+        return degradedCommits;
+    }
+
+    public int getCallCount() {
+        return calls.get();
+    }
+
+    public long getByteCount() {
+        return bytes.get();
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + calls.get() + "/" + maxCalls + " calls, " + bytes.get() + "/" + maxBytes + " bytes)";
+    }
+
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
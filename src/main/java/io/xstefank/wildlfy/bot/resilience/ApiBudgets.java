@@ -0,0 +1,43 @@
+package io.xstefank.wildlfy.bot.resilience;
+
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Creates the {@link ApiBudget} a delivery is handled with. A budget allows {@code wildfly-bot.budget.max-calls} calls
+ * and {@code wildfly-bot.budget.max-bytes} bytes, commits beyond the newest {@code wildfly-bot.budget.degraded-commits}
+ * are skipped when listing them all would exceed it. With {@code wildfly-bot.budget.enabled} unset deliveries are not
+ * limited.
+ */
+@ApplicationScoped
+public class ApiBudgets {
+
+    @ConfigProperty(name = "wildfly-bot.budget.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "wildfly-bot.budget.max-calls", defaultValue = "30")
+    int maxCalls;
+
+    @ConfigProperty(name = "wildfly-bot.budget.max-bytes", defaultValue = "20M")
+    MemorySize maxBytes;
+
+    @ConfigProperty(name = "wildfly-bot.budget.degraded-commits", defaultValue = "20")
+    int degradedCommits;
+
+    public ApiBudget open(String name) {
+        return enabled ? new ApiBudget(name, maxCalls, maxBytes.asLongValue(), degradedCommits) : ApiBudget.unlimited();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaxCalls() {
+        return maxCalls;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes.asLongValue();
+    }
+}
@@ -0,0 +1,14 @@
+package io.xstefank.wildlfy.bot.resilience;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of making a GitHub call which the {@link ApiBudget} of the delivery does not allow anymore. The call
+ * was not made, the work can degrade or be completed later without a budget.
+ */
+public class BudgetExhaustedException extends IOException {
+
+    public BudgetExhaustedException(String message) {
+        super(message);
+    }
+}
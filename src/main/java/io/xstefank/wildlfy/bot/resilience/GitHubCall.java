@@ -0,0 +1,9 @@
+package io.xstefank.wildlfy.bot.resilience;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface GitHubCall<T> {
+
+    T call() throws IOException;
+}
@@ -0,0 +1,215 @@
+package io.xstefank.wildlfy.bot.resilience;
+
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.HttpException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Runs GitHub API calls with a timeout per endpoint, a bulkhead bounding the calls in flight and a
+ * {@link CircuitBreaker} per installation, so a degraded GitHub does not pile up the threads handling events.
+ * <p>
+ * Installations are told apart by the owner of the repository, an installation belongs to exactly one account. Calls
+ * which time out, fail with a server or connection error, or are rejected by the bulkhead or an open circuit throw
+ * {@link GitHubUnavailableException}. Other failures, like a missing file, are passed on as they are and do not count
+ * against the circuit. A timed out call keeps its place in the bulkhead until it really returns, a call cancelled
+ * before it started gives its place up right away.
+ * <p>
+ * Every call is charged to the {@link ApiBudget} bound to the calling thread before it is made, one call unless the
+ * caller charges the requests itself, and the budget is bound to the thread making the call as well. A call refused by
+ * an exhausted budget is not a failure of GitHub.
+ */
+public class GitHubGuard implements AutoCloseable {
+
+    private static final GitHubGuard DIRECT = new GitHubGuard();
+
+    private final Duration defaultTimeout;
+    private final Function<String, Optional<Duration>> endpointTimeouts;
+    private final int maxConcurrentCalls;
+    private final Semaphore bulkhead;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final ExecutorService executor;
+
+    private final Map<String, Duration> timeouts = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    /**
+     * @param endpointTimeouts timeouts overriding the default one for the given endpoints
+     */
+    public GitHubGuard(Duration defaultTimeout, Function<String, Optional<Duration>> endpointTimeouts, int maxConcurrentCalls,
+                       int failureThreshold, Duration openDuration) {
+        this.defaultTimeout = defaultTimeout;
+        this.endpointTimeouts = endpointTimeouts;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "wildfly-bot-github-call");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private GitHubGuard() {
+        this.defaultTimeout = null;
+        this.endpointTimeouts = null;
+        this.maxConcurrentCalls = 0;
+        this.bulkhead = null;
+        this.failureThreshold = 0;
+        this.openDuration = null;
+        this.executor = null;
+    }
+
+    /**
+     * @return guard making the calls directly on the calling thread without any limits
+     */
+    public static GitHubGuard direct() {
+        return DIRECT;
+    }
+
+    public <T> T call(GHRepository repository, String endpoint, GitHubCall<T> call) throws IOException {
+        return call(repository, endpoint, 1, call);
+    }
+
+    /**
+     * @param calls number of calls charged to the {@link ApiBudget} before the call, {@code 0} for calls which charge
+     * their requests themselves
+     * @throws BudgetExhaustedException if the budget does not allow the calls, the call is not made then
+     */
+    public <T> T call(GHRepository repository, String endpoint, int calls, GitHubCall<T> call) throws IOException {
+        if (calls > 0) {
+            ApiBudget.current().charge(endpoint, calls);
+        }
+        if (executor == null) {
+            return call.call();
+        }
+
+        String installation = repository == null || repository.getOwnerName() == null ? "" : repository.getOwnerName();
+        if (!bulkhead.tryAcquire()) {
+            throw new GitHubUnavailableException("Too many GitHub calls in flight, rejecting " + endpoint);
+        }
+        CircuitBreaker circuitBreaker = getCircuitBreaker(installation);
+        if (!circuitBreaker.allowRequest()) {
+            bulkhead.release();
+            throw new GitHubUnavailableException("GitHub calls for " + installation + " are suspended after repeated failures");
+        }
+
+        ApiBudget budget = ApiBudget.current();
+        // whoever sets it releases the bulkhead: the call once it starts, or the caller cancelling it before
+        AtomicBoolean started = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return null;
+                }
+                try (ApiBudget.Scope scope = budget.bind()) {
+                    return call.call();
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            bulkhead.release();
+            circuitBreaker.recordSuccess();
+            throw new GitHubUnavailableException("GitHub calls are not accepted anymore", e);
+        }
+
+        Duration timeout = timeouts.computeIfAbsent(endpoint, key -> endpointTimeouts.apply(key).orElse(defaultTimeout));
+        try {
+            T result = future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            circuitBreaker.recordSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            cancel(future, started);
+            circuitBreaker.recordFailure();
+            throw new GitHubUnavailableException(endpoint + " did not finish within " + timeout);
+        } catch (InterruptedException e) {
+            cancel(future, started);
+            circuitBreaker.recordFailure();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(endpoint + " was interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // paged iterables wrap the failures of the following pages
+            if (cause instanceof RuntimeException && cause.getCause() instanceof IOException) {
+                cause = cause.getCause();
+            }
+            if (isUnavailable(cause)) {
+                circuitBreaker.recordFailure();
+                throw new GitHubUnavailableException(endpoint + " failed: " + cause.getMessage(), cause);
+            }
+            circuitBreaker.recordSuccess();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker(String installation) {
+        return circuitBreakers.computeIfAbsent(installation, key -> new CircuitBreaker(failureThreshold, openDuration));
+    }
+
+    /**
+     * @return circuit breakers of the installations called so far, by the account of the installation
+     */
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return Map.copyOf(circuitBreakers);
+    }
+
+    /**
+     * @return number of calls running or waiting for their result
+     */
+    public int getInFlightCount() {
+        return bulkhead == null ? 0 : maxConcurrentCalls - bulkhead.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void cancel(Future<?> future, AtomicBoolean started) {
+        if (future.cancel(true) && started.compareAndSet(false, true)) {
+            // the call never started, so it does not release its place itself
+            bulkhead.release();
+        }
+    }
+
+    private static boolean isUnavailable(Throwable failure) {
+        if (failure instanceof BudgetExhaustedException) {
+            return false;
+        }
+        if (failure instanceof HttpException httpException) {
+            return httpException.getResponseCode() >= 500 || httpException.getResponseCode() < 0;
+        }
+        return failure instanceof IOException && !(failure instanceof GHFileNotFoundException);
+    }
+}
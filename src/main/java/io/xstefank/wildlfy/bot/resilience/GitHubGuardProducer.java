@@ -0,0 +1,43 @@
+package io.xstefank.wildlfy.bot.resilience;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+@ApplicationScoped
+public class GitHubGuardProducer {
+
+    static final String TIMEOUT_PROPERTY = "wildfly-bot.github.timeout";
+
+    @Inject
+    Config config;
+
+    @ConfigProperty(name = TIMEOUT_PROPERTY, defaultValue = "10s")
+    Duration timeout;
+
+    @ConfigProperty(name = "wildfly-bot.github.max-concurrent-calls", defaultValue = "32")
+    int maxConcurrentCalls;
+
+    @ConfigProperty(name = "wildfly-bot.github.circuit-breaker.failure-threshold", defaultValue = "5")
+    int failureThreshold;
+
+    @ConfigProperty(name = "wildfly-bot.github.circuit-breaker.open-duration", defaultValue = "30s")
+    Duration openDuration;
+
+    @Produces
+    @Singleton
+    GitHubGuard gitHubGuard() {
+        return new GitHubGuard(timeout, endpoint -> config.getOptionalValue(TIMEOUT_PROPERTY + "." + endpoint, Duration.class),
+                maxConcurrentCalls, failureThreshold, openDuration);
+    }
+
+    void close(@Disposes GitHubGuard gitHubGuard) {
+        gitHubGuard.close();
+    }
+}
@@ -0,0 +1,19 @@
+package io.xstefank.wildlfy.bot.resilience;
+
+import java.io.IOException;
+
+/**
+ * Thrown by {@link GitHubGuard} when a call timed out, failed on the GitHub side or was not made at all because the
+ * circuit of the installation is open or too many calls are in flight. The work can be retried later, see
+ * {@link RetryQueue}.
+ */
+public class GitHubUnavailableException extends IOException {
+
+    public GitHubUnavailableException(String message) {
+        super(message);
+    }
+
+    public GitHubUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,122 @@
+package io.xstefank.wildlfy.bot.resilience;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries work which could not be done because GitHub was unavailable, see {@link GitHubUnavailableException}, and
+ * completes work degraded by its {@link ApiBudget}.
+ * <p>
+ * The first retry runs after about {@code wildfly-bot.github.retry.delay}, the delay doubles with every attempt and is
+ * jittered, so deferred work does not hit a recovering GitHub at once. Work is given up after
+ * {@code wildfly-bot.github.retry.max-attempts} attempts or when it fails for another reason.
+ */
+@ApplicationScoped
+public class RetryQueue {
+
+    private static final Logger LOG = Logger.getLogger(RetryQueue.class);
+
+    @ConfigProperty(name = "wildfly-bot.github.retry.delay", defaultValue = "30s")
+    Duration delay;
+
+    @ConfigProperty(name = "wildfly-bot.github.retry.max-attempts", defaultValue = "5")
+    int maxAttempts;
+
+    private final Map<String, Deferred> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wildfly-bot-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Runs the work again later. Work deferred under the same key replaces the pending one, so only the latest
+     * decision, e.g. for a pull request, is retried.
+     */
+    public void defer(String key, Work work) {
+        Deferred deferred = new Deferred(key, work);
+        pending.put(key, deferred);
+        schedule(deferred, 1);
+    }
+
+    /**
+     * Drops the work pending under the key, e.g. once a newer event completed what it was going to retry. Deferred work
+     * already running is not interrupted.
+     */
+    public void cancel(String key) {
+        if (pending.remove(key) != null) {
+            LOG.debugf("Deferred %s cancelled.", key);
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * @return keys of the work waiting for its next attempt
+     */
+    public Set<String> getPendingKeys() {
+        return Set.copyOf(pending.keySet());
+    }
+
+    private void schedule(Deferred deferred, int attempt) {
+        long backoff = delay.toMillis() << Math.min(attempt - 1, 10);
+        long jittered = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        scheduler.schedule(() -> run(deferred, attempt), jittered, TimeUnit.MILLISECONDS);
+    }
+
+    private void run(Deferred deferred, int attempt) {
+        if (pending.get(deferred.key) != deferred) {
+            return;
+        }
+
+        try {
+            deferred.work.run();
+            pending.remove(deferred.key, deferred);
+            LOG.debugf("Deferred %s done after %d attempts.", deferred.key, attempt);
+        } catch (GitHubUnavailableException e) {
+            if (attempt >= maxAttempts) {
+                pending.remove(deferred.key, deferred);
+                LOG.errorf("Giving up %s after %d attempts: %s", deferred.key, attempt, e.getMessage());
+            } else {
+                schedule(deferred, attempt + 1);
+            }
+        } catch (IOException | RuntimeException e) {
+            pending.remove(deferred.key, deferred);
+            LOG.errorf(e, "Deferred %s failed.", deferred.key);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Work {
+
+        void run() throws IOException;
+    }
+
+    private record Deferred(String key, Work work) {
+    }
+}
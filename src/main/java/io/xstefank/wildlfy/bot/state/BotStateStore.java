@@ -0,0 +1,36 @@
+package io.xstefank.wildlfy.bot.state;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Key-value store for what the bot already did, e.g. the comment it keeps on a pull request or the last status it
+ * reported. The state survives restarts, so the bot does not need to fetch it again from GitHub.
+ * <p>
+ * State of a pull request is kept under {@link #pullRequestKey(String, int)}, so it can be expired at once when the
+ * pull request is closed.
+ */
+public interface BotStateStore {
+
+    static String pullRequestKey(String repository, int number) {
+        return "pr/" + repository + "#" + number + "/";
+    }
+
+    Optional<String> get(String key);
+
+    void put(String key, String value);
+
+    void remove(String key);
+
+    /**
+     * Sets when all entries with keys starting with the prefix expire, {@code null} keeps them forever.
+     */
+    void setExpiry(String keyPrefix, Instant expiresAt);
+
+    /**
+     * Drops the expired entries, also those which are never read again.
+     *
+     * @return number of dropped entries
+     */
+    int purgeExpired();
+}
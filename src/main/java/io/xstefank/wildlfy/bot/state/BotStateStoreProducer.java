@@ -0,0 +1,41 @@
+package io.xstefank.wildlfy.bot.state;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+@ApplicationScoped
+public class BotStateStoreProducer {
+
+    private static final Logger LOG = Logger.getLogger(BotStateStoreProducer.class);
+
+    @ConfigProperty(name = "wildfly-bot.state.file")
+    Optional<Path> file;
+
+    @Inject
+    BotStateStore stateStore;
+
+    @Produces
+    @ApplicationScoped
+    BotStateStore stateStore() {
+        return new FileBotStateStore(file.orElse(null));
+    }
+
+    @Scheduled(every = "${wildfly-bot.state.purge-interval:1h}", delayed = "${wildfly-bot.state.purge-interval:1h}")
+    void purgeExpired() {
+        LOG.debugf("Purged %d expired state entries.", stateStore.purgeExpired());
+    }
+
+    void close(@Disposes BotStateStore stateStore) {
+        if (stateStore instanceof FileBotStateStore fileStore) {
+            fileStore.close();
+        }
+    }
+}
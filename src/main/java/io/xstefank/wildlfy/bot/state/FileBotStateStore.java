@@ -0,0 +1,382 @@
+package io.xstefank.wildlfy.bot.state;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BotStateStore} backed by an append-only log file with an in-memory index.
+ * <p>
+ * Every change is applied to the index immediately and appended to the log by a background thread, so callers never
+ * wait for the disk. The log is replayed on the first access. Once it holds more than twice as many records as there
+ * are live entries, it is rewritten from the index, dropping expired entries. Expired entries leave the index when they
+ * are read, when the log is compacted and on {@link #purgeExpired()}. Without a file the store only keeps the state in
+ * memory.
+ * <p>
+ * A failed write is tried again {@link #MAX_WRITE_ATTEMPTS} times with a growing delay. If it still fails, the store
+ * stops writing and keeps further changes in memory only, so they do not pile up waiting for the disk.
+ */
+public class FileBotStateStore implements BotStateStore, AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(FileBotStateStore.class);
+
+    static final int MIN_COMPACTION_RECORDS = 1000;
+    static final int MAX_WRITE_ATTEMPTS = 5;
+    static final Duration RETRY_DELAY = Duration.ofMillis(100);
+
+    private static final Record CLOSE = new Record(null, null, null, false);
+
+    private final Path file;
+    private final ObjectMapper objectMapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    private final NavigableMap<String, Entry> index = new ConcurrentSkipListMap<>();
+    private final BlockingQueue<Record> pending = new LinkedBlockingQueue<>();
+
+    private volatile boolean loaded;
+    private volatile boolean failed;
+    private Thread writer;
+    private long records;
+
+    public FileBotStateStore(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        ensureLoaded();
+        Entry entry = index.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            index.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.value);
+    }
+
+    @Override
+    public void put(String key, String value) {
+        ensureLoaded();
+        Entry previous = index.get(key);
+        Long expiresAt = previous == null ? null : previous.expiresAt;
+        index.put(key, new Entry(value, expiresAt));
+        append(new Record(key, value, expiresAt, false));
+    }
+
+    @Override
+    public void remove(String key) {
+        ensureLoaded();
+        if (index.remove(key) != null) {
+            append(new Record(key, null, null, true));
+        }
+    }
+
+    @Override
+    public void setExpiry(String keyPrefix, Instant expiresAt) {
+        ensureLoaded();
+        Long expiry = expiresAt == null ? null : expiresAt.toEpochMilli();
+        for (Map.Entry<String, Entry> entry : index.subMap(keyPrefix, true, keyPrefix + Character.MAX_VALUE, false).entrySet()) {
+            index.put(entry.getKey(), new Entry(entry.getValue().value, expiry));
+            append(new Record(entry.getKey(), entry.getValue().value, expiry, false));
+        }
+    }
+
+    /**
+     * Writes all pending changes and stops the background writer.
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            thread = writer;
+            writer = null;
+        }
+        if (thread == null) {
+            return;
+        }
+        pending.add(CLOSE);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Blocks until all changes made so far are written to the log.
+     *
+     * @return {@code false} if the log could not be written and the changes are kept in memory only
+     */
+    public boolean flush() throws InterruptedException {
+        if (file == null || writer == null || failed) {
+            return !failed;
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        pending.add(new Record(null, null, null, false, latch));
+        // the latch may be queued after the writer released the waiting ones and stopped
+        while (!latch.await(RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS)) {
+            if (failed) {
+                return false;
+            }
+        }
+        return !failed;
+    }
+
+    @Override
+    public int purgeExpired() {
+        ensureLoaded();
+        return purgeExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * @return number of entries in the index, including expired ones not purged yet
+     */
+    public int getEntryCount() {
+        return index.size();
+    }
+
+    /**
+     * @return whether writing the log failed repeatedly and the store keeps changes in memory only
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            if (file != null) {
+                load();
+                writer = new Thread(this::write, "wildfly-bot-state-writer");
+                writer.setDaemon(true);
+                writer.start();
+            }
+            loaded = true;
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Record record;
+                try {
+                    record = objectMapper.readValue(line, Record.class);
+                } catch (IOException e) {
+                    // a record cut by a crash or by a write tried again
+                    LOG.warnf("Skipping corrupted record in %s.", file);
+                    continue;
+                }
+                records++;
+                if (record.removed) {
+                    index.remove(record.key);
+                } else {
+                    index.put(record.key, new Entry(record.value, record.expiresAt));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load bot state from " + file, e);
+        }
+        purgeExpired(now);
+        LOG.infof("Loaded %d state entries from %s.", index.size(), file);
+    }
+
+    private void append(Record record) {
+        if (file != null && !failed) {
+            pending.add(record);
+        }
+    }
+
+    private void write() {
+        List<Record> batch = new ArrayList<>();
+        BufferedWriter output = null;
+        int failures = 0;
+        try {
+            while (true) {
+                if (batch.isEmpty()) {
+                    batch.add(pending.take());
+                    pending.drainTo(batch);
+                }
+                try {
+                    if (output == null) {
+                        output = open();
+                    }
+                    // a batch failing halfway is written again, replaying a record twice does not change the state
+                    boolean close = write(output, batch);
+                    batch.clear();
+                    failures = 0;
+
+                    if (close) {
+                        output.close();
+                        return;
+                    }
+                    if (records > MIN_COMPACTION_RECORDS && records > 2L * index.size()) {
+                        output.close();
+                        output = null;
+                        compact();
+                    }
+                } catch (IOException e) {
+                    closeQuietly(output);
+                    output = null;
+                    if (++failures >= MAX_WRITE_ATTEMPTS) {
+                        fail(batch, e);
+                        return;
+                    }
+                    long delay = RETRY_DELAY.toMillis() << (failures - 1);
+                    LOG.warnf("Unable to write bot state to %s, trying again in %d ms: %s", file, delay, e.getMessage());
+                    Thread.sleep(delay);
+                }
+            }
+        } catch (InterruptedException e) {
+            closeQuietly(output);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return whether the batch asked to close the log
+     */
+    private boolean write(BufferedWriter output, List<Record> batch) throws IOException {
+        boolean close = false;
+        for (Record record : batch) {
+            if (record == CLOSE) {
+                close = true;
+            } else if (record.latch != null) {
+                output.flush();
+                record.latch.countDown();
+            } else {
+                output.write(objectMapper.writeValueAsString(record));
+                output.newLine();
+                records++;
+            }
+        }
+        output.flush();
+        return close;
+    }
+
+    private void fail(List<Record> batch, IOException e) {
+        failed = true;
+        LOG.errorf(e, "Unable to write bot state to %s after %d attempts, further changes are kept in memory only.", file,
+                MAX_WRITE_ATTEMPTS);
+        pending.drainTo(batch);
+        for (Record record : batch) {
+            if (record.latch != null) {
+                record.latch.countDown();
+            }
+        }
+        batch.clear();
+    }
+
+    private void closeQuietly(BufferedWriter output) {
+        if (output == null) {
+            return;
+        }
+        try {
+            output.close();
+        } catch (IOException e) {
+            LOG.debugf("Unable to close %s: %s", file, e.getMessage());
+        }
+    }
+
+    private BufferedWriter open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private int purgeExpired(long now) {
+        int purged = 0;
+        for (Map.Entry<String, Entry> entry : index.entrySet()) {
+            if (entry.getValue().isExpired(now) && index.remove(entry.getKey(), entry.getValue())) {
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    private void compact() throws IOException {
+        long now = System.currentTimeMillis();
+        // the entries left out of the log do not stay in memory either
+        purgeExpired(now);
+        Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        long written = 0;
+        try (BufferedWriter output = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Entry> entry : index.entrySet()) {
+                if (!entry.getValue().isExpired(now)) {
+                    output.write(objectMapper.writeValueAsString(new Record(entry.getKey(), entry.getValue().value, entry.getValue().expiresAt, false)));
+                    output.newLine();
+                    written++;
+                }
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOG.debugf("Compacted %s from %d to %d records.", file, records, written);
+        records = written;
+    }
+
+    private record Entry(String value, Long expiresAt) {
+
+        boolean isExpired(long now) {
+            return expiresAt != null && expiresAt <= now;
+        }
+    }
+
+    static final class Record {
+
+        public String key;
+        public String value;
+        public Long expiresAt;
+        public boolean removed;
+
+        private transient CountDownLatch latch;
+
+        Record() {
+        }
+
+        Record(String key, String value, Long expiresAt, boolean removed) {
+            this(key, value, expiresAt, removed, null);
+        }
+
+        Record(String key, String value, Long expiresAt, boolean removed, CountDownLatch latch) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.removed = removed;
+            this.latch = latch;
+        }
+    }
+}
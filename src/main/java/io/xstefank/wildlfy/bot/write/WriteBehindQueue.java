@@ -0,0 +1,228 @@
+package io.xstefank.wildlfy.bot.write;
+
+import io.xstefank.wildlfy.bot.resilience.GitHubUnavailableException;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends writes to GitHub, like commit statuses and comments, after the event which decided them is done.
+ * <p>
+ * Writes are queued per pull request and sent in the order they were submitted, one at a time per pull request and at
+ * most {@code parallelism} at once overall. A write submitted with the same key as a write still waiting in the queue
+ * replaces it, so only the latest status of a commit or the latest comment body is sent. A write failing with
+ * {@link GitHubUnavailableException} blocks its pull request and is retried with a jittered, growing delay; other
+ * failures and writes failing {@code maxAttempts} times are logged and dropped.
+ */
+public class WriteBehindQueue implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(WriteBehindQueue.class);
+
+    private static final WriteBehindQueue DIRECT = new WriteBehindQueue();
+
+    private final ScheduledExecutorService executor;
+    private final Duration retryDelay;
+    private final int maxAttempts;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    public WriteBehindQueue(int parallelism, Duration retryDelay, int maxAttempts) {
+        this.executor = Executors.newScheduledThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "wildfly-bot-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retryDelay = retryDelay;
+        this.maxAttempts = maxAttempts;
+    }
+
+    private WriteBehindQueue() {
+        this.executor = null;
+        this.retryDelay = null;
+        this.maxAttempts = 0;
+    }
+
+    /**
+     * @return queue making the writes directly on the calling thread
+     */
+    public static WriteBehindQueue direct() {
+        return DIRECT;
+    }
+
+    /**
+     * @param pullRequest identifies the pull request the writes are ordered within
+     * @param key identifies what is written, a waiting write with the same key is replaced
+     * @throws IOException only if the queue writes directly and the write failed
+     */
+    public void submit(String pullRequest, String key, Write write) throws IOException {
+        if (executor == null) {
+            write.run();
+            return;
+        }
+
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(pullRequest, Lane::new);
+            boolean start;
+            synchronized (lane) {
+                if (lane.retired) {
+                    continue;
+                }
+                Pending replaced = lane.pending.remove(key);
+                if (replaced == null && lane.retrying != null && lane.retrying.key.equals(key)) {
+                    replaced = lane.retrying;
+                    lane.retrying = null;
+                }
+                if (replaced != null) {
+                    LOG.debugf("Replacing waiting write %s of %s.", key, pullRequest);
+                }
+                lane.pending.put(key, new Pending(key, write));
+                start = !lane.draining;
+                lane.draining = true;
+            }
+            if (start) {
+                executor.execute(() -> drain(lane));
+            }
+            return;
+        }
+    }
+
+    /**
+     * @return number of writes waiting to be sent or retried, a write being sent is not counted
+     */
+    public int getPendingCount() {
+        int count = 0;
+        for (Lane lane : lanes.values()) {
+            synchronized (lane) {
+                count += lane.waiting();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return number of waiting writes per pull request, pull requests without any are left out
+     */
+    public Map<String, Integer> getPendingCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Lane lane : lanes.values()) {
+            synchronized (lane) {
+                if (lane.waiting() > 0) {
+                    counts.put(lane.pullRequest, lane.waiting());
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Stops accepting retries and waits a while for the writes in flight.
+     */
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int pending = getPendingCount();
+        if (pending > 0) {
+            LOG.warnf("%d writes to GitHub were not sent before shutdown.", pending);
+        }
+    }
+
+    private void drain(Lane lane) {
+        while (true) {
+            Pending next;
+            synchronized (lane) {
+                next = lane.retrying;
+                lane.retrying = null;
+                if (next == null) {
+                    Iterator<Pending> iterator = lane.pending.values().iterator();
+                    if (!iterator.hasNext()) {
+                        lane.draining = false;
+                        lane.retired = true;
+                        lanes.remove(lane.pullRequest, lane);
+                        return;
+                    }
+                    next = iterator.next();
+                    // a write submitted with the same key while this one is sent is queued after it
+                    iterator.remove();
+                }
+            }
+
+            try {
+                next.write.run();
+            } catch (GitHubUnavailableException e) {
+                next.attempts++;
+                if (next.attempts < maxAttempts && !executor.isShutdown()) {
+                    synchronized (lane) {
+                        if (lane.pending.containsKey(next.key)) {
+                            LOG.debugf("Write %s of %s failed and was replaced by a newer one.", next.key, lane.pullRequest);
+                            continue;
+                        }
+                        lane.retrying = next;
+                    }
+                    long backoff = retryDelay.toMillis() << Math.min(next.attempts - 1, 10);
+                    long jittered = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+                    LOG.debugf("Write %s of %s failed, retrying in %d ms: %s", next.key, lane.pullRequest, jittered, e.getMessage());
+                    executor.schedule(() -> drain(lane), jittered, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                LOG.errorf("Dropping write %s of %s after %d attempts: %s", next.key, lane.pullRequest, next.attempts, e.getMessage());
+            } catch (IOException | RuntimeException e) {
+                LOG.errorf(e, "Dropping write %s of %s.", next.key, lane.pullRequest);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Write {
+
+        void run() throws IOException;
+    }
+
+    private static final class Lane {
+
+        private final String pullRequest;
+        private final LinkedHashMap<String, Pending> pending = new LinkedHashMap<>();
+        // failed write waiting for its retry, sent before the pending ones
+        private Pending retrying;
+        private boolean draining;
+        private boolean retired;
+
+        private Lane(String pullRequest) {
+            this.pullRequest = pullRequest;
+        }
+
+        private int waiting() {
+            return pending.size() + (retrying == null ? 0 : 1);
+        }
+    }
+
+    private static final class Pending {
+
+        private final String key;
+        private final Write write;
+        private int attempts;
+
+        private Pending(String key, Write write) {
+            this.key = key;
+            this.write = write;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.xstefank.wildlfy.bot.write;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+@ApplicationScoped
+public class WriteBehindQueueProducer {
+
+    @ConfigProperty(name = "wildfly-bot.write-behind.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "wildfly-bot.write-behind.parallelism", defaultValue = "4")
+    int parallelism;
+
+    @ConfigProperty(name = "wildfly-bot.write-behind.retry-delay", defaultValue = "5s")
+    Duration retryDelay;
+
+    @ConfigProperty(name = "wildfly-bot.write-behind.max-attempts", defaultValue = "8")
+    int maxAttempts;
+
+    @Produces
+    @Singleton
+    WriteBehindQueue writeBehindQueue() {
+        return enabled ? new WriteBehindQueue(parallelism, retryDelay, maxAttempts) : WriteBehindQueue.direct();
+    }
+
+    void close(@Disposes WriteBehindQueue writeBehindQueue) {
+        writeBehindQueue.close();
+    }
+}
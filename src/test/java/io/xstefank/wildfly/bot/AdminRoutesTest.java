@@ -0,0 +1,87 @@
+package io.xstefank.wildfly.bot;
+
+import io.quarkiverse.githubapp.testing.GitHubAppTest;
+import io.quarkus.test.junit.QuarkusTest;
+import io.vertx.core.json.JsonObject;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHEvent;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+
+@QuarkusTest
+@GitHubAppTest
+public class AdminRoutesTest {
+
+    private static final String TOKEN = "admin-token";
+
+    private static final String TITLE_CHECK_CONFIG = """
+            wildfly:
+              format:
+                title-check:
+                  pattern: "\\\\[WFLY-\\\\d+\\\\]\\\\s+.*|WFLY-\\\\d+\\\\s+.*"
+                  message: "Wrong content of the title!"
+            """;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void testRequestWithoutTokenRejected() throws Exception {
+        Assertions.assertEquals(401, send("GET", "/admin/caches", null).statusCode());
+        Assertions.assertEquals(401, send("POST", "/admin/repositories/xstefank/wildfly/flush", "Bearer wrong").statusCode());
+    }
+
+    @Test
+    void testCachesListedAndFlushed() throws Exception {
+        given().github(mocks -> mocks.configFileFromString("wildfly-bot.yml", TITLE_CHECK_CONFIG))
+                .when().payloadFromClasspath("/pr-opened.json")
+                .event(GHEvent.PULL_REQUEST);
+
+        JsonObject caches = get("/admin/caches");
+        Assertions.assertTrue(caches.getJsonObject("compiled-configs").getInteger("size") >= 1);
+        Assertions.assertTrue(caches.getJsonObject("compiled-configs").getLong("misses") >= 1);
+        int interests = caches.getJsonObject("repository-interests").getInteger("size");
+        Assertions.assertTrue(interests >= 1);
+        Assertions.assertTrue(caches.getJsonObject("compiled-configs").containsKey("weight"));
+        Assertions.assertFalse(caches.getJsonObject("repository-interests").containsKey("weight"));
+        Assertions.assertNotNull(caches.getJsonObject("team-memberships"));
+
+        HttpResponse<String> flushed = send("POST", "/admin/repositories/xstefank/wildfly/flush", "Bearer " + TOKEN);
+        Assertions.assertEquals(200, flushed.statusCode());
+        Assertions.assertEquals("xstefank/wildfly", new JsonObject(flushed.body()).getString("repository"));
+        Assertions.assertEquals(interests - 1, get("/admin/caches").getJsonObject("repository-interests").getInteger("size"));
+    }
+
+    @Test
+    void testQueuesListed() throws Exception {
+        JsonObject queues = get("/admin/queues");
+
+        Assertions.assertEquals(0, queues.getInteger("pending-retries"));
+        Assertions.assertEquals(30, queues.getJsonObject("budget").getInteger("max-calls"));
+        Assertions.assertNotNull(queues.getJsonObject("accounts"));
+        Assertions.assertNotNull(queues.getJsonObject("installations"));
+    }
+
+    private JsonObject get(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = send("GET", path, "Bearer " + TOKEN);
+        Assertions.assertEquals(200, response.statusCode(), response.body());
+        return new JsonObject(response.body());
+    }
+
+    private HttpResponse<String> send(String method, String path, String authorization) throws IOException, InterruptedException {
+        int port = ConfigProvider.getConfig().getOptionalValue("quarkus.management.test-port", Integer.class).orElse(9001);
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .method(method, HttpRequest.BodyPublishers.noBody());
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
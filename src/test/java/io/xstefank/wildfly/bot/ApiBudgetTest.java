@@ -0,0 +1,129 @@
+package io.xstefank.wildfly.bot;
+
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
+import io.xstefank.wildlfy.bot.format.Check;
+import io.xstefank.wildlfy.bot.format.CheckPipeline;
+import io.xstefank.wildlfy.bot.format.CostClass;
+import io.xstefank.wildlfy.bot.resilience.ApiBudget;
+import io.xstefank.wildlfy.bot.resilience.BudgetExhaustedException;
+import io.xstefank.wildlfy.bot.resilience.CircuitBreaker;
+import io.xstefank.wildlfy.bot.resilience.GitHubGuard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHRepository;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+
+public class ApiBudgetTest {
+
+    private final GitHubGuard guard = new GitHubGuard(Duration.ofSeconds(5), endpoint -> Optional.empty(), 2, 1,
+            Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        guard.close();
+    }
+
+    @Test
+    void callsBeyondBudgetRefusedTest() throws IOException {
+        ApiBudget budget = new ApiBudget("triage xstefank/wildfly#23", 3, 1000, 20);
+
+        budget.charge("list-files", 2);
+        Assertions.assertFalse(budget.allows(2));
+        Assertions.assertThrows(BudgetExhaustedException.class, () -> budget.charge("list-commits", 2));
+        budget.charge("list-files");
+        Assertions.assertEquals(3, budget.getCallCount());
+
+        ApiBudget bytes = new ApiBudget("format xstefank/wildfly#23", 3, 1000, 20);
+        bytes.recordBytes(1000);
+        Assertions.assertThrows(BudgetExhaustedException.class, () -> bytes.charge("list-files"));
+        Assertions.assertEquals(0, bytes.getCallCount());
+    }
+
+    @Test
+    void budgetCarriedToGuardedCallTest() throws IOException {
+        GHRepository repository = Mockito.mock(GHRepository.class);
+        when(repository.getOwnerName()).thenReturn("wildfly");
+        ApiBudget budget = new ApiBudget("triage wildfly/wildfly#23", 2, 1000, 20);
+
+        try (ApiBudget.Scope scope = budget.bind()) {
+            Assertions.assertSame(budget, guard.call(repository, "config-file", 0, ApiBudget::current));
+            Assertions.assertEquals(0, budget.getCallCount());
+            guard.call(repository, "list-files", 0, () -> {
+                ApiBudget.current().charge("list-files");
+                return null;
+            });
+            Assertions.assertThrows(BudgetExhaustedException.class, () -> guard.call(repository, "list-files", 0, () -> {
+                ApiBudget.current().charge("list-files", 2);
+                return null;
+            }));
+        }
+
+        // a refused call is not a failure of GitHub
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker("wildfly").getState());
+        Assertions.assertSame(ApiBudget.unlimited(), ApiBudget.current());
+    }
+
+    @Test
+    void guardedCallsChargedTest() throws IOException {
+        GHRepository repository = Mockito.mock(GHRepository.class);
+        when(repository.getOwnerName()).thenReturn("wildfly");
+        ApiBudget budget = new ApiBudget("format wildfly/wildfly#23", 2, 1000, 20);
+
+        try (ApiBudget.Scope scope = budget.bind()) {
+            Assertions.assertEquals("config", guard.call(repository, "config-file", () -> "config"));
+            Assertions.assertEquals("config", GitHubGuard.direct().call(repository, "config-file", () -> "config"));
+            Assertions.assertThrows(BudgetExhaustedException.class, () -> guard.call(repository, "config-file", () -> {
+                throw new IllegalStateException("Called beyond the budget");
+            }));
+        }
+
+        Assertions.assertEquals(2, budget.getCallCount());
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker("wildfly").getState());
+    }
+
+    @Test
+    void checkExceedingBudgetSkippedTest() throws IOException {
+        PullRequestData pullRequest = Mockito.mock(PullRequestData.class);
+        Check title = new BudgetCheck("title", CostClass.FREE, 0);
+        Check commits = new BudgetCheck("commits-message", CostClass.NETWORK, 3);
+        CheckPipeline pipeline = new CheckPipeline(List.of(title, commits), guard);
+        ApiBudget budget = new ApiBudget("format wildfly/wildfly#23", 2, 1000, 20);
+
+        try (ApiBudget.Scope scope = budget.bind()) {
+            Assertions.assertNull(pipeline.evaluate(pullRequest));
+        }
+
+        Assertions.assertEquals(List.of("commits-message skipped"), budget.getDegradations());
+        // the call of the check, the pages it would read did not fit
+        Assertions.assertEquals(1, budget.getCallCount());
+    }
+
+    private record BudgetCheck(String name, CostClass costClass, int calls) implements Check {
+
+        @Override
+        public String check(PullRequestData pullRequest) throws IOException {
+            if (calls > 0) {
+                ApiBudget.current().charge(name, calls);
+            }
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public CostClass getCostClass() {
+            return costClass;
+        }
+    }
+}
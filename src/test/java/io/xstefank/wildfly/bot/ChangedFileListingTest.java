@@ -0,0 +1,242 @@
+package io.xstefank.wildfly.bot;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.quarkiverse.githubapp.GitHubClientProvider;
+import io.quarkiverse.githubapp.testing.GitHubAppMockito;
+import io.xstefank.wildfly.bot.model.MockedGHPullRequestFileDetail;
+import io.xstefank.wildlfy.bot.auth.InstallationClientPool;
+import io.xstefank.wildlfy.bot.fetch.ChangedFileListing;
+import io.xstefank.wildlfy.bot.resilience.ApiBudget;
+import io.xstefank.wildlfy.bot.resilience.BudgetExhaustedException;
+import io.xstefank.wildlfy.bot.resilience.GitHubGuard;
+import io.xstefank.wildlfy.bot.resilience.GitHubUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHPullRequestFileDetail;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.PagedIterable;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Lists the changed files from a local stand-in of the GitHub REST API.
+ */
+public class ChangedFileListingTest {
+
+    private static final long INSTALLATION_ID = 42;
+    private static final int FILES = 250;
+    private static final String PATCH = "@@ -1,3 +1,4 @@\\n+" + "x".repeat(10_000);
+    private static final String FILES_PATH = "/repos/xstefank/wildfly/pulls/23/files";
+
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private final AtomicInteger sent = new AtomicInteger();
+
+    private HttpServer server;
+    private GitHub gitHub;
+    private InstallationClientPool clientPool;
+    private volatile int slowPage;
+    private volatile String patch = "\"" + PATCH + "\"";
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::answer);
+        server.start();
+        String endpoint = "http://localhost:" + server.getAddress().getPort();
+        gitHub = new GitHubBuilder().withEndpoint(endpoint).build();
+        GitHubConnector connector = request -> {
+            sent.incrementAndGet();
+            return GitHubConnector.DEFAULT.send(request);
+        };
+        clientPool = new InstallationClientPool(installationId -> new InstallationClientPool.IssuedToken("token-1",
+                Instant.now().plus(Duration.ofHours(1))), connector, endpoint, endpoint + "/graphql", Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientPool.close();
+        server.stop(0);
+    }
+
+    @Test
+    void filesListedByFullPagesTest() throws IOException {
+        GHPullRequest pullRequest = gitHub.getRepository("xstefank/wildfly").getPullRequest(23);
+        queries.clear();
+        List<String> filenames = new ArrayList<>();
+        List<String> statuses = new ArrayList<>();
+
+        int listed = ChangedFileListing.list(pullRequest, clientPool, INSTALLATION_ID, GitHubGuard.direct(), (filename, status) -> {
+            filenames.add(filename);
+            statuses.add(status);
+        });
+
+        Assertions.assertEquals(FILES, listed);
+        Assertions.assertEquals(FILES, filenames.size());
+        Assertions.assertEquals("ejb3/File0.java", filenames.get(0));
+        Assertions.assertEquals("ejb3/File249.java", filenames.get(FILES - 1));
+        Assertions.assertEquals("added", statuses.get(0));
+        Assertions.assertEquals("modified", statuses.get(1));
+        Assertions.assertEquals(List.of("per_page=100", "per_page=100&page=2", "per_page=100&page=3"), queries);
+        // sent by the pooled client of the installation
+        Assertions.assertEquals(3, sent.get());
+        Assertions.assertEquals(List.of("token token-1", "token token-1", "token token-1"), authorizations);
+    }
+
+    @Test
+    void patchNeverBoundTest() throws IOException {
+        GHPullRequest pullRequest = gitHub.getRepository("xstefank/wildfly").getPullRequest(23);
+        // a patch of any other type than a string fails the binding to the file details
+        patch = "{\"hunks\": [\"" + PATCH + "\"]}";
+        Assertions.assertThrows(IOException.class, () -> pullRequest.listFiles().withPageSize(100).toList());
+        queries.clear();
+        List<String> filenames = new ArrayList<>();
+
+        int listed = ChangedFileListing.list(pullRequest, clientPool, INSTALLATION_ID, GitHubGuard.direct(),
+                (filename, status) -> filenames.add(filename));
+
+        Assertions.assertEquals(FILES, listed);
+        Assertions.assertEquals("ejb3/File249.java", filenames.get(FILES - 1));
+        Assertions.assertEquals(3, queries.size());
+    }
+
+    @Test
+    void notPooledClientsListFilesTest() throws IOException {
+        GHPullRequest pullRequest = gitHub.getRepository("xstefank/wildfly").getPullRequest(23);
+        queries.clear();
+        List<String> filenames = new ArrayList<>();
+
+        int listed = ChangedFileListing.list(pullRequest, InstallationClientPool.direct(Mockito.mock(GitHubClientProvider.class)), INSTALLATION_ID,
+                GitHubGuard.direct(), (filename, status) -> filenames.add(filename));
+
+        Assertions.assertEquals(FILES, listed);
+        Assertions.assertEquals("ejb3/File249.java", filenames.get(FILES - 1));
+        Assertions.assertEquals(List.of("per_page=100", "per_page=100&page=2", "per_page=100&page=3"), queries);
+        Assertions.assertEquals(0, sent.get());
+    }
+
+    @Test
+    void everyPageChargedToBudgetTest() throws IOException {
+        GHPullRequest pullRequest = gitHub.getRepository("xstefank/wildfly").getPullRequest(23);
+        queries.clear();
+        ApiBudget budget = new ApiBudget("triage xstefank/wildfly#23", 2, Long.MAX_VALUE, 20);
+        List<String> filenames = new ArrayList<>();
+
+        try (ApiBudget.Scope scope = budget.bind()) {
+            Assertions.assertThrows(BudgetExhaustedException.class,
+                    () -> ChangedFileListing.list(pullRequest, clientPool, INSTALLATION_ID, GitHubGuard.direct(),
+                            (filename, status) -> filenames.add(filename)));
+        }
+
+        Assertions.assertEquals(2 * ChangedFileListing.MAX_PAGE_SIZE, filenames.size());
+        Assertions.assertEquals(2, budget.getCallCount());
+        Assertions.assertEquals(List.of("per_page=100", "per_page=100&page=2"), queries);
+    }
+
+    @Test
+    void everyPageGuardedTest() throws IOException {
+        GHPullRequest pullRequest = gitHub.getRepository("xstefank/wildfly").getPullRequest(23);
+        queries.clear();
+        slowPage = 2;
+        List<String> filenames = new ArrayList<>();
+
+        try (GitHubGuard gitHubGuard = new GitHubGuard(Duration.ofMillis(500), endpoint -> Optional.empty(), 4, 5,
+                Duration.ofMinutes(1))) {
+            GitHubUnavailableException e = Assertions.assertThrows(GitHubUnavailableException.class,
+                    () -> ChangedFileListing.list(pullRequest, clientPool, INSTALLATION_ID, gitHubGuard,
+                            (filename, status) -> filenames.add(filename)));
+            Assertions.assertTrue(e.getMessage().startsWith("list-files"), e.getMessage());
+        }
+
+        // the first page was read within its own timeout
+        Assertions.assertEquals(ChangedFileListing.MAX_PAGE_SIZE, filenames.size());
+    }
+
+    @Test
+    void mockedListingTest() throws IOException {
+        GHPullRequest pullRequest = Mockito.mock(GHPullRequest.class);
+        PagedIterable<GHPullRequestFileDetail> files = GitHubAppMockito.mockPagedIterable(fileDetail("ejb3/A.java"), fileDetail("jpa/B.java"));
+        when(pullRequest.listFiles()).thenReturn(files);
+        List<String> filenames = new ArrayList<>();
+
+        int listed = ChangedFileListing.list(pullRequest, GitHubGuard.direct(), (filename, status) -> filenames.add(filename));
+
+        Assertions.assertEquals(2, listed);
+        Assertions.assertEquals(List.of("ejb3/A.java", "jpa/B.java"), filenames);
+    }
+
+    private static GHPullRequestFileDetail fileDetail(String filename) {
+        return new MockedGHPullRequestFileDetail("abc", filename, "added", 1, 0, 1, null, null, null, "@@ -0,0 +1 @@\\n+test", null);
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String body;
+        if (path.equals("/repos/xstefank/wildfly")) {
+            body = "{\"name\": \"wildfly\", \"full_name\": \"xstefank/wildfly\", \"owner\": {\"login\": \"xstefank\"}}";
+        } else if (path.equals("/repos/xstefank/wildfly/pulls/23")) {
+            body = "{\"number\": 23, \"title\": \"[WFLY-1] Open pull request\"}";
+        } else if (path.equals(FILES_PATH)) {
+            String query = exchange.getRequestURI().getQuery();
+            queries.add(query);
+            authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            int page = query.contains("&page=") ? Integer.parseInt(query.substring(query.lastIndexOf('=') + 1)) : 1;
+            if (page == slowPage) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            body = filesPage(page);
+            if (page * ChangedFileListing.MAX_PAGE_SIZE < FILES) {
+                exchange.getResponseHeaders().add("Link", "<http://localhost:" + server.getAddress().getPort() + FILES_PATH
+                        + "?per_page=100&page=" + (page + 1) + ">; rel=\"next\"");
+            }
+        } else {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private String filesPage(int page) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = (page - 1) * ChangedFileListing.MAX_PAGE_SIZE; i < Math.min(FILES, page * ChangedFileListing.MAX_PAGE_SIZE); i++) {
+            if (body.length() > 1) {
+                body.append(',');
+            }
+            body.append("{\"sha\": \"abc\", \"filename\": \"ejb3/File").append(i)
+                    .append(".java\", \"status\": \"").append(i == 0 ? "added" : "modified")
+                    .append("\", \"additions\": 1, \"patch\": ").append(patch)
+                    .append(", \"nested\": {\"filename\": \"ignored\"}}");
+        }
+        return body.append(']').toString();
+    }
+}
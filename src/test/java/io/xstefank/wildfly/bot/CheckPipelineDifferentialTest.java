@@ -0,0 +1,158 @@
+package io.xstefank.wildfly.bot;
+
+import io.xstefank.wildlfy.bot.config.CommitsQuantity;
+import io.xstefank.wildlfy.bot.config.RegexDefinition;
+import io.xstefank.wildlfy.bot.fetch.PrefetchedPullRequestData;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
+import io.xstefank.wildlfy.bot.format.Check;
+import io.xstefank.wildlfy.bot.format.CheckPipeline;
+import io.xstefank.wildlfy.bot.format.CommitMessagesCheck;
+import io.xstefank.wildlfy.bot.format.CommitsQuantityCheck;
+import io.xstefank.wildlfy.bot.format.DescriptionCheck;
+import io.xstefank.wildlfy.bot.format.TitleCheck;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the failures reported by the {@link CheckPipeline}, which reorders the checks by their observed cost, with
+ * running every check in the reporting order, see {@link DifferentialHarness}. The pull requests of a case are
+ * evaluated one after another by the same pipeline, so the later ones run in the order learned from the earlier ones.
+ */
+public class CheckPipelineDifferentialTest {
+
+    private static final List<String> PATTERNS = List.of("\\[WFLY-\\d+\\]\\s+.*", "WFLY-\\d+\\s+.*", ".*", "WFLY.*",
+            "JIRA:\\s+https://issues.redhat.com/browse/WFLY-\\d+", "(?s).*WFLY-\\d+.*", "[A-Z].*");
+    private static final List<String> TEXTS = List.of("[WFLY-123] Fix", "WFLY-42 Upgrade", "Fix", "wfly-1 fix", "",
+            "JIRA: https://issues.redhat.com/browse/WFLY-7", "Upgrade\nWFLY-9 details");
+    private static final List<String> QUANTITIES = List.of("1", "2", "1-3", "2-5", "3-10");
+
+    @Test
+    void pipelineReportsReferenceFailureTest() {
+        DifferentialHarness.check("CheckPipeline vs reporting order", CheckPipelineDifferentialTest::generate,
+                CheckPipelineDifferentialTest::shrink, CheckPipelineDifferentialTest::disagreement);
+    }
+
+    private static String disagreement(PipelineCase pipelineCase) throws IOException {
+        List<Check> checks = new ArrayList<>();
+        for (CheckSpec spec : pipelineCase.checks) {
+            checks.add(spec.create());
+        }
+        CheckPipeline pipeline = new CheckPipeline(checks);
+        List<Check> reportingOrder = new ArrayList<>(checks);
+        reportingOrder.sort(Comparator.comparing(Check::getCostClass));
+
+        for (int i = 0; i < pipelineCase.pullRequests.size(); i++) {
+            PullRequestData pullRequest = pipelineCase.pullRequests.get(i).data();
+            String expected = null;
+            for (Check check : reportingOrder) {
+                String message = check.check(pullRequest);
+                if (message != null) {
+                    expected = check.getName() + ": " + message;
+                    break;
+                }
+            }
+            CheckPipeline.Failure failure = pipeline.evaluate(pullRequest);
+            String actual = failure == null ? null : failure.check().getName() + ": " + failure.message();
+            if (expected == null ? actual != null : !expected.equals(actual)) {
+                return "pull request " + i + " expected " + expected + " but pipeline reported " + actual;
+            }
+        }
+        return null;
+    }
+
+    // generators
+
+    private static PipelineCase generate(Random random) {
+        List<CheckSpec> checks = new ArrayList<>();
+        int checkCount = 1 + random.nextInt(6);
+        for (int i = 0; i < checkCount; i++) {
+            String kind = pick(random, List.of("title-check", "description", "commits-quantity", "commits-message"));
+            String argument = kind.equals("commits-quantity") ? pick(random, QUANTITIES) : pick(random, PATTERNS);
+            checks.add(new CheckSpec(kind, argument, "message " + i));
+        }
+
+        List<PullRequestSpec> pullRequests = new ArrayList<>();
+        int pullRequestCount = 1 + random.nextInt(6);
+        for (int i = 0; i < pullRequestCount; i++) {
+            List<String> commits = new ArrayList<>();
+            int commitCount = 1 + random.nextInt(6);
+            for (int j = 0; j < commitCount; j++) {
+                commits.add(pick(random, TEXTS));
+            }
+            String body = random.nextInt(5) == 0 ? null : pick(random, TEXTS);
+            pullRequests.add(new PullRequestSpec(pick(random, TEXTS), body, commits));
+        }
+        return new PipelineCase(checks, pullRequests);
+    }
+
+    private static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    // shrinking
+
+    private static List<PipelineCase> shrink(PipelineCase pipelineCase) {
+        List<PipelineCase> candidates = new ArrayList<>();
+        for (int i = 0; i < pipelineCase.checks.size() && pipelineCase.checks.size() > 1; i++) {
+            List<CheckSpec> checks = new ArrayList<>(pipelineCase.checks);
+            checks.remove(i);
+            candidates.add(new PipelineCase(checks, pipelineCase.pullRequests));
+        }
+        for (int i = 0; i < pipelineCase.pullRequests.size() && pipelineCase.pullRequests.size() > 1; i++) {
+            List<PullRequestSpec> pullRequests = new ArrayList<>(pipelineCase.pullRequests);
+            pullRequests.remove(i);
+            candidates.add(new PipelineCase(pipelineCase.checks, pullRequests));
+        }
+        for (int i = 0; i < pipelineCase.pullRequests.size(); i++) {
+            PullRequestSpec pullRequest = pipelineCase.pullRequests.get(i);
+            for (int j = 0; j < pullRequest.commits.size() && pullRequest.commits.size() > 1; j++) {
+                List<String> commits = new ArrayList<>(pullRequest.commits);
+                commits.remove(j);
+                List<PullRequestSpec> pullRequests = new ArrayList<>(pipelineCase.pullRequests);
+                pullRequests.set(i, new PullRequestSpec(pullRequest.title, pullRequest.body, commits));
+                candidates.add(new PipelineCase(pipelineCase.checks, pullRequests));
+            }
+        }
+        return candidates;
+    }
+
+    private record CheckSpec(String kind, String argument, String message) {
+
+        private Check create() {
+            if (kind.equals("commits-quantity")) {
+                CommitsQuantity quantity = new CommitsQuantity();
+                quantity.quantity = argument;
+                quantity.message = message;
+                return new CommitsQuantityCheck(quantity);
+            }
+            RegexDefinition definition = new RegexDefinition();
+            definition.pattern = Pattern.compile(argument);
+            definition.message = message;
+            return switch (kind) {
+                case "title-check" -> new TitleCheck(definition);
+                case "description" -> new DescriptionCheck(definition);
+                default -> new CommitMessagesCheck(definition);
+            };
+        }
+    }
+
+    private record PullRequestSpec(String title, String body, List<String> commits) {
+
+        private PullRequestData data() {
+            List<PullRequestData.CommitData> commitData = new ArrayList<>();
+            for (int i = 0; i < commits.size(); i++) {
+                commitData.add(new PullRequestData.CommitData("sha" + i, commits.get(i)));
+            }
+            return new PrefetchedPullRequestData(null, 1, title, body, "sha", commits.size(), commitData, List.of());
+        }
+    }
+
+    private record PipelineCase(List<CheckSpec> checks, List<PullRequestSpec> pullRequests) {
+    }
+}
@@ -0,0 +1,109 @@
+package io.xstefank.wildfly.bot;
+
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
+import io.xstefank.wildlfy.bot.format.Check;
+import io.xstefank.wildlfy.bot.format.CheckPipeline;
+import io.xstefank.wildlfy.bot.format.CostClass;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CheckPipelineTest {
+
+    private final PullRequestData pullRequest = Mockito.mock(PullRequestData.class);
+    private final List<String> executed = new ArrayList<>();
+
+    @Test
+    void cheaperChecksAreReportedFirstTest() throws IOException {
+        Check network = new StubCheck("network", CostClass.NETWORK, "network failed");
+        Check free = new StubCheck("free", CostClass.FREE, "free failed");
+        CheckPipeline pipeline = new CheckPipeline(List.of(network, free));
+
+        CheckPipeline.Failure failure = pipeline.evaluate(pullRequest);
+
+        Assertions.assertSame(free, failure.check());
+        Assertions.assertEquals("free failed", failure.message());
+        Assertions.assertEquals(List.of("free"), executed);
+        Assertions.assertEquals(List.of(free, network), pipeline.getChecks());
+    }
+
+    @Test
+    void allChecksRunWhenPassingTest() throws IOException {
+        CheckPipeline pipeline = new CheckPipeline(List.of(
+                new StubCheck("first", CostClass.FREE, null),
+                new StubCheck("second", CostClass.CHEAP, null),
+                new StubCheck("third", CostClass.NETWORK, null)));
+
+        Assertions.assertNull(pipeline.evaluate(pullRequest));
+        Assertions.assertEquals(List.of("first", "second", "third"), executed);
+    }
+
+    @Test
+    void reportedFailureIgnoresStatisticsTest() throws IOException {
+        StubCheck first = new StubCheck("first", CostClass.FREE, null);
+        StubCheck second = new StubCheck("second", CostClass.FREE, "second failed");
+        CheckPipeline pipeline = new CheckPipeline(List.of(first, second));
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertSame(second, pipeline.evaluate(pullRequest).check());
+        }
+        Assertions.assertEquals(10, pipeline.getStatistics(second).getFailures());
+        Assertions.assertEquals(0, pipeline.getStatistics(first).getFailures());
+
+        // the frequently failing check is now executed first, but the earlier configured check still wins
+        first.result = "first failed";
+        executed.clear();
+        CheckPipeline.Failure failure = pipeline.evaluate(pullRequest);
+
+        Assertions.assertSame(first, failure.check());
+        Assertions.assertEquals("first failed", failure.message());
+        Assertions.assertEquals(List.of("second", "first"), executed);
+    }
+
+    @Test
+    void expensiveChecksSkippedAfterFailureTest() throws IOException {
+        StubCheck free = new StubCheck("free", CostClass.FREE, "free failed");
+        StubCheck network = new StubCheck("network", CostClass.NETWORK, "network failed");
+        CheckPipeline pipeline = new CheckPipeline(List.of(network, free));
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertSame(free, pipeline.evaluate(pullRequest).check());
+        }
+
+        Assertions.assertEquals(10, pipeline.getStatistics(free).getEvaluations());
+        Assertions.assertEquals(0, pipeline.getStatistics(network).getEvaluations());
+    }
+
+    private class StubCheck implements Check {
+
+        private final String name;
+        private final CostClass costClass;
+        private String result;
+
+        StubCheck(String name, CostClass costClass, String result) {
+            this.name = name;
+            this.costClass = costClass;
+            this.result = result;
+        }
+
+        @Override
+        public String check(PullRequestData pullRequest) {
+            executed.add(name);
+            return result;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public CostClass getCostClass() {
+            return costClass;
+        }
+    }
+}
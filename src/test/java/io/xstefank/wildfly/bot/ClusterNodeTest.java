@@ -0,0 +1,114 @@
+package io.xstefank.wildfly.bot;
+
+import io.xstefank.wildlfy.bot.cluster.ClusterMember;
+import io.xstefank.wildlfy.bot.cluster.ClusterNode;
+import io.xstefank.wildlfy.bot.cluster.ForwardedRequest;
+import io.xstefank.wildlfy.bot.cluster.InMemoryClusterTransport;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class ClusterNodeTest {
+
+    private final InMemoryClusterTransport.Network network = new InMemoryClusterTransport.Network();
+    private final Map<String, List<ForwardedRequest>> received = new HashMap<>();
+    private final List<String> repositories = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 1000; i++) {
+            repositories.add("wildfly/repository-" + i);
+        }
+    }
+
+    @Test
+    void nodesAgreeOnOwnersTest() {
+        List<ClusterNode> nodes = List.of(start("node-1"), start("node-2"), start("node-3"));
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (String repository : repositories) {
+            ClusterMember owner = nodes.get(0).ownerOf(repository);
+            for (ClusterNode node : nodes) {
+                Assertions.assertEquals(owner, node.ownerOf(repository));
+                Assertions.assertEquals(node.getSelf().equals(owner), node.isOwner(repository));
+            }
+            owned.merge(owner.id(), 1, Integer::sum);
+        }
+
+        for (ClusterNode node : nodes) {
+            Assertions.assertEquals(3, node.getMembers().size());
+            int count = owned.get(node.getSelf().id());
+            Assertions.assertTrue(count > 200 && count < 470, "Uneven distribution " + owned);
+        }
+    }
+
+    @Test
+    void requestForwardedToOwnerTest() {
+        ClusterNode first = start("node-1");
+        ClusterNode second = start("node-2");
+
+        String repository = repositories.stream().filter(second::isOwner).findFirst().orElseThrow();
+        ForwardedRequest request = new ForwardedRequest(repository, Map.of("X-GitHub-Event", "pull_request"), new byte[] { '{', '}' });
+
+        Assertions.assertEquals(202, first.forward(request).toCompletableFuture().join());
+        Assertions.assertEquals(List.of(request), received.get("node-2"));
+        Assertions.assertTrue(second.forward(request).toCompletableFuture().isCompletedExceptionally());
+    }
+
+    @Test
+    void onlyKeysOfChangedMemberMoveTest() {
+        ClusterNode first = start("node-1");
+        ClusterNode second = start("node-2");
+        ClusterNode third = start("node-3");
+
+        Map<String, ClusterMember> before = owners(first);
+        third.stop();
+        Map<String, ClusterMember> after = owners(first);
+
+        Assertions.assertEquals(2, first.getMembers().size());
+        for (String repository : repositories) {
+            if (!before.get(repository).equals(third.getSelf())) {
+                Assertions.assertEquals(before.get(repository), after.get(repository));
+            }
+            Assertions.assertEquals(second.ownerOf(repository), after.get(repository));
+        }
+
+        ClusterNode fourth = start("node-4");
+        for (String repository : repositories) {
+            ClusterMember owner = first.ownerOf(repository);
+            if (!owner.equals(after.get(repository))) {
+                Assertions.assertEquals(fourth.getSelf(), owner);
+            }
+        }
+    }
+
+    @Test
+    void singleNodeOwnsEverythingTest() {
+        ClusterNode node = new ClusterNode(new ClusterMember("alone", "http://localhost:8080"), new InMemoryClusterTransport(network), 128);
+
+        Assertions.assertTrue(repositories.stream().allMatch(node::isOwner));
+    }
+
+    private ClusterNode start(String id) {
+        ClusterNode node = new ClusterNode(new ClusterMember(id, "http://" + id + ":8080"), new InMemoryClusterTransport(network), 128);
+        node.start(request -> {
+            received.computeIfAbsent(id, key -> new ArrayList<>()).add(request);
+            return CompletableFuture.completedFuture(202);
+        });
+        return node;
+    }
+
+    private Map<String, ClusterMember> owners(ClusterNode node) {
+        Map<String, ClusterMember> owners = new HashMap<>();
+        for (String repository : repositories) {
+            owners.put(repository, node.ownerOf(repository));
+        }
+        return owners;
+    }
+}
@@ -0,0 +1,81 @@
+package io.xstefank.wildfly.bot;
+
+import org.junit.jupiter.api.Assertions;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Runs a reference and an optimized implementation side by side on randomly generated cases and fails with the
+ * smallest case they disagree on.
+ * <p>
+ * Cases are generated from a seed, {@code -Ddifferential.seed} repeats a reported run and {@code -Ddifferential.cases}
+ * changes the number of cases, e.g. for a longer run before rolling out a rewrite. A disagreement is shrunk by
+ * repeatedly taking the first smaller variant of the case which still disagrees, until none does.
+ */
+final class DifferentialHarness {
+
+    static final long DEFAULT_SEED = 20231019L;
+    static final int DEFAULT_CASES = 500;
+
+    private DifferentialHarness() {
+    }
+
+    /**
+     * @param generator creates a case from the random source
+     * @param shrinker  smaller variants of a case, simplest first
+     * @param property  compares the implementations, returns a description of the disagreement or {@code null}
+     */
+    static <C> void check(String name, Function<Random, C> generator, Function<C, List<C>> shrinker, Property<C> property) {
+        long seed = Long.getLong("differential.seed", DEFAULT_SEED);
+        int cases = Integer.getInteger("differential.cases", DEFAULT_CASES);
+        Random random = new Random(seed);
+        for (int i = 0; i < cases; i++) {
+            C generated = generator.apply(random);
+            String disagreement = evaluate(property, generated);
+            if (disagreement != null) {
+                Shrunk<C> shrunk = shrink(generated, disagreement, shrinker, property);
+                Assertions.fail(name + " disagrees on case " + i + " of seed " + seed + " (" + shrunk.steps
+                        + " shrinking steps): " + shrunk.disagreement + "\nminimal case: " + shrunk.value
+                        + "\noriginal case: " + generated);
+            }
+        }
+    }
+
+    private static <C> Shrunk<C> shrink(C value, String disagreement, Function<C, List<C>> shrinker, Property<C> property) {
+        int steps = 0;
+        boolean shrunk = true;
+        while (shrunk) {
+            shrunk = false;
+            for (C candidate : shrinker.apply(value)) {
+                String candidateDisagreement = evaluate(property, candidate);
+                if (candidateDisagreement != null) {
+                    value = candidate;
+                    disagreement = candidateDisagreement;
+                    steps++;
+                    shrunk = true;
+                    break;
+                }
+            }
+        }
+        return new Shrunk<>(value, disagreement, steps);
+    }
+
+    private static <C> String evaluate(Property<C> property, C value) {
+        try {
+            return property.disagreement(value);
+        } catch (Exception e) {
+            return "failed with " + e;
+        }
+    }
+
+    @FunctionalInterface
+    interface Property<C> {
+
+        String disagreement(C value) throws Exception;
+    }
+
+    private record Shrunk<C>(C value, String disagreement, int steps) {
+    }
+}
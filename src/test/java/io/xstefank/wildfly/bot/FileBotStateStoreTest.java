@@ -0,0 +1,149 @@
+package io.xstefank.wildfly.bot;
+
+import io.xstefank.wildlfy.bot.state.BotStateStore;
+import io.xstefank.wildlfy.bot.state.FileBotStateStore;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+public class FileBotStateStoreTest {
+
+    private static final String PULL_REQUEST = BotStateStore.pullRequestKey("xstefank/wildfly", 23);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void stateSurvivesRestartTest() {
+        Path file = directory.resolve("state.log");
+        try (FileBotStateStore store = new FileBotStateStore(file)) {
+            store.put(PULL_REQUEST + "comment", "42\nfirst line\nsecond line");
+            store.put(PULL_REQUEST + "format", "abc");
+            store.put(PULL_REQUEST + "format", "def");
+            store.put("other", "value");
+            store.remove("other");
+        }
+
+        try (FileBotStateStore store = new FileBotStateStore(file)) {
+            Assertions.assertEquals(Optional.of("42\nfirst line\nsecond line"), store.get(PULL_REQUEST + "comment"));
+            Assertions.assertEquals(Optional.of("def"), store.get(PULL_REQUEST + "format"));
+            Assertions.assertEquals(Optional.empty(), store.get("other"));
+        }
+    }
+
+    @Test
+    void closedPullRequestExpiresTest() {
+        Path file = directory.resolve("state.log");
+        String other = BotStateStore.pullRequestKey("xstefank/wildfly", 234) + "format";
+        try (FileBotStateStore store = new FileBotStateStore(file)) {
+            store.put(PULL_REQUEST + "comment", "42\nbody");
+            store.put(PULL_REQUEST + "format", "abc");
+            store.put(other, "def");
+
+            store.setExpiry(PULL_REQUEST, Instant.now().minusSeconds(1));
+
+            Assertions.assertEquals(Optional.empty(), store.get(PULL_REQUEST + "comment"));
+            Assertions.assertEquals(Optional.empty(), store.get(PULL_REQUEST + "format"));
+            Assertions.assertEquals(Optional.of("def"), store.get(other));
+        }
+
+        try (FileBotStateStore store = new FileBotStateStore(file)) {
+            Assertions.assertEquals(Optional.empty(), store.get(PULL_REQUEST + "format"));
+            Assertions.assertEquals(Optional.of("def"), store.get(other));
+        }
+    }
+
+    @Test
+    void expiredStatePurgedWithoutReadTest() {
+        String other = BotStateStore.pullRequestKey("xstefank/wildfly", 234) + "format";
+        try (FileBotStateStore store = new FileBotStateStore(directory.resolve("state.log"))) {
+            store.put(PULL_REQUEST + "comment", "42\nbody");
+            store.put(PULL_REQUEST + "format", "abc");
+            store.put(other, "def");
+            store.setExpiry(PULL_REQUEST, Instant.now().minusSeconds(1));
+
+            Assertions.assertEquals(3, store.getEntryCount());
+            Assertions.assertEquals(2, store.purgeExpired());
+            Assertions.assertEquals(1, store.getEntryCount());
+            Assertions.assertEquals(Optional.of("def"), store.get(other));
+        }
+    }
+
+    @Test
+    void expiredStateDroppedByCompactionTest() throws InterruptedException {
+        try (FileBotStateStore store = new FileBotStateStore(directory.resolve("state.log"))) {
+            store.put(PULL_REQUEST + "comment", "42\nbody");
+            store.setExpiry(PULL_REQUEST, Instant.now().minusSeconds(1));
+            for (int i = 0; i < 5000; i++) {
+                store.put("other", "value-" + i);
+            }
+            store.flush();
+
+            // the log is compacted by the writer after the flushed batch
+            long deadline = System.currentTimeMillis() + 5000;
+            while (store.getEntryCount() > 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(1, store.getEntryCount());
+        }
+    }
+
+    @Test
+    void reopenedPullRequestIsKeptTest() {
+        Path file = directory.resolve("state.log");
+        try (FileBotStateStore store = new FileBotStateStore(file)) {
+            store.put(PULL_REQUEST + "format", "abc");
+            store.setExpiry(PULL_REQUEST, Instant.now().plusSeconds(60));
+            store.setExpiry(PULL_REQUEST, null);
+        }
+
+        try (FileBotStateStore store = new FileBotStateStore(file)) {
+            Assertions.assertEquals(Optional.of("abc"), store.get(PULL_REQUEST + "format"));
+        }
+    }
+
+    @Test
+    void logIsCompactedTest() throws IOException, InterruptedException {
+        Path file = directory.resolve("state.log");
+        try (FileBotStateStore store = new FileBotStateStore(file)) {
+            for (int i = 0; i < 5000; i++) {
+                store.put(PULL_REQUEST + "format", "sha-" + i);
+            }
+            store.flush();
+        }
+
+        Assertions.assertTrue(Files.readAllLines(file).size() < 1000);
+        try (FileBotStateStore store = new FileBotStateStore(file)) {
+            Assertions.assertEquals(Optional.of("sha-4999"), store.get(PULL_REQUEST + "format"));
+        }
+    }
+
+    @Test
+    void failedLogKeepsStateInMemoryTest() throws IOException, InterruptedException {
+        // the log cannot be created below a regular file
+        Path file = Files.createFile(directory.resolve("blocked")).resolve("state.log");
+        try (FileBotStateStore store = new FileBotStateStore(file)) {
+            store.put(PULL_REQUEST + "format", "abc");
+
+            Assertions.assertFalse(store.flush());
+            Assertions.assertTrue(store.isFailed());
+            store.put(PULL_REQUEST + "format", "def");
+            Assertions.assertFalse(store.flush());
+            Assertions.assertEquals(Optional.of("def"), store.get(PULL_REQUEST + "format"));
+        }
+    }
+
+    @Test
+    void storeWithoutFileKeepsStateInMemoryTest() {
+        try (FileBotStateStore store = new FileBotStateStore(null)) {
+            store.put(PULL_REQUEST + "format", "abc");
+            Assertions.assertEquals(Optional.of("abc"), store.get(PULL_REQUEST + "format"));
+        }
+    }
+}
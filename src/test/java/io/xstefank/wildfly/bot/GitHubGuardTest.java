@@ -0,0 +1,138 @@
+package io.xstefank.wildfly.bot;
+
+import io.xstefank.wildlfy.bot.resilience.CircuitBreaker;
+import io.xstefank.wildlfy.bot.resilience.GitHubGuard;
+import io.xstefank.wildlfy.bot.resilience.GitHubUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.HttpException;
+import org.mockito.Mockito;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.Mockito.when;
+
+public class GitHubGuardTest {
+
+    private final GHRepository repository = repository("wildfly");
+
+    private final GitHubGuard guard = new GitHubGuard(Duration.ofSeconds(5),
+            endpoint -> Optional.ofNullable(Map.of("slow", Duration.ofMillis(100)).get(endpoint)),
+            2, 3, Duration.ofMillis(200));
+
+    @AfterEach
+    void tearDown() {
+        guard.close();
+    }
+
+    @Test
+    void slowCallTimesOutTest() {
+        CountDownLatch never = new CountDownLatch(1);
+        Assertions.assertThrows(GitHubUnavailableException.class, () -> guard.call(repository, "slow", () -> await(never)));
+        Assertions.assertEquals("done", Assertions.assertDoesNotThrow(() -> guard.call(repository, "fast", () -> "done")));
+    }
+
+    @Test
+    void circuitOpensAfterServerErrorsTest() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThrows(GitHubUnavailableException.class, () -> guard.call(repository, "status", () -> {
+                throw new HttpException("Bad Gateway", 502, "Bad Gateway", "https://api.github.com");
+            }));
+        }
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreaker("wildfly").getState());
+
+        GitHubUnavailableException rejected = Assertions.assertThrows(GitHubUnavailableException.class,
+                () -> guard.call(repository, "status", () -> "not called"));
+        Assertions.assertTrue(rejected.getMessage().contains("suspended"));
+        Assertions.assertEquals("other", guard.call(repository("hibernate"), "status", () -> "other"));
+
+        Thread.sleep(300);
+        Assertions.assertEquals("recovered", guard.call(repository, "status", () -> "recovered"));
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker("wildfly").getState());
+    }
+
+    @Test
+    void clientErrorsDoNotOpenCircuitTest() {
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertThrows(GHFileNotFoundException.class, () -> guard.call(repository, "config-file", () -> {
+                throw new GHFileNotFoundException("Not Found");
+            }));
+        }
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker("wildfly").getState());
+    }
+
+    @Test
+    void bulkheadRejectsCallsOverLimitTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<?> first = CompletableFuture.runAsync(() -> block(started, release));
+        CompletableFuture<?> second = CompletableFuture.runAsync(() -> block(started, release));
+        started.await();
+
+        GitHubUnavailableException rejected = Assertions.assertThrows(GitHubUnavailableException.class,
+                () -> guard.call(repository, "status", () -> "not called"));
+        Assertions.assertTrue(rejected.getMessage().contains("Too many"));
+
+        release.countDown();
+        first.join();
+        second.join();
+        Assertions.assertEquals("done", guard.call(repository, "status", () -> "done"));
+    }
+
+    @Test
+    void interruptedCallersReleaseBulkheadTest() throws Exception {
+        // the interrupted caller cancels most calls before they start, every owner once to keep the circuits closed
+        int interrupted = 0;
+        for (int i = 0; i < 100; i++) {
+            Thread.currentThread().interrupt();
+            try {
+                guard.call(repository("owner-" + i), "status", () -> "done");
+            } catch (InterruptedIOException e) {
+                interrupted++;
+            }
+            Thread.interrupted();
+        }
+        Assertions.assertTrue(interrupted > 0);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (guard.getInFlightCount() > 0) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Bulkhead permits leaked");
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals("done", guard.call(repository, "status", () -> "done"));
+    }
+
+    private void block(CountDownLatch started, CountDownLatch release) {
+        try {
+            guard.call(repository, "status", () -> {
+                started.countDown();
+                return await(release);
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Void await(CountDownLatch latch) throws InterruptedIOException {
+        try {
+            latch.await();
+            return null;
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    private static GHRepository repository(String owner) {
+        GHRepository repository = Mockito.mock(GHRepository.class);
+        when(repository.getOwnerName()).thenReturn(owner);
+        return repository;
+    }
+}
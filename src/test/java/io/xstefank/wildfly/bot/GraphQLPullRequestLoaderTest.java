@@ -0,0 +1,193 @@
+package io.xstefank.wildfly.bot;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.smallrye.graphql.client.dynamic.api.DynamicGraphQLClient;
+import io.smallrye.graphql.client.dynamic.api.DynamicGraphQLClientBuilder;
+import io.xstefank.wildlfy.bot.fetch.GraphQLPullRequestLoader;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
+import io.xstefank.wildlfy.bot.resilience.ApiBudget;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHRepository;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the GraphQL queries against a local stand-in of the GitHub GraphQL endpoint.
+ */
+public class GraphQLPullRequestLoaderTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final List<String> COMMITS = List.of("[WFLY-1] First", "[WFLY-1] Second", "[WFLY-1] Third");
+    private static final List<String> FILES = List.of("ejb3/A.java", "ejb3/B.java", "jpa/C.java", "jpa/D.java", "mail/E.java");
+
+    private final List<JsonNode> queries = new ArrayList<>();
+    private final GHRepository repository = Mockito.mock(GHRepository.class);
+
+    private HttpServer server;
+    private DynamicGraphQLClient client;
+    private String error;
+    private int status = 200;
+    private boolean chunked;
+    private volatile long answeredBytes;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/graphql", this::answer);
+        server.start();
+        client = DynamicGraphQLClientBuilder.newBuilder()
+                .url("http://localhost:" + server.getAddress().getPort() + "/graphql")
+                .build();
+
+        when(repository.getOwnerName()).thenReturn("xstefank");
+        when(repository.getName()).thenReturn("wildfly");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void pullRequestLoadedInOneQueryTest() throws IOException {
+        PullRequestData data = new GraphQLPullRequestLoader().load(client, repository, 23);
+
+        Assertions.assertEquals(1, queries.size());
+        Assertions.assertEquals("[WFLY-1] Open pull request", data.getTitle());
+        Assertions.assertNull(data.getBody());
+        Assertions.assertEquals("5db0f8e923d84fe05a60658ed5bb95f7aa23b66f", data.getHeadSha());
+        Assertions.assertEquals(3, data.getCommitCount());
+        Assertions.assertEquals(COMMITS, data.getCommits().stream().map(PullRequestData.CommitData::message).toList());
+        Assertions.assertEquals("sha0", data.getCommits().get(0).sha());
+        Assertions.assertEquals(FILES, data.getChangedFiles());
+        Assertions.assertSame(repository, data.getRepository());
+        Assertions.assertEquals(23, data.getNumber());
+    }
+
+    @Test
+    void remainingPagesQueriedSeparatelyTest() throws IOException {
+        PullRequestData data = new GraphQLPullRequestLoader(2).load(client, repository, 23);
+
+        Assertions.assertEquals(COMMITS, data.getCommits().stream().map(PullRequestData.CommitData::message).toList());
+        Assertions.assertEquals(FILES, data.getChangedFiles());
+        Assertions.assertEquals(3, queries.size());
+        // the commits are complete after the second page, so the last query only asks for the files
+        Assertions.assertTrue(queries.get(1).get("withCommits").asBoolean());
+        Assertions.assertFalse(queries.get(2).get("withCommits").asBoolean());
+        Assertions.assertTrue(queries.get(2).get("withFiles").asBoolean());
+    }
+
+    @Test
+    void answerSizesRecordedTest() throws IOException {
+        ApiBudget budget = new ApiBudget("triage xstefank/wildfly#23", 10, Long.MAX_VALUE, 20);
+
+        try (ApiBudget.Scope scope = budget.bind()) {
+            new GraphQLPullRequestLoader(2).load(client, repository, 23);
+        }
+
+        Assertions.assertEquals(3, budget.getCallCount());
+        Assertions.assertTrue(answeredBytes > 0);
+        Assertions.assertEquals(answeredBytes, budget.getByteCount());
+    }
+
+    @Test
+    void chunkedAnswerSizesEstimatedTest() throws IOException {
+        chunked = true;
+        ApiBudget budget = new ApiBudget("triage xstefank/wildfly#23", 10, Long.MAX_VALUE, 20);
+
+        try (ApiBudget.Scope scope = budget.bind()) {
+            new GraphQLPullRequestLoader(2).load(client, repository, 23);
+        }
+
+        // the data without the envelope of the answer
+        Assertions.assertTrue(budget.getByteCount() > 0);
+        Assertions.assertTrue(budget.getByteCount() <= answeredBytes);
+    }
+
+    @Test
+    void queryErrorsReportedTest() {
+        error = "Could not resolve to a PullRequest with the number of 23.";
+
+        GraphQLPullRequestLoader.GraphQLQueryException exception = Assertions.assertThrows(GraphQLPullRequestLoader.GraphQLQueryException.class,
+                () -> new GraphQLPullRequestLoader().load(client, repository, 23));
+        Assertions.assertEquals(error, exception.getMessage());
+    }
+
+    @Test
+    void badGatewayThrowsIOExceptionTest() {
+        status = 502;
+
+        Assertions.assertThrows(IOException.class, () -> new GraphQLPullRequestLoader().load(client, repository, 23));
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        JsonNode variables = MAPPER.readTree(exchange.getRequestBody()).get("variables");
+        queries.add(variables);
+
+        ObjectNode pullRequest = MAPPER.createObjectNode();
+        pullRequest.put("title", "[WFLY-1] Open pull request");
+        pullRequest.putNull("body");
+        pullRequest.put("headRefOid", "5db0f8e923d84fe05a60658ed5bb95f7aa23b66f");
+        int pageSize = variables.get("pageSize").asInt();
+        if (variables.get("withCommits").asBoolean()) {
+            ObjectNode commits = page(pullRequest.putObject("commits"), COMMITS.size(), variables.get("commitsAfter"), pageSize,
+                    (nodes, i) -> nodes.addObject().putObject("commit").put("oid", "sha" + i).put("message", COMMITS.get(i)));
+            commits.put("totalCount", COMMITS.size());
+        }
+        if (variables.get("withFiles").asBoolean()) {
+            page(pullRequest.putObject("files"), FILES.size(), variables.get("filesAfter"), pageSize,
+                    (nodes, i) -> nodes.addObject().put("path", FILES.get(i)));
+        }
+
+        ObjectNode response = MAPPER.createObjectNode();
+        if (error != null) {
+            response.putNull("data");
+            response.putArray("errors").addObject().put("message", error);
+        } else {
+            response.putObject("data").putObject("repository").set("pullRequest", pullRequest);
+        }
+
+        byte[] body = status == 200 ? MAPPER.writeValueAsBytes(response) : "<html>Bad Gateway</html>".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", status == 200 ? "application/json" : "text/html");
+        answeredBytes += body.length;
+        exchange.sendResponseHeaders(status, chunked ? 0 : body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static ObjectNode page(ObjectNode connection, int total, JsonNode after, int pageSize, NodeWriter writer) {
+        int start = after == null || after.isNull() ? 0 : Integer.parseInt(after.asText());
+        int end = Math.min(total, start + pageSize);
+        ArrayNode nodes = connection.putArray("nodes");
+        for (int i = start; i < end; i++) {
+            writer.write(nodes, i);
+        }
+        connection.putObject("pageInfo")
+                .put("hasNextPage", end < total)
+                .put("endCursor", String.valueOf(end));
+        return connection;
+    }
+
+    private interface NodeWriter {
+        void write(ArrayNode nodes, int index);
+    }
+}
@@ -0,0 +1,146 @@
+package io.xstefank.wildfly.bot;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.xstefank.wildlfy.bot.http.Http2GitHubConnector;
+import io.xstefank.wildlfy.bot.resilience.ApiBudget;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sends requests of a GitHub client through the connector to a local stand-in of the GitHub REST API.
+ */
+public class Http2GitHubConnectorTest {
+
+    private static final int MAX_CONCURRENT_REQUESTS = 2;
+    private static final String REPOSITORY = "{\"name\": \"wildfly\", \"full_name\": \"xstefank/wildfly\", \"owner\": {\"login\": \"xstefank\"}}";
+
+    private final List<String> encodings = new CopyOnWriteArrayList<>();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private Http2GitHubConnector connector;
+    private GitHub gitHub;
+    private volatile Duration responseDelay = Duration.ofMillis(100);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::answer);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        connector = new Http2GitHubConnector(Duration.ofSeconds(5), Duration.ofSeconds(1), MAX_CONCURRENT_REQUESTS);
+        gitHub = new GitHubBuilder()
+                .withEndpoint("http://localhost:" + server.getAddress().getPort())
+                .withConnector(connector)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void gzippedResponseReadTest() throws IOException {
+        GHRepository repository = gitHub.getRepository("xstefank/wildfly");
+
+        Assertions.assertEquals("xstefank/wildfly", repository.getFullName());
+        Assertions.assertEquals(List.of("gzip"), encodings);
+        Assertions.assertEquals(1, connector.getRequestCount());
+        Assertions.assertEquals(0, connector.getInFlightCount());
+    }
+
+    @Test
+    void responseBytesRecordedInBudgetTest() throws IOException {
+        ApiBudget budget = new ApiBudget("triage xstefank/wildfly#23", 10, Long.MAX_VALUE, 20);
+
+        try (ApiBudget.Scope scope = budget.bind()) {
+            gitHub.getRepository("xstefank/wildfly");
+        }
+
+        Assertions.assertEquals(REPOSITORY.getBytes(StandardCharsets.UTF_8).length, budget.getByteCount());
+    }
+
+    @Test
+    void concurrentRequestsLimitedTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<GHRepository>> repositories = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                repositories.add(executor.submit(() -> gitHub.getRepository("xstefank/wildfly")));
+            }
+            for (Future<GHRepository> repository : repositories) {
+                Assertions.assertEquals("xstefank/wildfly", repository.get(10, TimeUnit.SECONDS).getFullName());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertTrue(maxConcurrent.get() <= MAX_CONCURRENT_REQUESTS,
+                "At most " + MAX_CONCURRENT_REQUESTS + " requests expected at once, was " + maxConcurrent.get());
+        Assertions.assertTrue(connector.getQueuedCount() > 0, "Requests over the limit expected to wait for a slot");
+        Assertions.assertEquals(6, connector.getRequestCount());
+    }
+
+    @Test
+    void stalledResponseTimesOutTest() {
+        responseDelay = Duration.ofSeconds(3);
+        long start = System.nanoTime();
+
+        Assertions.assertThrows(IOException.class, () -> gitHub.getRepository("xstefank/wildfly"));
+
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(responseDelay) < 0);
+        Assertions.assertEquals(0, connector.getInFlightCount());
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        int current = concurrent.incrementAndGet();
+        maxConcurrent.accumulateAndGet(current, Math::max);
+        try {
+            // keeps the request in flight long enough for the others to queue up
+            Thread.sleep(responseDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        encodings.add(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(REPOSITORY.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] body = compressed.toByteArray();
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        concurrent.decrementAndGet();
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package io.xstefank.wildfly.bot;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.xstefank.wildlfy.bot.auth.InstallationClientPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.connector.GitHubConnector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs the pooled clients against a local stand-in of the GitHub REST API.
+ */
+public class InstallationClientPoolTest {
+
+    private static final long INSTALLATION_ID = 42;
+    private static final Duration REFRESH_BEFORE = Duration.ofMinutes(10);
+
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private final AtomicInteger issued = new AtomicInteger();
+
+    private HttpServer server;
+    private InstallationClientPool pool;
+    private volatile Duration validFor = Duration.ofHours(1);
+    private volatile int failFrom = Integer.MAX_VALUE;
+    private volatile CountDownLatch issuing;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::answer);
+        server.start();
+        String endpoint = "http://localhost:" + server.getAddress().getPort();
+        pool = new InstallationClientPool(this::issue, GitHubConnector.DEFAULT, endpoint, endpoint + "/graphql", REFRESH_BEFORE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+        server.stop(0);
+    }
+
+    @Test
+    void clientsPooledTest() throws IOException {
+        GitHub gitHub = pool.getClient(INSTALLATION_ID);
+
+        Assertions.assertSame(gitHub, pool.getClient(INSTALLATION_ID));
+        Assertions.assertSame(pool.getGraphQLClient(INSTALLATION_ID), pool.getGraphQLClient(INSTALLATION_ID));
+        Assertions.assertEquals(1, issued.get());
+        Assertions.assertEquals(1, pool.getInstallationCount());
+    }
+
+    @Test
+    void concurrentFirstCallersWaitForOneTokenTest() throws Exception {
+        issuing = new CountDownLatch(1);
+        CompletableFuture<GitHub> first = CompletableFuture.supplyAsync(() -> client(INSTALLATION_ID));
+        CompletableFuture<GitHub> second = CompletableFuture.supplyAsync(() -> client(INSTALLATION_ID));
+
+        // another installation is not held up by the token in flight
+        pool.getClient(INSTALLATION_ID + 1);
+        Assertions.assertFalse(first.isDone() || second.isDone());
+
+        issuing.countDown();
+        Assertions.assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, issued.get());
+    }
+
+    @Test
+    void tokenRefreshedBeforeExpiryTest() throws Exception {
+        // leaves time for the first request before the refresh is due
+        validFor = REFRESH_BEFORE.plusSeconds(2);
+        GitHub gitHub = pool.getClient(INSTALLATION_ID);
+        gitHub.getRepository("xstefank/wildfly");
+
+        waitFor(() -> issued.get() == 2);
+
+        Assertions.assertSame(gitHub, pool.getClient(INSTALLATION_ID));
+        gitHub.getRepository("xstefank/wildfly");
+        Assertions.assertEquals(List.of("token token-1", "token token-2"), authorizations);
+        Assertions.assertTrue(pool.getExpiresAt(INSTALLATION_ID).isAfter(Instant.now().plus(REFRESH_BEFORE)));
+    }
+
+    @Test
+    void unusedInstallationDroppedTest() throws Exception {
+        validFor = REFRESH_BEFORE.plusMillis(100);
+        pool.warmUp(INSTALLATION_ID);
+        Assertions.assertEquals(1, pool.getInstallationCount());
+
+        waitFor(() -> pool.getInstallationCount() == 0);
+
+        Assertions.assertEquals(1, issued.get());
+    }
+
+    @Test
+    void failedRefreshOfExpiringTokenDropsClientsTest() throws Exception {
+        validFor = Duration.ofSeconds(30);
+        failFrom = 1;
+        pool.getClient(INSTALLATION_ID);
+
+        waitFor(() -> pool.getInstallationCount() == 0);
+
+        failFrom = Integer.MAX_VALUE;
+        pool.getClient(INSTALLATION_ID);
+        Assertions.assertEquals(2, issued.get());
+    }
+
+    private GitHub client(long installationId) {
+        try {
+            return pool.getClient(installationId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private InstallationClientPool.IssuedToken issue(long installationId) throws IOException {
+        CountDownLatch latch = issuing;
+        if (latch != null && installationId == INSTALLATION_ID) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+        if (issued.get() >= failFrom) {
+            throw new IOException("Bad Gateway");
+        }
+        // the validity applies to the next token only, later ones are valid for an hour
+        Duration validity = validFor;
+        validFor = Duration.ofHours(1);
+        return new InstallationClientPool.IssuedToken("token-" + issued.incrementAndGet(), Instant.now().plus(validity));
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+        byte[] body = "{\"name\": \"wildfly\", \"full_name\": \"xstefank/wildfly\", \"owner\": {\"login\": \"xstefank\"}}"
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+}
@@ -1,18 +1,24 @@
-package io.xstefank.wildlfy.bot.config.util;
+package io.xstefank.wildfly.bot;
 
 import com.hrakaroo.glob.GlobPattern;
 import com.hrakaroo.glob.MatchingEngine;
 import io.xstefank.wildlfy.bot.config.WildFlyConfigFile.WildFlyRule;
+import io.xstefank.wildlfy.bot.config.util.Patterns;
+import io.xstefank.wildlfy.bot.config.util.Strings;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
 import org.jboss.logging.Logger;
-import org.kohsuke.github.GHPullRequest;
-import org.kohsuke.github.GHPullRequestFileDetail;
 
+import java.io.IOException;
 
+/**
+ * The rule matching used before the {@link io.xstefank.wildlfy.bot.config.rules.RuleEngine}, evaluating every rule from
+ * its raw patterns. Kept as the reference the engine is compared with, see {@link RuleMatchingDifferentialTest}.
+ */
 public class Matcher {
 
     private static final Logger LOG = Logger.getLogger(Matcher.class);
 
-    public static boolean matches(GHPullRequest pullRequest, WildFlyRule rule) {
+    public static boolean matches(PullRequestData pullRequest, WildFlyRule rule) throws IOException {
         if (Strings.isNotBlank(rule.title)) {
             if (Patterns.find(rule.title, pullRequest.getTitle())) {
                 return true;
@@ -32,16 +38,16 @@ public class Matcher {
         }
 
         if (!rule.directories.isEmpty()) {
-            for (GHPullRequestFileDetail changedFile : pullRequest.listFiles()) {
+            for (String changedFile : pullRequest.getChangedFiles()) {
                 for (String directory : rule.directories) {
                     if (!directory.contains("*")) {
-                        if (changedFile.getFilename().startsWith(directory)) {
+                        if (changedFile.startsWith(directory)) {
                             return true;
                         }
                     } else {
                         try {
                             MatchingEngine matchingEngine = GlobPattern.compile(directory);
-                            if (matchingEngine.matches(changedFile.getFilename())) {
+                            if (matchingEngine.matches(changedFile)) {
                                 return true;
                             }
                         } catch (Exception e) {
@@ -0,0 +1,113 @@
+package io.xstefank.wildfly.bot;
+
+import io.quarkiverse.githubapp.testing.GitHubAppTest;
+import io.quarkus.mailer.Mail;
+import io.quarkus.mailer.MockMailbox;
+import io.quarkus.test.junit.QuarkusTest;
+import io.xstefank.wildlfy.bot.notification.DigestEntry;
+import io.xstefank.wildlfy.bot.notification.DigestQueue;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+
+@QuarkusTest
+@GitHubAppTest
+public class PRDigestTest {
+
+    @Inject
+    MockMailbox mailbox;
+
+    @Inject
+    DigestQueue digestQueue;
+
+    @BeforeEach
+    void setUp() {
+        digestQueue.flush(Instant.now().plus(Duration.ofDays(1)));
+        mailbox.clear();
+    }
+
+    @Test
+    void testMatchedPullRequestSentInDigestAfterMaxAge() throws IOException, InterruptedException {
+        given().github(mocks -> mocks.configFileFromString("wildfly-bot.yml", """
+                        wildfly:
+                          rules:
+                            - id: "Test"
+                              title: "Test"
+                            - id: "No match"
+                              title: "resteasy"
+                          emails:
+                            - first@example.com
+                            - second@example.com
+                        """))
+                .when().payloadFromClasspath("/pr-opened.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> {
+                });
+
+        Assertions.assertTrue(mailbox.getMailsSentTo("first@example.com").isEmpty());
+        Assertions.assertEquals(1, digestQueue.getPending("first@example.com").size());
+        digestQueue.persist();
+        Assertions.assertTrue(Files.readString(Path.of("target/digest-queue.json")).contains("second@example.com"));
+
+        digestQueue.flush(Instant.now());
+        Assertions.assertTrue(mailbox.getMailsSentTo("first@example.com").isEmpty());
+
+        digestQueue.flush(Instant.now().plus(Duration.ofHours(2)));
+        for (String recipient : List.of("first@example.com", "second@example.com")) {
+            List<Mail> mails = awaitMails(recipient, 1);
+            Assertions.assertEquals(1, mails.size());
+            Assertions.assertEquals("[wildfly-bot] 1 pull request matched your rules", mails.get(0).getSubject());
+            Assertions.assertTrue(mails.get(0).getText().contains("xstefank/wildfly#23 Test commit"));
+            Assertions.assertTrue(mails.get(0).getText().contains("matched rules: Test"));
+        }
+        Assertions.assertTrue(digestQueue.getPending("first@example.com").isEmpty());
+    }
+
+    @Test
+    void testDigestSentWhenMaxSizeReached() throws InterruptedException {
+        for (int i = 1; i < 20; i++) {
+            digestQueue.enqueue(List.of("size@example.com"), entry(i));
+        }
+        Assertions.assertTrue(mailbox.getMailsSentTo("size@example.com").isEmpty());
+        digestQueue.enqueue(List.of("size@example.com"), entry(20));
+
+        Assertions.assertEquals("[wildfly-bot] 20 pull requests matched your rules",
+                awaitMails("size@example.com", 1).get(0).getSubject());
+        Assertions.assertTrue(digestQueue.getPending("size@example.com").isEmpty());
+    }
+
+    @Test
+    void testRedeliveredPullRequestQueuedOnce() {
+        digestQueue.enqueue(List.of("redelivery@example.com"), entry(1));
+        digestQueue.enqueue(List.of("redelivery@example.com"), entry(1));
+
+        Assertions.assertEquals(1, digestQueue.getPending("redelivery@example.com").size());
+    }
+
+    private List<Mail> awaitMails(String recipient, int count) throws InterruptedException {
+        // digests are sent without waiting for the mailer
+        long deadline = System.currentTimeMillis() + 5000;
+        while (mailbox.getMailsSentTo(recipient).size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        List<Mail> mails = mailbox.getMailsSentTo(recipient);
+        Assertions.assertEquals(count, mails.size());
+        return mails;
+    }
+
+    private static DigestEntry entry(int number) {
+        return new DigestEntry("xstefank/wildfly", number, "Test " + number,
+                "https://github.com/xstefank/wildfly/pull/" + number, List.of("Test"), System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,84 @@
+package io.xstefank.wildfly.bot;
+
+import io.quarkiverse.githubapp.testing.GitHubAppTest;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.xstefank.wildlfy.bot.filter.PullRequestEventSummary;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHCommitState;
+import org.kohsuke.github.GHEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@QuarkusTest
+@GitHubAppTest
+@TestProfile(PREventFilterTest.RememberedInterestProfile.class)
+public class PREventFilterTest {
+
+    private static final String RULES_ONLY_CONFIG = """
+            wildfly:
+              rules:
+                - id: "Test"
+                  title: "Test"
+                  notify: [7125767235]
+            """;
+
+    @Test
+    void testSummaryReadFromPayload() throws IOException {
+        PullRequestEventSummary summary = PullRequestEventSummary.parse(payload().getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertEquals(new PullRequestEventSummary("opened", "xstefank/wildfly", "main", "xstefank", false, "main"), summary);
+    }
+
+    @Test
+    void testDraftPullRequestDropped() throws IOException {
+        given().github(mocks -> mocks.configFileFromString("wildfly-bot.yml", RULES_ONLY_CONFIG))
+                .when().payloadFromString(payload().replace("\"draft\": false", "\"draft\": true"))
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> {
+                    verify(mocks.pullRequest(1371642823), never()).comment(anyString());
+                    verify(mocks.repository("xstefank/wildfly"), never()).createCommitStatus(anyString(),
+                            any(GHCommitState.class), anyString(), anyString(), anyString());
+                });
+    }
+
+    @Test
+    void testEditWithoutFormatChecksDropped() throws IOException {
+        given().github(mocks -> mocks.configFileFromString("wildfly-bot.yml", RULES_ONLY_CONFIG))
+                .when().payloadFromString(payload())
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> verify(mocks.pullRequest(1371642823))
+                        .comment("/cc @7125767235\n\n<!-- wildfly-bot:mentions -->"));
+
+        given().github(mocks -> mocks.configFileFromString("wildfly-bot.yml", RULES_ONLY_CONFIG))
+                .when().payloadFromString(payload().replace("\"action\": \"opened\"", "\"action\": \"edited\""))
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> verify(mocks.repository("xstefank/wildfly"), never()).createCommitStatus(anyString(),
+                        any(GHCommitState.class), anyString(), anyString(), anyString()));
+    }
+
+    private static String payload() throws IOException {
+        try (InputStream payload = PREventFilterTest.class.getResourceAsStream("/pr-opened.json")) {
+            return new String(payload.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public static class RememberedInterestProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("wildfly-bot.filter.interest-ttl", "1h", "wildfly-bot.filter.skip-drafts", "true");
+        }
+    }
+}
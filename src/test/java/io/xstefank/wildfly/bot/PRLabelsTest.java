@@ -0,0 +1,67 @@
+package io.xstefank.wildfly.bot;
+
+import io.quarkiverse.githubapp.testing.GitHubAppTest;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHEvent;
+import org.kohsuke.github.GHPullRequest;
+
+import java.io.IOException;
+
+import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@QuarkusTest
+@GitHubAppTest
+public class PRLabelsTest {
+
+    private static final String CONFIG_FILE = """
+            wildfly:
+              rules:
+                - id: "Title"
+                  title: "Test"
+                  labels: [ hibernate, test ]
+                - id: "Body"
+                  body: "foobar"
+                  labels: [ foobar, test ]
+                - id: "No match"
+                  title: "resteasy"
+                  labels: [ resteasy ]
+            """;
+
+    @Test
+    void testLabelsOfMatchedRulesAddedInSingleCall() throws IOException {
+        given().github(mocks -> mocks.configFileFromString("wildfly-bot.yml", CONFIG_FILE))
+                .when().payloadFromClasspath("/pr-opened.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> {
+                    GHPullRequest pullRequest = mocks.pullRequest(1371642823);
+                    verify(pullRequest).addLabels("foobar", "hibernate", "test");
+                    verify(pullRequest, never()).comment(any(String.class));
+                });
+    }
+
+    @Test
+    void testPresentLabelsNotAddedAgain() throws IOException {
+        given().github(mocks -> mocks.configFileFromString("wildfly-bot.yml", CONFIG_FILE))
+                .when().payloadFromClasspath("/pr-opened-labeled.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> verify(mocks.pullRequest(1371642823)).addLabels("foobar", "test"));
+    }
+
+    @Test
+    void testNoCallWhenAllLabelsPresent() throws IOException {
+        given().github(mocks -> mocks.configFileFromString("wildfly-bot.yml", """
+                        wildfly:
+                          rules:
+                            - id: "Title"
+                              title: "Test"
+                              labels: [ hibernate ]
+                        """))
+                .when().payloadFromClasspath("/pr-opened-labeled.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> verify(mocks.pullRequest(1371642823), never()).addLabels(any(String[].class)));
+    }
+}
@@ -37,10 +37,10 @@ public class PROpenedTest {
             .event(GHEvent.PULL_REQUEST)
             .then().github(mocks -> {
                 verify(mocks.pullRequest(1371642823))
-                    .comment("/cc @0979986727, @7125767235");
+                    .comment("/cc @0979986727, @7125767235\n\n<!-- wildfly-bot:mentions -->");
                 GHRepository repo = mocks.repository("xstefank/wildfly");
                 Mockito.verify(repo).createCommitStatus("5db0f8e923d84fe05a60658ed5bb95f7aa23b66f",
-                        GHCommitState.ERROR, "", "\u274C title-check: Wrong content of the title!", "Format");
+                        GHCommitState.SUCCESS, "", "\u2705 Correct", "Format");
                 verifyNoMoreInteractions(mocks.ghObjects());
             });
     }
@@ -61,7 +61,7 @@ public class PROpenedTest {
             .event(GHEvent.PULL_REQUEST)
             .then().github(mocks -> {
                 verify(mocks.pullRequest(1371642823))
-                    .comment("/cc @7125767235");
+                    .comment("/cc @7125767235\n\n<!-- wildfly-bot:mentions -->");
                 GHRepository repo = mocks.repository("xstefank/wildfly");
                 Mockito.verify(repo).createCommitStatus("5db0f8e923d84fe05a60658ed5bb95f7aa23b66f",
                         GHCommitState.SUCCESS, "", "\u2705 Correct", "Format");
@@ -85,7 +85,7 @@ public class PROpenedTest {
             .event(GHEvent.PULL_REQUEST)
             .then().github(mocks -> {
                 verify(mocks.pullRequest(1371642823))
-                    .comment("/cc @7125767235");
+                    .comment("/cc @7125767235\n\n<!-- wildfly-bot:mentions -->");
                 GHRepository repo = mocks.repository("xstefank/wildfly");
                 Mockito.verify(repo).createCommitStatus("5db0f8e923d84fe05a60658ed5bb95f7aa23b66f",
                         GHCommitState.SUCCESS, "", "\u2705 Correct", "Format");
@@ -108,7 +108,7 @@ public class PROpenedTest {
             .when().payloadFromClasspath("/pr-opened.json")
             .event(GHEvent.PULL_REQUEST)
             .then().github(mocks -> {
-                verify(mocks.pullRequest(1371642823), never()).comment("/cc @7125767235");
+                verify(mocks.pullRequest(1371642823), never()).comment("/cc @7125767235\n\n<!-- wildfly-bot:mentions -->");
                 GHRepository repo = mocks.repository("xstefank/wildfly");
                 Mockito.verify(repo).createCommitStatus("5db0f8e923d84fe05a60658ed5bb95f7aa23b66f",
                         GHCommitState.SUCCESS, "", "\u2705 Correct", "Format");
@@ -137,7 +137,7 @@ public class PROpenedTest {
             .event(GHEvent.PULL_REQUEST)
             .then().github(mocks -> {
                 verify(mocks.pullRequest(1371642823)).listFiles();
-                verify(mocks.pullRequest(1371642823)).comment("/cc @7125767235");
+                verify(mocks.pullRequest(1371642823)).comment("/cc @7125767235\n\n<!-- wildfly-bot:mentions -->");
                 verifyNoMoreInteractions(mocks.pullRequest(1371642823));
             });
     }
@@ -163,7 +163,7 @@ public class PROpenedTest {
             .event(GHEvent.PULL_REQUEST)
             .then().github(mocks -> {
                 verify(mocks.pullRequest(1371642823)).listFiles();
-                verify(mocks.pullRequest(1371642823)).comment("/cc @7125767235");
+                verify(mocks.pullRequest(1371642823)).comment("/cc @7125767235\n\n<!-- wildfly-bot:mentions -->");
                 verifyNoMoreInteractions(mocks.pullRequest(1371642823));
             });
     }
@@ -189,7 +189,7 @@ public class PROpenedTest {
             .event(GHEvent.PULL_REQUEST)
             .then().github(mocks -> {
                 verify(mocks.pullRequest(1371642823)).listFiles();
-                verify(mocks.pullRequest(1371642823)).comment("/cc @7125767235");
+                verify(mocks.pullRequest(1371642823)).comment("/cc @7125767235\n\n<!-- wildfly-bot:mentions -->");
                 verifyNoMoreInteractions(mocks.pullRequest(1371642823));
             });
     }
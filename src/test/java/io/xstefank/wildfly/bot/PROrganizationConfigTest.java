@@ -0,0 +1,179 @@
+package io.xstefank.wildfly.bot;
+
+import io.quarkiverse.githubapp.testing.GitHubAppTest;
+import io.quarkus.test.junit.QuarkusTest;
+import io.xstefank.wildlfy.bot.ConfigRegistry;
+import io.xstefank.wildlfy.bot.config.CompiledConfig;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile.WildFlyRule;
+import io.xstefank.wildlfy.bot.config.util.ConfigMerger;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHCommitState;
+import org.kohsuke.github.GHEvent;
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+@GitHubAppTest
+public class PROrganizationConfigTest {
+
+    private static final String ORGANIZATION_CONFIG_FILE = """
+            wildfly:
+              rules:
+                - id: "Shared"
+                  title: "Test"
+                  notify: [7125767235]
+              format:
+                title-check:
+                  pattern: "\\\\[WFLY-\\\\d+\\\\]\\\\s+.*|WFLY-\\\\d+\\\\s+.*"
+                  message: "Wrong content of the title!"
+            """;
+
+    @Inject
+    ConfigRegistry configRegistry;
+
+    @Test
+    void testRepositoryConfigExtendsOrganizationConfig() throws IOException {
+        given().github(mocks -> {
+                    mocks.configFileFromString("wildfly-bot.yml", """
+                            wildfly:
+                              rules:
+                                - id: "Repository"
+                                  body: "foobar"
+                                  notify: [0979986727]
+                            """);
+                    mocks.configFile(mocks.repository("xstefank/.github"), "wildfly-bot.yml").fromString(ORGANIZATION_CONFIG_FILE);
+                })
+                .when().payloadFromClasspath("/pr-opened.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> {
+                    verify(mocks.pullRequest(1371642823)).comment("/cc @0979986727, @7125767235\n\n<!-- wildfly-bot:mentions -->");
+                    verify(mocks.repository("xstefank/wildfly")).createCommitStatus("5db0f8e923d84fe05a60658ed5bb95f7aa23b66f",
+                            GHCommitState.ERROR, "", "\u274C title-check: Wrong content of the title!", "Format");
+                });
+    }
+
+    @Test
+    void testRepositoryRuleOverridesOrganizationRule() throws IOException {
+        given().github(mocks -> {
+                    mocks.configFileFromString("wildfly-bot.yml", """
+                            wildfly:
+                              rules:
+                                - id: "Shared"
+                                  title: "Test"
+                                  notify: [0979986727]
+                              format:
+                                title-check:
+                                  pattern: "Test.*"
+                            """);
+                    mocks.configFile(mocks.repository("xstefank/.github"), "wildfly-bot.yml").fromString(ORGANIZATION_CONFIG_FILE);
+                })
+                .when().payloadFromClasspath("/pr-opened.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> {
+                    verify(mocks.pullRequest(1371642823)).comment("/cc @0979986727\n\n<!-- wildfly-bot:mentions -->");
+                    verify(mocks.repository("xstefank/wildfly")).createCommitStatus("5db0f8e923d84fe05a60658ed5bb95f7aa23b66f",
+                            GHCommitState.SUCCESS, "", "\u2705 Correct", "Format");
+                });
+    }
+
+    @Test
+    void testOrganizationConfigIgnoredWithoutInheritance() throws IOException {
+        given().github(mocks -> {
+                    mocks.configFileFromString("wildfly-bot.yml", """
+                            wildfly:
+                              inherit: false
+                              rules:
+                                - id: "Repository"
+                                  body: "foobar"
+                                  notify: [0979986727]
+                            """);
+                    mocks.configFile(mocks.repository("xstefank/.github"), "wildfly-bot.yml").fromString(ORGANIZATION_CONFIG_FILE);
+                })
+                .when().payloadFromClasspath("/pr-opened.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> {
+                    verify(mocks.pullRequest(1371642823)).comment("/cc @0979986727\n\n<!-- wildfly-bot:mentions -->");
+                    verify(mocks.repository("xstefank/wildfly")).createCommitStatus("5db0f8e923d84fe05a60658ed5bb95f7aa23b66f",
+                            GHCommitState.SUCCESS, "", "\u2705 Correct", "Format");
+                });
+    }
+
+    @Test
+    void testIdenticalConfigsShareCompiledInstance() throws IOException {
+        GitHub gitHub = Mockito.mock(GitHub.class);
+        when(gitHub.getRepository(anyString())).thenThrow(new GHFileNotFoundException());
+
+        CompiledConfig first = configRegistry.resolve(repository("first"), gitHub, config("Shared", "7125767235"));
+        CompiledConfig second = configRegistry.resolve(repository("second"), gitHub, config("Shared", "7125767235"));
+        CompiledConfig different = configRegistry.resolve(repository("third"), gitHub, config("Shared", "0979986727"));
+
+        Assertions.assertSame(first, second);
+        Assertions.assertNotSame(first, different);
+    }
+
+    @Test
+    void testOrganizationConfigUsedWithoutRepositoryConfig() {
+        WildFlyConfigFile merged = ConfigMerger.merge(config("Shared", "7125767235"), null);
+
+        Assertions.assertEquals(1, merged.wildfly.rules.size());
+        Assertions.assertEquals(Set.of("7125767235"), merged.wildfly.rules.get(0).notify);
+        Assertions.assertNull(ConfigMerger.merge(null, null));
+    }
+
+    @Test
+    void testRepositoryEmailsReplaceOrganizationEmails() {
+        WildFlyConfigFile base = config("Shared", "7125767235");
+        base.wildfly.emails = List.of("organization@example.com");
+        WildFlyConfigFile repository = config("Other", "0979986727");
+
+        Assertions.assertEquals(List.of("organization@example.com"), ConfigMerger.merge(base, repository).wildfly.emails);
+
+        repository.wildfly.emails = List.of("repository@example.com");
+        Assertions.assertEquals(List.of("repository@example.com"), ConfigMerger.merge(base, repository).wildfly.emails);
+    }
+
+    @Test
+    void testMergeLeavesParsedConfigUnchanged() {
+        WildFlyConfigFile base = config("Shared", "7125767235");
+        base.wildfly.emails = null;
+        WildFlyConfigFile repository = new WildFlyConfigFile();
+        repository.wildfly = new WildFlyConfigFile.WildFlyConfig();
+
+        Assertions.assertEquals(List.of(), ConfigMerger.merge(base, repository).wildfly.emails);
+        Assertions.assertNull(base.wildfly.emails);
+        Assertions.assertNull(repository.wildfly.rules);
+    }
+
+    private static GHRepository repository(String name) {
+        GHRepository repository = Mockito.mock(GHRepository.class);
+        when(repository.getOwnerName()).thenReturn("wildfly");
+        when(repository.getFullName()).thenReturn("wildfly/" + name);
+        return repository;
+    }
+
+    private static WildFlyConfigFile config(String id, String notify) {
+        WildFlyRule rule = new WildFlyRule();
+        rule.id = id;
+        rule.title = "Test";
+        rule.notify.add(notify);
+
+        WildFlyConfigFile config = new WildFlyConfigFile();
+        config.wildfly = new WildFlyConfigFile.WildFlyConfig();
+        config.wildfly.rules = List.of(rule);
+        return config;
+    }
+}
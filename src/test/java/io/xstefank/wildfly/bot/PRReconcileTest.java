@@ -0,0 +1,178 @@
+package io.xstefank.wildfly.bot;
+
+import io.quarkiverse.githubapp.testing.GitHubAppMockito;
+import io.quarkiverse.githubapp.testing.GitHubAppTest;
+import io.quarkiverse.githubapp.testing.dsl.GitHubMockSetupContext;
+import io.quarkiverse.githubapp.testing.dsl.GitHubMockVerification;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.xstefank.wildlfy.bot.PullRequestReconciler;
+import io.xstefank.wildlfy.bot.cluster.ClusterMember;
+import io.xstefank.wildlfy.bot.cluster.ClusterNode;
+import io.xstefank.wildlfy.bot.cluster.ClusterRouter;
+import io.xstefank.wildlfy.bot.cluster.InMemoryClusterTransport;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHAuthenticatedAppInstallation;
+import org.kohsuke.github.GHCommitPointer;
+import org.kohsuke.github.GHCommitState;
+import org.kohsuke.github.GHEvent;
+import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHPullRequestQueryBuilder;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.PagedSearchIterable;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+@GitHubAppTest
+public class PRReconcileTest {
+
+    private static final String SHA = "5db0f8e923d84fe05a60658ed5bb95f7aa23b66f";
+    private static final long INSTALLATION_ID = 22950279;
+
+    private static final String TITLE_CHECK_CONFIG = """
+            wildfly:
+              format:
+                title-check:
+                  pattern: "\\\\[WFLY-\\\\d+\\\\]\\\\s+.*|WFLY-\\\\d+\\\\s+.*"
+                  message: "Wrong content of the title!"
+            """;
+
+    @Test
+    void testConfigChangeReconcilesOnlyStalePullRequests() throws IOException {
+        // the reconciliation runs in the background after the event
+        push(TITLE_CHECK_CONFIG, mocks -> verify(mocks.repository("xstefank/wildfly"), timeout(5000)).createCommitStatus(SHA,
+                GHCommitState.ERROR, "", "\u274C title-check: Wrong content of the title!", "Format"));
+
+        push(TITLE_CHECK_CONFIG, mocks -> verify(mocks.repository("xstefank/wildfly"), after(1000).never()).createCommitStatus(anyString(),
+                any(GHCommitState.class), anyString(), anyString(), anyString()));
+
+        push("""
+                wildfly:
+                  format:
+                    title-check:
+                      pattern: "Open.*"
+                      message: "Wrong content of the title!"
+                """, mocks -> verify(mocks.repository("xstefank/wildfly"), timeout(5000)).createCommitStatus(SHA,
+                GHCommitState.SUCCESS, "", "\u2705 Correct", "Format"));
+    }
+
+    @Inject
+    PullRequestReconciler reconciler;
+
+    @Test
+    void testClusterNodesReconcileOwnRepositoriesOnly() throws IOException {
+        InMemoryClusterTransport.Network network = new InMemoryClusterTransport.Network();
+        List<ClusterNode> nodes = List.of(start(network, "node-1"), start(network, "node-2"));
+        List<String> repositories = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            repositories.add("xstefank/cluster-" + i);
+        }
+        Assertions.assertTrue(repositories.stream().anyMatch(nodes.get(0)::isOwner) && repositories.stream().anyMatch(nodes.get(1)::isOwner));
+
+        try {
+            // every node sweeps the whole installation, each pull request is evaluated by the owner of its repository only
+            for (ClusterNode node : nodes) {
+                ClusterRouter router = Mockito.mock(ClusterRouter.class);
+                when(router.isOwner(anyString())).thenAnswer(invocation -> node.isOwner(invocation.getArgument(0)));
+                QuarkusMock.installMockForType(router, ClusterRouter.class);
+
+                given().github(mocks -> {
+                            List<GHRepository> installed = new ArrayList<>();
+                            for (int i = 0; i < repositories.size(); i++) {
+                                installed.add(repository(mocks, repositories.get(i), 1371642900L + i));
+                            }
+                            PagedSearchIterable<GHRepository> listed = GitHubAppMockito.mockPagedIterable();
+                            when(listed.toList()).thenReturn(installed);
+                            GHAuthenticatedAppInstallation installation = Mockito.mock(GHAuthenticatedAppInstallation.class);
+                            when(installation.listRepositories()).thenReturn(listed);
+                            when(mocks.installationClient(INSTALLATION_ID).getInstallation()).thenReturn(installation);
+                        })
+                        .when(() -> reconciler.requestSweep(INSTALLATION_ID, true))
+                        .then().github(mocks -> {
+                            for (String repository : repositories) {
+                                if (node.isOwner(repository)) {
+                                    verify(mocks.repository(repository), timeout(5000)).createCommitStatus(SHA, GHCommitState.ERROR, "",
+                                            "\u274C title-check: Wrong content of the title!", "Format");
+                                }
+                            }
+                            for (String repository : repositories) {
+                                if (!node.isOwner(repository)) {
+                                    verify(mocks.repository(repository), after(200).never()).createCommitStatus(anyString(),
+                                            any(GHCommitState.class), anyString(), anyString(), anyString());
+                                }
+                            }
+                        });
+            }
+        } finally {
+            nodes.forEach(ClusterNode::stop);
+        }
+    }
+
+    private static ClusterNode start(InMemoryClusterTransport.Network network, String id) {
+        ClusterNode node = new ClusterNode(new ClusterMember(id, "http://" + id + ":8080"), new InMemoryClusterTransport(network), 128);
+        node.start(request -> CompletableFuture.completedFuture(202));
+        return node;
+    }
+
+    private static GHRepository repository(GitHubMockSetupContext mocks, String name, long pullRequestId) throws IOException {
+        GHRepository repository = mocks.repository(name);
+        when(repository.getFullName()).thenReturn(name);
+        when(repository.getOwnerName()).thenReturn("xstefank");
+        mocks.configFile(repository, "wildfly-bot.yml").fromString(TITLE_CHECK_CONFIG);
+
+        GHPullRequest pullRequest = mocks.pullRequest(pullRequestId);
+        GHCommitPointer head = Mockito.mock(GHCommitPointer.class);
+        when(head.getSha()).thenReturn(SHA);
+        when(pullRequest.getHead()).thenReturn(head);
+        when(pullRequest.getNumber()).thenReturn(1);
+        when(pullRequest.getTitle()).thenReturn("Open pull request");
+        when(pullRequest.getRepository()).thenReturn(repository);
+
+        PagedSearchIterable<GHPullRequest> pullRequests = GitHubAppMockito.mockPagedIterable(pullRequest);
+        GHPullRequestQueryBuilder query = GitHubAppMockito.mockBuilder(GHPullRequestQueryBuilder.class);
+        when(query.state(GHIssueState.OPEN)).thenReturn(query);
+        when(query.list()).thenReturn(pullRequests);
+        when(repository.queryPullRequests()).thenReturn(query);
+        return repository;
+    }
+
+    private static void push(String config, GitHubMockVerification verification) throws IOException {
+        given().github(mocks -> {
+                    mocks.configFileFromString("wildfly-bot.yml", config);
+
+                    GHRepository repository = mocks.repository("xstefank/wildfly");
+                    GHPullRequest pullRequest = mocks.pullRequest(1371642823);
+                    GHCommitPointer head = Mockito.mock(GHCommitPointer.class);
+                    when(head.getSha()).thenReturn(SHA);
+                    when(pullRequest.getHead()).thenReturn(head);
+                    when(pullRequest.getNumber()).thenReturn(23);
+                    when(pullRequest.getTitle()).thenReturn("Open pull request");
+                    when(pullRequest.getRepository()).thenReturn(repository);
+
+                    PagedSearchIterable<GHPullRequest> pullRequests = GitHubAppMockito.mockPagedIterable(pullRequest);
+                    GHPullRequestQueryBuilder query = GitHubAppMockito.mockBuilder(GHPullRequestQueryBuilder.class);
+                    when(query.state(GHIssueState.OPEN)).thenReturn(query);
+                    when(query.list()).thenReturn(pullRequests);
+                    when(repository.queryPullRequests()).thenReturn(query);
+                })
+                .when().payloadFromClasspath("/push-config-changed.json")
+                .event(GHEvent.PUSH)
+                .then().github(verification);
+    }
+}
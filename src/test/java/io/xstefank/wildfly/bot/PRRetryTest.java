@@ -0,0 +1,118 @@
+package io.xstefank.wildfly.bot;
+
+import io.quarkiverse.githubapp.testing.GitHubAppTest;
+import io.quarkus.test.junit.QuarkusTest;
+import io.xstefank.wildlfy.bot.resilience.RetryQueue;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHCommitPointer;
+import org.kohsuke.github.GHCommitState;
+import org.kohsuke.github.GHEvent;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.HttpException;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+@GitHubAppTest
+public class PRRetryTest {
+
+    private static final String SHA = "5db0f8e923d84fe05a60658ed5bb95f7aa23b66f";
+
+    @Inject
+    RetryQueue retryQueue;
+
+    @Test
+    void testStatusRetriedWhenGitHubFails() throws IOException {
+        given().github(mocks -> {
+                    mocks.configFileFromString("wildfly-bot.yml", """
+                            wildfly:
+                              format:
+                                title-check:
+                                  pattern: "Test.*"
+                                  message: "Wrong content of the title!"
+                            """);
+                    GHRepository repository = mocks.repository("xstefank/wildfly");
+                    when(repository.createCommitStatus(anyString(), eq(GHCommitState.SUCCESS), anyString(), anyString(), anyString()))
+                            .thenThrow(new HttpException("Bad Gateway", 502, "Bad Gateway", "https://api.github.com"))
+                            .thenReturn(null);
+                    // the retry reads the pull request again
+                    GHPullRequest pullRequest = pullRequest(repository, "Test commit");
+                    when(repository.getPullRequest(23)).thenReturn(pullRequest);
+                })
+                .when().payloadFromClasspath("/pr-opened.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> verify(mocks.repository("xstefank/wildfly"), timeout(5000).times(2))
+                        .createCommitStatus(SHA, GHCommitState.SUCCESS, "", "\u2705 Correct", "Format"));
+    }
+
+    @Test
+    void testRetryCancelledByNewerEvent() throws IOException {
+        String config = """
+                wildfly:
+                  format:
+                    title-check:
+                      pattern: "Test.*"
+                      message: "Superseded by a newer event!"
+                """;
+        AtomicBoolean available = new AtomicBoolean();
+        AtomicReference<GHRepository> deferredRepository = new AtomicReference<>();
+
+        given().github(mocks -> {
+                    mocks.configFileFromString("wildfly-bot.yml", config);
+                    GHRepository repository = mocks.repository("xstefank/wildfly");
+                    deferredRepository.set(repository);
+                    when(repository.createCommitStatus(anyString(), any(GHCommitState.class), anyString(), anyString(), anyString()))
+                            .thenThrow(new HttpException("Bad Gateway", 502, "Bad Gateway", "https://api.github.com"))
+                            .thenReturn(null);
+
+                    // the state the retry would evaluate once GitHub is back, older than the one of the next event
+                    GHPullRequest stale = pullRequest(repository, "Stale title");
+                    when(repository.getPullRequest(23)).thenAnswer(invocation -> {
+                        if (!available.get()) {
+                            throw new HttpException("Bad Gateway", 502, "Bad Gateway", "https://api.github.com");
+                        }
+                        return stale;
+                    });
+                })
+                .when().payloadFromClasspath("/pr-opened.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> Assertions.assertTrue(retryQueue.getPendingKeys().contains("format xstefank/wildfly#23")));
+
+        given().github(mocks -> mocks.configFileFromString("wildfly-bot.yml", config))
+                .when().payloadFromClasspath("/pr-opened.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> verify(mocks.repository("xstefank/wildfly"))
+                        .createCommitStatus(SHA, GHCommitState.SUCCESS, "", "\u2705 Correct", "Format"));
+
+        Assertions.assertFalse(retryQueue.getPendingKeys().contains("format xstefank/wildfly#23"));
+        available.set(true);
+        verify(deferredRepository.get(), after(1000).never()).createCommitStatus(SHA, GHCommitState.ERROR, "",
+                "\u274C title-check: Superseded by a newer event!", "Format");
+    }
+
+    private static GHPullRequest pullRequest(GHRepository repository, String title) {
+        GHPullRequest pullRequest = Mockito.mock(GHPullRequest.class);
+        GHCommitPointer head = Mockito.mock(GHCommitPointer.class);
+        when(head.getSha()).thenReturn(SHA);
+        when(pullRequest.getHead()).thenReturn(head);
+        when(pullRequest.getNumber()).thenReturn(23);
+        when(pullRequest.getTitle()).thenReturn(title);
+        when(pullRequest.getRepository()).thenReturn(repository);
+        return pullRequest;
+    }
+}
@@ -0,0 +1,120 @@
+package io.xstefank.wildfly.bot;
+
+import io.quarkiverse.githubapp.testing.GitHubAppMockito;
+import io.quarkiverse.githubapp.testing.GitHubAppTest;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHApp;
+import org.kohsuke.github.GHEvent;
+import org.kohsuke.github.GHIssueComment;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHUser;
+import org.kohsuke.github.PagedIterable;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+@GitHubAppTest
+public class PRStickyCommentTest {
+
+    private static final String CONFIG_FILE = """
+            wildfly:
+              rules:
+                - id: "Test"
+                  title: "Test"
+                  notify: [%s]
+            """;
+
+    @Test
+    void testCommentCreatedOnceAndUpdatedOnChange() throws IOException {
+        GHIssueComment comment = Mockito.mock(GHIssueComment.class);
+        when(comment.getId()).thenReturn(42L);
+        when(comment.getBody()).thenReturn("/cc @7125767235\n\n<!-- wildfly-bot:mentions -->");
+
+        given().github(mocks -> {
+                    mocks.configFileFromString("wildfly-bot.yml", CONFIG_FILE.formatted("7125767235"));
+                    when(mocks.pullRequest(1371642823).comment(anyString())).thenReturn(comment);
+                })
+                .when().payloadFromClasspath("/pr-opened.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> {
+                    GHPullRequest pullRequest = mocks.pullRequest(1371642823);
+                    verify(pullRequest).comment("/cc @7125767235\n\n<!-- wildfly-bot:mentions -->");
+                    verify(pullRequest, never()).listComments();
+                });
+
+        // redelivery with the same mentions does not touch the comment
+        given().github(mocks -> mocks.configFileFromString("wildfly-bot.yml", CONFIG_FILE.formatted("7125767235")))
+                .when().payloadFromClasspath("/pr-opened.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> {
+                    GHPullRequest pullRequest = mocks.pullRequest(1371642823);
+                    verify(pullRequest, never()).comment(anyString());
+                    verify(pullRequest, never()).listComments();
+                });
+
+        // changed mentions edit the existing comment in place
+        given().github(mocks -> {
+                    mocks.configFileFromString("wildfly-bot.yml", CONFIG_FILE.formatted("7125767235,0979986727"));
+                    GHIssueComment other = Mockito.mock(GHIssueComment.class);
+                    when(other.getId()).thenReturn(7L);
+                    PagedIterable<GHIssueComment> comments = GitHubAppMockito.mockPagedIterable(other, comment);
+                    when(mocks.pullRequest(1371642823).listComments()).thenReturn(comments);
+                })
+                .when().payloadFromClasspath("/pr-opened.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> {
+                    GHPullRequest pullRequest = mocks.pullRequest(1371642823);
+                    verify(pullRequest, never()).comment(anyString());
+                    verify(comment).update("/cc @0979986727, @7125767235\n\n<!-- wildfly-bot:mentions -->");
+                });
+    }
+
+    @Test
+    void testMarkerQuotedByUserNotAdopted() throws IOException {
+        GHIssueComment quoted = comment(7L, "octocat", "Why does it say <!-- wildfly-bot:mentions -->?");
+        GHIssueComment own = comment(42L, "wildfly-bot[bot]", "/cc @7125767235\n\n<!-- wildfly-bot:mentions -->");
+
+        given().github(mocks -> {
+                    mocks.configFileFromString("wildfly-bot.yml", CONFIG_FILE.formatted("0979986727"));
+                    GHApp app = Mockito.mock(GHApp.class);
+                    when(app.getSlug()).thenReturn("wildfly-bot");
+                    when(mocks.applicationClient().getApp()).thenReturn(app);
+                    PagedIterable<GHIssueComment> comments = GitHubAppMockito.mockPagedIterable(quoted, own);
+                    when(mocks.pullRequest(1371642823).listComments()).thenReturn(comments);
+                })
+                .when().payloadFromString(payload().replace("\"number\": 23", "\"number\": 24")
+                        .replace("\"comments\": 0", "\"comments\": 2"))
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> {
+                    verify(mocks.pullRequest(1371642823), never()).comment(anyString());
+                    verify(quoted, never()).update(anyString());
+                    verify(own).update("/cc @0979986727\n\n<!-- wildfly-bot:mentions -->");
+                });
+    }
+
+    private static GHIssueComment comment(long id, String login, String body) throws IOException {
+        GHUser user = Mockito.mock(GHUser.class);
+        when(user.getLogin()).thenReturn(login);
+        GHIssueComment comment = Mockito.mock(GHIssueComment.class);
+        when(comment.getId()).thenReturn(id);
+        when(comment.getUser()).thenReturn(user);
+        when(comment.getBody()).thenReturn(body);
+        return comment;
+    }
+
+    private static String payload() throws IOException {
+        try (InputStream payload = PRStickyCommentTest.class.getResourceAsStream("/pr-opened.json")) {
+            return new String(payload.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.xstefank.wildfly.bot;
+
+import io.quarkiverse.githubapp.testing.GitHubAppMockito;
+import io.quarkiverse.githubapp.testing.GitHubAppTest;
+import io.quarkus.test.junit.QuarkusTest;
+import io.xstefank.wildlfy.bot.TeamMembershipCache;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHEvent;
+import org.kohsuke.github.GHOrganization;
+import org.kohsuke.github.GHTeam;
+import org.kohsuke.github.GHUser;
+import org.kohsuke.github.PagedIterable;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+
+import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+@GitHubAppTest
+public class PRTeamMentionsTest {
+
+    private static final String CONFIG_FILE = """
+            wildfly:
+              rules:
+                - id: "Test"
+                  title: "Test"
+                  notify: [ "@wildfly/core", 7125767235 ]
+            """;
+
+    @Inject
+    TeamMembershipCache teamMembershipCache;
+
+    @Test
+    void testTeamMentionedUntilMembersKnown() throws IOException {
+        given().github(mocks -> {
+                    mocks.configFileFromString("wildfly-bot.yml", CONFIG_FILE);
+                    GHUser author = user("xstefank");
+                    GHUser member = user("0979986727");
+                    PagedIterable<GHUser> members = GitHubAppMockito.mockPagedIterable(author, member);
+                    GHTeam team = Mockito.mock(GHTeam.class);
+                    when(team.listMembers()).thenReturn(members);
+                    GHOrganization organization = Mockito.mock(GHOrganization.class);
+                    when(organization.getTeamBySlug("core")).thenReturn(team);
+                    when(mocks.installationClient(22950279).getOrganization("wildfly")).thenReturn(organization);
+                })
+                .when().payloadFromClasspath("/pr-opened.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> verify(mocks.pullRequest(1371642823))
+                        .comment("/cc @7125767235, @wildfly/core\n\n<!-- wildfly-bot:mentions -->"));
+
+        teamMembershipCache.refresh();
+
+        given().github(mocks -> mocks.configFileFromString("wildfly-bot.yml", CONFIG_FILE))
+                .when().payloadFromClasspath("/pr-opened.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> verify(mocks.pullRequest(1371642823))
+                        .comment("/cc @0979986727, @7125767235\n\n<!-- wildfly-bot:mentions -->"));
+    }
+
+    private static GHUser user(String login) {
+        GHUser user = Mockito.mock(GHUser.class);
+        when(user.getLogin()).thenReturn(login);
+        return user;
+    }
+}
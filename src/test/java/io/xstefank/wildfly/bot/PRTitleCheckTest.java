@@ -56,6 +56,27 @@ public class PRTitleCheckTest {
                 });
     }
 
+    @Test
+    void redeliveredStatusNotSentAgainTest() throws IOException {
+        // a configuration of its own, so no other test stored the same status before
+        String configFile = wildflyConfigFile.replace("Wrong content of the title!", "Redelivered title!");
+        GitHubAppTesting.given()
+                .github(mocks -> mocks.configFileFromString("wildfly-bot.yml", configFile))
+                .when().payloadFromClasspath("/pr-fail-checks.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> Mockito.verify(mocks.repository("xstefank/wildfly")).createCommitStatus(
+                        "860035425072e50c290561191e90edc90254f900", GHCommitState.ERROR, "",
+                        "\u274C title-check: Redelivered title!", "Format"));
+
+        GitHubAppTesting.given()
+                .github(mocks -> mocks.configFileFromString("wildfly-bot.yml", configFile))
+                .when().payloadFromClasspath("/pr-fail-checks.json")
+                .event(GHEvent.PULL_REQUEST)
+                .then().github(mocks -> Mockito.verify(mocks.repository("xstefank/wildfly"), Mockito.never()).createCommitStatus(
+                        Mockito.anyString(), Mockito.any(GHCommitState.class), Mockito.anyString(), Mockito.anyString(),
+                        Mockito.anyString()));
+    }
+
     @Test
     void correctTitleCheckSuccessTest() throws IOException {
         GitHubAppTesting.given()
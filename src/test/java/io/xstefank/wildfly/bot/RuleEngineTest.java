@@ -0,0 +1,148 @@
+package io.xstefank.wildfly.bot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile.WildFlyRule;
+import io.xstefank.wildlfy.bot.config.rules.RuleEngine;
+import io.xstefank.wildlfy.bot.fetch.PrefetchedPullRequestData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RuleEngineTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper(new YAMLFactory());
+
+    private final AtomicInteger changedFilesReads = new AtomicInteger();
+
+    @Test
+    void sharedPredicateEvaluatedOnceTest() throws IOException {
+        List<WildFlyRule> rules = rules("""
+                wildfly:
+                  rules:
+                    - id: "docs"
+                      directories: [docs]
+                    - id: "docs-or-title"
+                      title: "Docs"
+                      directories: [docs]
+                    - id: "docs-by-author"
+                      when:
+                        all:
+                          - author: "xstefank"
+                          - files: "docs"
+                """);
+        RuleEngine engine = RuleEngine.compile(rules);
+        RuleEngine.Evaluation evaluation = engine.evaluate(input("WFLY-123 Fix", List.of("docs/index.adoc"), "xstefank"));
+
+        for (WildFlyRule rule : rules) {
+            Assertions.assertTrue(evaluation.matches(rule), rule.id);
+        }
+        Assertions.assertEquals(1, changedFilesReads.get());
+        // the docs files node is shared by all three rules
+        Assertions.assertEquals(6, engine.getNodeCount());
+    }
+
+    @Test
+    void cheapestOperandDecidesFirstTest() throws IOException {
+        List<WildFlyRule> rules = rules("""
+                wildfly:
+                  rules:
+                    - id: "title-or-files"
+                      title: "WFLY"
+                      directories: [src]
+                    - id: "label-and-files"
+                      when:
+                        all:
+                          - files: "src"
+                          - label: "backport"
+                """);
+        RuleEngine engine = RuleEngine.compile(rules);
+        RuleEngine.Evaluation evaluation = engine.evaluate(input("WFLY-123 Fix", List.of("src/Main.java"), "xstefank"));
+
+        Assertions.assertTrue(evaluation.matches(rules.get(0)));
+        Assertions.assertFalse(evaluation.matches(rules.get(1)));
+        Assertions.assertEquals(0, changedFilesReads.get());
+    }
+
+    @Test
+    void expressionOperatorsTest() throws IOException {
+        List<WildFlyRule> rules = rules("""
+                wildfly:
+                  rules:
+                    - id: "docs-only"
+                      when:
+                        onlyFiles: "docs/*"
+                    - id: "small-not-docs"
+                      when:
+                        all:
+                          - fileCount: "1-2"
+                          - not:
+                              files: "docs"
+                    - id: "large"
+                      when:
+                        fileCount: "3+"
+                    - id: "author-or-label"
+                      when:
+                        any:
+                          - author: "octocat"
+                          - label: "Hibernate"
+                """);
+        RuleEngine engine = RuleEngine.compile(rules);
+
+        RuleEngine.Evaluation docs = engine.evaluate(input("Docs", List.of("docs/a.adoc", "docs/b.adoc"), "octocat"));
+        Assertions.assertTrue(docs.matches(rules.get(0)));
+        Assertions.assertFalse(docs.matches(rules.get(1)));
+        Assertions.assertFalse(docs.matches(rules.get(2)));
+        Assertions.assertTrue(docs.matches(rules.get(3)));
+
+        RuleEngine.Evaluation code = engine.evaluate(input("Fix", List.of("docs/a.adoc", "src/A.java"), "xstefank"));
+        Assertions.assertFalse(code.matches(rules.get(0)));
+        Assertions.assertFalse(code.matches(rules.get(1)));
+        Assertions.assertFalse(code.matches(rules.get(2)));
+        Assertions.assertTrue(code.matches(rules.get(3)));
+    }
+
+    @Test
+    void invalidExpressionNeverMatchesTest() throws IOException {
+        List<WildFlyRule> rules = rules("""
+                wildfly:
+                  rules:
+                    - id: "two-keys"
+                      when:
+                        title: "WFLY"
+                        author: "xstefank"
+                    - id: "bad-count"
+                      when:
+                        fileCount: "many"
+                    - id: "bad-pattern"
+                      title: "WFLY-("
+                """);
+        RuleEngine engine = RuleEngine.compile(rules);
+        RuleEngine.Evaluation evaluation = engine.evaluate(input("WFLY-123 Fix", List.of("src/Main.java"), "xstefank"));
+
+        for (WildFlyRule rule : rules) {
+            Assertions.assertFalse(evaluation.matches(rule), rule.id);
+        }
+        Assertions.assertFalse(engine.needsChangedFiles());
+    }
+
+    private List<WildFlyRule> rules(String yaml) throws IOException {
+        return MAPPER.readValue(yaml, WildFlyConfigFile.class).wildfly.rules;
+    }
+
+    private RuleEngine.RuleInput input(String title, List<String> changedFiles, String author) {
+        PrefetchedPullRequestData data = new PrefetchedPullRequestData(null, 23, title, "", "sha", 1, List.of(), changedFiles) {
+            @Override
+            public List<String> getChangedFiles() {
+                changedFilesReads.incrementAndGet();
+                return super.getChangedFiles();
+            }
+        };
+        return new RuleEngine.RuleInput(data, author, Set.of("hibernate"));
+    }
+}
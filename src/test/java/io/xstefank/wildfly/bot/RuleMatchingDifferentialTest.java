@@ -0,0 +1,637 @@
+package io.xstefank.wildfly.bot;
+
+import com.hrakaroo.glob.GlobPattern;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile.RuleExpression;
+import io.xstefank.wildlfy.bot.config.WildFlyConfigFile.WildFlyRule;
+import io.xstefank.wildlfy.bot.config.rules.RuleEngine;
+import io.xstefank.wildlfy.bot.config.util.Patterns;
+import io.xstefank.wildlfy.bot.config.util.Strings;
+import io.xstefank.wildlfy.bot.fetch.PrefetchedPullRequestData;
+import io.xstefank.wildlfy.bot.fetch.PullRequestData;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the {@link RuleEngine} with the straightforward {@link Matcher} and a direct interpreter of the rule
+ * expressions, see {@link DifferentialHarness}.
+ */
+public class RuleMatchingDifferentialTest {
+
+    private static final List<String> WORDS = List.of("WFLY", "Fix", "docs", "EJB", "jpa", "Hibernate", "upgrade", "test",
+            "Clustering", "WFLY-123", "[WFLY-42]", "logging", "Docs", "fix");
+    private static final List<String> PLAIN_WORDS = List.of("WFLY", "Fix", "docs", "EJB", "jpa", "Hibernate", "upgrade",
+            "test", "Clustering", "logging");
+    private static final List<String> DIRECTORIES = List.of("ejb3", "jpa", "docs", "testsuite", "clustering", "web");
+    private static final List<String> SUBDIRECTORIES = List.of("src", "main", "common", "integration", "java");
+    private static final List<String> FILES = List.of("A.java", "pom.xml", "index.adoc", "module.xml", "README.md");
+    private static final List<String> AUTHORS = List.of("xstefank", "octocat", "XStefank");
+    private static final List<String> LABELS = List.of("bug", "Hibernate", "hold", "hibernate");
+    private static final List<String> INVALID_REGEXES = List.of("[", "(", "WFLY)", "*WFLY", "[WFLY-\\d+", "\\", "a{2,1}");
+    // Unicode whitespace is blank for String#isBlank but not for Strings#isBlank, control characters the other way round
+    private static final List<String> UNUSUAL_BLANKS = List.of("\u2003", "\u00A0", " \u2003 ", "\u0007", "\t\u000B");
+
+    @Test
+    void engineMatchesMatcherTest() {
+        DifferentialHarness.check("RuleEngine vs Matcher", random -> generate(random, false),
+                RuleMatchingDifferentialTest::shrink, RuleMatchingDifferentialTest::disagreement);
+    }
+
+    @Test
+    void engineMatchesExpressionInterpreterTest() {
+        DifferentialHarness.check("RuleEngine vs expression interpreter", random -> generate(random, true),
+                RuleMatchingDifferentialTest::shrink, RuleMatchingDifferentialTest::disagreement);
+    }
+
+    private static String disagreement(RuleCase ruleCase) throws IOException {
+        PullRequestData data = new PrefetchedPullRequestData(null, 1, ruleCase.title, ruleCase.body, "sha", 1, List.of(),
+                ruleCase.files);
+        RuleEngine.RuleInput input = new RuleEngine.RuleInput(data, ruleCase.author, ruleCase.labels);
+        // a single evaluation for all rules, so shared predicates are answered from the earlier rules
+        RuleEngine.Evaluation evaluation = RuleEngine.compile(ruleCase.rules).evaluate(input);
+        for (WildFlyRule rule : ruleCase.rules) {
+            boolean expected = reference(rule, input);
+            boolean actual = evaluation.matches(rule);
+            if (expected != actual) {
+                return "rule " + rule.id + " expected " + expected + " but engine answered " + actual;
+            }
+        }
+        return null;
+    }
+
+    // reference implementations
+
+    /**
+     * The {@link Matcher} with the results the engine is meant to give where the matcher fails:
+     * <ul>
+     *     <li>{@link Patterns#find} throws {@link PatternSyntaxException} for an invalid regular expression, the engine
+     *     logs it and the pattern never matches. The reference leaves such patterns out.</li>
+     *     <li>A glob which does not compile never matches, as in the matcher.</li>
+     *     <li>A title or body is blank by {@link Strings#isBlank}, which trims control characters but not Unicode
+     *     whitespace like {@code U+2003}, unlike {@link String#isBlank}. A blank text never matches.</li>
+     * </ul>
+     */
+    private static boolean reference(WildFlyRule rule, RuleEngine.RuleInput input) throws IOException {
+        boolean legacy = Matcher.matches(input.data(), copy(rule, compilable(rule.title), compilable(rule.body),
+                compilable(rule.titleBody), rule.directories, rule.when));
+        if (rule.when == null) {
+            return legacy;
+        }
+        if (!valid(rule.when)) {
+            return false;
+        }
+        boolean when = reference(rule.when, input);
+        return hasLegacyFields(rule) ? legacy && when : when;
+    }
+
+    private static boolean reference(RuleExpression expression, RuleEngine.RuleInput input) throws IOException {
+        PullRequestData data = input.data();
+        if (expression.all != null) {
+            for (RuleExpression operand : expression.all) {
+                if (!reference(operand, input)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (expression.any != null) {
+            for (RuleExpression operand : expression.any) {
+                if (reference(operand, input)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (expression.not != null) {
+            return !reference(expression.not, input);
+        }
+        if (expression.title != null) {
+            return find(expression.title, data.getTitle());
+        }
+        if (expression.body != null) {
+            return find(expression.body, data.getBody());
+        }
+        if (expression.titleBody != null) {
+            return find(expression.titleBody, data.getTitle()) || find(expression.titleBody, data.getBody());
+        }
+        if (expression.files != null) {
+            return data.getChangedFiles().stream().anyMatch(file -> fileMatches(expression.files, file));
+        }
+        if (expression.onlyFiles != null) {
+            return !data.getChangedFiles().isEmpty()
+                    && data.getChangedFiles().stream().allMatch(file -> fileMatches(expression.onlyFiles, file));
+        }
+        if (expression.author != null) {
+            return expression.author.equalsIgnoreCase(input.author());
+        }
+        if (expression.label != null) {
+            return input.labels().stream().anyMatch(expression.label::equalsIgnoreCase);
+        }
+        int[] bounds = fileCountBounds(expression.fileCount);
+        int count = data.getChangedFiles().size();
+        return count >= bounds[0] && count <= bounds[1];
+    }
+
+    private static boolean find(String pattern, String text) {
+        return compilable(pattern) != null && Patterns.find(pattern, text);
+    }
+
+    /**
+     * @return the pattern, {@code null} if it is not a valid regular expression
+     */
+    private static String compilable(String pattern) {
+        if (pattern == null) {
+            return null;
+        }
+        try {
+            Pattern.compile(pattern);
+            return pattern;
+        } catch (PatternSyntaxException e) {
+            return null;
+        }
+    }
+
+    private static boolean fileMatches(String directory, String file) {
+        if (!directory.contains("*")) {
+            return file.startsWith(directory);
+        }
+        try {
+            return GlobPattern.compile(directory).matches(file);
+        } catch (RuntimeException e) {
+            // e.g. an unknown escape sequence
+            return false;
+        }
+    }
+
+    private static int[] fileCountBounds(String fileCount) {
+        String trimmed = fileCount.trim();
+        if (trimmed.endsWith("+")) {
+            return new int[]{Integer.parseInt(trimmed.substring(0, trimmed.length() - 1)), Integer.MAX_VALUE};
+        }
+        int dash = trimmed.indexOf('-');
+        if (dash > 0) {
+            return new int[]{Integer.parseInt(trimmed.substring(0, dash)), Integer.parseInt(trimmed.substring(dash + 1))};
+        }
+        int value = Integer.parseInt(trimmed);
+        return new int[]{value, value};
+    }
+
+    private static boolean valid(RuleExpression expression) {
+        int keys = 0;
+        for (Object key : keys(expression)) {
+            if (key != null) {
+                keys++;
+            }
+        }
+        if (keys != 1) {
+            return false;
+        }
+        if (expression.fileCount != null && !expression.fileCount.trim().matches("\\d+(-\\d+|\\+)?")) {
+            return false;
+        }
+        List<RuleExpression> operands = new ArrayList<>();
+        if (expression.all != null) {
+            operands.addAll(expression.all);
+        }
+        if (expression.any != null) {
+            operands.addAll(expression.any);
+        }
+        if (expression.not != null) {
+            operands.add(expression.not);
+        }
+        return operands.stream().allMatch(RuleMatchingDifferentialTest::valid);
+    }
+
+    private static List<Object> keys(RuleExpression expression) {
+        List<Object> keys = new ArrayList<>();
+        keys.add(expression.all);
+        keys.add(expression.any);
+        keys.add(expression.not);
+        keys.add(expression.title);
+        keys.add(expression.body);
+        keys.add(expression.titleBody);
+        keys.add(expression.files);
+        keys.add(expression.onlyFiles);
+        keys.add(expression.author);
+        keys.add(expression.label);
+        keys.add(expression.fileCount);
+        return keys;
+    }
+
+    private static boolean hasLegacyFields(WildFlyRule rule) {
+        return Strings.isNotBlank(rule.title) || Strings.isNotBlank(rule.body) || Strings.isNotBlank(rule.titleBody)
+                || !rule.directories.isEmpty();
+    }
+
+    // generators, patterns and directories are drawn from small pools, so the rules of a case share them
+
+    private static RuleCase generate(Random random, boolean expressions) {
+        List<String> regexPool = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            regexPool.add(regex(random));
+        }
+        List<String> pathPool = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            pathPool.add(path(random));
+        }
+        List<String> directoryPool = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            directoryPool.add(directory(random, pathPool));
+        }
+
+        List<WildFlyRule> rules = new ArrayList<>();
+        int ruleCount = 1 + random.nextInt(6);
+        for (int i = 0; i < ruleCount; i++) {
+            WildFlyRule rule = new WildFlyRule();
+            rule.id = "rule-" + i;
+            rule.title = random.nextInt(10) < 3 ? pick(random, regexPool) : null;
+            rule.body = random.nextInt(10) < 2 ? pick(random, regexPool) : null;
+            rule.titleBody = random.nextInt(10) < 2 ? pick(random, regexPool) : null;
+            if (random.nextBoolean()) {
+                int directories = random.nextInt(4);
+                for (int j = 0; j < directories; j++) {
+                    rule.directories.add(pick(random, directoryPool));
+                }
+            }
+            if (expressions && random.nextInt(10) < 7) {
+                rule.when = expression(random, 3, regexPool, directoryPool);
+            }
+            rules.add(rule);
+        }
+
+        List<String> files = new ArrayList<>();
+        int fileCount = random.nextInt(9);
+        for (int i = 0; i < fileCount; i++) {
+            String file = pick(random, pathPool);
+            if (!files.contains(file)) {
+                files.add(file);
+            }
+        }
+        Set<String> labels = new TreeSet<>();
+        for (String label : LABELS) {
+            if (random.nextInt(4) == 0) {
+                labels.add(label);
+            }
+        }
+        return new RuleCase(rules, text(random), text(random), files, pick(random, AUTHORS), labels);
+    }
+
+    private static RuleExpression expression(Random random, int depth, List<String> regexPool, List<String> directoryPool) {
+        RuleExpression expression = new RuleExpression();
+        int choice = depth == 0 ? 3 + random.nextInt(9) : random.nextInt(12);
+        switch (choice) {
+            case 0 -> expression.all = operands(random, depth, regexPool, directoryPool);
+            case 1 -> expression.any = operands(random, depth, regexPool, directoryPool);
+            case 2 -> expression.not = expression(random, depth - 1, regexPool, directoryPool);
+            case 3 -> expression.title = pick(random, regexPool);
+            case 4 -> expression.body = pick(random, regexPool);
+            case 5 -> expression.titleBody = pick(random, regexPool);
+            case 6 -> expression.files = pick(random, directoryPool);
+            case 7 -> expression.onlyFiles = pick(random, directoryPool);
+            case 8 -> expression.author = pick(random, AUTHORS);
+            case 9 -> expression.label = pick(random, LABELS);
+            default -> expression.fileCount = fileCount(random);
+        }
+        // a few expressions are invalid, they have a second key
+        if (random.nextInt(40) == 0) {
+            expression.label = pick(random, LABELS);
+        }
+        return expression;
+    }
+
+    private static List<RuleExpression> operands(Random random, int depth, List<String> regexPool, List<String> directoryPool) {
+        List<RuleExpression> operands = new ArrayList<>();
+        int count = 1 + random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            operands.add(expression(random, depth - 1, regexPool, directoryPool));
+        }
+        return operands;
+    }
+
+    private static String fileCount(Random random) {
+        int min = random.nextInt(5);
+        return switch (random.nextInt(5)) {
+            case 0 -> String.valueOf(min);
+            case 1 -> min + "-" + (min + random.nextInt(4));
+            case 2 -> min + "+";
+            case 3 -> " " + min + "+ ";
+            default -> random.nextInt(5) == 0 ? "many" : (min + 1) + "-" + min;
+        };
+    }
+
+    private static String regex(Random random) {
+        String word = pick(random, PLAIN_WORDS);
+        return switch (random.nextInt(12)) {
+            case 0 -> Pattern.quote(pick(random, WORDS));
+            case 1 -> "WFLY-\\d+";
+            case 2 -> "\\[WFLY-\\d+\\]";
+            case 3 -> "^" + word;
+            case 4 -> word + "|" + pick(random, PLAIN_WORDS);
+            case 5 -> ".*" + word + ".*";
+            case 6 -> "(?-i)" + word;
+            case 7 -> random.nextBoolean() ? "" : "  ";
+            case 8 -> pick(random, INVALID_REGEXES);
+            case 9 -> random.nextBoolean() ? "\\s" : pick(random, UNUSUAL_BLANKS);
+            default -> word;
+        };
+    }
+
+    private static String path(Random random) {
+        StringBuilder path = new StringBuilder(pick(random, DIRECTORIES));
+        int depth = random.nextInt(3);
+        for (int i = 0; i < depth; i++) {
+            path.append('/').append(pick(random, SUBDIRECTORIES));
+        }
+        return path.append('/').append(pick(random, FILES)).toString();
+    }
+
+    private static String directory(Random random, List<String> paths) {
+        String path = pick(random, paths);
+        String file = path.substring(path.lastIndexOf('/') + 1);
+        return switch (random.nextInt(8)) {
+            case 0 -> path.substring(0, 1 + random.nextInt(path.length()));
+            case 1 -> path.substring(0, path.indexOf('/') + 1);
+            case 2 -> path.substring(0, path.indexOf('/')) + "/*";
+            case 3 -> "*" + file.substring(file.indexOf('.'));
+            case 4 -> "*/" + pick(random, SUBDIRECTORIES) + "/*";
+            case 5 -> path.substring(0, path.indexOf('/')) + "/**/" + file;
+            // malformed globs, the library rejects unknown escapes and broken Unicode escapes
+            case 6 -> pick(random, List.of(path.substring(0, path.indexOf('/')) + "/\\q*", "*\\u12", "*[" + file, "*\\"));
+            default -> pick(random, DIRECTORIES) + "/";
+        };
+    }
+
+    private static String text(Random random) {
+        int choice = random.nextInt(10);
+        if (choice < 2) {
+            return null;
+        }
+        if (choice == 2) {
+            return switch (random.nextInt(3)) {
+                case 0 -> "";
+                case 1 -> "  ";
+                default -> pick(random, UNUSUAL_BLANKS);
+            };
+        }
+        int words = 1 + random.nextInt(5);
+        List<String> text = new ArrayList<>();
+        for (int i = 0; i < words; i++) {
+            text.add(pick(random, WORDS));
+        }
+        return String.join(random.nextInt(5) == 0 ? "\n" : " ", text);
+    }
+
+    private static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    // shrinking
+
+    private static List<RuleCase> shrink(RuleCase ruleCase) {
+        List<RuleCase> candidates = new ArrayList<>();
+        for (int i = 0; i < ruleCase.rules.size() && ruleCase.rules.size() > 1; i++) {
+            List<WildFlyRule> rules = new ArrayList<>(ruleCase.rules);
+            rules.remove(i);
+            candidates.add(ruleCase.withRules(rules));
+        }
+        for (int i = 0; i < ruleCase.files.size(); i++) {
+            List<String> files = new ArrayList<>(ruleCase.files);
+            files.remove(i);
+            candidates.add(new RuleCase(ruleCase.rules, ruleCase.title, ruleCase.body, files, ruleCase.author, ruleCase.labels));
+        }
+        if (ruleCase.title != null) {
+            candidates.add(new RuleCase(ruleCase.rules, null, ruleCase.body, ruleCase.files, ruleCase.author, ruleCase.labels));
+            if (ruleCase.title.contains(" ")) {
+                candidates.add(new RuleCase(ruleCase.rules, ruleCase.title.substring(0, ruleCase.title.lastIndexOf(' ')),
+                        ruleCase.body, ruleCase.files, ruleCase.author, ruleCase.labels));
+            }
+        }
+        if (ruleCase.body != null) {
+            candidates.add(new RuleCase(ruleCase.rules, ruleCase.title, null, ruleCase.files, ruleCase.author, ruleCase.labels));
+        }
+        if (!ruleCase.labels.isEmpty()) {
+            candidates.add(new RuleCase(ruleCase.rules, ruleCase.title, ruleCase.body, ruleCase.files, ruleCase.author, Set.of()));
+        }
+        for (int i = 0; i < ruleCase.rules.size(); i++) {
+            for (WildFlyRule smaller : shrink(ruleCase.rules.get(i))) {
+                List<WildFlyRule> rules = new ArrayList<>(ruleCase.rules);
+                rules.set(i, smaller);
+                candidates.add(ruleCase.withRules(rules));
+            }
+        }
+        return candidates;
+    }
+
+    private static List<WildFlyRule> shrink(WildFlyRule rule) {
+        List<WildFlyRule> candidates = new ArrayList<>();
+        if (rule.title != null) {
+            candidates.add(copy(rule, null, rule.body, rule.titleBody, rule.directories, rule.when));
+        }
+        if (rule.body != null) {
+            candidates.add(copy(rule, rule.title, null, rule.titleBody, rule.directories, rule.when));
+        }
+        if (rule.titleBody != null) {
+            candidates.add(copy(rule, rule.title, rule.body, null, rule.directories, rule.when));
+        }
+        for (String directory : rule.directories) {
+            Set<String> directories = new TreeSet<>(rule.directories);
+            directories.remove(directory);
+            candidates.add(copy(rule, rule.title, rule.body, rule.titleBody, directories, rule.when));
+        }
+        for (String title : shrink(rule.title)) {
+            candidates.add(copy(rule, title, rule.body, rule.titleBody, rule.directories, rule.when));
+        }
+        for (String body : shrink(rule.body)) {
+            candidates.add(copy(rule, rule.title, body, rule.titleBody, rule.directories, rule.when));
+        }
+        for (String titleBody : shrink(rule.titleBody)) {
+            candidates.add(copy(rule, rule.title, rule.body, titleBody, rule.directories, rule.when));
+        }
+        for (String directory : rule.directories) {
+            for (String shorter : shrink(directory)) {
+                Set<String> directories = new TreeSet<>(rule.directories);
+                directories.remove(directory);
+                directories.add(shorter);
+                candidates.add(copy(rule, rule.title, rule.body, rule.titleBody, directories, rule.when));
+            }
+        }
+        if (rule.when != null) {
+            candidates.add(copy(rule, rule.title, rule.body, rule.titleBody, rule.directories, null));
+            for (RuleExpression smaller : shrink(rule.when)) {
+                candidates.add(copy(rule, rule.title, rule.body, rule.titleBody, rule.directories, smaller));
+            }
+        }
+        return candidates;
+    }
+
+    private static List<RuleExpression> shrink(RuleExpression expression) {
+        List<RuleExpression> candidates = new ArrayList<>();
+        List<RuleExpression> operands = expression.all != null ? expression.all : expression.any;
+        if (operands != null) {
+            candidates.addAll(operands);
+            for (int i = 0; i < operands.size() && operands.size() > 1; i++) {
+                List<RuleExpression> fewer = new ArrayList<>(operands);
+                fewer.remove(i);
+                RuleExpression junction = copy(expression);
+                if (expression.all != null) {
+                    junction.all = fewer;
+                } else {
+                    junction.any = fewer;
+                }
+                candidates.add(junction);
+            }
+            for (int i = 0; i < operands.size(); i++) {
+                for (RuleExpression smaller : shrink(operands.get(i))) {
+                    List<RuleExpression> simpler = new ArrayList<>(operands);
+                    simpler.set(i, smaller);
+                    RuleExpression junction = copy(expression);
+                    if (expression.all != null) {
+                        junction.all = simpler;
+                    } else {
+                        junction.any = simpler;
+                    }
+                    candidates.add(junction);
+                }
+            }
+        }
+        if (expression.not != null) {
+            candidates.add(expression.not);
+            for (RuleExpression smaller : shrink(expression.not)) {
+                RuleExpression not = copy(expression);
+                not.not = smaller;
+                candidates.add(not);
+            }
+        }
+        for (String title : shrink(expression.title)) {
+            RuleExpression leaf = copy(expression);
+            leaf.title = title;
+            candidates.add(leaf);
+        }
+        for (String body : shrink(expression.body)) {
+            RuleExpression leaf = copy(expression);
+            leaf.body = body;
+            candidates.add(leaf);
+        }
+        for (String titleBody : shrink(expression.titleBody)) {
+            RuleExpression leaf = copy(expression);
+            leaf.titleBody = titleBody;
+            candidates.add(leaf);
+        }
+        for (String files : shrink(expression.files)) {
+            RuleExpression leaf = copy(expression);
+            leaf.files = files;
+            candidates.add(leaf);
+        }
+        for (String onlyFiles : shrink(expression.onlyFiles)) {
+            RuleExpression leaf = copy(expression);
+            leaf.onlyFiles = onlyFiles;
+            candidates.add(leaf);
+        }
+        return candidates;
+    }
+
+    /**
+     * @return shorter variants of a pattern, its halves first and then the pattern without one of its characters
+     */
+    private static List<String> shrink(String pattern) {
+        List<String> candidates = new ArrayList<>();
+        if (pattern == null || pattern.length() < 2) {
+            return candidates;
+        }
+        candidates.add(pattern.substring(0, pattern.length() / 2));
+        candidates.add(pattern.substring(pattern.length() / 2));
+        for (int i = 0; i < pattern.length(); i++) {
+            String shorter = pattern.substring(0, i) + pattern.substring(i + 1);
+            if (!candidates.contains(shorter)) {
+                candidates.add(shorter);
+            }
+        }
+        return candidates;
+    }
+
+    private static WildFlyRule copy(WildFlyRule rule, String title, String body, String titleBody, Set<String> directories,
+                                    RuleExpression when) {
+        WildFlyRule copy = new WildFlyRule();
+        copy.id = rule.id;
+        copy.title = title;
+        copy.body = body;
+        copy.titleBody = titleBody;
+        copy.directories = new TreeSet<>(directories);
+        copy.when = when;
+        return copy;
+    }
+
+    private static RuleExpression copy(RuleExpression expression) {
+        RuleExpression copy = new RuleExpression();
+        copy.all = expression.all;
+        copy.any = expression.any;
+        copy.not = expression.not;
+        copy.title = expression.title;
+        copy.body = expression.body;
+        copy.titleBody = expression.titleBody;
+        copy.files = expression.files;
+        copy.onlyFiles = expression.onlyFiles;
+        copy.author = expression.author;
+        copy.label = expression.label;
+        copy.fileCount = expression.fileCount;
+        return copy;
+    }
+
+    private static String describe(WildFlyRule rule) {
+        return "{id=" + rule.id + ", title=" + rule.title + ", body=" + rule.body + ", titleBody=" + rule.titleBody
+                + ", directories=" + rule.directories + (rule.when == null ? "" : ", when=" + describe(rule.when)) + "}";
+    }
+
+    private static String describe(RuleExpression expression) {
+        List<String> keys = new ArrayList<>();
+        if (expression.all != null) {
+            keys.add("all" + expression.all.stream().map(RuleMatchingDifferentialTest::describe).toList());
+        }
+        if (expression.any != null) {
+            keys.add("any" + expression.any.stream().map(RuleMatchingDifferentialTest::describe).toList());
+        }
+        if (expression.not != null) {
+            keys.add("not(" + describe(expression.not) + ")");
+        }
+        List<String> names = List.of("title", "body", "titleBody", "files", "onlyFiles", "author", "label", "fileCount");
+        List<String> values = new ArrayList<>();
+        values.add(expression.title);
+        values.add(expression.body);
+        values.add(expression.titleBody);
+        values.add(expression.files);
+        values.add(expression.onlyFiles);
+        values.add(expression.author);
+        values.add(expression.label);
+        values.add(expression.fileCount);
+        for (int i = 0; i < names.size(); i++) {
+            if (values.get(i) != null) {
+                keys.add(names.get(i) + "='" + values.get(i) + "'");
+            }
+        }
+        return String.join(" & ", keys);
+    }
+
+    private record RuleCase(List<WildFlyRule> rules, String title, String body, List<String> files, String author,
+                            Set<String> labels) {
+
+        private RuleCase withRules(List<WildFlyRule> rules) {
+            return new RuleCase(rules, title, body, files, author, labels);
+        }
+
+        @Override
+        public String toString() {
+            return "title='" + title + "', body='" + body + "', files=" + files + ", author=" + author + ", labels=" + labels
+                    + ", rules=" + rules.stream().map(RuleMatchingDifferentialTest::describe)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+    }
+}
@@ -30,7 +30,7 @@ public class RuleMissingIdTest {
         .event(GHEvent.PULL_REQUEST)
         .then().github(mocks -> {
             verify(mocks.pullRequest(1371642823), never())
-                            .comment("/cc @7125767235");
+                            .comment("/cc @7125767235\n\n<!-- wildfly-bot:mentions -->");
             GHRepository repo = mocks.repository("xstefank/wildfly");
             Mockito.verify(repo).createCommitStatus("5db0f8e923d84fe05a60658ed5bb95f7aa23b66f",
                         GHCommitState.SUCCESS, "", "\u2705 Correct", "Format");
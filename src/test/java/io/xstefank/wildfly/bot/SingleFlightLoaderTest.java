@@ -0,0 +1,153 @@
+package io.xstefank.wildfly.bot;
+
+import io.xstefank.wildlfy.bot.config.util.SingleFlightLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightLoaderTest {
+
+    private static final String REPOSITORY = "xstefank/wildfly";
+
+    private final SingleFlightLoader<String, String> loader = new SingleFlightLoader<>(Duration.ofMinutes(1), Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void concurrentCallersShareOneLoadTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8, task -> {
+            Thread thread = new Thread(task);
+            threads.add(thread);
+            return thread;
+        });
+        try {
+            Future<String> first = executor.submit(() -> loader.load(REPOSITORY, () -> {
+                loads.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "config";
+            }));
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> waiting = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                waiting.add(executor.submit(() -> loader.load(REPOSITORY, () -> "config " + loads.incrementAndGet())));
+            }
+            // all callers are parked, the first on the latch and the others on the load in flight
+            while (threads.size() < 8 || threads.stream().anyMatch(thread -> thread.getState() != Thread.State.WAITING)) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            Assertions.assertEquals("config", first.get(5, TimeUnit.SECONDS));
+            for (Future<String> future : waiting) {
+                Assertions.assertEquals("config", future.get(5, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(1, loads.get());
+            Assertions.assertEquals(0, loader.getInFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void loadedValueKeptUntilInvalidatedTest() throws IOException {
+        loader.load(REPOSITORY, () -> "config " + loads.incrementAndGet());
+
+        Assertions.assertEquals("config 1", loader.load(REPOSITORY, () -> "config " + loads.incrementAndGet()));
+        Assertions.assertEquals(1, loader.getResultCount());
+
+        loader.invalidate(REPOSITORY);
+        Assertions.assertEquals("config 2", loader.load(REPOSITORY, () -> "config " + loads.incrementAndGet()));
+    }
+
+    @Test
+    void loadedValueExpiresTest() throws Exception {
+        SingleFlightLoader<String, String> shortLived = new SingleFlightLoader<>(Duration.ofMillis(50), Duration.ofMinutes(1));
+        shortLived.load(REPOSITORY, () -> "config " + loads.incrementAndGet());
+        Assertions.assertEquals("config 1", shortLived.load(REPOSITORY, () -> "config " + loads.incrementAndGet()));
+
+        Thread.sleep(100);
+        Assertions.assertEquals("config 2", shortLived.load(REPOSITORY, () -> "config " + loads.incrementAndGet()));
+    }
+
+    @Test
+    void loadInvalidatedWhileInFlightNotKeptTest() throws IOException {
+        Assertions.assertEquals("config 1", loader.load(REPOSITORY, () -> {
+            // a push changed the file while the old content was being read
+            loader.invalidate(REPOSITORY);
+            return "config " + loads.incrementAndGet();
+        }));
+
+        Assertions.assertEquals("config 2", loader.load(REPOSITORY, () -> "config " + loads.incrementAndGet()));
+    }
+
+    @Test
+    void invalidationOfOtherKeyKeepsLoadTest() throws IOException {
+        Assertions.assertEquals("config 1", loader.load(REPOSITORY, () -> {
+            loader.invalidate("xstefank/other");
+            return "config " + loads.incrementAndGet();
+        }));
+
+        Assertions.assertEquals("config 1", loader.load(REPOSITORY, () -> "config " + loads.incrementAndGet()));
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    void missingValueRememberedTest() throws IOException {
+        Assertions.assertNull(loader.load(REPOSITORY, () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+
+        Assertions.assertNull(loader.load(REPOSITORY, () -> "config " + loads.incrementAndGet()));
+        Assertions.assertEquals(1, loads.get());
+
+        loader.invalidate(REPOSITORY);
+        Assertions.assertEquals("config 2", loader.load(REPOSITORY, () -> "config " + loads.incrementAndGet()));
+    }
+
+    @Test
+    void failureRememberedTest() {
+        IOException failure = Assertions.assertThrows(IOException.class, () -> loader.load(REPOSITORY, () -> {
+            loads.incrementAndGet();
+            throw new IOException("Bad Gateway");
+        }));
+
+        Assertions.assertSame(failure, Assertions.assertThrows(IOException.class,
+                () -> loader.load(REPOSITORY, () -> "config " + loads.incrementAndGet())));
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    void failureForgottenWithoutTtlTest() throws IOException {
+        SingleFlightLoader<String, String> uncached = new SingleFlightLoader<>(Duration.ZERO, Duration.ZERO);
+        Assertions.assertThrows(IOException.class, () -> uncached.load(REPOSITORY, () -> {
+            throw new IOException("Bad Gateway");
+        }));
+        Assertions.assertNull(uncached.load(REPOSITORY, () -> null));
+
+        Assertions.assertEquals("config", uncached.load(REPOSITORY, () -> "config"));
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedIOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.xstefank.wildfly.bot;
+
+import io.xstefank.wildlfy.bot.ordering.StripedExecutor;
+import io.xstefank.wildlfy.bot.resilience.GitHubUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class StripedExecutorTest {
+
+    private static final String PULL_REQUEST = "xstefank/wildfly#23";
+    private static final String OTHER_PULL_REQUEST = "xstefank/wildfly#24";
+
+    private final StripedExecutor stripedExecutor = new StripedExecutor(16, Duration.ofMinutes(1));
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        stripedExecutor.close();
+    }
+
+    @Test
+    void tasksOfSameKeyRunInOrderTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> first = callers.submit(() -> stripedExecutor.call(PULL_REQUEST, () -> {
+            started.countDown();
+            await(release);
+            events.add("opened");
+            return null;
+        }));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Future<?> second = callers.submit(() -> stripedExecutor.call(PULL_REQUEST, () -> events.add("edited")));
+        waitForQueued(1);
+        Assertions.assertTrue(events.isEmpty());
+        release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(List.of("opened", "edited"), events);
+    }
+
+    @Test
+    void tasksOfDifferentKeysRunInParallelTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocked = callers.submit(() -> stripedExecutor.call(PULL_REQUEST, () -> {
+            await(release);
+            return null;
+        }));
+
+        Assertions.assertEquals("other", stripedExecutor.call(OTHER_PULL_REQUEST, () -> "other"));
+        Assertions.assertFalse(blocked.isDone());
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void failureReturnedToCallerTest() throws IOException {
+        IOException failure = Assertions.assertThrows(IOException.class, () -> stripedExecutor.call(PULL_REQUEST, () -> {
+            throw new IOException("Unprocessable Entity");
+        }));
+
+        Assertions.assertEquals("Unprocessable Entity", failure.getMessage());
+        Assertions.assertEquals("next", stripedExecutor.call(PULL_REQUEST, () -> "next"));
+    }
+
+    @Test
+    void callerGivesUpAfterTimeoutTest() throws Exception {
+        try (StripedExecutor impatient = new StripedExecutor(16, Duration.ofMillis(100))) {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            callers.submit(() -> impatient.call(PULL_REQUEST, () -> {
+                started.countDown();
+                await(release);
+                events.add("opened");
+                return null;
+            }));
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Assertions.assertThrows(GitHubUnavailableException.class, () -> impatient.call(PULL_REQUEST, () -> events.add("edited")));
+            release.countDown();
+
+            // the running task finishes, the abandoned one is skipped and the next one runs after them
+            Assertions.assertEquals("next", impatient.call(PULL_REQUEST, () -> "next"));
+            Assertions.assertEquals(List.of("opened"), events);
+        }
+    }
+
+    @Test
+    void directExecutorRunsOnCallerTest() throws IOException {
+        Thread caller = Thread.currentThread();
+
+        Assertions.assertSame(caller, StripedExecutor.direct().call(PULL_REQUEST, Thread::currentThread));
+    }
+
+    private void waitForQueued(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stripedExecutor.getQueuedCount() < count) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Task not queued in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedIOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+}
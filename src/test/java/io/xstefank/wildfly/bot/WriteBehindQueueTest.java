@@ -0,0 +1,120 @@
+package io.xstefank.wildfly.bot;
+
+import io.xstefank.wildlfy.bot.resilience.GitHubUnavailableException;
+import io.xstefank.wildlfy.bot.write.WriteBehindQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WriteBehindQueueTest {
+
+    private static final String PULL_REQUEST = "pr/xstefank/wildfly#23/";
+
+    private final WriteBehindQueue queue = new WriteBehindQueue(2, Duration.ofMillis(10), 3);
+    private final List<String> written = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void tearDown() {
+        queue.close();
+    }
+
+    @Test
+    void writesOfPullRequestSentInOrderTest() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        queue.submit(PULL_REQUEST, "status abc Format", () -> written.add("status"));
+        queue.submit(PULL_REQUEST, "comment", () -> written.add("comment"));
+        queue.submit(PULL_REQUEST, "labels hibernate", () -> {
+            written.add("labels");
+            done.countDown();
+        });
+
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of("status", "comment", "labels"), written);
+    }
+
+    @Test
+    void waitingWriteReplacedByNewerTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        queue.submit(PULL_REQUEST, "comment", () -> {
+            started.countDown();
+            await(release);
+            written.add("first comment");
+        });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        queue.submit(PULL_REQUEST, "status abc Format", () -> written.add("ERROR"));
+        queue.submit(PULL_REQUEST, "status def Format", () -> written.add("other commit"));
+        queue.submit(PULL_REQUEST, "status abc Format", () -> written.add("SUCCESS"));
+        queue.submit(PULL_REQUEST, "comment", () -> {
+            written.add("last comment");
+            done.countDown();
+        });
+        release.countDown();
+
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of("first comment", "other commit", "SUCCESS", "last comment"), written);
+    }
+
+    @Test
+    void unavailableWriteRetriedTest() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        queue.submit(PULL_REQUEST, "status abc Format", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new GitHubUnavailableException("Bad Gateway");
+            }
+            written.add("status");
+        });
+        queue.submit(PULL_REQUEST, "comment", () -> {
+            written.add("comment");
+            done.countDown();
+        });
+
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(3, attempts.get());
+        Assertions.assertEquals(List.of("status", "comment"), written);
+        Assertions.assertEquals(0, queue.getPendingCount());
+    }
+
+    @Test
+    void failingWriteDroppedTest() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        queue.submit(PULL_REQUEST, "status abc Format", () -> {
+            throw new IOException("Unprocessable Entity");
+        });
+        queue.submit(PULL_REQUEST, "comment", () -> {
+            written.add("comment");
+            done.countDown();
+        });
+
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of("comment"), written);
+    }
+
+    @Test
+    void directQueueWritesInlineTest() {
+        Assertions.assertThrows(GitHubUnavailableException.class, () -> WriteBehindQueue.direct().submit(PULL_REQUEST, "comment", () -> {
+            throw new GitHubUnavailableException("Bad Gateway");
+        }));
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedIOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+}